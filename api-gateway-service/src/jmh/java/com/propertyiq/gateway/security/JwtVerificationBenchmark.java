@@ -0,0 +1,115 @@
+package com.propertyiq.gateway.security;
+
+import com.nimbusds.jwt.SignedJWT;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous verification path (nimbus parse for the kid, a fresh jjwt parser per
+ * call, boundedElastic hop) with the inline {@link JwtVerifier} path.
+ *
+ * <p>Sample mode reports p50/p99; add {@code -prof gc} for allocations per operation:
+ * {@code ./gradlew :api-gateway-service:jmh -PjmhArgs='JwtVerificationBenchmark -prof gc'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String KID = "benchmark-kid";
+
+    @Param({"RS256", "ES256"})
+    private String algorithm;
+
+    private String token;
+    private PublicKey publicKey;
+    private JwtVerifier jwtVerifier;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPairGenerator keyGen;
+        if ("ES256".equals(algorithm)) {
+            keyGen = KeyPairGenerator.getInstance("EC");
+            keyGen.initialize(256);
+        } else {
+            keyGen = KeyPairGenerator.getInstance("RSA");
+            keyGen.initialize(2048);
+        }
+        KeyPair keyPair = keyGen.generateKeyPair();
+        publicKey = keyPair.getPublic();
+
+        token = Jwts.builder()
+                .header().keyId(KID).and()
+                .subject("550e8400-e29b-41d4-a716-446655440000")
+                .claims(Map.of(
+                        "email", "user@example.com",
+                        "role", "authenticated",
+                        "user_metadata", Map.of("role", "LANDLORD"),
+                        "aud", "authenticated"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        jwtVerifier = new JwtVerifier();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Schedulers.shutdownNow();
+    }
+
+    @Benchmark
+    public UserInfo legacyParserPerCall() throws Exception {
+        SignedJWT.parse(token).getHeader().getKeyID();
+        return verifyWithJjwt();
+    }
+
+    @Benchmark
+    public UserInfo legacyParserPerCallWithSchedulerHop() throws Exception {
+        SignedJWT.parse(token).getHeader().getKeyID();
+        return Mono.fromCallable(this::verifyWithJjwt)
+                .subscribeOn(Schedulers.boundedElastic())
+                .block();
+    }
+
+    @Benchmark
+    public UserInfo inlineVerifier() throws Exception {
+        SignedJWT jwt = SignedJWT.parse(token);
+        return jwtVerifier.verify(jwt, jwt.getHeader().getKeyID(), publicKey).userInfo();
+    }
+
+    private UserInfo verifyWithJjwt() {
+        Claims claims = Jwts.parser()
+                .verifyWith(publicKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return new UserInfo(claims.getSubject(), claims.get("email", String.class), claims.get("role", String.class));
+    }
+}
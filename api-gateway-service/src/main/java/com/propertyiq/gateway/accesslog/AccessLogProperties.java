@@ -0,0 +1,21 @@
+package com.propertyiq.gateway.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of 2xx responses that are logged; every other status is always logged.
+     */
+    private double successSampleRate = 1.0;
+
+    /**
+     * Records waiting to be written. Rounded up to a power of two; when full, new records are dropped.
+     */
+    private int bufferSize = 8192;
+}
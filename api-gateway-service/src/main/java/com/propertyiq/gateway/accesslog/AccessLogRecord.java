@@ -0,0 +1,17 @@
+package com.propertyiq.gateway.accesslog;
+
+/**
+ * One access-log line. {@code routeId} and {@code userId} are {@code null} when the request
+ * matched no route or was not authenticated.
+ */
+public record AccessLogRecord(
+        long timestampMillis,
+        String correlationId,
+        String method,
+        String path,
+        String routeId,
+        int status,
+        long latencyMicros,
+        long bytes,
+        String userId) {
+}
@@ -0,0 +1,117 @@
+package com.propertyiq.gateway.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hands access-log records from the event loop to a background thread, which formats them and
+ * writes them to the {@code gateway.access} logger. Request threads only pay for a ring-buffer
+ * offer; when the writer falls behind, records are dropped and counted rather than slowing requests.
+ */
+@Component
+public class AccessLogWriter {
+
+    public static final String LOGGER_NAME = "gateway.access";
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MpscRingBuffer<AccessLogRecord> buffer;
+    private final Consumer<AccessLogRecord> sink;
+    private final Counter droppedCounter;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, AccessLogWriter::write);
+    }
+
+    AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry, Consumer<AccessLogRecord> sink) {
+        this.buffer = new MpscRingBuffer<>(properties.getBufferSize());
+        this.sink = sink;
+        this.droppedCounter = Counter.builder("gateway.access-log.dropped")
+                .description("Access-log records dropped because the write buffer was full")
+                .register(meterRegistry);
+        this.writerThread = new Thread(this::drainLoop, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("AccessLogWriter initialized with buffer size: {}", buffer.capacity());
+    }
+
+    public void append(AccessLogRecord record) {
+        if (!buffer.offer(record)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (!drain()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    private boolean drain() {
+        boolean drained = false;
+        AccessLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            drained = true;
+            try {
+                sink.accept(record);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write access-log record: {}", e.getMessage());
+            }
+        }
+        return drained;
+    }
+
+    private static void write(AccessLogRecord record) {
+        if (accessLogger.isInfoEnabled()) {
+            accessLogger.info(format(record));
+        }
+    }
+
+    static String format(AccessLogRecord record) {
+        return new StringBuilder(192)
+                .append("ts=").append(Instant.ofEpochMilli(record.timestampMillis()))
+                .append(" correlation_id=").append(record.correlationId())
+                .append(" method=").append(record.method())
+                .append(" path=").append(record.path())
+                .append(" route=").append(orDash(record.routeId()))
+                .append(" status=").append(record.status())
+                .append(" latency_ms=").append(record.latencyMicros() / 1000).append('.')
+                .append(record.latencyMicros() % 1000 / 100)
+                .append(" bytes=").append(record.bytes())
+                .append(" user=").append(orDash(record.userId()))
+                .toString();
+    }
+
+    private static String orDash(String value) {
+        return value != null ? value : "-";
+    }
+}
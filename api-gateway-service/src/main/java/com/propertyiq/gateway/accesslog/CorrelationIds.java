@@ -0,0 +1,26 @@
+package com.propertyiq.gateway.accesslog;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 16-hex-character correlation ids from {@link ThreadLocalRandom}. They only need to be unique
+ * enough to tie log lines together, so there is no reason to pay for {@code UUID.randomUUID()}'s
+ * shared {@code SecureRandom}.
+ */
+public final class CorrelationIds {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private CorrelationIds() {
+    }
+
+    public static String next() {
+        long value = ThreadLocalRandom.current().nextLong();
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,8 @@
+package com.propertyiq.gateway.cache;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A cached 200 response body for one user, path and query.
+ */
+public record CachedResponse(byte[] body, MediaType contentType, String etag, long generation, long expiresAtNanos) {}
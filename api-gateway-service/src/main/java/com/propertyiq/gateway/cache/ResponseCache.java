@@ -0,0 +1,179 @@
+package com.propertyiq.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store for {@link CachedResponse}s, grouped into scopes (route + user). Writing to a
+ * scope bumps its generation, which makes every entry stored under an older generation a miss,
+ * including entries from GETs that were still in flight when the write happened.
+ *
+ * <p>Invalidations are announced on a Redis pub/sub channel so the other gateway instances drop
+ * their copies too. Redis errors never fail a request; an instance that misses an announcement
+ * while Redis is unreachable serves its copy until the route's ttl runs out.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+    private static final String METRIC_NAME = "gateway.response-cache";
+    private static final Duration PUBLISH_TIMEOUT = Duration.ofMillis(250);
+
+    private final Cache<String, CachedResponse> responses;
+    private final Cache<String, Long> generations;
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final ResponseCacheProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile Disposable invalidationSubscription;
+
+    /**
+     * A cache that keeps invalidations to this instance; so does passing a null template below.
+     */
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, null);
+    }
+
+    @Autowired
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry,
+                         ReactiveStringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new UntilResponseExpiry())
+                .recordStats()
+                .build();
+        // Generations are drawn from one increasing sequence, so a scope whose generation was
+        // evicted comes back with a newer one rather than reviving stale entries
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, METRIC_NAME);
+        logger.info("ResponseCache initialized with maximum size: {}", properties.getMaximumSize());
+    }
+
+    public static String scope(String routeId, String userId) {
+        return routeId + ":" + userId;
+    }
+
+    public static String key(String scope, String pathAndQuery) {
+        return scope + " " + pathAndQuery;
+    }
+
+    public long currentGeneration(String scope) {
+        return generations.get(scope, s -> generationSequence.incrementAndGet());
+    }
+
+    public CachedResponse get(String scope, String key) {
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.generation() != currentGeneration(scope)) {
+            responses.invalidate(key);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String scope, String key, CachedResponse response) {
+        if (response.generation() == currentGeneration(scope)) {
+            responses.put(key, response);
+        }
+    }
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        if (redisTemplate == null) {
+            return;
+        }
+        invalidationSubscription = redisTemplate.listenToChannel(properties.getInvalidationChannel())
+                .doOnError(e -> logger.warn("Response cache invalidation channel lost, resubscribing: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> onInvalidation(message.getMessage()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Disposable subscription = invalidationSubscription;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Drops the scope's entries here and announces it to the other instances.
+     */
+    public void invalidate(String scope) {
+        invalidateLocally(scope);
+        if (redisTemplate == null) {
+            return;
+        }
+        redisTemplate.convertAndSend(properties.getInvalidationChannel(), instanceId + " " + scope)
+                .timeout(PUBLISH_TIMEOUT)
+                .subscribe(receivers -> { }, e -> logger.warn(
+                        "Could not announce response cache invalidation for {}: {}", scope, e.getMessage()));
+    }
+
+    private void invalidateLocally(String scope) {
+        generations.put(scope, generationSequence.incrementAndGet());
+        logger.debug("Invalidated cached responses for {}", scope);
+    }
+
+    private void onInvalidation(String message) {
+        String[] parts = message.split(" ", 2);
+        if (parts.length < 2) {
+            logger.warn("Ignoring malformed response cache invalidation: {}", message);
+        } else if (!parts[0].equals(instanceId)) {
+            invalidateLocally(parts[1]);
+        }
+    }
+
+    public static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class UntilResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return Math.max(0, value.expiresAtNanos() - System.nanoTime());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
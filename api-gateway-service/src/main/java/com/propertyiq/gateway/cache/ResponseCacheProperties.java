@@ -0,0 +1,46 @@
+package com.propertyiq.gateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    /**
+     * Responses larger than this are passed through without being cached.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(512);
+
+    /**
+     * Redis pub/sub channel on which gateway instances announce invalidations to each other.
+     */
+    private String invalidationChannel = "gateway:response-cache:invalidations";
+
+    /**
+     * Routes that opt in to caching, by route id. Routes not listed here are never cached.
+     */
+    private Map<String, RouteCache> routes = new HashMap<>();
+
+    @Data
+    public static class RouteCache {
+
+        private Duration ttl = Duration.ofSeconds(60);
+
+        /**
+         * Path patterns whose GET responses are cached; empty means every GET on the route.
+         */
+        private List<String> paths = new ArrayList<>();
+    }
+}
@@ -1,64 +1,127 @@
 package com.propertyiq.gateway.config;
 
+import com.propertyiq.gateway.accesslog.AccessLogProperties;
+import com.propertyiq.gateway.cache.ResponseCacheProperties;
+import com.propertyiq.gateway.filter.CircuitBreakerFilter;
 import com.propertyiq.gateway.filter.JwtAuthenticationFilter;
+import com.propertyiq.gateway.filter.RateLimitFilter;
+import com.propertyiq.gateway.filter.ResponseCacheFilter;
+import com.propertyiq.gateway.filter.RetryBudgetFilter;
+import com.propertyiq.gateway.metrics.GatewayMetricsProperties;
+import com.propertyiq.gateway.ratelimit.RateLimitProperties;
+import com.propertyiq.gateway.resilience.ResilienceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+
 @Configuration
+@EnableConfigurationProperties({AccessLogProperties.class, GatewayMetricsProperties.class, RateLimitProperties.class,
+        ResponseCacheProperties.class, ResilienceProperties.class})
 public class GatewayConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ResponseCacheFilter responseCacheFilter;
+    private final CircuitBreakerFilter circuitBreakerFilter;
+    private final RetryBudgetFilter retryBudgetFilter;
+    private final ResilienceProperties resilienceProperties;
 
-    public GatewayConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public GatewayConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                         RateLimitFilter rateLimitFilter,
+                         ResponseCacheFilter responseCacheFilter,
+                         CircuitBreakerFilter circuitBreakerFilter,
+                         RetryBudgetFilter retryBudgetFilter,
+                         ResilienceProperties resilienceProperties) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.responseCacheFilter = responseCacheFilter;
+        this.circuitBreakerFilter = circuitBreakerFilter;
+        this.retryBudgetFilter = retryBudgetFilter;
+        this.resilienceProperties = resilienceProperties;
     }
 
+    // lb://<service> is resolved against the services.* block by UpstreamLoadBalancerFilter
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
                 // Auth Service Routes - public endpoints (no JWT required)
                 .route("auth-service-public", r -> r
                         .path("/api/auth/signup", "/api/auth/login", "/api/auth/refresh")
-                        .uri("http://localhost:8081"))
+                        .filters(this::resilient)
+                        .metadata(timeouts("auth-service-public"))
+                        .uri("lb://auth"))
                 
                 // Auth Service Routes - protected endpoints (JWT required)
                 .route("auth-service-protected", r -> r
                         .path("/api/auth/**", "/api/users/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8081"))
+                        .filters(this::authenticated)
+                        .metadata(timeouts("auth-service-protected"))
+                        .uri("lb://auth"))
                 
                 // Portfolio Service Routes (JWT required)
                 .route("portfolio-service", r -> r
                         .path("/api/properties/**", "/api/portfolio/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8082"))
+                        .filters(this::authenticated)
+                        .metadata(timeouts("portfolio-service"))
+                        .uri("lb://portfolio"))
                 
                 // Expense Service Routes (JWT required)
                 .route("expense-service", r -> r
                         .path("/api/expenses/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8083"))
+                        .filters(this::authenticated)
+                        .metadata(timeouts("expense-service"))
+                        .uri("lb://expense"))
                 
                 // Analytics Service Routes (JWT required)
                 .route("analytics-service", r -> r
                         .path("/api/analytics/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8084"))
+                        .filters(this::authenticated)
+                        .metadata(timeouts("analytics-service"))
+                        .uri("lb://analytics"))
                 
                 // Reporting Service Routes (JWT required)
                 .route("reporting-service", r -> r
                         .path("/api/reports/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8085"))
+                        .filters(this::authenticated)
+                        .metadata(timeouts("reporting-service"))
+                        .uri("lb://reporting"))
                 
                 // Notification Service Routes (JWT required)
                 .route("notification-service", r -> r
                         .path("/api/notifications/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8086"))
+                        .filters(this::authenticated)
+                        .metadata(timeouts("notification-service"))
+                        .uri("lb://notification"))
                 
                 .build();
     }
+
+    // Filters carry explicit orders (JWT, rate limit, response cache, circuit breaker, retry);
+    // the cache only applies to routes listed under gateway.response-cache.routes
+    private GatewayFilterSpec authenticated(GatewayFilterSpec f) {
+        return resilient(f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config()))
+                .filter(rateLimitFilter.apply(new RateLimitFilter.Config()))
+                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config())));
+    }
+
+    private GatewayFilterSpec resilient(GatewayFilterSpec f) {
+        return f.filter(circuitBreakerFilter.apply(new CircuitBreakerFilter.Config()))
+                .filter(retryBudgetFilter.apply(new RetryBudgetFilter.Config()));
+    }
+
+    // Read by NettyRoutingFilter; values are in milliseconds
+    private Map<String, Object> timeouts(String routeId) {
+        ResilienceProperties.RouteResilience settings = resilienceProperties.forRoute(routeId);
+        return Map.of(
+                CONNECT_TIMEOUT_ATTR, (int) settings.getConnectTimeout().toMillis(),
+                RESPONSE_TIMEOUT_ATTR, settings.getResponseTimeout().toMillis());
+    }
 }
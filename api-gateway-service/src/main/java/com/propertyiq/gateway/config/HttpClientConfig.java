@@ -0,0 +1,51 @@
+package com.propertyiq.gateway.config;
+
+import com.propertyiq.gateway.httpclient.HttpClientPoolProperties;
+import com.propertyiq.gateway.httpclient.UpstreamConnectionProviders;
+import com.propertyiq.gateway.routing.UpstreamRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+/**
+ * Replaces the gateway's single shared connection pool with per-upstream pools.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientPoolProperties.class)
+public class HttpClientConfig {
+
+    @Bean
+    public HttpClientFactory gatewayHttpClientFactory(HttpClientProperties httpClientProperties,
+                                                      ServerProperties serverProperties,
+                                                      List<HttpClientCustomizer> customizers,
+                                                      HttpClientSslConfigurer sslConfigurer,
+                                                      HttpClientPoolProperties poolProperties,
+                                                      UpstreamRegistry upstreamRegistry) {
+        return new HttpClientFactory(httpClientProperties, serverProperties, sslConfigurer, customizers) {
+            @Override
+            protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+                return UpstreamConnectionProviders.create(poolProperties, upstreamRegistry);
+            }
+        };
+    }
+
+    @Bean
+    public HttpClientCustomizer upstreamProtocolCustomizer(HttpClientPoolProperties poolProperties) {
+        HttpProtocol[] protocols = poolProperties.isH2c()
+                ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+        return httpClient -> httpClient
+                .protocol(protocols)
+                .option(ChannelOption.SO_KEEPALIVE, poolProperties.isKeepAlive());
+    }
+}
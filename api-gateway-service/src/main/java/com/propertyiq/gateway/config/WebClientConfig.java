@@ -2,13 +2,26 @@ package com.propertyiq.gateway.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    // Gateway-internal calls (JWKS) get a small pool of their own, separate from upstream traffic
     @Bean
     public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("gateway-internal")
+                .maxConnections(10)
+                .pendingAcquireTimeout(Duration.ofSeconds(5))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)));
     }
 }
@@ -0,0 +1,91 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.resilience.ResilienceProperties;
+import com.propertyiq.gateway.resilience.RouteCircuitBreakers;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Per-route circuit breaker. Upstream errors and 5xx responses count as failures; while the
+ * breaker is open requests are answered with 503 without reaching the service.
+ */
+@Component
+public class CircuitBreakerFilter extends AbstractGatewayFilterFactory<CircuitBreakerFilter.Config> {
+
+    // After NettyWriteResponseFilter, so the upstream status is known when the call completes
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerFilter.class);
+
+    private final RouteCircuitBreakers circuitBreakers;
+    private final ResilienceProperties properties;
+
+    public CircuitBreakerFilter(RouteCircuitBreakers circuitBreakers, ResilienceProperties properties) {
+        super(Config.class);
+        this.circuitBreakers = circuitBreakers;
+        this.properties = properties;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (route == null) {
+                return chain.filter(exchange);
+            }
+
+            CircuitBreaker circuitBreaker = circuitBreakers.forRoute(route.getId());
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return onOpen(exchange, route.getId());
+            }
+
+            long start = circuitBreaker.getCurrentTimestamp();
+            return chain.filter(exchange)
+                    .doOnSuccess(v -> {
+                        long duration = circuitBreaker.getCurrentTimestamp() - start;
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null && status.is5xxServerError()) {
+                            circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                                    new UpstreamServerErrorException(status));
+                        } else {
+                            circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+                        }
+                    })
+                    .doOnError(e -> circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                            circuitBreaker.getTimestampUnit(), e))
+                    .doOnCancel(circuitBreaker::releasePermission);
+        }, ORDER);
+    }
+
+    private Mono<Void> onOpen(ServerWebExchange exchange, String routeId) {
+        logger.debug("Circuit breaker open for route {}", routeId);
+        long retryAfterSeconds = Math.max(1, properties.forRoute(routeId).getCircuitBreaker()
+                .getWaitDurationInOpenState().toSeconds());
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    public static class Config {
+    }
+
+    static class UpstreamServerErrorException extends RuntimeException {
+        UpstreamServerErrorException(HttpStatusCode status) {
+            super("Upstream responded with " + status, null, false, false);
+        }
+    }
+}
@@ -1,52 +1,141 @@
 package com.propertyiq.gateway.filter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.propertyiq.gateway.accesslog.AccessLogProperties;
+import com.propertyiq.gateway.accesslog.AccessLogRecord;
+import com.propertyiq.gateway.accesslog.AccessLogWriter;
+import com.propertyiq.gateway.accesslog.CorrelationIds;
+import org.reactivestreams.Publisher;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Assigns the correlation id and writes one access-log record per request through
+ * {@link AccessLogWriter}, keeping formatting and I/O off the event loop.
+ */
 @Component
 public class GlobalLoggingFilter implements GlobalFilter, Ordered {
 
-    private static final Logger logger = LoggerFactory.getLogger(GlobalLoggingFilter.class);
     private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    // nginx's status for requests the client abandoned before a response was sent
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private final AccessLogWriter accessLogWriter;
+    private final AccessLogProperties properties;
+
+    public GlobalLoggingFilter(AccessLogWriter accessLogWriter, AccessLogProperties properties) {
+        this.accessLogWriter = accessLogWriter;
+        this.properties = properties;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String correlationId = exchange.getRequest().getHeaders().getFirst(CORRELATION_ID_HEADER);
-        
-        if (correlationId == null) {
-            correlationId = UUID.randomUUID().toString();
+        boolean generated = correlationId == null;
+        if (generated) {
+            correlationId = CorrelationIds.next();
         }
-
         final String finalCorrelationId = correlationId;
 
-        logger.info("[{}] Incoming request: {} {}",
-                finalCorrelationId,
-                exchange.getRequest().getMethod(),
-                exchange.getRequest().getPath());
+        ServerWebExchange.Builder builder = exchange.mutate();
+        if (generated) {
+            // Add correlation ID to downstream requests
+            builder.request(r -> r.header(CORRELATION_ID_HEADER, finalCorrelationId));
+        }
+        if (!properties.isEnabled()) {
+            return chain.filter(builder.build());
+        }
 
-        // Add correlation ID to downstream requests
-        ServerWebExchange modifiedExchange = exchange.mutate()
-                .request(r -> r.header(CORRELATION_ID_HEADER, finalCorrelationId))
-                .build();
+        long startNanos = System.nanoTime();
+        ByteCountingResponse response = new ByteCountingResponse(exchange.getResponse());
+        ServerWebExchange modifiedExchange = builder.response(response).build();
 
         return chain.filter(modifiedExchange)
-                .doFinally(signalType -> {
-                    logger.info("[{}] Request completed with status: {}",
-                            finalCorrelationId,
-                            exchange.getResponse().getStatusCode());
-                });
+                .doFinally(signalType -> record(modifiedExchange, finalCorrelationId, startNanos,
+                        response.bytes, signalType));
+    }
+
+    private void record(ServerWebExchange exchange, String correlationId, long startNanos, long bytes,
+                        SignalType signalType) {
+        long latencyMicros = (System.nanoTime() - startNanos) / 1000;
+        int status = status(exchange, signalType);
+        if (!sampled(status)) {
+            return;
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        accessLogWriter.append(new AccessLogRecord(
+                System.currentTimeMillis(),
+                correlationId,
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getPath().value(),
+                route != null ? route.getId() : null,
+                status,
+                latencyMicros,
+                bytes,
+                exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTR)));
+    }
+
+    static int status(ServerWebExchange exchange, SignalType signalType) {
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        if (signalType == SignalType.CANCEL && !exchange.getResponse().isCommitted()) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        if (statusCode == null) {
+            return signalType == SignalType.ON_ERROR ? 500 : 200;
+        }
+        return statusCode.value();
+    }
+
+    private boolean sampled(int status) {
+        if (status < 200 || status >= 300) {
+            return true;
+        }
+        double rate = properties.getSuccessSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
     }
 
     @Override
     public int getOrder() {
         return Ordered.HIGHEST_PRECEDENCE;
     }
+
+    /**
+     * Counts body bytes as they are written; always written from one thread at a time.
+     */
+    private static final class ByteCountingResponse extends ServerHttpResponseDecorator {
+
+        private volatile long bytes;
+
+        ByteCountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            bytes += buffer.readableByteCount();
+        }
+    }
 }
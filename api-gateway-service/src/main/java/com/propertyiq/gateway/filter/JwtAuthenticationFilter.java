@@ -1,139 +1,154 @@
 package com.propertyiq.gateway.filter;
 
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.SignedJWT;
+import com.propertyiq.gateway.metrics.GatewayMetrics;
 import com.propertyiq.gateway.security.JwksKeyProvider;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import com.propertyiq.gateway.security.JwtVerifier;
+import com.propertyiq.gateway.security.UserInfo;
+import com.propertyiq.gateway.security.VerifiedTokenCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.security.PublicKey;
 import java.text.ParseException;
-import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
+    // Ahead of the rate limiter and response cache, which are keyed on the X-User-Id set here
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+
+    // Authenticated user id, for filters that run outside the mutated request (e.g. access logging)
+    public static final String USER_ID_ATTR = JwtAuthenticationFilter.class.getName() + ".userId";
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwksKeyProvider jwksKeyProvider;
-
-    public JwtAuthenticationFilter(JwksKeyProvider jwksKeyProvider) {
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtVerifier jwtVerifier;
+    private final GatewayMetrics gatewayMetrics;
+
+    public JwtAuthenticationFilter(JwksKeyProvider jwksKeyProvider,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   JwtVerifier jwtVerifier,
+                                   GatewayMetrics gatewayMetrics) {
         super(Config.class);
         this.jwksKeyProvider = jwksKeyProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.jwtVerifier = jwtVerifier;
+        this.gatewayMetrics = gatewayMetrics;
         logger.info("JwtAuthenticationFilter initialized with JWKS-based validation");
     }
 
     @Override
     public GatewayFilter apply(Config config) {
-        return (exchange, chain) -> {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            long startNanos = System.nanoTime();
             if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                return onError(exchange, "Missing authorization header", HttpStatus.UNAUTHORIZED);
+                return onError(exchange, "Missing authorization header", HttpStatus.UNAUTHORIZED, startNanos);
             }
 
             String authHeader = exchange.getRequest().getHeaders().get(HttpHeaders.AUTHORIZATION).get(0);
             if (!authHeader.startsWith("Bearer ")) {
-                return onError(exchange, "Invalid authorization header format", HttpStatus.UNAUTHORIZED);
+                return onError(exchange, "Invalid authorization header format", HttpStatus.UNAUTHORIZED, startNanos);
             }
 
             String token = authHeader.substring(7);
+            String tokenDigest = verifiedTokenCache.digest(token);
+
+            UserInfo cachedUserInfo = verifiedTokenCache.get(tokenDigest);
+            if (cachedUserInfo != null) {
+                logger.debug("JWT served from verified-token cache for user: {}", cachedUserInfo.userId());
+                return continueWithUser(exchange, chain, cachedUserInfo, startNanos, "cached");
+            }
+
+            SignedJWT jwt = parseToken(token);
+            if (jwt == null) {
+                return onError(exchange, "Invalid JWT token: malformed token", HttpStatus.UNAUTHORIZED, startNanos);
+            }
 
-            try {
-                String kid = extractKidFromToken(token);
-                if (kid == null) {
-                    logger.warn("JWT token does not contain kid in header");
-                    return onError(exchange, "Invalid JWT token: missing key ID", HttpStatus.UNAUTHORIZED);
-                }
-
-                return jwksKeyProvider.getKey(kid)
-                        .flatMap(publicKey -> validateTokenAndContinue(exchange, chain, token, publicKey))
-                        .onErrorResume(e -> {
-                            logger.warn("JWT validation failed: {}", e.getMessage());
-                            return onError(exchange, "Invalid JWT token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
-                        });
-            } catch (Exception e) {
-                logger.warn("JWT validation failed: {}", e.getMessage());
-                return onError(exchange, "Invalid JWT token: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
+            String kid = jwt.getHeader().getKeyID();
+            if (kid == null) {
+                logger.warn("JWT token does not contain kid in header");
+                return onError(exchange, "Invalid JWT token: missing key ID", HttpStatus.UNAUTHORIZED, startNanos);
             }
-        };
+
+            long lookupStartNanos = System.nanoTime();
+            return jwksKeyProvider.getKey(kid)
+                    .doOnNext(publicKey -> gatewayMetrics.recordJwksLookup("success", System.nanoTime() - lookupStartNanos))
+                    .doOnError(e -> gatewayMetrics.recordJwksLookup("error", System.nanoTime() - lookupStartNanos))
+                    .<UserInfo>handle((publicKey, sink) -> {
+                        try {
+                            sink.next(verifyToken(jwt, kid, publicKey, tokenDigest));
+                        } catch (Exception e) {
+                            sink.error(e);
+                        }
+                    })
+                    .flatMap(userInfo -> continueWithUser(exchange, chain, userInfo, startNanos, "verified"))
+                    .onErrorResume(e -> {
+                        logger.warn("JWT validation failed: {}", e.getMessage());
+                        return onError(exchange, "Invalid JWT token: " + e.getMessage(), HttpStatus.UNAUTHORIZED, startNanos);
+                    });
+        }, ORDER);
     }
 
-    private String extractKidFromToken(String token) {
+    private SignedJWT parseToken(String token) {
         try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            return signedJWT.getHeader().getKeyID();
+            return SignedJWT.parse(token);
         } catch (ParseException e) {
             logger.warn("Failed to parse JWT token: {}", e.getMessage());
             return null;
         }
     }
 
-    private Mono<Void> validateTokenAndContinue(ServerWebExchange exchange, 
-                                                 GatewayFilterChain chain,
-                                                 String token, 
-                                                 PublicKey publicKey) {
-        return Mono.fromCallable(() -> {
-            Claims claims = Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            String userId = claims.getSubject();
-            String email = claims.get("email", String.class);
-            String role = extractRole(claims);
-
-            logger.debug("JWT validated for user: {}, email: {}, role: {}", userId, email, role);
-
-            return new UserInfo(userId, email, role);
-        })
-        .subscribeOn(Schedulers.boundedElastic())
-        .flatMap(userInfo -> {
-            ServerWebExchange modifiedExchange = exchange.mutate()
-                    .request(r -> r.header("X-User-Id", userInfo.userId())
-                                  .header("X-User-Email", userInfo.email() != null ? userInfo.email() : "")
-                                  .header("X-User-Roles", userInfo.role() != null ? userInfo.role() : "authenticated"))
-                    .build();
-            return chain.filter(modifiedExchange);
-        });
-    }
-
-    @SuppressWarnings("unchecked")
-    private String extractRole(Claims claims) {
-        Map<String, Object> userMetadata = claims.get("user_metadata", Map.class);
-        if (userMetadata != null && userMetadata.containsKey("role")) {
-            return userMetadata.get("role").toString();
-        }
+    private UserInfo verifyToken(SignedJWT jwt, String kid, PublicKey publicKey, String tokenDigest)
+            throws JOSEException, ParseException {
+        JwtVerifier.VerifiedToken verified = jwtVerifier.verify(jwt, kid, publicKey);
+        UserInfo userInfo = verified.userInfo();
 
-        Map<String, Object> appMetadata = claims.get("app_metadata", Map.class);
-        if (appMetadata != null && appMetadata.containsKey("role")) {
-            return appMetadata.get("role").toString();
-        }
+        logger.debug("JWT validated for user: {}, email: {}, role: {}", userInfo.userId(), userInfo.email(), userInfo.role());
 
-        String role = claims.get("role", String.class);
-        if (role != null) {
-            return role;
-        }
+        verifiedTokenCache.put(tokenDigest, kid, userInfo, verified.expiresAt());
+        return userInfo;
+    }
 
-        return "authenticated";
+    private Mono<Void> continueWithUser(ServerWebExchange exchange, GatewayFilterChain chain, UserInfo userInfo,
+                                        long startNanos, String result) {
+        recordAuthentication(exchange, result, startNanos);
+        exchange.getAttributes().put(USER_ID_ATTR, userInfo.userId());
+        ServerWebExchange modifiedExchange = exchange.mutate()
+                .request(r -> r.header("X-User-Id", userInfo.userId())
+                              .header("X-User-Email", userInfo.email() != null ? userInfo.email() : "")
+                              .header("X-User-Roles", userInfo.role() != null ? userInfo.role() : "authenticated"))
+                .build();
+        return chain.filter(modifiedExchange);
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String error, HttpStatus httpStatus) {
+    private Mono<Void> onError(ServerWebExchange exchange, String error, HttpStatus httpStatus, long startNanos) {
+        recordAuthentication(exchange, "rejected", startNanos);
         logger.debug("Authentication error: {}", error);
         exchange.getResponse().setStatusCode(httpStatus);
         return exchange.getResponse().setComplete();
     }
 
-    private record UserInfo(String userId, String email, String role) {}
+    private void recordAuthentication(ServerWebExchange exchange, String result, long startNanos) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        gatewayMetrics.recordAuthentication(route != null ? route.getId() : "none", result, System.nanoTime() - startNanos);
+    }
 
     public static class Config {
     }
@@ -0,0 +1,70 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.ratelimit.RateLimitProperties;
+import com.propertyiq.gateway.ratelimit.UserRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Throttles requests per user and route. Must run after {@link JwtAuthenticationFilter}, which
+ * resolves the {@code X-User-Id} header the limit is keyed on.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    public static final int ORDER = JwtAuthenticationFilter.ORDER + 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final UserRateLimiter userRateLimiter;
+    private final RateLimitProperties properties;
+
+    public RateLimitFilter(UserRateLimiter userRateLimiter, RateLimitProperties properties) {
+        super(Config.class);
+        this.userRateLimiter = userRateLimiter;
+        this.properties = properties;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!properties.isEnabled()) {
+                return chain.filter(exchange);
+            }
+
+            String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (userId == null || route == null) {
+                return chain.filter(exchange);
+            }
+
+            return userRateLimiter.isAllowed(route.getId(), userId)
+                    .flatMap(allowed -> allowed
+                            ? chain.filter(exchange)
+                            : onRateLimited(exchange, route.getId(), userId));
+        }, ORDER);
+    }
+
+    private Mono<Void> onRateLimited(ServerWebExchange exchange, String routeId, String userId) {
+        logger.debug("Rate limit exceeded for user {} on route {}", userId, routeId);
+        // Replenish rates are at least one token per second, so the next token is due within a
+        // second, and Retry-After can't say less than one
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return exchange.getResponse().setComplete();
+    }
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,47 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.metrics.GatewayMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Times every routed request end to end, per route, method and status.
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+
+    // Just inside GlobalLoggingFilter, so both see the same request
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public RequestMetricsFilter(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signalType -> {
+                    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+                    gatewayMetrics.recordRequest(
+                            route != null ? route.getId() : "none",
+                            exchange.getRequest().getMethod().name(),
+                            GlobalLoggingFilter.status(exchange, signalType),
+                            System.nanoTime() - startNanos);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,234 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.cache.CachedResponse;
+import com.propertyiq.gateway.cache.ResponseCache;
+import com.propertyiq.gateway.cache.ResponseCacheProperties;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caches GET responses per user, path and query on routes listed under
+ * {@code gateway.response-cache.routes}, answering {@code If-None-Match} with 304 when the ETag
+ * still matches. Any write by the same user on the route invalidates that user's entries.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    // Must wrap the response before NettyWriteResponseFilter writes the upstream body into it
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+    private static final Set<HttpMethod> WRITE_METHODS =
+            Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+    private final Map<String, PathPattern> pathPatterns = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCache responseCache, ResponseCacheProperties properties) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.properties = properties;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (!properties.isEnabled() || userId == null || route == null) {
+                return chain.filter(exchange);
+            }
+            ResponseCacheProperties.RouteCache routeCache = properties.getRoutes().get(route.getId());
+            if (routeCache == null) {
+                return chain.filter(exchange);
+            }
+
+            ServerHttpRequest request = exchange.getRequest();
+            String scope = ResponseCache.scope(route.getId(), userId);
+            if (WRITE_METHODS.contains(request.getMethod())) {
+                // Bumped once the write has gone through, so GETs racing with it are not stored either
+                return chain.filter(exchange).doFinally(signal -> responseCache.invalidate(scope));
+            }
+            if (request.getMethod() != HttpMethod.GET || !matchesPath(routeCache, request)) {
+                return chain.filter(exchange);
+            }
+
+            String rawQuery = request.getURI().getRawQuery();
+            String key = ResponseCache.key(scope, request.getURI().getRawPath() + (rawQuery != null ? "?" + rawQuery : ""));
+            CachedResponse cached = responseCache.get(scope, key);
+            if (cached != null) {
+                logger.debug("Serving cached response for {}", key);
+                return writeCached(exchange, cached);
+            }
+
+            long generation = responseCache.currentGeneration(scope);
+            long expiresAtNanos = System.nanoTime() + routeCache.getTtl().toNanos();
+            ServerHttpResponse cachingResponse =
+                    new CachingResponse(exchange, scope, key, generation, expiresAtNanos);
+            return chain.filter(exchange.mutate().response(cachingResponse).build());
+        }, ORDER);
+    }
+
+    private boolean matchesPath(ResponseCacheProperties.RouteCache routeCache, ServerHttpRequest request) {
+        List<String> paths = routeCache.getPaths();
+        if (paths.isEmpty()) {
+            return true;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (String pattern : paths) {
+            if (pathPatterns.computeIfAbsent(pattern, PathPatternParser.defaultInstance::parse).matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (isNotModified(exchange.getRequest(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.setContentType(cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean isNotModified(ServerHttpRequest request, String etag) {
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if ("*".equals(candidate) || etag.equals(candidate) || ("W/" + etag).equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buffers a 200 body so it can be stored and tagged with an ETag before it is written out. A
+     * body that grows past {@code max-body-size} is streamed through uncached instead, whether or
+     * not it declared a Content-Length.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerHttpRequest request;
+        private final String scope;
+        private final String key;
+        private final long generation;
+        private final long expiresAtNanos;
+
+        CachingResponse(ServerWebExchange exchange, String scope, String key, long generation, long expiresAtNanos) {
+            super(exchange.getResponse());
+            this.request = exchange.getRequest();
+            this.scope = scope;
+            this.key = key;
+            this.generation = generation;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCacheable()) {
+                return super.writeWith(body);
+            }
+            long maxBodySize = properties.getMaxBodySize().toBytes();
+            AtomicLong size = new AtomicLong();
+            // Buffers until the body ends or passes the limit; past it, each buffer is let through alone
+            return Flux.from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodySize)
+                    .switchOnFirst((first, chunks) -> {
+                        if (size.get() > maxBodySize) {
+                            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                            return super.writeWith(chunks.concatMapIterable(Function.identity()));
+                        }
+                        return chunks.next()
+                                .map(ResponseCacheFilter::toBytes)
+                                .defaultIfEmpty(new byte[0])
+                                .flatMap(this::writeAndStore);
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then();
+        }
+
+        private boolean isCacheable() {
+            HttpHeaders headers = getHeaders();
+            if (getStatusCode() != HttpStatus.OK) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.contains("no-store")) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            return contentLength < 0 || contentLength <= properties.getMaxBodySize().toBytes();
+        }
+
+        private Mono<Void> writeAndStore(byte[] body) {
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag();
+            if (etag == null) {
+                etag = ResponseCache.etag(body);
+                headers.setETag(etag);
+            }
+            responseCache.put(scope, key,
+                    new CachedResponse(body, headers.getContentType(), etag, generation, expiresAtNanos));
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+
+            if (isNotModified(request, etag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                return setComplete();
+            }
+            return super.writeWith(Mono.just(bufferFactory().wrap(body)));
+        }
+    }
+
+    private static byte[] toBytes(List<? extends DataBuffer> buffers) {
+        DataBuffer joined = buffers.get(0).factory().join(buffers);
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    public static class Config {
+    }
+}
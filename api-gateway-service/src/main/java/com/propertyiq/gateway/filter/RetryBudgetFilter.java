@@ -0,0 +1,130 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.resilience.ResilienceProperties;
+import com.propertyiq.gateway.resilience.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.reset;
+
+/**
+ * Retries idempotent GETs that could not connect or got 502/503/504, up to the route's
+ * {@code retries} and only while the route's {@link RetryBudget} has room. Response timeouts are
+ * not retried, so a slow service does not get its load multiplied.
+ */
+@Component
+public class RetryBudgetFilter extends AbstractGatewayFilterFactory<RetryBudgetFilter.Config> {
+
+    // Inside the circuit breaker, which then only sees the final outcome
+    public static final int ORDER = CircuitBreakerFilter.ORDER + 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryBudgetFilter.class);
+    private static final Set<HttpStatusCode> RETRYABLE_STATUSES =
+            Set.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteRetries> routeRetries = new ConcurrentHashMap<>();
+
+    public RetryBudgetFilter(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (route == null || exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            ResilienceProperties.RouteResilience settings = properties.forRoute(route.getId());
+            if (settings.getRetries() <= 0) {
+                return chain.filter(exchange);
+            }
+
+            RouteRetries retries = routeRetries.computeIfAbsent(route.getId(), this::createRouteRetries);
+            retries.budget().onRequestStarted();
+            return attempt(exchange, chain, settings, retries, 0)
+                    .doFinally(signal -> retries.budget().onRequestFinished());
+        }, ORDER);
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain,
+                               ResilienceProperties.RouteResilience settings, RouteRetries retries, int retriesDone) {
+        return chain.filter(exchange)
+                .then(Mono.fromSupplier(Optional::<Throwable>empty))
+                .onErrorResume(e -> Mono.just(Optional.of(e)))
+                .flatMap(error -> {
+                    boolean retryable = error.map(RetryBudgetFilter::isConnectFailure)
+                            .orElseGet(() -> RETRYABLE_STATUSES.contains(exchange.getResponse().getStatusCode()));
+                    if (retryable && retriesDone < settings.getRetries() && !exchange.getResponse().isCommitted()) {
+                        if (retries.budget().tryAcquireRetry()) {
+                            retries.attempts().increment();
+                            logger.debug("Retrying GET {} (retry {})", exchange.getRequest().getPath(), retriesDone + 1);
+                            resetForRetry(exchange);
+                            return Mono.delay(settings.getRetryBackoff())
+                                    .then(attempt(exchange, chain, settings, retries, retriesDone + 1))
+                                    .doFinally(signal -> retries.budget().releaseRetry());
+                        }
+                        retries.budgetExhausted().increment();
+                    }
+                    return error.<Mono<Void>>map(Mono::error).orElseGet(Mono::empty);
+                });
+    }
+
+    private static void resetForRetry(ServerWebExchange exchange) {
+        // The failed response body is never read; close its connection instead of leaving it held
+        Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+            exchange.getAttributes().remove(CLIENT_RESPONSE_CONN_ATTR);
+        }
+        reset(exchange);
+    }
+
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RouteRetries createRouteRetries(String routeId) {
+        ResilienceProperties.RetryBudgetSettings budget = properties.getRetryBudget();
+        return new RouteRetries(
+                new RetryBudget(budget.getRatio(), budget.getMinConcurrentRetries()),
+                Counter.builder("gateway.retry.attempts").tag("route", routeId).register(meterRegistry),
+                Counter.builder("gateway.retry.budget.exhausted").tag("route", routeId).register(meterRegistry));
+    }
+
+    private record RouteRetries(RetryBudget budget, Counter attempts, Counter budgetExhausted) {}
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,80 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.routing.UpstreamInstance;
+import com.propertyiq.gateway.routing.UpstreamRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+
+/**
+ * Resolves {@code lb://<service>} route URIs to an instance from {@link UpstreamRegistry}, and
+ * reports the outcome back so failing instances are ejected. Runs right after the route URL is
+ * resolved, ahead of the gateway's own load-balancer filter.
+ */
+@Component
+public class UpstreamLoadBalancerFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamLoadBalancerFilter.class);
+    private static final String SCHEME = "lb";
+
+    private final UpstreamRegistry upstreamRegistry;
+
+    public UpstreamLoadBalancerFilter(UpstreamRegistry upstreamRegistry) {
+        this.upstreamRegistry = upstreamRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || !SCHEME.equals(url.getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        String serviceId = url.getHost();
+        UpstreamInstance instance = upstreamRegistry.choose(serviceId);
+        if (instance == null) {
+            return Mono.error(NotFoundException.create(true, "No upstream instances configured for service: " + serviceId));
+        }
+
+        URI target = instance.getUri();
+        URI requestUrl = UriComponentsBuilder.fromUri(url)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+        addOriginalRequestUrl(exchange, url);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+        logger.debug("Routing {} to {}", serviceId, requestUrl);
+
+        upstreamRegistry.onRequestStarted(instance);
+        return chain.filter(exchange)
+                .doOnSuccess(v -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    upstreamRegistry.onRequestFinished(instance, status != null && status.is5xxServerError());
+                })
+                .doOnError(e -> upstreamRegistry.onRequestFinished(instance, true))
+                .doOnCancel(() -> upstreamRegistry.onRequestCancelled(instance));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
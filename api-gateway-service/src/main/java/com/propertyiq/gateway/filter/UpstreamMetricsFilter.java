@@ -0,0 +1,61 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.metrics.GatewayMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Times the call to the upstream service: runs immediately before {@link NettyRoutingFilter},
+ * whose chain completes once the upstream's response headers have arrived. Requests answered by
+ * the gateway itself (cache hits, rejections) never reach this filter.
+ */
+@Component
+public class UpstreamMetricsFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public UpstreamMetricsFilter(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signalType -> {
+                    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+                    gatewayMetrics.recordUpstream(
+                            route != null ? route.getId() : "none",
+                            status(exchange, signalType),
+                            System.nanoTime() - startNanos);
+                });
+    }
+
+    private static String status(ServerWebExchange exchange, SignalType signalType) {
+        if (signalType == SignalType.ON_ERROR) {
+            return "error";
+        }
+        if (signalType == SignalType.CANCEL) {
+            return "cancelled";
+        }
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        return statusCode != null ? Integer.toString(statusCode.value()) : "200";
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,59 @@
+package com.propertyiq.gateway.httpclient;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pools used to reach upstream services. Replaces {@code spring.cloud.gateway.httpclient.pool.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.http-client")
+public class HttpClientPoolProperties {
+
+    /**
+     * Offer HTTP/2 cleartext (h2c upgrade) to backends; backends without it stay on HTTP/1.1.
+     */
+    private boolean h2c = false;
+
+    /**
+     * TCP keep-alive on upstream sockets.
+     */
+    private boolean keepAlive = true;
+
+    /**
+     * Applies to every upstream host without its own entry under {@code pools}.
+     */
+    private PoolSettings defaults = new PoolSettings();
+
+    /**
+     * Per service id from the {@code services.*} block; applied to each of the service's instances.
+     */
+    private Map<String, PoolSettings> pools = new HashMap<>();
+
+    public PoolSettings forService(String serviceId) {
+        return pools.getOrDefault(serviceId, defaults);
+    }
+
+    @Data
+    public static class PoolSettings {
+
+        private int maxConnections = 200;
+
+        private int pendingAcquireMaxCount = 1000;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Kept below the backends' keep-alive timeout (Tomcat closes idle connections after 20s).
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(15);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        private Duration evictionInterval = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,131 @@
+package com.propertyiq.gateway.httpclient;
+
+import com.propertyiq.gateway.routing.UpstreamRegistry;
+import io.netty.resolver.AddressResolverGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Builds the upstream {@link ConnectionProvider}: one pool per upstream host, sized from the
+ * owning service's settings, with Micrometer gauges ({@code reactor.netty.connection.provider.*},
+ * tagged by {@code remote.address}) for active, idle and pending connections.
+ *
+ * <p>The owning service is looked up in the {@link UpstreamRegistry} when a connection is acquired,
+ * so instances added by a reload get their service's settings too.
+ */
+public final class UpstreamConnectionProviders {
+
+    public static final String POOL_NAME = "gateway-upstreams";
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamConnectionProviders.class);
+
+    private UpstreamConnectionProviders() {
+    }
+
+    public static ConnectionProvider create(HttpClientPoolProperties properties, UpstreamRegistry upstreamRegistry) {
+        return new PerServiceConnectionProvider(properties, upstreamRegistry);
+    }
+
+    static <S extends ConnectionProvider.ConnectionPoolSpec<S>> S apply(S spec, HttpClientPoolProperties.PoolSettings settings) {
+        return spec.maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .maxLifeTime(settings.getMaxLifeTime())
+                .evictInBackground(settings.getEvictionInterval())
+                .metrics(true);
+    }
+
+    private static ConnectionProvider build(HttpClientPoolProperties.PoolSettings settings) {
+        return apply(ConnectionProvider.builder(POOL_NAME), settings).build();
+    }
+
+    /**
+     * Hands each acquire to the provider of the service that owns the remote host, built on first
+     * use; hosts of services without their own settings share the {@code defaults} provider. Each
+     * provider keeps a separate pool per host.
+     */
+    private static final class PerServiceConnectionProvider implements ConnectionProvider {
+
+        private final HttpClientPoolProperties properties;
+        private final UpstreamRegistry upstreamRegistry;
+        private final ConnectionProvider defaults;
+        private final Map<String, ConnectionProvider> services = new ConcurrentHashMap<>();
+
+        private PerServiceConnectionProvider(HttpClientPoolProperties properties, UpstreamRegistry upstreamRegistry) {
+            this.properties = properties;
+            this.upstreamRegistry = upstreamRegistry;
+            this.defaults = build(properties.getDefaults());
+        }
+
+        @Override
+        public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver observer,
+                                                  Supplier<? extends SocketAddress> remoteAddress,
+                                                  AddressResolverGroup<?> resolverGroup) {
+            return Mono.defer(() -> {
+                SocketAddress address = remoteAddress.get();
+                return providerFor(address).acquire(config, observer, () -> address, resolverGroup);
+            });
+        }
+
+        @Override
+        public void disposeWhen(SocketAddress address) {
+            providerFor(address).disposeWhen(address);
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return Flux.concat(Flux.fromIterable(services.values()), Mono.just(defaults))
+                    .flatMap(ConnectionProvider::disposeLater)
+                    .then();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return defaults.isDisposed();
+        }
+
+        @Override
+        public int maxConnections() {
+            return defaults.maxConnections();
+        }
+
+        @Override
+        public Builder mutate() {
+            return defaults.mutate();
+        }
+
+        @Override
+        public String name() {
+            return POOL_NAME;
+        }
+
+        private ConnectionProvider providerFor(SocketAddress address) {
+            if (!(address instanceof InetSocketAddress inetAddress)) {
+                return defaults;
+            }
+            // Reactor Netty passes the unresolved host:port taken from the request URI
+            String serviceId = upstreamRegistry.findServiceId(inetAddress.getHostString(), inetAddress.getPort());
+            if (serviceId == null || !properties.getPools().containsKey(serviceId)) {
+                return defaults;
+            }
+            return services.computeIfAbsent(serviceId, id -> {
+                HttpClientPoolProperties.PoolSettings settings = properties.forService(id);
+                logger.info("Upstream pools for {}: {}", id, settings);
+                return build(settings);
+            });
+        }
+    }
+}
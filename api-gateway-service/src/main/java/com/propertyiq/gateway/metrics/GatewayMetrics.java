@@ -0,0 +1,61 @@
+package com.propertyiq.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers recorded by the gateway's filters. Histogram buckets and SLO thresholds are
+ * configured by {@link LatencyHistogramMeterFilter}.
+ */
+@Component
+public class GatewayMetrics {
+
+    /** Whole request as seen by the client, per route, method and status. */
+    public static final String REQUESTS = "gateway.requests";
+    /** Until the upstream's response headers arrive, per route and upstream status. */
+    public static final String UPSTREAM = "gateway.upstream.requests";
+    /** Time spent in JwtAuthenticationFilter before the request moves on or is rejected. */
+    public static final String AUTHENTICATION = "gateway.auth.duration";
+    /** JWKS key lookup, a part of {@link #AUTHENTICATION} on token-cache misses. */
+    public static final String JWKS_LOOKUP = "gateway.jwks.lookup";
+
+    private final Timer.MeterProvider<Timer> requests;
+    private final Timer.MeterProvider<Timer> upstream;
+    private final Timer.MeterProvider<Timer> authentication;
+    private final Timer.MeterProvider<Timer> jwksLookup;
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.requests = Timer.builder(REQUESTS)
+                .description("Gateway request latency")
+                .withRegistry(meterRegistry);
+        this.upstream = Timer.builder(UPSTREAM)
+                .description("Upstream latency until response headers")
+                .withRegistry(meterRegistry);
+        this.authentication = Timer.builder(AUTHENTICATION)
+                .description("JWT authentication overhead")
+                .withRegistry(meterRegistry);
+        this.jwksLookup = Timer.builder(JWKS_LOOKUP)
+                .description("JWKS public key lookup")
+                .withRegistry(meterRegistry);
+    }
+
+    public void recordRequest(String routeId, String method, int status, long nanos) {
+        requests.withTags("route", routeId, "method", method, "status", Integer.toString(status))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpstream(String routeId, String status, long nanos) {
+        upstream.withTags("route", routeId, "status", status).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAuthentication(String routeId, String result, long nanos) {
+        authentication.withTags("route", routeId, "result", result).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwksLookup(String outcome, long nanos) {
+        jwksLookup.withTags("outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
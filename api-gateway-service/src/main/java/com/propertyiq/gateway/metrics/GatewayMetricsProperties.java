@@ -0,0 +1,49 @@
+package com.propertyiq.gateway.metrics;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.metrics")
+public class GatewayMetricsProperties {
+
+    /**
+     * Bounds of the latency histograms; buckets outside this range are not published.
+     */
+    private Duration minimumExpectedValue = Duration.ofMillis(1);
+
+    private Duration maximumExpectedValue = Duration.ofSeconds(60);
+
+    private RouteSlo defaults = new RouteSlo(List.of(
+            Duration.ofMillis(100), Duration.ofMillis(300), Duration.ofSeconds(1)));
+
+    /**
+     * Per route id; routes without an entry use {@code defaults}.
+     */
+    private Map<String, RouteSlo> routes = new HashMap<>();
+
+    public RouteSlo forRoute(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class RouteSlo {
+
+        /**
+         * Latency thresholds published as histogram buckets, so alerts can count requests above them.
+         */
+        private List<Duration> slo = new ArrayList<>();
+
+        public RouteSlo(List<Duration> slo) {
+            this.slo = new ArrayList<>(slo);
+        }
+    }
+}
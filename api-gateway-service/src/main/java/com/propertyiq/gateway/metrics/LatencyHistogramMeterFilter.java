@@ -0,0 +1,50 @@
+package com.propertyiq.gateway.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes percentile histograms (Micrometer's HDR-style exponential buckets) for the gateway
+ * timers, plus the route's SLO thresholds as extra buckets on {@link GatewayMetrics#REQUESTS}.
+ * p99 is then computed server-side, e.g. {@code histogram_quantile(0.99, ...)} in Prometheus.
+ */
+@Component
+public class LatencyHistogramMeterFilter implements MeterFilter {
+
+    private static final Set<String> TIMERS = Set.of(
+            GatewayMetrics.REQUESTS, GatewayMetrics.UPSTREAM,
+            GatewayMetrics.AUTHENTICATION, GatewayMetrics.JWKS_LOOKUP);
+
+    private final GatewayMetricsProperties properties;
+
+    public LatencyHistogramMeterFilter(GatewayMetricsProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!TIMERS.contains(id.getName())) {
+            return config;
+        }
+        DistributionStatisticConfig.Builder builder = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue(nanos(properties.getMinimumExpectedValue()))
+                .maximumExpectedValue(nanos(properties.getMaximumExpectedValue()));
+        String routeId = id.getTag("route");
+        if (GatewayMetrics.REQUESTS.equals(id.getName()) && routeId != null) {
+            List<Duration> slo = properties.forRoute(routeId).getSlo();
+            builder.serviceLevelObjectives(slo.stream().mapToDouble(LatencyHistogramMeterFilter::nanos).toArray());
+        }
+        return builder.build().merge(config);
+    }
+
+    private static double nanos(Duration duration) {
+        return duration.toNanos();
+    }
+}
@@ -0,0 +1,30 @@
+package com.propertyiq.gateway.ratelimit;
+
+/**
+ * In-process token bucket, used when Redis is unavailable and the fallback mode is LOCAL.
+ */
+class LocalTokenBucket {
+
+    private final double replenishPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    LocalTokenBucket(RateLimitProperties.RouteLimit limit, long nowNanos) {
+        this.replenishPerNano = limit.getReplenishRate() / 1_000_000_000d;
+        this.capacity = limit.getBurstCapacity();
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    synchronized boolean tryConsume(long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - lastRefillNanos);
+        tokens = Math.min(capacity, tokens + elapsed * replenishPerNano);
+        lastRefillNanos = nowNanos;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.propertyiq.gateway.ratelimit;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * What to do when Redis cannot be reached.
+     */
+    private FallbackMode fallbackMode = FallbackMode.LOCAL;
+
+    /**
+     * Tokens leased from Redis per round trip; leased tokens are spent locally without touching Redis.
+     */
+    @Positive
+    private long leaseSize = 10;
+
+    /**
+     * How long leased tokens stay usable before the instance has to go back to Redis.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(1);
+
+    @Valid
+    private RouteLimit defaults = new RouteLimit(20, 40);
+
+    private Map<String, @Valid RouteLimit> routes = new HashMap<>();
+
+    public RouteLimit limitFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    public enum FallbackMode {
+        /** Enforce the route limit per gateway instance. */
+        LOCAL,
+        /** Let every request through. */
+        ALLOW,
+        /** Reject every request. */
+        DENY
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RouteLimit {
+        /**
+         * Tokens added per second.
+         */
+        @Positive
+        private long replenishRate;
+
+        @Positive
+        private long burstCapacity;
+    }
+}
@@ -0,0 +1,38 @@
+package com.propertyiq.gateway.ratelimit;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+    private static final Duration REDIS_TIMEOUT = Duration.ofMillis(250);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<Long> script;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.script = RedisScript.of(new ClassPathResource("scripts/token-bucket.lua"), Long.class);
+    }
+
+    @Override
+    public Mono<Long> acquire(String key, RateLimitProperties.RouteLimit limit, long requested) {
+        List<String> keys = List.of(KEY_PREFIX + "{" + key + "}");
+        List<String> args = List.of(
+                Long.toString(limit.getReplenishRate()),
+                Long.toString(limit.getBurstCapacity()),
+                Long.toString(requested));
+        return redisTemplate.execute(script, keys, args)
+                .next()
+                .timeout(REDIS_TIMEOUT)
+                .defaultIfEmpty(0L);
+    }
+}
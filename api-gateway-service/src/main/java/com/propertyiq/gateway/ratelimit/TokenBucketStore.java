@@ -0,0 +1,12 @@
+package com.propertyiq.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Shared token bucket state. Implementations grant up to {@code requested} tokens atomically
+ * and emit how many were actually granted.
+ */
+public interface TokenBucketStore {
+
+    Mono<Long> acquire(String key, RateLimitProperties.RouteLimit limit, long requested);
+}
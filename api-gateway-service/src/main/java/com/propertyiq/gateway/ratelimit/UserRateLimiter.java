@@ -0,0 +1,137 @@
+package com.propertyiq.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Per-user, per-route token bucket. The authoritative bucket lives in a {@link TokenBucketStore}
+ * (Redis); each instance leases a few tokens at a time and spends them locally, and remembers
+ * denials until the next token is due, so most decisions never leave the process.
+ */
+@Component
+public class UserRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRateLimiter.class);
+    private static final long MAX_TRACKED_KEYS = 100_000;
+
+    private final TokenBucketStore store;
+    private final RateLimitProperties properties;
+    private final Cache<String, LocalState> localStates;
+    private final Counter allowedLocally;
+    private final Counter allowedByStore;
+    private final Counter deniedLocally;
+    private final Counter deniedByStore;
+    private final Counter storeFailures;
+
+    public UserRateLimiter(TokenBucketStore store, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.localStates = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.allowedLocally = decisionCounter(meterRegistry, "allowed", "local");
+        this.allowedByStore = decisionCounter(meterRegistry, "allowed", "redis");
+        this.deniedLocally = decisionCounter(meterRegistry, "denied", "local");
+        this.deniedByStore = decisionCounter(meterRegistry, "denied", "redis");
+        this.storeFailures = Counter.builder("gateway.rate-limit.store.failures").register(meterRegistry);
+    }
+
+    public Mono<Boolean> isAllowed(String routeId, String userId) {
+        RateLimitProperties.RouteLimit limit = properties.limitFor(routeId);
+        String key = routeId + ":" + userId;
+        LocalState state = localStates.get(key, k -> new LocalState());
+        long now = System.nanoTime();
+
+        if (state.isDenied(now)) {
+            deniedLocally.increment();
+            return Mono.just(false);
+        }
+        if (state.tryConsumeLeased(now)) {
+            allowedLocally.increment();
+            return Mono.just(true);
+        }
+
+        long requested = Math.max(1, Math.min(properties.getLeaseSize(), limit.getBurstCapacity()));
+        return store.acquire(key, limit, requested)
+                .map(granted -> {
+                    boolean allowed = state.onLeaseGranted(granted, System.nanoTime(), limit, properties.getLeaseTtl());
+                    (allowed ? allowedByStore : deniedByStore).increment();
+                    return allowed;
+                })
+                .onErrorResume(e -> {
+                    storeFailures.increment();
+                    logger.debug("Rate limit store unavailable for {}, using {} fallback: {}",
+                            key, properties.getFallbackMode(), e.getMessage());
+                    return Mono.just(fallback(state, limit));
+                });
+    }
+
+    private boolean fallback(LocalState state, RateLimitProperties.RouteLimit limit) {
+        return switch (properties.getFallbackMode()) {
+            case ALLOW -> true;
+            case DENY -> false;
+            case LOCAL -> state.fallbackBucket(limit).tryConsume(System.nanoTime());
+        };
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String decision, String source) {
+        return Counter.builder("gateway.rate-limit.decisions")
+                .tag("decision", decision)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private static final class LocalState {
+
+        private long leasedTokens;
+        private long leaseExpiresAt;
+        private long deniedUntil;
+        private boolean denied;
+        private LocalTokenBucket fallbackBucket;
+
+        synchronized boolean isDenied(long now) {
+            return denied && now - deniedUntil < 0;
+        }
+
+        synchronized boolean tryConsumeLeased(long now) {
+            if (leasedTokens > 0 && now - leaseExpiresAt < 0) {
+                leasedTokens--;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean onLeaseGranted(long granted, long now, RateLimitProperties.RouteLimit limit, Duration leaseTtl) {
+            if (granted <= 0) {
+                denied = true;
+                deniedUntil = now + nanosPerToken(limit);
+                return false;
+            }
+            denied = false;
+            long stillLeased = now - leaseExpiresAt < 0 ? leasedTokens : 0;
+            leasedTokens = stillLeased + granted - 1;
+            leaseExpiresAt = now + leaseTtl.toNanos();
+            return true;
+        }
+
+        synchronized LocalTokenBucket fallbackBucket(RateLimitProperties.RouteLimit limit) {
+            if (fallbackBucket == null) {
+                fallbackBucket = new LocalTokenBucket(limit, System.nanoTime());
+            }
+            return fallbackBucket;
+        }
+
+        private static long nanosPerToken(RateLimitProperties.RouteLimit limit) {
+            return 1_000_000_000L / Math.max(1, limit.getReplenishRate());
+        }
+    }
+}
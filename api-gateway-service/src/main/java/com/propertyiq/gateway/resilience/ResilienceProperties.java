@@ -0,0 +1,78 @@
+package com.propertyiq.gateway.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.resilience")
+public class ResilienceProperties {
+
+    /**
+     * Applied to routes without their own entry under {@code routes}.
+     */
+    private RouteResilience defaults = new RouteResilience();
+
+    private Map<String, RouteResilience> routes = new HashMap<>();
+
+    private RetryBudgetSettings retryBudget = new RetryBudgetSettings();
+
+    public RouteResilience forRoute(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    @Data
+    public static class RouteResilience {
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Retries for GETs that failed to connect or got 502/503/504; 0 disables retries.
+         */
+        private int retries = 1;
+
+        private Duration retryBackoff = Duration.ofMillis(50);
+
+        private CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+    }
+
+    @Data
+    public static class CircuitBreakerSettings {
+
+        private float failureRateThreshold = 50;
+
+        private float slowCallRateThreshold = 80;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(5);
+
+        private int slidingWindowSize = 20;
+
+        private int minimumNumberOfCalls = 10;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        /**
+         * Probe requests let through while half-open before the breaker closes or re-opens.
+         */
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Data
+    public static class RetryBudgetSettings {
+
+        /**
+         * Concurrent retries allowed per route, as a fraction of the route's in-flight requests.
+         */
+        private double ratio = 0.2;
+
+        /**
+         * Concurrent retries always allowed per route, so low-traffic routes can still retry.
+         */
+        private int minConcurrentRetries = 3;
+    }
+}
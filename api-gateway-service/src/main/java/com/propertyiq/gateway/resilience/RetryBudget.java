@@ -0,0 +1,49 @@
+package com.propertyiq.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps concurrent retries at a fraction of in-flight requests (with a floor), so retries cannot
+ * multiply load on a downstream that is already failing.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final int minConcurrentRetries;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger activeRetries = new AtomicInteger();
+
+    public RetryBudget(double ratio, int minConcurrentRetries) {
+        this.ratio = ratio;
+        this.minConcurrentRetries = minConcurrentRetries;
+    }
+
+    public void onRequestStarted() {
+        activeRequests.incrementAndGet();
+    }
+
+    public void onRequestFinished() {
+        activeRequests.decrementAndGet();
+    }
+
+    public boolean tryAcquireRetry() {
+        int limit = Math.max(minConcurrentRetries, (int) (activeRequests.get() * ratio));
+        while (true) {
+            int current = activeRetries.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (activeRetries.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void releaseRetry() {
+        activeRetries.decrementAndGet();
+    }
+
+    public int getActiveRetries() {
+        return activeRetries.get();
+    }
+}
@@ -0,0 +1,48 @@
+package com.propertyiq.gateway.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * One circuit breaker per route id. State and call counts (including calls rejected while open)
+ * are published as {@code resilience4j.circuitbreaker.*} meters.
+ */
+@Component
+public class RouteCircuitBreakers {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteCircuitBreakers.class);
+
+    private final ResilienceProperties properties;
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+
+    public RouteCircuitBreakers(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    public CircuitBreaker forRoute(String routeId) {
+        return registry.circuitBreaker(routeId, () -> configFor(routeId));
+    }
+
+    private CircuitBreakerConfig configFor(String routeId) {
+        ResilienceProperties.CircuitBreakerSettings settings = properties.forRoute(routeId).getCircuitBreaker();
+        logger.info("Creating circuit breaker for route {}: {}", routeId, settings);
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.propertyiq.gateway.routing;
+
+public enum LoadBalancingStrategy {
+    /** Smooth weighted round-robin. */
+    ROUND_ROBIN,
+    /** Fewest in-flight requests relative to weight. */
+    LEAST_OUTSTANDING
+}
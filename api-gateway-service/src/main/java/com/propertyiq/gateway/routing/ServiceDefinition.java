@@ -0,0 +1,38 @@
+package com.propertyiq.gateway.routing;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry of the {@code services.*} block: either a single {@code url} or a list of weighted
+ * {@code instances}.
+ */
+@Data
+public class ServiceDefinition {
+
+    private String url;
+
+    private List<Instance> instances = new ArrayList<>();
+
+    private LoadBalancingStrategy strategy = LoadBalancingStrategy.ROUND_ROBIN;
+
+    public List<Instance> resolveInstances() {
+        if (!instances.isEmpty()) {
+            return instances;
+        }
+        if (url == null || url.isBlank()) {
+            return List.of();
+        }
+        Instance single = new Instance();
+        single.setUrl(url);
+        return List.of(single);
+    }
+
+    @Data
+    public static class Instance {
+        private String url;
+        private int weight = 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.propertyiq.gateway.routing;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live state of one backend instance: in-flight requests and passive health.
+ */
+public class UpstreamInstance {
+
+    private final URI uri;
+    private volatile int weight;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntilNanos;
+    private volatile boolean ejected;
+
+    // Smooth weighted round-robin counter, guarded by the owning pool
+    long currentWeight;
+
+    UpstreamInstance(URI uri, int weight) {
+        this.uri = uri;
+        this.weight = Math.max(1, weight);
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    void setWeight(int weight) {
+        this.weight = Math.max(1, weight);
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public boolean isAvailable(long nowNanos) {
+        if (ejected && nowNanos - ejectedUntilNanos >= 0) {
+            ejected = false;
+            consecutiveFailures.set(0);
+        }
+        return !ejected;
+    }
+
+    void onRequestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void onRequestFinished() {
+        outstanding.decrementAndGet();
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Returns true if this failure ejected the instance.
+     */
+    boolean onFailure(int failureThreshold, long ejectionNanos, long nowNanos) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && !ejected) {
+            ejectedUntilNanos = nowNanos + ejectionNanos;
+            ejected = true;
+            return true;
+        }
+        return false;
+    }
+}
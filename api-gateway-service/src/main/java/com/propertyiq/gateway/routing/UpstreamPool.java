@@ -0,0 +1,83 @@
+package com.propertyiq.gateway.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The instances behind one service id. When every instance is ejected the pool falls back to
+ * all of them rather than failing every request.
+ */
+public class UpstreamPool {
+
+    private final String serviceId;
+    private final List<UpstreamInstance> instances;
+    private final LoadBalancingStrategy strategy;
+    private int leastOutstandingOffset;
+
+    UpstreamPool(String serviceId, List<UpstreamInstance> instances, LoadBalancingStrategy strategy) {
+        this.serviceId = serviceId;
+        this.instances = List.copyOf(instances);
+        this.strategy = strategy;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public List<UpstreamInstance> getInstances() {
+        return instances;
+    }
+
+    public LoadBalancingStrategy getStrategy() {
+        return strategy;
+    }
+
+    synchronized UpstreamInstance choose(long nowNanos) {
+        if (instances.isEmpty()) {
+            return null;
+        }
+        List<UpstreamInstance> candidates = new ArrayList<>(instances.size());
+        for (UpstreamInstance instance : instances) {
+            if (instance.isAvailable(nowNanos)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        return strategy == LoadBalancingStrategy.LEAST_OUTSTANDING
+                ? leastOutstanding(candidates)
+                : weightedRoundRobin(candidates);
+    }
+
+    private UpstreamInstance weightedRoundRobin(List<UpstreamInstance> candidates) {
+        long totalWeight = 0;
+        UpstreamInstance selected = null;
+        for (UpstreamInstance instance : candidates) {
+            instance.currentWeight += instance.getWeight();
+            totalWeight += instance.getWeight();
+            if (selected == null || instance.currentWeight > selected.currentWeight) {
+                selected = instance;
+            }
+        }
+        selected.currentWeight -= totalWeight;
+        return selected;
+    }
+
+    private UpstreamInstance leastOutstanding(List<UpstreamInstance> candidates) {
+        // Rotate the starting point so ties do not always land on the first instance
+        int size = candidates.size();
+        int start = Math.floorMod(leastOutstandingOffset++, size);
+        UpstreamInstance selected = null;
+        double selectedLoad = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            UpstreamInstance instance = candidates.get((start + i) % size);
+            double load = (double) instance.getOutstanding() / instance.getWeight();
+            if (load < selectedLoad) {
+                selected = instance;
+                selectedLoad = load;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,138 @@
+package com.propertyiq.gateway.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Backend instances per service id, read from the {@code services.*} block. The block is re-read
+ * when the environment changes (e.g. {@code POST /actuator/refresh}); instances that survive a
+ * reload keep their in-flight count and health.
+ */
+@Component
+public class UpstreamRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamRegistry.class);
+    private static final String SERVICES_PREFIX = "services";
+
+    private final Environment environment;
+    private final int failureThreshold;
+    private final Duration ejectionDuration;
+    private volatile Map<String, UpstreamPool> pools = Map.of();
+    private volatile Map<String, String> serviceIdsByAddress = Map.of();
+
+    public UpstreamRegistry(Environment environment,
+                            @Value("${gateway.upstreams.failure-threshold:5}") int failureThreshold,
+                            @Value("${gateway.upstreams.ejection-duration:30s}") Duration ejectionDuration) {
+        this.environment = environment;
+        this.failureThreshold = failureThreshold;
+        this.ejectionDuration = ejectionDuration;
+        reload();
+    }
+
+    public UpstreamInstance choose(String serviceId) {
+        UpstreamPool pool = pools.get(serviceId);
+        return pool != null ? pool.choose(System.nanoTime()) : null;
+    }
+
+    public UpstreamPool getPool(String serviceId) {
+        return pools.get(serviceId);
+    }
+
+    public Set<String> getServiceIds() {
+        return pools.keySet();
+    }
+
+    /**
+     * The service that has an instance at {@code host:port}, as of the last reload, or null.
+     */
+    public String findServiceId(String host, int port) {
+        return serviceIdsByAddress.get(address(host, port));
+    }
+
+    public void onRequestStarted(UpstreamInstance instance) {
+        instance.onRequestStarted();
+    }
+
+    public void onRequestFinished(UpstreamInstance instance, boolean failed) {
+        instance.onRequestFinished();
+        if (!failed) {
+            instance.onSuccess();
+        } else if (instance.onFailure(failureThreshold, ejectionDuration.toNanos(), System.nanoTime())) {
+            logger.warn("Ejecting upstream {} for {} after {} consecutive failures",
+                    instance.getUri(), ejectionDuration, failureThreshold);
+        }
+    }
+
+    public void onRequestCancelled(UpstreamInstance instance) {
+        instance.onRequestFinished();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(SERVICES_PREFIX + "."))) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        Map<String, ServiceDefinition> definitions = Binder.get(environment)
+                .bind(SERVICES_PREFIX, Bindable.mapOf(String.class, ServiceDefinition.class))
+                .orElse(Map.of());
+
+        Map<String, UpstreamPool> reloaded = new HashMap<>();
+        Map<String, String> reloadedAddresses = new HashMap<>();
+        definitions.forEach((serviceId, definition) -> {
+            List<UpstreamInstance> instances = new ArrayList<>();
+            for (ServiceDefinition.Instance instance : definition.resolveInstances()) {
+                URI uri = URI.create(instance.getUrl());
+                instances.add(existingOrNew(serviceId, uri, instance.getWeight()));
+                reloadedAddresses.put(address(uri.getHost(), port(uri)), serviceId);
+            }
+            reloaded.put(serviceId, new UpstreamPool(serviceId, instances, definition.getStrategy()));
+        });
+        pools = Map.copyOf(reloaded);
+        serviceIdsByAddress = Map.copyOf(reloadedAddresses);
+
+        reloaded.values().forEach(pool -> logger.info("Upstreams for {} ({}): {}", pool.getServiceId(),
+                pool.getStrategy(), pool.getInstances().stream().map(UpstreamInstance::getUri).toList()));
+    }
+
+    private static String address(String host, int port) {
+        return host + ":" + port;
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equals(uri.getScheme()) ? 443 : 80;
+    }
+
+    private UpstreamInstance existingOrNew(String serviceId, URI uri, int weight) {
+        UpstreamPool current = pools.get(serviceId);
+        if (current != null) {
+            for (UpstreamInstance instance : current.getInstances()) {
+                if (instance.getUri().equals(uri)) {
+                    instance.setWeight(weight);
+                    return instance;
+                }
+            }
+        }
+        return new UpstreamInstance(uri, weight);
+    }
+}
@@ -1,40 +1,80 @@
 package com.propertyiq.gateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.ECKey;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.security.PublicKey;
 import java.text.ParseException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Component
 public class JwksKeyProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwksKeyProvider.class);
-    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    private static final int MAX_UNKNOWN_KIDS = 1000;
 
     @Value("${supabase.url:}")
     private String supabaseUrl;
 
+    @Value("${gateway.jwks.cache-ttl:10m}")
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    @Value("${gateway.jwks.refresh-ahead:1m}")
+    private Duration refreshAhead = Duration.ofMinutes(1);
+
+    @Value("${gateway.jwks.max-stale:1h}")
+    private Duration maxStale = Duration.ofHours(1);
+
+    @Value("${gateway.jwks.retry-interval:30s}")
+    private Duration retryInterval = Duration.ofSeconds(30);
+
+    @Value("${gateway.jwks.min-refresh-interval:30s}")
+    private Duration minRefreshInterval = Duration.ofSeconds(30);
+
+    @Value("${gateway.jwks.fetch-timeout:5s}")
+    private Duration fetchTimeout = Duration.ofSeconds(5);
+
     private final WebClient webClient;
-    private final Map<String, PublicKey> keyCache = new ConcurrentHashMap<>();
-    private volatile Instant cacheExpiresAt = Instant.MIN;
+    private final AtomicReference<KeySnapshot> snapshot = new AtomicReference<>(KeySnapshot.EMPTY);
+    private final AtomicReference<Mono<KeySnapshot>> inFlightRefresh = new AtomicReference<>();
+    private final Cache<String, Boolean> unknownKids;
+    private final List<Consumer<Set<String>>> keyRotationListeners = new CopyOnWriteArrayList<>();
+    private final Scheduler refreshScheduler = Schedulers.newSingle("jwks-refresh", true);
+    private volatile Disposable scheduledRefresh;
+    private volatile Instant lastRefreshAttempt = Instant.MIN;
 
-    public JwksKeyProvider(WebClient.Builder webClientBuilder) {
+    public JwksKeyProvider(WebClient.Builder webClientBuilder,
+                           @Value("${gateway.jwks.unknown-kid-ttl:1m}") Duration unknownKidTtl) {
         this.webClient = webClientBuilder.build();
+        this.unknownKids = Caffeine.newBuilder()
+                .maximumSize(MAX_UNKNOWN_KIDS)
+                .expireAfterWrite(unknownKidTtl)
+                .build();
     }
 
     @PostConstruct
@@ -47,30 +87,98 @@ public class JwksKeyProvider {
             );
         }
         logger.info("JwksKeyProvider initialized with Supabase URL: {}", supabaseUrl);
+        refreshInBackground();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshScheduler.dispose();
     }
 
     public Mono<PublicKey> getKey(String kid) {
-        if (isCacheValid() && keyCache.containsKey(kid)) {
-            logger.debug("Returning cached key for kid: {}", kid);
-            return Mono.just(keyCache.get(kid));
+        KeySnapshot current = snapshot.get();
+        Instant now = Instant.now();
+        PublicKey key = current.keys().get(kid);
+
+        if (key != null) {
+            if (now.isBefore(current.expiresAt())) {
+                logger.debug("Returning cached key for kid: {}", kid);
+                return Mono.just(key);
+            }
+            if (now.isBefore(current.expiresAt().plus(maxStale))) {
+                logger.debug("Returning stale key for kid: {} while JWKS revalidates", kid);
+                refreshInBackground();
+                return Mono.just(key);
+            }
+            return refreshKeys().flatMap(keys -> resolveKey(keys, kid));
         }
 
-        return refreshKeys()
-                .flatMap(keys -> {
-                    PublicKey key = keys.get(kid);
-                    if (key == null) {
-                        logger.warn("Key not found for kid: {} after refresh", kid);
-                        return Mono.error(new IllegalArgumentException("Unknown key ID: " + kid));
-                    }
-                    return Mono.just(key);
-                });
+        if (unknownKids.getIfPresent(kid) != null) {
+            return unknownKid(kid);
+        }
+        Mono<KeySnapshot> inFlight = inFlightRefresh.get();
+        if (inFlight != null) {
+            return inFlight.flatMap(keys -> resolveKey(keys, kid));
+        }
+        // Until a key set has loaded, every kid is unknown, so a failed startup fetch mustn't hold off the retry
+        if (current != KeySnapshot.EMPTY && now.isBefore(lastRefreshAttempt.plus(minRefreshInterval))) {
+            unknownKids.put(kid, Boolean.TRUE);
+            return unknownKid(kid);
+        }
+
+        return refreshKeys().flatMap(keys -> resolveKey(keys, kid));
+    }
+
+    public void addKeyRotationListener(Consumer<Set<String>> listener) {
+        keyRotationListeners.add(listener);
+    }
+
+    public String getSupabaseUrl() {
+        return supabaseUrl;
+    }
+
+    private Mono<PublicKey> resolveKey(KeySnapshot keys, String kid) {
+        PublicKey key = keys.keys().get(kid);
+        if (key == null) {
+            logger.warn("Key not found for kid: {} after refresh", kid);
+            unknownKids.put(kid, Boolean.TRUE);
+            return unknownKid(kid);
+        }
+        return Mono.just(key);
     }
 
-    private boolean isCacheValid() {
-        return Instant.now().isBefore(cacheExpiresAt);
+    private Mono<PublicKey> unknownKid(String kid) {
+        return Mono.error(new IllegalArgumentException("Unknown key ID: " + kid));
     }
 
-    private Mono<Map<String, PublicKey>> refreshKeys() {
+    private void refreshInBackground() {
+        refreshKeys().subscribe(keys -> { }, e -> { });
+    }
+
+    /**
+     * Returns the in-flight refresh if one is running, otherwise starts one. Every caller that
+     * misses during a refresh shares the same fetch, and the fetch runs to completion even if
+     * the callers that triggered it cancel.
+     */
+    private Mono<KeySnapshot> refreshKeys() {
+        while (true) {
+            Mono<KeySnapshot> inFlight = inFlightRefresh.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            Mono<KeySnapshot> refresh = fetchKeys()
+                    .doFinally(signal -> inFlightRefresh.set(null))
+                    .cache();
+            if (inFlightRefresh.compareAndSet(null, refresh)) {
+                lastRefreshAttempt = Instant.now();
+                refresh.subscribe(keys -> { }, e -> { });
+                return refresh;
+            }
+        }
+    }
+
+    private Mono<KeySnapshot> fetchKeys() {
         String jwksUrl = supabaseUrl + "/auth/v1/.well-known/jwks.json";
         logger.debug("Fetching JWKS from: {}", jwksUrl);
 
@@ -78,19 +186,61 @@ public class JwksKeyProvider {
                 .uri(jwksUrl)
                 .retrieve()
                 .bodyToMono(String.class)
+                .timeout(fetchTimeout)
                 .publishOn(Schedulers.boundedElastic())
                 .map(this::parseJwks)
-                .doOnSuccess(keys -> {
-                    keyCache.clear();
-                    keyCache.putAll(keys);
-                    cacheExpiresAt = Instant.now().plus(CACHE_TTL);
-                    logger.info("JWKS cache refreshed with {} keys, expires at: {}", keys.size(), cacheExpiresAt);
-                })
-                .doOnError(e -> logger.error("Failed to fetch JWKS: {}", e.getMessage()));
+                .map(this::swapSnapshot)
+                .doOnError(e -> {
+                    logger.error("Failed to fetch JWKS, keeping {} cached keys: {}",
+                            snapshot.get().keys().size(), e.getMessage());
+                    scheduleRefresh(retryInterval);
+                });
+    }
+
+    private KeySnapshot swapSnapshot(Map<String, PublicKey> keys) {
+        Instant now = Instant.now();
+        KeySnapshot refreshed = new KeySnapshot(Map.copyOf(keys), now.plus(cacheTtl));
+        KeySnapshot previous = snapshot.getAndSet(refreshed);
+
+        unknownKids.invalidateAll(keys.keySet());
+        logger.info("JWKS cache refreshed with {} keys, expires at: {}", keys.size(), refreshed.expiresAt());
+
+        Set<String> removedKids = new HashSet<>(previous.keys().keySet());
+        removedKids.removeAll(keys.keySet());
+        notifyKeysRemoved(removedKids);
+
+        Duration untilRefresh = cacheTtl.minus(refreshAhead);
+        scheduleRefresh(untilRefresh.isNegative() || untilRefresh.isZero() ? cacheTtl.dividedBy(2) : untilRefresh);
+        return refreshed;
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        Disposable previous = scheduledRefresh;
+        if (previous != null) {
+            previous.dispose();
+        }
+        if (refreshScheduler.isDisposed()) {
+            return;
+        }
+        scheduledRefresh = refreshScheduler.schedule(this::refreshInBackground, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyKeysRemoved(Set<String> removedKids) {
+        if (removedKids.isEmpty()) {
+            return;
+        }
+        logger.info("Keys rotated out of JWKS: {}", removedKids);
+        for (Consumer<Set<String>> listener : keyRotationListeners) {
+            try {
+                listener.accept(removedKids);
+            } catch (Exception e) {
+                logger.warn("Key rotation listener failed: {}", e.getMessage());
+            }
+        }
     }
 
     private Map<String, PublicKey> parseJwks(String jwksJson) {
-        Map<String, PublicKey> keys = new ConcurrentHashMap<>();
+        Map<String, PublicKey> keys = new HashMap<>();
         try {
             JWKSet jwkSet = JWKSet.parse(jwksJson);
             for (JWK jwk : jwkSet.getKeys()) {
@@ -127,7 +277,7 @@ public class JwksKeyProvider {
         }
     }
 
-    public String getSupabaseUrl() {
-        return supabaseUrl;
+    private record KeySnapshot(Map<String, PublicKey> keys, Instant expiresAt) {
+        static final KeySnapshot EMPTY = new KeySnapshot(Map.of(), Instant.MIN);
     }
 }
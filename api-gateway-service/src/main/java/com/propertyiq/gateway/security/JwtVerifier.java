@@ -0,0 +1,103 @@
+package com.propertyiq.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies already-parsed JWTs against JWKS public keys. Verifiers are built once per kid and
+ * reused, and verification is cheap enough to run inline on the event loop.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Set<JWSAlgorithm> ALLOWED_ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+
+    private final Map<String, KeyVerifier> verifiers = new ConcurrentHashMap<>();
+
+    public VerifiedToken verify(SignedJWT jwt, String kid, PublicKey publicKey) throws JOSEException, ParseException {
+        JWSAlgorithm algorithm = jwt.getHeader().getAlgorithm();
+        if (!ALLOWED_ALGORITHMS.contains(algorithm)) {
+            throw new JOSEException("Unsupported JWT algorithm: " + algorithm);
+        }
+
+        JWSVerifier verifier = verifierFor(kid, publicKey);
+        if (!verifier.supportedJWSAlgorithms().contains(algorithm)) {
+            throw new JOSEException("JWT algorithm " + algorithm + " does not match key type for kid: " + kid);
+        }
+        if (!jwt.verify(verifier)) {
+            throw new JOSEException("JWT signature does not match");
+        }
+
+        JWTClaimsSet claims = jwt.getJWTClaimsSet();
+        Instant now = Instant.now();
+        Date expiration = claims.getExpirationTime();
+        if (expiration != null && !now.isBefore(expiration.toInstant())) {
+            throw new JOSEException("JWT expired at " + expiration.toInstant());
+        }
+        Date notBefore = claims.getNotBeforeTime();
+        if (notBefore != null && now.isBefore(notBefore.toInstant())) {
+            throw new JOSEException("JWT not valid before " + notBefore.toInstant());
+        }
+
+        UserInfo userInfo = new UserInfo(claims.getSubject(), claims.getStringClaim("email"), extractRole(claims));
+        return new VerifiedToken(userInfo, expiration != null ? expiration.toInstant() : null);
+    }
+
+    private JWSVerifier verifierFor(String kid, PublicKey publicKey) throws JOSEException {
+        KeyVerifier cached = verifiers.get(kid);
+        if (cached != null && cached.publicKey() == publicKey) {
+            return cached.verifier();
+        }
+        KeyVerifier created = new KeyVerifier(publicKey, createVerifier(publicKey));
+        verifiers.put(kid, created);
+        return created.verifier();
+    }
+
+    private JWSVerifier createVerifier(PublicKey publicKey) throws JOSEException {
+        if (publicKey instanceof RSAPublicKey rsaKey) {
+            return new RSASSAVerifier(rsaKey);
+        } else if (publicKey instanceof ECPublicKey ecKey) {
+            return new ECDSAVerifier(ecKey);
+        }
+        throw new JOSEException("Unsupported public key type: " + publicKey.getAlgorithm());
+    }
+
+    private String extractRole(JWTClaimsSet claims) throws ParseException {
+        Map<String, Object> userMetadata = claims.getJSONObjectClaim("user_metadata");
+        if (userMetadata != null && userMetadata.containsKey("role")) {
+            return userMetadata.get("role").toString();
+        }
+
+        Map<String, Object> appMetadata = claims.getJSONObjectClaim("app_metadata");
+        if (appMetadata != null && appMetadata.containsKey("role")) {
+            return appMetadata.get("role").toString();
+        }
+
+        String role = claims.getStringClaim("role");
+        if (role != null) {
+            return role;
+        }
+
+        return "authenticated";
+    }
+
+    public record VerifiedToken(UserInfo userInfo, Instant expiresAt) {}
+
+    private record KeyVerifier(PublicKey publicKey, JWSVerifier verifier) {}
+}
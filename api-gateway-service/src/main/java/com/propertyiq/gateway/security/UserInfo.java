@@ -0,0 +1,3 @@
+package com.propertyiq.gateway.security;
+
+public record UserInfo(String userId, String email, String role) {}
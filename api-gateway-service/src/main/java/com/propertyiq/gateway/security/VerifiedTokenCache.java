@@ -0,0 +1,102 @@
+package com.propertyiq.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Remembers already-verified tokens by SHA-256 digest until their {@code exp}, so repeat requests
+ * skip the signature check. Entries are dropped when their kid is rotated out of the JWKS.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final String METRIC_NAME = "gateway.jwt.verified-tokens";
+
+    private final Cache<String, CachedToken> cache;
+
+    public VerifiedTokenCache(JwksKeyProvider jwksKeyProvider,
+                              MeterRegistry meterRegistry,
+                              @Value("${gateway.jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME);
+        jwksKeyProvider.addKeyRotationListener(this::evictKeys);
+        logger.info("VerifiedTokenCache initialized with maximum size: {}", maximumSize);
+    }
+
+    public String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public UserInfo get(String digest) {
+        CachedToken cached = cache.getIfPresent(digest);
+        return cached != null ? cached.userInfo() : null;
+    }
+
+    public void put(String digest, String kid, UserInfo userInfo, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(digest, new CachedToken(userInfo, kid, expiresAt));
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    void evictKeys(Set<String> removedKids) {
+        if (removedKids.isEmpty()) {
+            return;
+        }
+        boolean removed = cache.asMap().values().removeIf(cached -> removedKids.contains(cached.kid()));
+        if (removed) {
+            logger.info("Evicted verified tokens signed with rotated keys: {}", removedKids);
+        }
+    }
+
+    private record CachedToken(UserInfo userInfo, String kid, Instant expiresAt) {}
+
+    private static class UntilTokenExpiry implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- Token bucket shared by all gateway instances.
+-- KEYS[1]: bucket hash key
+-- ARGV[1]: replenish rate (tokens per second)
+-- ARGV[2]: burst capacity
+-- ARGV[3]: tokens requested (a lease for the caller's local pre-check)
+-- Returns the number of tokens granted, between 0 and ARGV[3].
+local bucket_key = KEYS[1]
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) + tonumber(time[2]) / 1000000
+
+local state = redis.call('HMGET', bucket_key, 'tokens', 'timestamp')
+local tokens = tonumber(state[1])
+local last_refreshed = tonumber(state[2])
+if tokens == nil then
+    tokens = capacity
+    last_refreshed = now
+end
+
+local elapsed = math.max(0, now - last_refreshed)
+local filled = math.min(capacity, tokens + elapsed * rate)
+local granted = math.min(requested, math.floor(filled))
+
+redis.call('HSET', bucket_key, 'tokens', filled - granted, 'timestamp', now)
+-- Kept until the bucket would be full again; a rate below 1 (rejected by the gateway's config) counts as 1
+redis.call('EXPIRE', bucket_key, math.ceil(capacity / math.max(rate, 1)) * 2 + 1)
+
+return granted
@@ -0,0 +1,82 @@
+package com.propertyiq.gateway.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccessLogWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccessLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void shouldWriteRecordsFromBackgroundThread() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        writer = new AccessLogWriter(new AccessLogProperties(), meterRegistry,
+                record -> threads.add(Thread.currentThread().getName()));
+
+        writer.append(record(200));
+        writer.append(record(404));
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> threads.size() == 2);
+        assertEquals(List.of("access-log-writer", "access-log-writer"), threads);
+    }
+
+    @Test
+    void shouldDropAndCountRecordsWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<AccessLogRecord> written = new CopyOnWriteArrayList<>();
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setBufferSize(4);
+        writer = new AccessLogWriter(properties, meterRegistry, record -> {
+            taken.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(record);
+        });
+
+        // The first record blocks the writer; four more fill the buffer and the last two are dropped
+        writer.append(record(200));
+        taken.await();
+        for (int i = 0; i < 6; i++) {
+            writer.append(record(200));
+        }
+        release.countDown();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> written.size() == 5);
+        assertEquals(2.0, meterRegistry.get("gateway.access-log.dropped").counter().count());
+    }
+
+    @Test
+    void shouldFormatRecordAsKeyValueLine() {
+        writer = new AccessLogWriter(new AccessLogProperties(), meterRegistry, record -> { });
+
+        String line = AccessLogWriter.format(new AccessLogRecord(0, "abc123", "GET", "/api/properties",
+                "portfolio-service", 200, 12_345, 512, "user-1"));
+
+        assertEquals("ts=1970-01-01T00:00:00Z correlation_id=abc123 method=GET path=/api/properties "
+                + "route=portfolio-service status=200 latency_ms=12.3 bytes=512 user=user-1", line);
+    }
+
+    private static AccessLogRecord record(int status) {
+        return new AccessLogRecord(System.currentTimeMillis(), "id", "GET", "/api/properties",
+                "portfolio-service", status, 1_000, 0, null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.propertyiq.gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheTest {
+
+    private static final String SCOPE = ResponseCache.scope("portfolio-service", "user-1");
+    private static final String KEY = ResponseCache.key(SCOPE, "/api/properties");
+
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldReturnStoredResponse() {
+        responseCache.put(SCOPE, KEY, response(responseCache.currentGeneration(SCOPE), TimeUnit.MINUTES.toNanos(1)));
+
+        assertNotNull(responseCache.get(SCOPE, KEY));
+    }
+
+    @Test
+    void shouldMissAfterInvalidation() {
+        responseCache.put(SCOPE, KEY, response(responseCache.currentGeneration(SCOPE), TimeUnit.MINUTES.toNanos(1)));
+
+        responseCache.invalidate(SCOPE);
+
+        assertNull(responseCache.get(SCOPE, KEY));
+    }
+
+    @Test
+    void shouldDropResponseCapturedBeforeInvalidation() {
+        long generationAtRequest = responseCache.currentGeneration(SCOPE);
+        responseCache.invalidate(SCOPE);
+
+        responseCache.put(SCOPE, KEY, response(generationAtRequest, TimeUnit.MINUTES.toNanos(1)));
+
+        assertNull(responseCache.get(SCOPE, KEY));
+    }
+
+    @Test
+    void shouldNotShareInvalidationAcrossUsers() {
+        String otherScope = ResponseCache.scope("portfolio-service", "user-2");
+        String otherKey = ResponseCache.key(otherScope, "/api/properties");
+        responseCache.put(otherScope, otherKey, response(responseCache.currentGeneration(otherScope), TimeUnit.MINUTES.toNanos(1)));
+
+        responseCache.invalidate(SCOPE);
+
+        assertNotNull(responseCache.get(otherScope, otherKey));
+    }
+
+    @Test
+    void shouldAnnounceInvalidationsAndApplyThoseOfOtherInstances() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        Sinks.Many<ReactiveSubscription.Message<String, String>> channel = Sinks.many().multicast().directBestEffort();
+        doReturn(channel.asFlux()).when(redisTemplate).listenToChannel(properties.getInvalidationChannel());
+        when(redisTemplate.convertAndSend(eq(properties.getInvalidationChannel()), anyString())).thenReturn(Mono.just(1L));
+        ResponseCache writer = new ResponseCache(properties, new SimpleMeterRegistry(), redisTemplate);
+        ResponseCache reader = new ResponseCache(properties, new SimpleMeterRegistry(), redisTemplate);
+        writer.subscribeToInvalidations();
+        reader.subscribeToInvalidations();
+        writer.put(SCOPE, KEY, response(writer.currentGeneration(SCOPE), TimeUnit.MINUTES.toNanos(1)));
+        reader.put(SCOPE, KEY, response(reader.currentGeneration(SCOPE), TimeUnit.MINUTES.toNanos(1)));
+
+        writer.invalidate(SCOPE);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(properties.getInvalidationChannel()), message.capture());
+        assertNotNull(reader.get(SCOPE, KEY));
+        channel.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(properties.getInvalidationChannel(),
+                message.getValue()));
+
+        assertNull(reader.get(SCOPE, KEY));
+        writer.put(SCOPE, KEY, response(writer.currentGeneration(SCOPE), TimeUnit.MINUTES.toNanos(1)));
+        assertNotNull(writer.get(SCOPE, KEY));
+        writer.shutdown();
+        reader.shutdown();
+    }
+
+    @Test
+    void shouldExpireAfterTtl() {
+        responseCache.put(SCOPE, KEY, response(responseCache.currentGeneration(SCOPE), -1));
+
+        assertNull(responseCache.get(SCOPE, KEY));
+    }
+
+    @Test
+    void shouldDeriveEtagFromBody() {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(ResponseCache.etag(body), ResponseCache.etag("[]".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(ResponseCache.etag(body), ResponseCache.etag("[1]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static CachedResponse response(long generation, long ttlNanos) {
+        byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        return new CachedResponse(body, MediaType.APPLICATION_JSON, ResponseCache.etag(body), generation,
+                System.nanoTime() + ttlNanos);
+    }
+}
@@ -0,0 +1,127 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.resilience.ResilienceProperties;
+import com.propertyiq.gateway.resilience.RouteCircuitBreakers;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class CircuitBreakerFilterTest {
+
+    private static final String ROUTE_ID = "reporting-service";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicReference<HttpStatus> upstreamStatus = new AtomicReference<>(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RouteCircuitBreakers circuitBreakers;
+    private GatewayFilter gatewayFilter;
+    private GatewayFilterChain upstream;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties properties = new ResilienceProperties();
+        ResilienceProperties.CircuitBreakerSettings settings = properties.getDefaults().getCircuitBreaker();
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumNumberOfCalls(4);
+        settings.setWaitDurationInOpenState(Duration.ofMillis(200));
+        settings.setPermittedCallsInHalfOpenState(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakers = new RouteCircuitBreakers(properties, meterRegistry);
+        gatewayFilter = new CircuitBreakerFilter(circuitBreakers, properties).apply(new CircuitBreakerFilter.Config());
+
+        upstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(upstreamStatus.get());
+            return Mono.empty();
+        };
+    }
+
+    @Test
+    void shouldOpenAfterFailuresAndRejectWithoutCallingUpstream() {
+        sendRequests(4, upstream);
+
+        MockServerWebExchange rejected = exchange();
+        StepVerifier.create(gatewayFilter.filter(rejected, upstream)).verifyComplete();
+
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.forRoute(ROUTE_ID).getState());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls")
+                .tag("name", ROUTE_ID).counter().count());
+    }
+
+    @Test
+    void shouldCountUpstreamErrorsAsFailures() {
+        GatewayFilterChain failing = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.error(new IllegalStateException("connection reset"));
+        };
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(gatewayFilter.filter(exchange(), failing)).verifyError(IllegalStateException.class);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.forRoute(ROUTE_ID).getState());
+    }
+
+    @Test
+    void shouldProbeWhenHalfOpenAndCloseOnSuccess() {
+        sendRequests(4, upstream);
+        CircuitBreaker circuitBreaker = circuitBreakers.forRoute(ROUTE_ID);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        await().atMost(Duration.ofSeconds(2))
+                .until(() -> circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN);
+        upstreamStatus.set(HttpStatus.OK);
+        sendRequests(2, upstream);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(6, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCountClientErrorsAsFailures() {
+        upstreamStatus.set(HttpStatus.NOT_FOUND);
+
+        sendRequests(10, upstream);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.forRoute(ROUTE_ID).getState());
+    }
+
+    private void sendRequests(int count, GatewayFilterChain chain) {
+        for (int i = 0; i < count; i++) {
+            StepVerifier.create(gatewayFilter.filter(exchange(), chain)).verifyComplete();
+        }
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/reports"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri("lb://reporting")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
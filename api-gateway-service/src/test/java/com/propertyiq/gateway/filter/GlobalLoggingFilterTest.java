@@ -0,0 +1,123 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.accesslog.AccessLogProperties;
+import com.propertyiq.gateway.accesslog.AccessLogRecord;
+import com.propertyiq.gateway.accesslog.AccessLogWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class GlobalLoggingFilterTest {
+
+    private AccessLogWriter accessLogWriter;
+    private AccessLogProperties properties;
+    private GlobalLoggingFilter filter;
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        accessLogWriter = mock(AccessLogWriter.class);
+        properties = new AccessLogProperties();
+        filter = new GlobalLoggingFilter(accessLogWriter, properties);
+    }
+
+    @Test
+    void shouldRecordOneAccessLogEntryPerRequest() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/properties"));
+
+        StepVerifier.create(filter.filter(exchange, upstream(HttpStatus.OK, "[1,2,3]"))).verifyComplete();
+
+        AccessLogRecord record = captureRecord();
+        assertEquals("GET", record.method());
+        assertEquals("/api/properties", record.path());
+        assertEquals("portfolio-service", record.routeId());
+        assertEquals(200, record.status());
+        assertEquals(7, record.bytes());
+        assertEquals("user-1", record.userId());
+        assertTrue(record.latencyMicros() >= 0);
+        assertEquals(16, record.correlationId().length());
+    }
+
+    @Test
+    void shouldForwardGeneratedCorrelationIdAndKeepIncomingOne() {
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.get("/api/properties")),
+                upstream(HttpStatus.OK, ""))).verifyComplete();
+        String generated = forwarded.get().getRequest().getHeaders().getFirst("X-Correlation-Id");
+        assertNotNull(generated);
+        assertEquals(generated, captureRecord().correlationId());
+
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.get("/api/properties")
+                .header("X-Correlation-Id", "client-id")), upstream(HttpStatus.OK, ""))).verifyComplete();
+        assertEquals("client-id", forwarded.get().getRequest().getHeaders().getFirst("X-Correlation-Id"));
+    }
+
+    @Test
+    void shouldSampleSuccessfulResponsesButAlwaysLogErrors() {
+        properties.setSuccessSampleRate(0.0);
+
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.get("/api/properties")),
+                upstream(HttpStatus.OK, "[]"))).verifyComplete();
+        verify(accessLogWriter, never()).append(any());
+
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.get("/api/properties")),
+                upstream(HttpStatus.SERVICE_UNAVAILABLE, ""))).verifyComplete();
+        assertEquals(503, captureRecord().status());
+    }
+
+    @Test
+    void shouldSkipRecordWhenDisabled() {
+        properties.setEnabled(false);
+
+        StepVerifier.create(filter.filter(exchange(MockServerHttpRequest.get("/api/properties")),
+                upstream(HttpStatus.INTERNAL_SERVER_ERROR, ""))).verifyComplete();
+
+        verify(accessLogWriter, never()).append(any());
+    }
+
+    private AccessLogRecord captureRecord() {
+        ArgumentCaptor<AccessLogRecord> captor = ArgumentCaptor.forClass(AccessLogRecord.class);
+        verify(accessLogWriter).append(captor.capture());
+        return captor.getValue();
+    }
+
+    private GatewayFilterChain upstream(HttpStatus status, String body) {
+        return exchange -> {
+            forwarded.set(exchange);
+            exchange.getAttributes().put(JwtAuthenticationFilter.USER_ID_ATTR, "user-1");
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("portfolio-service")
+                .uri("lb://portfolio")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -1,7 +1,11 @@
 package com.propertyiq.gateway.filter;
 
+import com.propertyiq.gateway.metrics.GatewayMetrics;
 import com.propertyiq.gateway.security.JwksKeyProvider;
+import com.propertyiq.gateway.security.JwtVerifier;
+import com.propertyiq.gateway.security.VerifiedTokenCache;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -26,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +44,7 @@ class JwtAuthenticationFilterTest {
     private JwksKeyProvider jwksKeyProvider;
     private GatewayFilterChain chain;
     private KeyPair keyPair;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -47,7 +53,10 @@ class JwtAuthenticationFilterTest {
         keyPair = keyGen.generateKeyPair();
 
         jwksKeyProvider = mock(JwksKeyProvider.class);
-        filter = new JwtAuthenticationFilter(jwksKeyProvider);
+        meterRegistry = new SimpleMeterRegistry();
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwksKeyProvider, new SimpleMeterRegistry(), 1000);
+        filter = new JwtAuthenticationFilter(jwksKeyProvider, verifiedTokenCache, new JwtVerifier(),
+                new GatewayMetrics(meterRegistry));
 
         chain = mock(GatewayFilterChain.class);
         when(chain.filter(any())).thenReturn(Mono.empty());
@@ -150,6 +159,50 @@ class JwtAuthenticationFilterTest {
         assertNull(exchange.getResponse().getStatusCode());
     }
 
+    @Test
+    void shouldServeRepeatTokenFromCacheWithoutKeyLookup() {
+        when(jwksKeyProvider.getKey(TEST_KID)).thenReturn(Mono.just(keyPair.getPublic()));
+
+        String validToken = createSupabaseJwt(TEST_USER_ID, TEST_EMAIL, "authenticated", null, keyPair.getPrivate(), 3600);
+        GatewayFilter gatewayFilter = filter.apply(new JwtAuthenticationFilter.Config());
+
+        for (int i = 0; i < 3; i++) {
+            MockServerHttpRequest request = MockServerHttpRequest.get("/api/test")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + validToken)
+                    .build();
+            MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+            StepVerifier.create(gatewayFilter.filter(exchange, chain)).verifyComplete();
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+
+        verify(jwksKeyProvider, times(1)).getKey(TEST_KID);
+        verify(chain, times(3)).filter(any());
+        assertEquals(1, meterRegistry.get(GatewayMetrics.AUTHENTICATION).tag("result", "verified").timer().count());
+        assertEquals(2, meterRegistry.get(GatewayMetrics.AUTHENTICATION).tag("result", "cached").timer().count());
+        assertEquals(1, meterRegistry.get(GatewayMetrics.JWKS_LOOKUP).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldNotCacheRejectedToken() {
+        when(jwksKeyProvider.getKey(TEST_KID)).thenReturn(Mono.just(keyPair.getPublic()));
+
+        String expiredToken = createSupabaseJwt(TEST_USER_ID, TEST_EMAIL, "authenticated", null, keyPair.getPrivate(), -3600);
+        GatewayFilter gatewayFilter = filter.apply(new JwtAuthenticationFilter.Config());
+
+        for (int i = 0; i < 2; i++) {
+            MockServerHttpRequest request = MockServerHttpRequest.get("/api/test")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + expiredToken)
+                    .build();
+            MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+            StepVerifier.create(gatewayFilter.filter(exchange, chain)).verifyComplete();
+            assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        }
+
+        verify(jwksKeyProvider, times(2)).getKey(TEST_KID);
+    }
+
     @Test
     void shouldExtractRoleFromUserMetadata() {
         when(jwksKeyProvider.getKey(TEST_KID)).thenReturn(Mono.just(keyPair.getPublic()));
@@ -0,0 +1,101 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.ratelimit.RateLimitProperties;
+import com.propertyiq.gateway.ratelimit.UserRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RateLimitFilterTest {
+
+    private UserRateLimiter userRateLimiter;
+    private RateLimitProperties properties;
+    private GatewayFilter gatewayFilter;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        userRateLimiter = mock(UserRateLimiter.class);
+        properties = new RateLimitProperties();
+        gatewayFilter = new RateLimitFilter(userRateLimiter, properties).apply(new RateLimitFilter.Config());
+
+        chain = mock(GatewayFilterChain.class);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void shouldForwardAllowedRequest() {
+        when(userRateLimiter.isAllowed("portfolio-service", "user-1")).thenReturn(Mono.just(true));
+        MockServerWebExchange exchange = exchange("user-1");
+
+        StepVerifier.create(gatewayFilter.filter(exchange, chain)).verifyComplete();
+
+        verify(chain).filter(exchange);
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void shouldRejectThrottledRequestWithRetryAfter() {
+        when(userRateLimiter.isAllowed("portfolio-service", "user-1")).thenReturn(Mono.just(false));
+        MockServerWebExchange exchange = exchange("user-1");
+
+        StepVerifier.create(gatewayFilter.filter(exchange, chain)).verifyComplete();
+
+        verify(chain, never()).filter(any());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldSkipRequestsWithoutUserId() {
+        MockServerWebExchange exchange = exchange(null);
+
+        StepVerifier.create(gatewayFilter.filter(exchange, chain)).verifyComplete();
+
+        verify(chain).filter(exchange);
+        verify(userRateLimiter, never()).isAllowed(anyString(), anyString());
+    }
+
+    @Test
+    void shouldSkipWhenDisabled() {
+        properties.setEnabled(false);
+        MockServerWebExchange exchange = exchange("user-1");
+
+        StepVerifier.create(gatewayFilter.filter(exchange, chain)).verifyComplete();
+
+        verify(chain).filter(exchange);
+        verify(userRateLimiter, never()).isAllowed(anyString(), anyString());
+    }
+
+    private static MockServerWebExchange exchange(String userId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/properties");
+        if (userId != null) {
+            request.header("X-User-Id", userId);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("portfolio-service")
+                .uri("http://localhost:8082")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,102 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RequestMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsFilter requestMetricsFilter;
+    private UpstreamMetricsFilter upstreamMetricsFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        GatewayMetrics gatewayMetrics = new GatewayMetrics(meterRegistry);
+        requestMetricsFilter = new RequestMetricsFilter(gatewayMetrics);
+        upstreamMetricsFilter = new UpstreamMetricsFilter(gatewayMetrics);
+    }
+
+    @Test
+    void shouldTimeRequestPerRouteMethodAndStatus() {
+        GatewayFilterChain chain = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+            return Mono.delay(Duration.ofMillis(30)).then();
+        };
+
+        StepVerifier.create(requestMetricsFilter.filter(exchange(MockServerHttpRequest.post("/api/properties")), chain))
+                .verifyComplete();
+
+        // Recorded in doFinally, which runs just after completion is signalled
+        awaitTimer(GatewayMetrics.REQUESTS);
+        Timer timer = meterRegistry.get(GatewayMetrics.REQUESTS)
+                .tags("route", "portfolio-service", "method", "POST", "status", "201")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 30);
+    }
+
+    @Test
+    void shouldTimeUpstreamSeparatelyFromTheWholeRequest() {
+        GatewayFilterChain upstream = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.delay(Duration.ofMillis(20)).then();
+        };
+        // Gateway work (auth, rate limiting, ...) before the request reaches the upstream
+        GatewayFilterChain gateway = exchange -> Mono.delay(Duration.ofMillis(40))
+                .then(Mono.defer(() -> upstreamMetricsFilter.filter(exchange, upstream)));
+
+        StepVerifier.create(requestMetricsFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), gateway))
+                .verifyComplete();
+
+        awaitTimer(GatewayMetrics.REQUESTS);
+        Timer upstreamTimer = meterRegistry.get(GatewayMetrics.UPSTREAM).tags("route", "portfolio-service", "status", "200").timer();
+        Timer requestTimer = meterRegistry.get(GatewayMetrics.REQUESTS).tag("route", "portfolio-service").timer();
+        assertTrue(upstreamTimer.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(requestTimer.totalTime(TimeUnit.MILLISECONDS)
+                >= upstreamTimer.totalTime(TimeUnit.MILLISECONDS) + 30);
+    }
+
+    @Test
+    void shouldRecordUpstreamErrors() {
+        GatewayFilterChain upstream = exchange -> Mono.error(new ConnectException("Connection refused"));
+
+        StepVerifier.create(upstreamMetricsFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), upstream))
+                .verifyError(ConnectException.class);
+
+        assertEquals(1, meterRegistry.get(GatewayMetrics.UPSTREAM).tag("status", "error").timer().count());
+    }
+
+    private void awaitTimer(String name) {
+        await().atMost(Duration.ofSeconds(2)).until(() -> meterRegistry.find(name).timer() != null);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("portfolio-service")
+                .uri("lb://portfolio")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,236 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.cache.ResponseCache;
+import com.propertyiq.gateway.cache.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"success\":true,\"data\":[]}";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private ResponseCacheProperties properties;
+    private GatewayFilter gatewayFilter;
+    private GatewayFilterChain upstream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        ResponseCacheProperties.RouteCache routeCache = new ResponseCacheProperties.RouteCache();
+        routeCache.setPaths(List.of("/api/properties", "/api/properties/{id}"));
+        properties.getRoutes().put("portfolio-service", routeCache);
+        gatewayFilter = new ResponseCacheFilter(new ResponseCache(properties, new SimpleMeterRegistry()), properties)
+                .apply(new ResponseCacheFilter.Config());
+
+        upstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    @Test
+    void shouldServeRepeatGetFromCache() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/properties"));
+        StepVerifier.create(gatewayFilter.filter(first, upstream)).verifyComplete();
+
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/properties"));
+        StepVerifier.create(gatewayFilter.filter(second, upstream)).verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithNotModified() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/properties/42"));
+        StepVerifier.create(gatewayFilter.filter(first, upstream)).verifyComplete();
+        String etag = first.getResponse().getHeaders().getETag();
+        assertNotNull(etag);
+
+        MockServerWebExchange revalidation = exchange(MockServerHttpRequest.get("/api/properties/42")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        StepVerifier.create(gatewayFilter.filter(revalidation, upstream)).verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals("", revalidation.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedOnMissWhenUpstreamBodyIsUnchanged() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/properties"));
+        StepVerifier.create(gatewayFilter.filter(first, upstream)).verifyComplete();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange write = exchange(MockServerHttpRequest.post("/api/properties"));
+        StepVerifier.create(gatewayFilter.filter(write, upstream)).verifyComplete();
+
+        MockServerWebExchange revalidation = exchange(MockServerHttpRequest.get("/api/properties")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        StepVerifier.create(gatewayFilter.filter(revalidation, upstream)).verifyComplete();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+    }
+
+    @Test
+    void shouldInvalidateUserEntriesOnWrite() {
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), upstream))
+                .verifyComplete();
+
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.put("/api/properties/42")), upstream))
+                .verifyComplete();
+
+        MockServerWebExchange afterWrite = exchange(MockServerHttpRequest.get("/api/properties"));
+        StepVerifier.create(gatewayFilter.filter(afterWrite, upstream)).verifyComplete();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals("MISS", afterWrite.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+    }
+
+    @Test
+    void shouldKeySeparatelyByUserAndQuery() {
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), upstream))
+                .verifyComplete();
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties?page=2")), upstream))
+                .verifyComplete();
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties"), "user-2", "portfolio-service"), upstream))
+                .verifyComplete();
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCacheExportWhenIdPatternIsRestrictedToUuids() {
+        properties.getRoutes().get("portfolio-service")
+                .setPaths(List.of("/api/properties", "/api/properties/{id:[0-9a-fA-F-]{36}}"));
+        String propertyPath = "/api/properties/550e8400-e29b-41d4-a716-446655440000";
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties/export")), upstream))
+                    .verifyComplete();
+            StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get(propertyPath)), upstream))
+                    .verifyComplete();
+        }
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCachePathsOutsideConfiguredPatterns() {
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/portfolio/summary")), upstream))
+                .verifyComplete();
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/portfolio/summary")), upstream))
+                .verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCacheRoutesThatDidNotOptIn() {
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/expenses"), "user-1", "expense-service"), upstream))
+                .verifyComplete();
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/expenses"), "user-1", "expense-service"), upstream))
+                .verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        GatewayFilterChain failingUpstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return exchange.getResponse().setComplete();
+        };
+
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), failingUpstream))
+                .verifyComplete();
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), upstream))
+                .verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldStreamBodyWithoutContentLengthPastSizeLimitUncached() {
+        properties.setMaxBodySize(DataSize.ofBytes(16));
+        Sinks.Many<String> chunks = Sinks.many().unicast().onBackpressureBuffer();
+        GatewayFilterChain chunkedUpstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(chunks.asFlux()
+                    .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/properties"));
+
+        StepVerifier.create(gatewayFilter.filter(first, chunkedUpstream))
+                .then(() -> chunks.tryEmitNext(BODY.substring(0, 20)))
+                // Written out as soon as the limit is passed, not once the upstream body ends
+                .then(() -> assertTrue(first.getResponse().isCommitted()))
+                .then(() -> {
+                    chunks.tryEmitNext(BODY.substring(20));
+                    chunks.tryEmitComplete();
+                })
+                .verifyComplete();
+        StepVerifier.create(gatewayFilter.filter(exchange(MockServerHttpRequest.get("/api/properties")), upstream))
+                .verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER));
+    }
+
+    @Test
+    void shouldRunAfterAuthenticationAndBeforeResponseIsWritten() {
+        assertTrue(JwtAuthenticationFilter.ORDER < RateLimitFilter.ORDER);
+        assertTrue(RateLimitFilter.ORDER < ResponseCacheFilter.ORDER);
+        assertTrue(ResponseCacheFilter.ORDER < NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return exchange(request, "user-1", "portfolio-service");
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, String userId, String routeId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.header("X-User-Id", userId));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri("http://localhost:8082")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
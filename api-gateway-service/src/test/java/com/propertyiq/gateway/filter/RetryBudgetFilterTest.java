@@ -0,0 +1,132 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.resilience.ResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RetryBudgetFilterTest {
+
+    private static final String ROUTE_ID = "portfolio-service";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private ResilienceProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter gatewayFilter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResilienceProperties();
+        properties.getDefaults().setRetries(2);
+        properties.getDefaults().setRetryBackoff(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+        gatewayFilter = new RetryBudgetFilter(properties, meterRegistry).apply(new RetryBudgetFilter.Config());
+    }
+
+    @Test
+    void shouldRetryGetOnServiceUnavailable() {
+        MockServerWebExchange exchange = exchange(HttpMethod.GET);
+
+        StepVerifier.create(gatewayFilter.filter(exchange,
+                respondWith(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK))).verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("gateway.retry.attempts").tag("route", ROUTE_ID).counter().count());
+    }
+
+    @Test
+    void shouldStopAfterConfiguredRetries() {
+        MockServerWebExchange exchange = exchange(HttpMethod.GET);
+
+        StepVerifier.create(gatewayFilter.filter(exchange, respondWith(HttpStatus.BAD_GATEWAY))).verifyComplete();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(HttpStatus.BAD_GATEWAY, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void shouldRetryConnectFailure() {
+        GatewayFilterChain chain = exchange -> {
+            if (upstreamCalls.incrementAndGet() == 1) {
+                return Mono.error(new ConnectException("Connection refused"));
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+
+        StepVerifier.create(gatewayFilter.filter(exchange(HttpMethod.GET), chain)).verifyComplete();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotRetryResponseTimeout() {
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.error(new TimeoutException("Response took longer than timeout"));
+        };
+
+        StepVerifier.create(gatewayFilter.filter(exchange(HttpMethod.GET), chain)).verifyError(TimeoutException.class);
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNeverRetryNonIdempotentMethods() {
+        StepVerifier.create(gatewayFilter.filter(exchange(HttpMethod.POST),
+                respondWith(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK))).verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldSkipRetryWhenBudgetIsExhausted() {
+        properties.getRetryBudget().setRatio(0);
+        properties.getRetryBudget().setMinConcurrentRetries(0);
+
+        StepVerifier.create(gatewayFilter.filter(exchange(HttpMethod.GET),
+                respondWith(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK))).verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.retry.budget.exhausted").tag("route", ROUTE_ID).counter().count());
+    }
+
+    private GatewayFilterChain respondWith(HttpStatus... statuses) {
+        List<HttpStatus> sequence = List.of(statuses);
+        return exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(sequence.get(Math.min(call, sequence.size()) - 1));
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, "/api/properties"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri("lb://portfolio")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,153 @@
+package com.propertyiq.gateway.filter;
+
+import com.propertyiq.gateway.routing.UpstreamRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Drives the filter against real stub backends; the chain stands in for the Netty routing
+ * filter by calling whatever URL the filter resolved.
+ */
+class UpstreamLoadBalancerFilterTest {
+
+    private final List<HttpServer> backends = new ArrayList<>();
+    private final List<AtomicInteger> hits = new ArrayList<>();
+    private final AtomicReference<String> lastRequestUri = new AtomicReference<>();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private MockEnvironment environment;
+    private UpstreamRegistry registry;
+    private UpstreamLoadBalancerFilter filter;
+    private GatewayFilterChain routingChain;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        environment = new MockEnvironment();
+        for (int i = 0; i < 3; i++) {
+            HttpServer backend = startBackend(i);
+            environment.setProperty("services.portfolio.instances[" + i + "].url",
+                    "http://localhost:" + backend.getAddress().getPort());
+        }
+        registry = new UpstreamRegistry(environment, 2, Duration.ofMinutes(1));
+        filter = new UpstreamLoadBalancerFilter(registry);
+
+        routingChain = exchange -> {
+            URI target = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            return Mono.fromCallable(() -> httpClient.send(HttpRequest.newBuilder(target).build(),
+                            HttpResponse.BodyHandlers.ofString()))
+                    .doOnNext(response -> exchange.getResponse().setStatusCode(HttpStatus.valueOf(response.statusCode())))
+                    .then();
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        backends.forEach(backend -> backend.stop(0));
+    }
+
+    @Test
+    void shouldRoundRobinAcrossBackendsAndKeepPathAndQuery() {
+        for (int i = 0; i < 30; i++) {
+            StepVerifier.create(filter.filter(exchange("/api/properties?page=1"), routingChain)).verifyComplete();
+        }
+
+        hits.forEach(count -> assertEquals(10, count.get()));
+        assertEquals("/api/properties?page=1", lastRequestUri.get());
+    }
+
+    @Test
+    void shouldEjectBackendThatStopsResponding() {
+        backends.get(0).stop(0);
+
+        int failures = 0;
+        for (int i = 0; i < 30; i++) {
+            boolean[] failed = new boolean[1];
+            filter.filter(exchange("/api/properties"), routingChain)
+                    .onErrorResume(e -> {
+                        failed[0] = true;
+                        return Mono.empty();
+                    })
+                    .block();
+            if (failed[0]) {
+                failures++;
+            }
+        }
+
+        assertEquals(2, failures);
+        assertEquals(28, hits.get(1).get() + hits.get(2).get());
+    }
+
+    @Test
+    void shouldPickUpNewBackendAfterReload() throws Exception {
+        HttpServer added = startBackend(3);
+        environment.setProperty("services.portfolio.instances[3].url",
+                "http://localhost:" + added.getAddress().getPort());
+        registry.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("services.portfolio.instances[3].url")));
+
+        for (int i = 0; i < 40; i++) {
+            StepVerifier.create(filter.filter(exchange("/api/properties"), routingChain)).verifyComplete();
+        }
+
+        hits.forEach(count -> assertEquals(10, count.get()));
+    }
+
+    @Test
+    void shouldFailForUnknownService() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/unknown"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://unknown/api/unknown"));
+
+        StepVerifier.create(filter.filter(exchange, routingChain)).verifyError(NotFoundException.class);
+    }
+
+    private MockServerWebExchange exchange(String pathAndQuery) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(pathAndQuery));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://portfolio" + pathAndQuery));
+        return exchange;
+    }
+
+    private HttpServer startBackend(int index) throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        HttpServer backend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        backend.createContext("/api/properties", exchange -> {
+            count.incrementAndGet();
+            lastRequestUri.set(exchange.getRequestURI().toString());
+            byte[] body = ("backend-" + index + " " + exchange.getRequestURI()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        backend.start();
+        backends.add(backend);
+        hits.add(count);
+        return backend;
+    }
+}
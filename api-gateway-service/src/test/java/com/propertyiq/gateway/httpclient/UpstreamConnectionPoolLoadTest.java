@@ -0,0 +1,174 @@
+package com.propertyiq.gateway.httpclient;
+
+import com.propertyiq.gateway.routing.UpstreamRegistry;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a slow stub backend through the upstream pool with a saturated and a tuned
+ * configuration, and checks throughput and the published pool gauges.
+ */
+class UpstreamConnectionPoolLoadTest {
+
+    private static final int REQUESTS = 120;
+    private static final int CONCURRENCY = 60;
+    private static final int BACKEND_LATENCY_MILLIS = 40;
+
+    private HttpServer backend;
+    private String backendUrl;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        backend.createContext("/api/properties", exchange -> {
+            try {
+                Thread.sleep(BACKEND_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        backend.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        backend.start();
+        backendUrl = "http://localhost:" + backend.getAddress().getPort();
+
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(meterRegistry);
+        backend.stop(0);
+    }
+
+    @Test
+    void tunedPoolShouldOutperformSaturatedPool() {
+        LoadResult saturated = run(2);
+        LoadResult tuned = run(CONCURRENCY);
+
+        assertTrue(tuned.throughput() > saturated.throughput() * 4,
+                "tuned " + tuned.throughput() + " req/s vs saturated " + saturated.throughput() + " req/s");
+        assertTrue(saturated.maxPending() > 0, "saturated pool never had pending acquires");
+        assertTrue(tuned.maxPending() < saturated.maxPending(),
+                "tuned max pending " + tuned.maxPending() + " vs saturated " + saturated.maxPending());
+    }
+
+    @Test
+    void shouldApplyServiceSettingsToEachInstanceHost() {
+        ConnectionProvider provider = createProvider(7);
+        try {
+            HttpClient.create(provider).get().uri(backendUrl + "/api/properties")
+                    .responseContent().aggregate().block(Duration.ofSeconds(5));
+
+            assertEquals(7.0, poolGauge("reactor.netty.connection.provider.max.connections", "localhost").value());
+            // The connection is released back to the pool after the response completes
+            await().atMost(Duration.ofSeconds(2))
+                    .until(() -> poolGauge("reactor.netty.connection.provider.idle.connections", "localhost").value() == 1.0);
+        } finally {
+            provider.disposeLater().block();
+        }
+    }
+
+    @Test
+    void shouldApplyServiceSettingsToInstancesAddedByReload() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("services.portfolio.instances[0].url", backendUrl);
+        UpstreamRegistry registry = new UpstreamRegistry(environment, 5, Duration.ofSeconds(30));
+        ConnectionProvider provider = createProvider(registry, 7);
+        try {
+            String addedUrl = "http://127.0.0.1:" + backend.getAddress().getPort();
+            environment.setProperty("services.portfolio.instances[1].url", addedUrl);
+            registry.reload();
+
+            HttpClient.create(provider).get().uri(addedUrl + "/api/properties")
+                    .responseContent().aggregate().block(Duration.ofSeconds(5));
+
+            assertEquals(7.0, poolGauge("reactor.netty.connection.provider.max.connections", "127.0.0.1").value());
+        } finally {
+            provider.disposeLater().block();
+        }
+    }
+
+    private LoadResult run(int maxConnections) {
+        ConnectionProvider provider = createProvider(maxConnections);
+        HttpClient httpClient = HttpClient.create(provider);
+        AtomicLong maxPending = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            sampler.scheduleAtFixedRate(() -> {
+                Gauge pending = meterRegistry.find("reactor.netty.connection.provider.pending.connections")
+                        .tag("name", UpstreamConnectionProviders.POOL_NAME)
+                        .gauge();
+                if (pending != null) {
+                    maxPending.accumulateAndGet((long) pending.value(), Math::max);
+                }
+            }, 0, 5, TimeUnit.MILLISECONDS);
+
+            long start = System.nanoTime();
+            Long completed = Flux.range(0, REQUESTS)
+                    .flatMap(i -> httpClient.get().uri(backendUrl + "/api/properties")
+                            .responseContent().aggregate().asString(), CONCURRENCY)
+                    .count()
+                    .block(Duration.ofSeconds(30));
+            double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+            assertEquals(REQUESTS, completed);
+            return new LoadResult(REQUESTS / seconds, maxPending.get());
+        } finally {
+            sampler.shutdownNow();
+            provider.disposeLater().block();
+        }
+    }
+
+    private ConnectionProvider createProvider(int maxConnections) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("services.portfolio.instances[0].url", backendUrl);
+        return createProvider(new UpstreamRegistry(environment, 5, Duration.ofSeconds(30)), maxConnections);
+    }
+
+    private ConnectionProvider createProvider(UpstreamRegistry registry, int maxConnections) {
+        HttpClientPoolProperties properties = new HttpClientPoolProperties();
+        HttpClientPoolProperties.PoolSettings settings = new HttpClientPoolProperties.PoolSettings();
+        settings.setMaxConnections(maxConnections);
+        settings.setPendingAcquireTimeout(Duration.ofSeconds(30));
+        properties.getPools().put("portfolio", settings);
+        return UpstreamConnectionProviders.create(properties, registry);
+    }
+
+    private Gauge poolGauge(String name, String host) {
+        return meterRegistry.get(name)
+                .tag("name", UpstreamConnectionProviders.POOL_NAME)
+                .tag("remote.address", host + ":" + backend.getAddress().getPort())
+                .gauge();
+    }
+
+    private record LoadResult(double throughput, long maxPending) {}
+}
@@ -0,0 +1,86 @@
+package com.propertyiq.gateway.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramMeterFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayMetrics gatewayMetrics;
+
+    @BeforeEach
+    void setUp() {
+        GatewayMetricsProperties properties = new GatewayMetricsProperties();
+        properties.getRoutes().put("reporting-service",
+                new GatewayMetricsProperties.RouteSlo(List.of(Duration.ofSeconds(5))));
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new LatencyHistogramMeterFilter(properties));
+        gatewayMetrics = new GatewayMetrics(meterRegistry);
+    }
+
+    @Test
+    void shouldPublishDefaultSloBucketsForRoutesWithoutOverride() {
+        gatewayMetrics.recordRequest("portfolio-service", "GET", 200, TimeUnit.MILLISECONDS.toNanos(50));
+        gatewayMetrics.recordRequest("portfolio-service", "GET", 200, TimeUnit.MILLISECONDS.toNanos(500));
+
+        Timer timer = meterRegistry.get(GatewayMetrics.REQUESTS).tag("route", "portfolio-service").timer();
+
+        assertEquals(1.0, countAt(timer, Duration.ofMillis(100)));
+        assertEquals(1.0, countAt(timer, Duration.ofMillis(300)));
+        assertEquals(2.0, countAt(timer, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldUseRouteSpecificSlo() {
+        gatewayMetrics.recordRequest("reporting-service", "GET", 200, TimeUnit.SECONDS.toNanos(3));
+
+        Timer timer = meterRegistry.get(GatewayMetrics.REQUESTS).tag("route", "reporting-service").timer();
+
+        assertEquals(1.0, countAt(timer, Duration.ofSeconds(5)));
+        assertFalse(hasBucket(timer, Duration.ofMillis(300)));
+    }
+
+    @Test
+    void shouldPublishPercentileHistogramForGatewayTimersOnly() {
+        LatencyHistogramMeterFilter filter = new LatencyHistogramMeterFilter(new GatewayMetricsProperties());
+
+        DistributionStatisticConfig upstream = filter.configure(
+                new Meter.Id(GatewayMetrics.UPSTREAM, Tags.of("route", "portfolio-service"), null, null, Meter.Type.TIMER),
+                DistributionStatisticConfig.DEFAULT);
+        DistributionStatisticConfig other = filter.configure(
+                new Meter.Id("unrelated", Tags.empty(), null, null, Meter.Type.TIMER),
+                DistributionStatisticConfig.DEFAULT);
+
+        assertTrue(upstream.isPercentileHistogram());
+        assertEquals(TimeUnit.SECONDS.toNanos(60), upstream.getMaximumExpectedValueAsDouble());
+        assertFalse(Boolean.TRUE.equals(other.isPercentileHistogram()));
+    }
+
+    private static double countAt(Timer timer, Duration boundary) {
+        return Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .filter(bucket -> bucket.bucket() == boundary.toNanos())
+                .mapToDouble(CountAtBucket::count)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static boolean hasBucket(Timer timer, Duration boundary) {
+        return Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .anyMatch(bucket -> bucket.bucket() == boundary.toNanos());
+    }
+}
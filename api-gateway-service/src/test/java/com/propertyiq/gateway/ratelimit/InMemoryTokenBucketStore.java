@@ -0,0 +1,49 @@
+package com.propertyiq.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for Redis that applies the same refill/grant arithmetic as {@code token-bucket.lua},
+ * atomically per key, and counts round trips.
+ */
+class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Map<String, double[]> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicBoolean unavailable = new AtomicBoolean();
+
+    @Override
+    public Mono<Long> acquire(String key, RateLimitProperties.RouteLimit limit, long requested) {
+        return Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            if (unavailable.get()) {
+                throw new IllegalStateException("Redis unavailable");
+            }
+            long[] granted = new long[1];
+            buckets.compute(key, (k, state) -> {
+                // Read the clock inside the atomic section, as the script does with TIME
+                double now = System.nanoTime() / 1_000_000_000d;
+                double tokens = state == null ? limit.getBurstCapacity() : state[0];
+                double lastRefreshed = state == null ? now : state[1];
+                double filled = Math.min(limit.getBurstCapacity(),
+                        tokens + Math.max(0, now - lastRefreshed) * limit.getReplenishRate());
+                granted[0] = Math.min(requested, (long) Math.floor(filled));
+                return new double[]{filled - granted[0], now};
+            });
+            return granted[0];
+        });
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    void setUnavailable(boolean unavailable) {
+        this.unavailable.set(unavailable);
+    }
+}
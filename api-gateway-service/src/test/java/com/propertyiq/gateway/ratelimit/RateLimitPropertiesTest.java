@@ -0,0 +1,33 @@
+package com.propertyiq.gateway.ratelimit;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitPropertiesTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void shouldAcceptDefaults() {
+        assertTrue(validator.validate(new RateLimitProperties()).isEmpty());
+    }
+
+    @Test
+    void shouldRejectRouteWithoutReplenishRate() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("portfolio-service", new RateLimitProperties.RouteLimit(0, 10));
+
+        Set<ConstraintViolation<RateLimitProperties>> violations = validator.validate(properties);
+
+        assertEquals(1, violations.size());
+        assertEquals("routes[portfolio-service].replenishRate",
+                violations.iterator().next().getPropertyPath().toString());
+    }
+}
@@ -0,0 +1,87 @@
+package com.propertyiq.gateway.ratelimit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code scripts/token-bucket.lua} against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisTokenBucketStoreTest {
+
+    @Container
+    private static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate redisTemplate;
+    private static RedisTokenBucketStore store;
+
+    @BeforeAll
+    static void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+        store = new RedisTokenBucketStore(redisTemplate);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldGrantUpToBurstCapacityThenDeny() {
+        RateLimitProperties.RouteLimit limit = new RateLimitProperties.RouteLimit(1, 10);
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(4, store.acquire(key, limit, 4).block());
+        assertEquals(4, store.acquire(key, limit, 4).block());
+        assertEquals(2, store.acquire(key, limit, 4).block());
+        assertEquals(0, store.acquire(key, limit, 4).block());
+    }
+
+    @Test
+    void shouldRefillAtReplenishRate() throws InterruptedException {
+        RateLimitProperties.RouteLimit limit = new RateLimitProperties.RouteLimit(10, 10);
+        String key = UUID.randomUUID().toString();
+        store.acquire(key, limit, 10).block();
+
+        Thread.sleep(300);
+
+        long granted = store.acquire(key, limit, 10).block();
+        assertTrue(granted >= 2 && granted <= 5, "granted " + granted);
+    }
+
+    @Test
+    void shouldExpireBucketOnceItWouldBeFull() {
+        RateLimitProperties.RouteLimit limit = new RateLimitProperties.RouteLimit(5, 10);
+        String key = UUID.randomUUID().toString();
+
+        store.acquire(key, limit, 1).block();
+
+        // ceil(10 / 5) * 2 + 1 seconds
+        long ttlMillis = redisTemplate.getExpire("gateway:rate-limit:{" + key + "}").block().toMillis();
+        assertTrue(ttlMillis > 4_000 && ttlMillis <= 5_000, "ttl " + ttlMillis);
+    }
+
+    @Test
+    void shouldNotFailWhenReplenishRateIsZero() {
+        RateLimitProperties.RouteLimit limit = new RateLimitProperties.RouteLimit(0, 3);
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(3, store.acquire(key, limit, 5).block());
+        assertEquals(0, store.acquire(key, limit, 5).block());
+    }
+}
@@ -0,0 +1,76 @@
+package com.propertyiq.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several gateway instances sharing one bucket store, hammered concurrently by one user.
+ */
+class UserRateLimiterLoadTest {
+
+    private static final String ROUTE = "portfolio-service";
+    private static final int INSTANCES = 4;
+    private static final int THREADS_PER_INSTANCE = 4;
+    private static final long RATE = 50;
+    private static final long BURST = 100;
+    private static final long LEASE_SIZE = 10;
+
+    @Test
+    void shouldBoundAllowedRequestsAcrossInstancesAndMostlyAvoidStore() throws Exception {
+        InMemoryTokenBucketStore store = new InMemoryTokenBucketStore();
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setLeaseSize(LEASE_SIZE);
+        properties.setLeaseTtl(Duration.ofSeconds(1));
+        properties.getRoutes().put(ROUTE, new RateLimitProperties.RouteLimit(RATE, BURST));
+
+        List<UserRateLimiter> instances = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(new UserRateLimiter(store, properties, new SimpleMeterRegistry()));
+        }
+
+        Duration runFor = Duration.ofSeconds(2);
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(INSTANCES * THREADS_PER_INSTANCE);
+        CountDownLatch start = new CountDownLatch(1);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + runFor.toNanos();
+
+        for (UserRateLimiter instance : instances) {
+            for (int t = 0; t < THREADS_PER_INSTANCE; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        requests.incrementAndGet();
+                        if (Boolean.TRUE.equals(instance.isAllowed(ROUTE, "user-1").block())) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000d;
+        long ceiling = BURST + (long) Math.ceil(elapsedSeconds * RATE);
+        assertTrue(allowed.get() <= ceiling,
+                "allowed " + allowed.get() + " exceeds bucket ceiling " + ceiling);
+        assertTrue(allowed.get() >= BURST, "allowed " + allowed.get() + " is below burst capacity");
+        assertTrue(store.calls() * 20 < requests.get(),
+                store.calls() + " store calls for " + requests.get() + " requests");
+    }
+}
@@ -0,0 +1,96 @@
+package com.propertyiq.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRateLimiterTest {
+
+    private static final String ROUTE = "portfolio-service";
+
+    private InMemoryTokenBucketStore store;
+    private RateLimitProperties properties;
+    private UserRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTokenBucketStore();
+        properties = new RateLimitProperties();
+        properties.setLeaseSize(5);
+        properties.setLeaseTtl(Duration.ofSeconds(10));
+        properties.getRoutes().put(ROUTE, new RateLimitProperties.RouteLimit(1, 10));
+        limiter = new UserRateLimiter(store, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldAllowBurstThenDeny() {
+        int allowed = countAllowed(ROUTE, "user-1", 15);
+
+        assertEquals(10, allowed);
+    }
+
+    @Test
+    void shouldSpendLeasedTokensWithoutStoreRoundTrip() {
+        countAllowed(ROUTE, "user-1", 10);
+
+        assertEquals(2, store.calls());
+    }
+
+    @Test
+    void shouldRememberDenialLocally() {
+        countAllowed(ROUTE, "user-1", 10);
+        int callsAfterBurst = store.calls();
+
+        countAllowed(ROUTE, "user-1", 50);
+
+        assertEquals(callsAfterBurst + 1, store.calls());
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerUserAndRoute() {
+        countAllowed(ROUTE, "user-1", 10);
+
+        assertTrue(limiter.isAllowed(ROUTE, "user-2").block());
+        assertTrue(limiter.isAllowed("expense-service", "user-1").block());
+        assertFalse(limiter.isAllowed(ROUTE, "user-1").block());
+    }
+
+    @Test
+    void shouldEnforceLimitLocallyWhenStoreIsUnavailable() {
+        store.setUnavailable(true);
+
+        assertEquals(10, countAllowed(ROUTE, "user-1", 15));
+    }
+
+    @Test
+    void shouldAllowEverythingWhenFallbackModeIsAllow() {
+        properties.setFallbackMode(RateLimitProperties.FallbackMode.ALLOW);
+        store.setUnavailable(true);
+
+        assertEquals(15, countAllowed(ROUTE, "user-1", 15));
+    }
+
+    @Test
+    void shouldDenyEverythingWhenFallbackModeIsDeny() {
+        properties.setFallbackMode(RateLimitProperties.FallbackMode.DENY);
+        store.setUnavailable(true);
+
+        assertEquals(0, countAllowed(ROUTE, "user-1", 15));
+    }
+
+    private int countAllowed(String routeId, String userId, int requests) {
+        int allowed = 0;
+        for (int i = 0; i < requests; i++) {
+            if (Boolean.TRUE.equals(limiter.isAllowed(routeId, userId).block())) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,48 @@
+package com.propertyiq.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    @Test
+    void shouldAllowMinimumConcurrentRetriesAtLowTraffic() {
+        RetryBudget budget = new RetryBudget(0.2, 2);
+        budget.onRequestStarted();
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void shouldScaleWithInFlightRequests() {
+        RetryBudget budget = new RetryBudget(0.2, 1);
+        for (int i = 0; i < 50; i++) {
+            budget.onRequestStarted();
+        }
+
+        int granted = 0;
+        while (budget.tryAcquireRetry()) {
+            granted++;
+        }
+
+        assertEquals(10, granted);
+    }
+
+    @Test
+    void shouldFreeCapacityWhenRetryCompletes() {
+        RetryBudget budget = new RetryBudget(0.2, 1);
+        budget.onRequestStarted();
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        budget.releaseRetry();
+
+        assertTrue(budget.tryAcquireRetry());
+        assertEquals(1, budget.getActiveRetries());
+    }
+}
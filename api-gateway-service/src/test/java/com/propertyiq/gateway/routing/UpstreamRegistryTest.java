@@ -0,0 +1,134 @@
+package com.propertyiq.gateway.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UpstreamRegistryTest {
+
+    private static final URI FIRST = URI.create("http://localhost:9001");
+    private static final URI SECOND = URI.create("http://localhost:9002");
+    private static final URI THIRD = URI.create("http://localhost:9003");
+
+    private MockEnvironment environment;
+    private UpstreamRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("services.auth.url", "http://localhost:8081")
+                .withProperty("services.portfolio.instances[0].url", FIRST.toString())
+                .withProperty("services.portfolio.instances[0].weight", "2")
+                .withProperty("services.portfolio.instances[1].url", SECOND.toString());
+        registry = new UpstreamRegistry(environment, 3, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldSpreadRequestsByWeight() {
+        Map<URI, Integer> counts = choose("portfolio", 300);
+
+        assertEquals(200, counts.get(FIRST));
+        assertEquals(100, counts.get(SECOND));
+    }
+
+    @Test
+    void shouldFindServiceByInstanceHostAfterReload() {
+        environment.setProperty("services.portfolio.instances[2].url", THIRD.toString());
+        registry.reload();
+
+        assertEquals("portfolio", registry.findServiceId("localhost", 9003));
+        assertEquals("auth", registry.findServiceId("localhost", 8081));
+        assertNull(registry.findServiceId("localhost", 9999));
+    }
+
+    @Test
+    void shouldTreatSingleUrlAsOneInstance() {
+        assertEquals(URI.create("http://localhost:8081"), registry.choose("auth").getUri());
+        assertNull(registry.choose("unknown"));
+    }
+
+    @Test
+    void shouldPreferInstanceWithFewestOutstandingRequests() {
+        environment.setProperty("services.portfolio.strategy", "least-outstanding");
+        registry.reload();
+        UpstreamInstance busy = registry.choose("portfolio");
+        registry.onRequestStarted(busy);
+        registry.onRequestStarted(busy);
+
+        for (int i = 0; i < 5; i++) {
+            assertNotEquals(busy.getUri(), registry.choose("portfolio").getUri());
+        }
+    }
+
+    @Test
+    void shouldEjectInstanceAfterConsecutiveFailures() {
+        UpstreamInstance failing = registry.getPool("portfolio").getInstances().get(0);
+        for (int i = 0; i < 3; i++) {
+            registry.onRequestStarted(failing);
+            registry.onRequestFinished(failing, true);
+        }
+
+        Map<URI, Integer> counts = choose("portfolio", 10);
+
+        assertEquals(10, counts.get(SECOND));
+        assertNull(counts.get(FIRST));
+    }
+
+    @Test
+    void shouldNotEjectWhenFailuresAreInterleavedWithSuccesses() {
+        UpstreamInstance flaky = registry.getPool("portfolio").getInstances().get(0);
+        for (int i = 0; i < 5; i++) {
+            registry.onRequestStarted(flaky);
+            registry.onRequestFinished(flaky, i % 2 == 0);
+        }
+
+        assertEquals(20, choose("portfolio", 30).get(FIRST));
+    }
+
+    @Test
+    void shouldFallBackToAllInstancesWhenEveryInstanceIsEjected() {
+        for (UpstreamInstance instance : registry.getPool("portfolio").getInstances()) {
+            for (int i = 0; i < 3; i++) {
+                registry.onRequestStarted(instance);
+                registry.onRequestFinished(instance, true);
+            }
+        }
+
+        assertEquals(2, choose("portfolio", 30).size());
+    }
+
+    @Test
+    void shouldReloadInstancesOnEnvironmentChangeAndKeepSurvivingState() {
+        UpstreamInstance survivor = registry.getPool("portfolio").getInstances().get(1);
+        registry.onRequestStarted(survivor);
+
+        environment.setProperty("services.portfolio.instances[0].url", THIRD.toString());
+        registry.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("services.portfolio.instances[0].url")));
+
+        Map<URI, Integer> counts = choose("portfolio", 30);
+        assertNull(counts.get(FIRST));
+        assertEquals(20, counts.get(THIRD));
+        assertSame(survivor, registry.getPool("portfolio").getInstances().get(1));
+        assertEquals(1, survivor.getOutstanding());
+    }
+
+    private Map<URI, Integer> choose(String serviceId, int requests) {
+        Map<URI, Integer> counts = new HashMap<>();
+        for (int i = 0; i < requests; i++) {
+            counts.merge(registry.choose(serviceId).getUri(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
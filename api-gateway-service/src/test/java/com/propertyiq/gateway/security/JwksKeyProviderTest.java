@@ -0,0 +1,168 @@
+package com.propertyiq.gateway.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JwksKeyProviderTest {
+
+    private HttpServer jwksServer;
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private final AtomicReference<String> jwksBody = new AtomicReference<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private final AtomicInteger responseDelayMillis = new AtomicInteger();
+
+    private KeyPair currentKey;
+    private JwksKeyProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        currentKey = generateRsaKey();
+        jwksBody.set(jwks("key-1", currentKey));
+
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwksServer.createContext("/auth/v1/.well-known/jwks.json", exchange -> {
+            fetchCount.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = jwksBody.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        jwksServer.setExecutor(Executors.newFixedThreadPool(8));
+        jwksServer.start();
+
+        provider = new JwksKeyProvider(WebClient.builder(), Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(provider, "supabaseUrl",
+                "http://localhost:" + jwksServer.getAddress().getPort());
+        ReflectionTestUtils.setField(provider, "minRefreshInterval", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(provider, "retryInterval", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown();
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMissesIntoSingleFetch() {
+        responseDelayMillis.set(300);
+
+        List<PublicKey> keys = Flux.range(0, 50)
+                .flatMap(i -> provider.getKey("key-1"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(50, keys.size());
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    void shouldServeCachedKeyWithoutRefetching() {
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    void shouldNegativelyCacheUnknownKid() {
+        StepVerifier.create(provider.getKey("forged-kid")).verifyError(IllegalArgumentException.class);
+        StepVerifier.create(provider.getKey("forged-kid")).verifyError(IllegalArgumentException.class);
+        StepVerifier.create(provider.getKey("another-forged-kid")).verifyError(IllegalArgumentException.class);
+
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    void shouldServeStaleKeyWhenRefreshFails() throws InterruptedException {
+        ReflectionTestUtils.setField(provider, "cacheTtl", Duration.ofMillis(100));
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+
+        responseStatus.set(500);
+        Thread.sleep(150);
+
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+        await().atMost(Duration.ofSeconds(2)).until(() -> fetchCount.get() >= 2);
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+    }
+
+    @Test
+    void shouldRetryRightAwayWhenNoKeySetHasLoaded() {
+        ReflectionTestUtils.setField(provider, "minRefreshInterval", Duration.ofSeconds(30));
+        responseStatus.set(500);
+        StepVerifier.create(provider.getKey("key-1")).expectError().verify();
+
+        responseStatus.set(200);
+
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+        assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    void shouldRefreshProactivelyBeforeExpiry() {
+        ReflectionTestUtils.setField(provider, "cacheTtl", Duration.ofMillis(600));
+        ReflectionTestUtils.setField(provider, "refreshAhead", Duration.ofMillis(400));
+
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> fetchCount.get() >= 2);
+    }
+
+    @Test
+    void shouldPickUpRotatedKeyAndNotifyListeners() throws Exception {
+        List<Set<String>> removedKids = new CopyOnWriteArrayList<>();
+        provider.addKeyRotationListener(removedKids::add);
+        StepVerifier.create(provider.getKey("key-1")).expectNext(currentKey.getPublic()).verifyComplete();
+
+        KeyPair rotatedKey = generateRsaKey();
+        jwksBody.set(jwks("key-2", rotatedKey));
+        Thread.sleep(250);
+
+        StepVerifier.create(provider.getKey("key-2")).expectNext(rotatedKey.getPublic()).verifyComplete();
+        assertEquals(List.of(Set.of("key-1")), removedKids);
+    }
+
+    private static KeyPair generateRsaKey() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        return keyGen.generateKeyPair();
+    }
+
+    private static String jwks(String kid, KeyPair keyPair) {
+        RSAKey jwk = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID(kid).build();
+        return new JWKSet(jwk).toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.propertyiq.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.SignedJWT;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtVerifierTest {
+
+    private static final String KID = "test-key-id";
+
+    private final JwtVerifier jwtVerifier = new JwtVerifier();
+
+    @Test
+    void shouldVerifyEs256Token() throws Exception {
+        KeyPair ecKey = generateKey("EC", 256);
+        SignedJWT jwt = SignedJWT.parse(createToken(ecKey, Map.of("app_metadata", Map.of("role", "ADMIN")), 3600));
+
+        JwtVerifier.VerifiedToken verified = jwtVerifier.verify(jwt, KID, ecKey.getPublic());
+
+        assertEquals("user-1", verified.userInfo().userId());
+        assertEquals("user@example.com", verified.userInfo().email());
+        assertEquals("ADMIN", verified.userInfo().role());
+        assertNotNull(verified.expiresAt());
+    }
+
+    @Test
+    void shouldRejectTokenSignedByDifferentKey() throws Exception {
+        KeyPair signingKey = generateKey("RSA", 2048);
+        KeyPair otherKey = generateKey("RSA", 2048);
+        SignedJWT jwt = SignedJWT.parse(createToken(signingKey, Map.of(), 3600));
+
+        assertThrows(JOSEException.class, () -> jwtVerifier.verify(jwt, KID, otherKey.getPublic()));
+    }
+
+    @Test
+    void shouldRejectAlgorithmThatDoesNotMatchKeyType() throws Exception {
+        KeyPair rsaKey = generateKey("RSA", 2048);
+        KeyPair ecKey = generateKey("EC", 256);
+        SignedJWT jwt = SignedJWT.parse(createToken(rsaKey, Map.of(), 3600));
+
+        assertThrows(JOSEException.class, () -> jwtVerifier.verify(jwt, KID, ecKey.getPublic()));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() throws Exception {
+        KeyPair rsaKey = generateKey("RSA", 2048);
+        SignedJWT jwt = SignedJWT.parse(createToken(rsaKey, Map.of(), -60));
+
+        assertThrows(JOSEException.class, () -> jwtVerifier.verify(jwt, KID, rsaKey.getPublic()));
+    }
+
+    @Test
+    void shouldUseNewKeyWhenKidIsRebound() throws Exception {
+        KeyPair oldKey = generateKey("RSA", 2048);
+        KeyPair newKey = generateKey("RSA", 2048);
+
+        jwtVerifier.verify(SignedJWT.parse(createToken(oldKey, Map.of(), 3600)), KID, oldKey.getPublic());
+        JwtVerifier.VerifiedToken verified = jwtVerifier.verify(
+                SignedJWT.parse(createToken(newKey, Map.of(), 3600)), KID, newKey.getPublic());
+
+        assertEquals("user-1", verified.userInfo().userId());
+    }
+
+    private static KeyPair generateKey(String algorithm, int size) throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm);
+        keyGen.initialize(size);
+        return keyGen.generateKeyPair();
+    }
+
+    private static String createToken(KeyPair keyPair, Map<String, Object> extraClaims, int expirationSeconds) {
+        return Jwts.builder()
+                .header().keyId(KID).and()
+                .subject("user-1")
+                .claim("email", "user@example.com")
+                .claims(extraClaims)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + expirationSeconds * 1000L))
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+}
@@ -0,0 +1,104 @@
+package com.propertyiq.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class VerifiedTokenCacheTest {
+
+    private static final UserInfo USER = new UserInfo("user-1", "user@example.com", "authenticated");
+
+    private VerifiedTokenCache cache;
+    private SimpleMeterRegistry meterRegistry;
+    private Consumer<Set<String>> rotationListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        JwksKeyProvider jwksKeyProvider = mock(JwksKeyProvider.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwksKeyProvider, meterRegistry, 100);
+
+        ArgumentCaptor<Consumer<Set<String>>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(jwksKeyProvider).addKeyRotationListener(listenerCaptor.capture());
+        rotationListener = listenerCaptor.getValue();
+    }
+
+    @Test
+    void shouldReturnCachedUserForSameToken() {
+        String digest = cache.digest("header.payload.signature");
+        cache.put(digest, "kid-1", USER, Instant.now().plusSeconds(60));
+
+        assertEquals(USER, cache.get(cache.digest("header.payload.signature")));
+        assertNull(cache.get(cache.digest("header.payload.other-signature")));
+    }
+
+    @Test
+    void shouldProduceDistinctDigestsForDistinctTokens() {
+        assertNotEquals(cache.digest("token-a"), cache.digest("token-b"));
+        assertEquals(cache.digest("token-a"), cache.digest("token-a"));
+    }
+
+    @Test
+    void shouldNotCacheAlreadyExpiredToken() {
+        String digest = cache.digest("expired");
+        cache.put(digest, "kid-1", USER, Instant.now().minusSeconds(1));
+
+        assertNull(cache.get(digest));
+    }
+
+    @Test
+    void shouldExpireEntryAtTokenExpiry() throws InterruptedException {
+        String digest = cache.digest("short-lived");
+        cache.put(digest, "kid-1", USER, Instant.now().plusMillis(150));
+
+        assertEquals(USER, cache.get(digest));
+        Thread.sleep(300);
+        assertNull(cache.get(digest));
+    }
+
+    @Test
+    void shouldEvictEntriesSignedWithRotatedKey() {
+        String rotated = cache.digest("signed-with-old-key");
+        String retained = cache.digest("signed-with-current-key");
+        cache.put(rotated, "old-kid", USER, Instant.now().plusSeconds(60));
+        cache.put(retained, "current-kid", USER, Instant.now().plusSeconds(60));
+
+        rotationListener.accept(Set.of("old-kid"));
+
+        assertNull(cache.get(rotated));
+        assertEquals(USER, cache.get(retained));
+    }
+
+    @Test
+    void shouldPublishHitAndMissMetrics() {
+        String digest = cache.digest("token");
+        cache.get(digest);
+        cache.put(digest, "kid-1", USER, Instant.now().plusSeconds(60));
+        cache.get(digest);
+        cache.get(digest);
+
+        double hits = meterRegistry.get("cache.gets")
+                .tag("cache", "gateway.jwt.verified-tokens")
+                .tag("result", "hit")
+                .functionCounter().count();
+        double misses = meterRegistry.get("cache.gets")
+                .tag("cache", "gateway.jwt.verified-tokens")
+                .tag("result", "miss")
+                .functionCounter().count();
+
+        assertEquals(2.0, hits);
+        assertEquals(1.0, misses);
+    }
+}
@@ -0,0 +1,114 @@
+package com.propertyiq.common.partitioning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The monthly partitions of a table range partitioned by a date column, named
+ * {@code <table>_yYYYYmMM} and created on first use. The owner creates the partitioned table itself.
+ *
+ * <p>Creating a partition takes an ACCESS EXCLUSIVE lock on the partitioned table. It runs in a
+ * transaction of its own, on a second connection, so call {@link #ensureMonths} before the calling
+ * transaction reads or writes the table: a lock the caller already holds would block the creation
+ * forever, and PostgreSQL can't see that wait as a deadlock because it spans two connections.
+ */
+public class MonthlyPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyPartitions.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private final String table;
+    private final Supplier<PlatformTransactionManager> transactionManager;
+    private final Set<YearMonth> existing = ConcurrentHashMap.newKeySet();
+    private volatile TransactionTemplate newTransaction;
+
+    /**
+     * @param transactionManager looked up on the first {@link #ensureMonths}, so a JPA transaction
+     *                           manager that is built after the table may be passed
+     */
+    public MonthlyPartitions(JdbcTemplate jdbcTemplate, String schema, String table,
+                             Supplier<PlatformTransactionManager> transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.table = table;
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * Makes sure a partition exists for each month, creating each missing one in a new transaction
+     * so a caller's rollback never undoes it.
+     */
+    public void ensureMonths(Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            if (existing.contains(month)) {
+                continue;
+            }
+            TransactionTemplate transaction = newTransaction();
+            try {
+                transaction.executeWithoutResult(status -> createPartition(month));
+            } catch (DataAccessException e) {
+                // Another instance may have created it at the same moment
+                if (!Boolean.TRUE.equals(transaction.execute(status -> partitionExists(month)))) {
+                    throw e;
+                }
+            }
+            existing.add(month);
+        }
+    }
+
+    /**
+     * Creates the partitions outside any transaction, for startup before the transaction manager exists.
+     */
+    public void createMonths(Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            try {
+                createPartition(month);
+            } catch (DataAccessException e) {
+                if (!partitionExists(month)) {
+                    throw e;
+                }
+            }
+            existing.add(month);
+        }
+    }
+
+    public String partitionName(YearMonth month) {
+        return String.format("%s_y%04dm%02d", table, month.getYear(), month.getMonthValue());
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = newTransaction;
+        if (transaction == null) {
+            transaction = new TransactionTemplate(transactionManager.get());
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            newTransaction = transaction;
+        }
+        return transaction;
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + schema + "." + partitionName(month)
+                + " PARTITION OF " + schema + "." + table
+                + " FOR VALUES FROM ('" + start + "') TO ('" + start.plusMonths(1) + "')");
+        logger.debug("Ensured partition {}.{}", schema, partitionName(month));
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, schema + "." + partitionName(month)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.propertyiq.common.virtualthreads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, usually inside a
+ * {@code synchronized} block. A pinned thread holds one of the few carrier threads for as long as
+ * it blocks, so a pinning hot path can stall every request. Each pin longer than the threshold
+ * counts towards {@code jvm.threads.virtual.pinned}; the first pin from each place is logged with
+ * its stack.
+ *
+ * <p>On start it also warns about JDBC drivers known to block inside {@code synchronized}.
+ */
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_LOGGED_PLACES = 100;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Set<String> loggedPlaces = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public PinnedThreadMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier for longer than "
+                        + threshold.toMillis() + "ms")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        checkJdbcDrivers();
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        logger.info("Running on virtual threads; reporting pins longer than {}ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.increment();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : Collections.emptyList();
+        String place = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+        if (loggedPlaces.size() < MAX_LOGGED_PLACES && loggedPlaces.add(place)) {
+            logger.warn("Virtual thread pinned for {}ms\n\tat {}", event.getDuration().toMillis(), place);
+        }
+    }
+
+    /**
+     * pgjdbc replaced its {@code synchronized} blocks with locks in 42.6.0; older versions pin on
+     * every query.
+     */
+    private static void checkJdbcDrivers() {
+        DriverManager.drivers()
+                .filter(driver -> driver.getClass().getName().equals("org.postgresql.Driver"))
+                .filter(driver -> driver.getMajorVersion() < 42
+                        || driver.getMajorVersion() == 42 && driver.getMinorVersion() < 6)
+                .findFirst()
+                .ifPresent(driver -> logger.warn("PostgreSQL JDBC driver older than 42.6.0 pins virtual threads "
+                        + "on every query; upgrade it or run on platform threads"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.propertyiq.common.virtualthreads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Safeguards for the virtual-thread execution mode, switched on with
+ * {@code spring.threads.virtual.enabled=true}. Spring Boot then runs Tomcat's request handling,
+ * {@code @Async} and MVC async work and scheduled tasks on virtual threads; this adds pin reporting
+ * and bounds the callers of every Hikari pool. Nothing here is active on platform threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${propertyiq.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new PinnedThreadMonitor(threshold, meterRegistry);
+    }
+
+    @Configuration
+    @ConditionalOnClass(HikariDataSource.class)
+    static class ConnectionPermitsConfig {
+
+        /**
+         * Puts a {@link BoundedDataSource} in front of every Hikari pool bean, once its settings are bound.
+         */
+        @Bean
+        static BeanPostProcessor connectionPermitsPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof HikariDataSource pool ? BoundedDataSource.of(pool) : bean;
+                }
+            };
+        }
+    }
+}
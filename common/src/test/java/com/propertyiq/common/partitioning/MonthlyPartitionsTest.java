@@ -0,0 +1,71 @@
+package com.propertyiq.common.partitioning;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyPartitionsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MonthlyPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        partitions = new MonthlyPartitions(jdbcTemplate, "expense_db", "expenses", () -> transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should create a month's partition once and remember it")
+    void shouldCreateEachMonthOnce() {
+        partitions.ensureMonths(List.of(YearMonth.of(2024, 3)));
+        partitions.ensureMonths(List.of(YearMonth.of(2024, 3)));
+
+        verify(jdbcTemplate, times(1)).execute("CREATE TABLE IF NOT EXISTS expense_db.expenses_y2024m03"
+                + " PARTITION OF expense_db.expenses FOR VALUES FROM ('2024-03-01') TO ('2024-04-01')");
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should accept a partition another instance created at the same moment")
+    void shouldTolerateConcurrentCreation() {
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(jdbcTemplate).execute(anyString());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("expense_db.expenses_y2024m12")))
+                .thenReturn(true);
+
+        partitions.createMonths(List.of(YearMonth.of(2024, 12)));
+
+        assertThat(partitions.partitionName(YearMonth.of(2024, 12))).isEqualTo("expenses_y2024m12");
+    }
+
+    @Test
+    @DisplayName("Should fail when the partition could not be created and does not exist")
+    void shouldFailWhenPartitionMissing() {
+        doThrow(new DataIntegrityViolationException("overlapping partition")).when(jdbcTemplate).execute(anyString());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString())).thenReturn(false);
+
+        assertThatThrownBy(() -> partitions.ensureMonths(List.of(YearMonth.of(2024, 12))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.propertyiq.common.virtualthreads;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new BoundedDataSource(pool, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should hand out at most the permitted connections and take the permit back on close")
+    void shouldBoundConnectionsHeld() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(pooled, times(2)).close();
+        verify(pool, times(3)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should take the permit back when the pool fails to hand out a connection")
+    void shouldReleasePermitOnPoolFailure() throws SQLException {
+        when(pool.getConnection())
+                .thenThrow(new SQLTransientConnectionException("pool timeout"))
+                .thenThrow(new SQLTransientConnectionException("pool timeout"))
+                .thenReturn(mock(Connection.class));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool timeout");
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool timeout");
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+    }
+
+    @Test
+    @DisplayName("Should keep thousands of virtual threads queued outside the pool")
+    void shouldQueueVirtualThreadsOutsidePool() throws Exception {
+        BoundedDataSource bounded = new BoundedDataSource(pool, 4, Duration.ofSeconds(10));
+        AtomicInteger inPool = new AtomicInteger();
+        AtomicInteger mostInPool = new AtomicInteger();
+        when(pool.getConnection()).thenAnswer(invocation -> {
+            mostInPool.accumulateAndGet(inPool.incrementAndGet(), Math::max);
+            Connection connection = mock(Connection.class);
+            doAnswer(close -> inPool.decrementAndGet()).when(connection).close();
+            return connection;
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> requests = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2000; i++) {
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    try (Connection ignored = bounded.getConnection()) {
+                        Thread.sleep(1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> request : requests) {
+                request.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(mostInPool.get()).isLessThanOrEqualTo(4);
+        assertThat(bounded.getWaiting()).isZero();
+    }
+}
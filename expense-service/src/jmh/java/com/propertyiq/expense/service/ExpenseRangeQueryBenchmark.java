@@ -0,0 +1,173 @@
+package com.propertyiq.expense.service;
+
+import com.propertyiq.expense.ExpenseServiceApplication;
+import com.propertyiq.expense.dto.ExpenseFilter;
+import com.propertyiq.expense.dto.ExpensePageResponse;
+import com.propertyiq.expense.model.ExpenseCategory;
+import com.propertyiq.expense.repository.ExpensePartitions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pages through one property's expenses in a store of {@value #ROWS} rows: {@value #PROPERTIES}
+ * properties with ten years of expenses each, in 120 monthly partitions. Covers a year, a quarter
+ * of one category, the latest page of the whole history and a page deep into it. Each should read
+ * only the partitions in its range and stay flat as the history grows; the plan of the year query,
+ * logged on setup, lists the partitions it touched.
+ *
+ * <p>Needs the PostgreSQL database from docker-compose ({@code expense_db} on localhost). The
+ * expenses are seeded on first run, which takes several minutes, and reused afterwards:
+ * {@code ./gradlew :expense-service:jmh -PjmhArgs='ExpenseRangeQueryBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExpenseRangeQueryBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseRangeQueryBenchmark.class);
+
+    private static final int ROWS = 50_000_000;
+    private static final int PROPERTIES = 5_000;
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2016, 1);
+    private static final int MONTHS = 120;
+    private static final int ROWS_PER_MONTH = ROWS / MONTHS;
+    private static final int PAGE_SIZE = 100;
+
+    private static final UUID USER_ID = new UUID(0, 0xbe025000L);
+    private static final long PROPERTY_ID_BASE = 0xbe025000L;
+
+    private static final String SEED_MONTH = """
+            INSERT INTO expense_db.expenses
+                (id, property_id, user_id, expense_date, category, amount, description, created_at, updated_at)
+            SELECT gen_random_uuid(),
+                   ('00000000-0000-0000-0000-' || lpad(to_hex(?::bigint + g % ?::int), 12, '0'))::uuid,
+                   ?,
+                   ?::date + floor(random() * ?::int)::int,
+                   (ARRAY['MORTGAGE_INTEREST', 'COUNCIL_TAX', 'INSURANCE', 'REPAIRS_AND_MAINTENANCE', 'CLEANING',
+                          'UTILITIES', 'PROPERTY_MANAGEMENT_FEES', 'LEGAL_AND_PROFESSIONAL_FEES'])
+                       [1 + floor(random() * 8)::int],
+                   round((5 + random() * 995)::numeric, 2),
+                   NULL, now(), now()
+            FROM generate_series(1, ?) g
+            """;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenseServiceApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.com.propertyiq.expense=INFO")
+                .run();
+        expenseService = context.getBean(ExpenseService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+        explainYear(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpensePageResponse propertyYear() {
+        LocalDate start = FIRST_MONTH.plusMonths(12L * ThreadLocalRandom.current().nextInt(MONTHS / 12)).atDay(1);
+        ExpenseFilter filter = ExpenseFilter.builder().from(start).to(start.plusYears(1).minusDays(1)).build();
+        return expenseService.getExpenses(USER_ID, randomProperty(), filter, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ExpensePageResponse propertyQuarterOfCategory() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = FIRST_MONTH.plusMonths(3L * random.nextInt(MONTHS / 3)).atDay(1);
+        ExpenseCategory category = ExpenseCategory.values()[random.nextInt(ExpenseCategory.values().length)];
+        ExpenseFilter filter = ExpenseFilter.builder()
+                .from(start)
+                .to(start.plusMonths(3).minusDays(1))
+                .category(category)
+                .build();
+        return expenseService.getExpenses(USER_ID, randomProperty(), filter, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ExpensePageResponse propertyHistoryLatestPage() {
+        return expenseService.getExpenses(USER_ID, randomProperty(), new ExpenseFilter(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ExpensePageResponse propertyHistoryDeepPage() {
+        // A page from the oldest two years, as reached by following nextCursor that far back
+        LocalDate date = FIRST_MONTH.atDay(1).plusDays(ThreadLocalRandom.current().nextInt(730));
+        String cursor = new ExpenseCursor(date, new UUID(-1L, -1L)).encode();
+        return expenseService.getExpenses(USER_ID, randomProperty(), new ExpenseFilter(), cursor, PAGE_SIZE);
+    }
+
+    private static UUID randomProperty() {
+        return propertyId(ThreadLocalRandom.current().nextInt(PROPERTIES));
+    }
+
+    private static UUID propertyId(int index) {
+        return new UUID(0, PROPERTY_ID_BASE + index);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM expense_db.expenses WHERE property_id = ?", Integer.class, propertyId(0));
+        if (existing != null && existing == MONTHS * (ROWS_PER_MONTH / PROPERTIES)) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM expense_db.expenses WHERE user_id = ?", USER_ID);
+
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 0; i < MONTHS; i++) {
+            months.add(FIRST_MONTH.plusMonths(i));
+        }
+        context.getBean(ExpensePartitions.class).ensureMonths(months);
+        for (YearMonth month : months) {
+            jdbcTemplate.update(SEED_MONTH, PROPERTY_ID_BASE, PROPERTIES, USER_ID, Date.valueOf(month.atDay(1)),
+                    month.lengthOfMonth(), ROWS_PER_MONTH);
+        }
+        jdbcTemplate.execute("ANALYZE expense_db.expenses");
+    }
+
+    private void explainYear(JdbcTemplate jdbcTemplate) {
+        LocalDate start = FIRST_MONTH.plusMonths(MONTHS / 2).atDay(1);
+        List<String> plan = jdbcTemplate.queryForList("""
+                EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+                SELECT * FROM expense_db.expenses
+                WHERE property_id = ? AND user_id = ? AND expense_date >= ? AND expense_date <= ?
+                ORDER BY expense_date DESC, id DESC
+                LIMIT ?
+                """, String.class, propertyId(0), USER_ID, Date.valueOf(start),
+                Date.valueOf(start.plusYears(1).minusDays(1)), PAGE_SIZE + 1);
+        logger.info("Plan of a one-year page:\n{}", String.join("\n", plan));
+    }
+}
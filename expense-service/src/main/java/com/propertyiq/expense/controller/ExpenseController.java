@@ -1,31 +1,74 @@
 package com.propertyiq.expense.controller;
 
+import com.propertyiq.common.dto.ApiResponse;
+import com.propertyiq.expense.dto.ExpenseFilter;
+import com.propertyiq.expense.dto.ExpensePageResponse;
+import com.propertyiq.expense.dto.ExpenseRequest;
+import com.propertyiq.expense.dto.ExpenseResponse;
+import com.propertyiq.expense.model.ExpenseCategory;
+import com.propertyiq.expense.service.ExpenseService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/properties/{propertyId}/expenses")
+@RequiredArgsConstructor
 public class ExpenseController {
 
+    private final ExpenseService expenseService;
+
     @GetMapping
-    public String getExpenses(@PathVariable String propertyId,
-                              @RequestParam(required = false) String from,
-                              @RequestParam(required = false) String to,
-                              @RequestParam(required = false) String category) {
-        return "Expense Service - Get expenses for property: " + propertyId;
+    public ResponseEntity<ApiResponse<ExpensePageResponse>> getExpenses(
+            @RequestHeader("X-User-Id") UUID userId,
+            @PathVariable UUID propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) ExpenseCategory category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        ExpenseFilter filter = ExpenseFilter.builder()
+                .from(from)
+                .to(to)
+                .category(category)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(
+                expenseService.getExpenses(userId, propertyId, filter, cursor, limit)));
     }
 
     @PostMapping
-    public String createExpense(@PathVariable String propertyId) {
-        return "Expense Service - Create expense for property: " + propertyId;
+    public ResponseEntity<ApiResponse<ExpenseResponse>> createExpense(
+            @RequestHeader("X-User-Id") UUID userId,
+            @PathVariable UUID propertyId,
+            @Valid @RequestBody ExpenseRequest request) {
+        ExpenseResponse response = expenseService.createExpense(userId, propertyId, request);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Expense created successfully", response));
     }
 
     @PutMapping("/{expenseId}")
-    public String updateExpense(@PathVariable String propertyId, @PathVariable String expenseId) {
-        return "Expense Service - Update expense: " + expenseId;
+    public ResponseEntity<ApiResponse<ExpenseResponse>> updateExpense(
+            @RequestHeader("X-User-Id") UUID userId,
+            @PathVariable UUID propertyId,
+            @PathVariable UUID expenseId,
+            @Valid @RequestBody ExpenseRequest request) {
+        ExpenseResponse response = expenseService.updateExpense(userId, propertyId, expenseId, request);
+        return ResponseEntity.ok(ApiResponse.success("Expense updated successfully", response));
     }
 
     @DeleteMapping("/{expenseId}")
-    public String deleteExpense(@PathVariable String propertyId, @PathVariable String expenseId) {
-        return "Expense Service - Delete expense: " + expenseId;
+    public ResponseEntity<ApiResponse<Void>> deleteExpense(
+            @RequestHeader("X-User-Id") UUID userId,
+            @PathVariable UUID propertyId,
+            @PathVariable UUID expenseId) {
+        expenseService.deleteExpense(userId, propertyId, expenseId);
+        return ResponseEntity.ok(ApiResponse.success("Expense deleted successfully", null));
     }
 }
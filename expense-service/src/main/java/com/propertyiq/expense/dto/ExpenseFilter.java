@@ -0,0 +1,23 @@
+package com.propertyiq.expense.dto;
+
+import com.propertyiq.expense.model.ExpenseCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional listing filters; {@code null} fields are not applied. Both dates are inclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseFilter {
+
+    private LocalDate from;
+    private LocalDate to;
+    private ExpenseCategory category;
+}
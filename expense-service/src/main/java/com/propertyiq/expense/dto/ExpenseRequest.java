@@ -0,0 +1,36 @@
+package com.propertyiq.expense.dto;
+
+import com.propertyiq.expense.model.ExpenseCategory;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Body of both create and update; an update replaces every field.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseRequest {
+
+    @NotNull(message = "Expense date is required")
+    private LocalDate expenseDate;
+
+    @NotNull(message = "Category is required")
+    private ExpenseCategory category;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @Size(max = 500, message = "Description must not exceed 500 characters")
+    private String description;
+}
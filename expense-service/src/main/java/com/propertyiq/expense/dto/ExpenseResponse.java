@@ -0,0 +1,42 @@
+package com.propertyiq.expense.dto;
+
+import com.propertyiq.expense.model.Expense;
+import com.propertyiq.expense.model.ExpenseCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseResponse {
+
+    private UUID id;
+    private UUID propertyId;
+    private LocalDate expenseDate;
+    private ExpenseCategory category;
+    private BigDecimal amount;
+    private String description;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static ExpenseResponse fromEntity(Expense expense) {
+        return ExpenseResponse.builder()
+                .id(expense.getId())
+                .propertyId(expense.getPropertyId())
+                .expenseDate(expense.getExpenseDate())
+                .category(expense.getCategory())
+                .amount(expense.getAmount())
+                .description(expense.getDescription())
+                .createdAt(expense.getCreatedAt())
+                .updatedAt(expense.getUpdatedAt())
+                .build();
+    }
+}
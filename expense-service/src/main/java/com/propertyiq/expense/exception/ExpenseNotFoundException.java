@@ -0,0 +1,9 @@
+package com.propertyiq.expense.exception;
+
+import com.propertyiq.common.exception.ResourceNotFoundException;
+
+public class ExpenseNotFoundException extends ResourceNotFoundException {
+    public ExpenseNotFoundException(String expenseId) {
+        super("Expense not found with id: " + expenseId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.propertyiq.expense.exception;
+
+public class ValidationException extends RuntimeException {
+    public ValidationException(String message) {
+        super(message);
+    }
+}
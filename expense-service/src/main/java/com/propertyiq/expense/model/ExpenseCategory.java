@@ -0,0 +1,12 @@
+package com.propertyiq.expense.model;
+
+public enum ExpenseCategory {
+    MORTGAGE_INTEREST,
+    COUNCIL_TAX,
+    INSURANCE,
+    REPAIRS_AND_MAINTENANCE,
+    CLEANING,
+    UTILITIES,
+    PROPERTY_MANAGEMENT_FEES,
+    LEGAL_AND_PROFESSIONAL_FEES
+}
@@ -0,0 +1,89 @@
+package com.propertyiq.expense.repository;
+
+import com.propertyiq.common.partitioning.MonthlyPartitions;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Owns the {@code expenses} table, range partitioned by month of {@code expense_date}. It is
+ * created on startup, ahead of Hibernate's schema validation, with partitions for this month and
+ * the next; further months are added as expenses dated in them arrive.
+ *
+ * <p>Both indexes lead with the property, so within each month a property's expenses, all of them
+ * or one category, are a single index range already in listing order.
+ */
+@Component
+public class ExpensePartitions implements InitializingBean {
+
+    private static final String[] SCHEMA = {
+            "CREATE SCHEMA IF NOT EXISTS expense_db",
+            """
+            CREATE TABLE IF NOT EXISTS expense_db.expenses (
+                id UUID NOT NULL,
+                property_id UUID NOT NULL,
+                user_id UUID NOT NULL,
+                expense_date DATE NOT NULL,
+                category VARCHAR(40) NOT NULL,
+                amount NUMERIC(15, 2) NOT NULL,
+                description VARCHAR(500),
+                created_at TIMESTAMP NOT NULL,
+                updated_at TIMESTAMP NOT NULL,
+                PRIMARY KEY (id, expense_date)
+            ) PARTITION BY RANGE (expense_date)
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_expenses_property_date "
+                    + "ON expense_db.expenses (property_id, expense_date, id)",
+            "CREATE INDEX IF NOT EXISTS idx_expenses_property_category_date "
+                    + "ON expense_db.expenses (property_id, category, expense_date, id)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MonthlyPartitions partitions;
+
+    /**
+     * The JPA transaction manager only exists once the entity manager factory, which waits for
+     * this bean, has been built, so it is looked up on first use.
+     */
+    public ExpensePartitions(JdbcTemplate jdbcTemplate, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = new MonthlyPartitions(jdbcTemplate, "expense_db", "expenses", transactionManager::getObject);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+        YearMonth current = YearMonth.now();
+        partitions.createMonths(Set.of(current, current.plusMonths(1)));
+    }
+
+    /**
+     * Makes sure a partition exists for each month. Call it before the transaction reads or writes
+     * {@code expenses}: the partition is created on another connection, which would otherwise wait
+     * for this transaction's own lock on the table (see {@link MonthlyPartitions}).
+     */
+    public void ensureMonths(Collection<YearMonth> months) {
+        partitions.ensureMonths(months);
+    }
+
+    /**
+     * Holds the entity manager factory back until the table exists, so {@code ddl-auto: validate}
+     * sees it on a fresh database.
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(ExpensePartitions.class);
+        }
+    }
+}
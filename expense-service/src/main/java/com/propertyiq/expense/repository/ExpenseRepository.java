@@ -0,0 +1,18 @@
+package com.propertyiq.expense.repository;
+
+import com.propertyiq.expense.model.Expense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExpenseRepository extends JpaRepository<Expense, UUID>, JpaSpecificationExecutor<Expense> {
+
+    /**
+     * Looks the id up in every partition's primary key index; only the listing is pruned by date.
+     */
+    Optional<Expense> findByIdAndPropertyIdAndUserId(UUID id, UUID propertyId, UUID userId);
+}
@@ -0,0 +1,61 @@
+package com.propertyiq.expense.repository;
+
+import com.propertyiq.expense.dto.ExpenseFilter;
+import com.propertyiq.expense.model.Expense;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Only the filters that are set become predicates: PostgreSQL prunes partitions from plain
+ * {@code expense_date} bounds, but not from a {@code :from IS NULL OR ...} guard.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> ofProperty(UUID userId, UUID propertyId) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("propertyId"), propertyId),
+                cb.equal(root.get("userId"), userId));
+    }
+
+    public static Specification<Expense> matching(ExpenseFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("expenseDate"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("expenseDate"), filter.getTo()));
+            }
+            if (filter.getCategory() != null) {
+                predicates.add(cb.equal(root.get("category"), filter.getCategory()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Expenses strictly before {@code (expenseDate, id)}, newest first. The extra
+     * {@code expense_date <= :expenseDate} bound is implied by the seek, but lets each page skip the
+     * partitions after the cursor.
+     */
+    public static Specification<Expense> before(LocalDate expenseDate, UUID id) {
+        return (root, query, cb) -> {
+            Path<LocalDate> datePath = root.get("expenseDate");
+            Path<UUID> idPath = root.get("id");
+            return cb.and(
+                    cb.lessThanOrEqualTo(datePath, expenseDate),
+                    cb.or(
+                            cb.lessThan(datePath, expenseDate),
+                            cb.and(cb.equal(datePath, expenseDate), cb.lessThan(idPath, id))));
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.propertyiq.expense.service;
+
+import com.propertyiq.expense.exception.ValidationException;
+import com.propertyiq.expense.model.Expense;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last expense of a page: its date and id. Encoded as an opaque URL-safe
+ * string for clients.
+ */
+record ExpenseCursor(LocalDate expenseDate, UUID id) {
+
+    static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getExpenseDate(), expense.getId());
+    }
+
+    String encode() {
+        String raw = expenseDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ExpenseCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new ExpenseCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.propertyiq.expense.service;
+
+import com.propertyiq.expense.dto.ExpenseFilter;
+import com.propertyiq.expense.dto.ExpensePageResponse;
+import com.propertyiq.expense.dto.ExpenseRequest;
+import com.propertyiq.expense.dto.ExpenseResponse;
+import com.propertyiq.expense.exception.ExpenseNotFoundException;
+import com.propertyiq.expense.exception.ValidationException;
+import com.propertyiq.expense.model.Expense;
+import com.propertyiq.expense.repository.ExpensePartitions;
+import com.propertyiq.expense.repository.ExpenseRepository;
+import com.propertyiq.expense.repository.ExpenseSpecifications;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Every month in between may get a partition, so dates are kept to a sane range
+    static final LocalDate EARLIEST_EXPENSE_DATE = LocalDate.of(1900, 1, 1);
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "expenseDate", "id");
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpensePartitions expensePartitions;
+
+    @Transactional
+    public ExpenseResponse createExpense(UUID userId, UUID propertyId, ExpenseRequest request) {
+        validateExpenseDate(request.getExpenseDate());
+        expensePartitions.ensureMonths(Set.of(YearMonth.from(request.getExpenseDate())));
+
+        Expense expense = Expense.builder()
+                .propertyId(propertyId)
+                .userId(userId)
+                .expenseDate(request.getExpenseDate())
+                .category(request.getCategory())
+                .amount(request.getAmount())
+                .description(request.getDescription())
+                .build();
+        return ExpenseResponse.fromEntity(expenseRepository.save(expense));
+    }
+
+    /**
+     * A page of the property's expenses, newest first, continuing strictly after the cursor. Only
+     * the month partitions inside {@code from}/{@code to} and before the cursor are read, and within
+     * each the property's rows are a single index range in page order, so a page costs the same at
+     * any depth of a multi-year history.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePageResponse getExpenses(UUID userId, UUID propertyId, ExpenseFilter filter, String cursor,
+                                           Integer limit) {
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new ValidationException("from must not be after to");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<Expense> specification = ExpenseSpecifications.ofProperty(userId, propertyId)
+                .and(ExpenseSpecifications.matching(filter));
+        if (cursor != null && !cursor.isBlank()) {
+            ExpenseCursor after = ExpenseCursor.decode(cursor);
+            specification = specification.and(ExpenseSpecifications.before(after.expenseDate(), after.id()));
+        }
+
+        // One extra row tells us whether there is a next page without a count query
+        List<Expense> expenses = expenseRepository.findBy(specification,
+                query -> query.sortBy(NEWEST_FIRST).limit(pageSize + 1).all());
+
+        boolean hasMore = expenses.size() > pageSize;
+        List<Expense> page = hasMore ? expenses.subList(0, pageSize) : expenses;
+        return ExpensePageResponse.builder()
+                .items(page.stream().map(ExpenseResponse::fromEntity).toList())
+                .nextCursor(hasMore ? ExpenseCursor.after(page.get(page.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Replaces every field. A new date in another month moves the row to that month's partition.
+     */
+    @Transactional
+    public ExpenseResponse updateExpense(UUID userId, UUID propertyId, UUID expenseId, ExpenseRequest request) {
+        validateExpenseDate(request.getExpenseDate());
+        // Before the lookup: once this transaction holds a lock on the table, creating a partition waits on it
+        expensePartitions.ensureMonths(Set.of(YearMonth.from(request.getExpenseDate())));
+        Expense expense = findExpense(userId, propertyId, expenseId);
+
+        expense.setExpenseDate(request.getExpenseDate());
+        expense.setCategory(request.getCategory());
+        expense.setAmount(request.getAmount());
+        expense.setDescription(request.getDescription());
+        return ExpenseResponse.fromEntity(expenseRepository.save(expense));
+    }
+
+    @Transactional
+    public void deleteExpense(UUID userId, UUID propertyId, UUID expenseId) {
+        expenseRepository.delete(findExpense(userId, propertyId, expenseId));
+    }
+
+    private Expense findExpense(UUID userId, UUID propertyId, UUID expenseId) {
+        return expenseRepository.findByIdAndPropertyIdAndUserId(expenseId, propertyId, userId)
+                .orElseThrow(() -> new ExpenseNotFoundException(expenseId.toString()));
+    }
+
+    private static void validateExpenseDate(LocalDate expenseDate) {
+        if (expenseDate.isBefore(EARLIEST_EXPENSE_DATE)) {
+            throw new ValidationException("Expense date must not be before " + EARLIEST_EXPENSE_DATE);
+        }
+        if (expenseDate.isAfter(LocalDate.now().plusYears(1))) {
+            throw new ValidationException("Expense date must not be more than a year ahead");
+        }
+    }
+}
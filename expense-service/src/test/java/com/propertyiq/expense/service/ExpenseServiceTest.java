@@ -0,0 +1,191 @@
+package com.propertyiq.expense.service;
+
+import com.propertyiq.expense.dto.ExpenseFilter;
+import com.propertyiq.expense.dto.ExpensePageResponse;
+import com.propertyiq.expense.dto.ExpenseRequest;
+import com.propertyiq.expense.dto.ExpenseResponse;
+import com.propertyiq.expense.exception.ExpenseNotFoundException;
+import com.propertyiq.expense.exception.ValidationException;
+import com.propertyiq.expense.model.Expense;
+import com.propertyiq.expense.model.ExpenseCategory;
+import com.propertyiq.expense.repository.ExpensePartitions;
+import com.propertyiq.expense.repository.ExpenseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private ExpensePartitions expensePartitions;
+
+    @InjectMocks
+    private ExpenseService expenseService;
+
+    private UUID userId;
+    private UUID propertyId;
+    private ExpenseRequest request;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        propertyId = UUID.randomUUID();
+        request = ExpenseRequest.builder()
+                .expenseDate(LocalDate.of(2024, 3, 15))
+                .category(ExpenseCategory.REPAIRS_AND_MAINTENANCE)
+                .amount(new BigDecimal("245.50"))
+                .description("Boiler service")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should create the month's partition before saving a new expense")
+    void shouldEnsurePartitionOnCreate() {
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> {
+            Expense expense = invocation.getArgument(0);
+            expense.setId(UUID.randomUUID());
+            return expense;
+        });
+
+        ExpenseResponse response = expenseService.createExpense(userId, propertyId, request);
+
+        ArgumentCaptor<Expense> saved = ArgumentCaptor.forClass(Expense.class);
+        var inOrder = inOrder(expensePartitions, expenseRepository);
+        inOrder.verify(expensePartitions).ensureMonths(Set.of(YearMonth.of(2024, 3)));
+        inOrder.verify(expenseRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserId()).isEqualTo(userId);
+        assertThat(saved.getValue().getPropertyId()).isEqualTo(propertyId);
+        assertThat(response.getCategory()).isEqualTo(ExpenseCategory.REPAIRS_AND_MAINTENANCE);
+        assertThat(response.getAmount()).isEqualByComparingTo("245.50");
+    }
+
+    @Test
+    @DisplayName("Should reject an expense dated more than a year ahead without creating a partition")
+    void shouldRejectFarFutureDate() {
+        request.setExpenseDate(LocalDate.now().plusYears(2));
+
+        assertThatThrownBy(() -> expenseService.createExpense(userId, propertyId, request))
+                .isInstanceOf(ValidationException.class);
+
+        verifyNoInteractions(expensePartitions, expenseRepository);
+    }
+
+    @Test
+    @DisplayName("Should return a page with a cursor that continues after its last expense")
+    void shouldPageWithCursor() {
+        List<Expense> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(expense(LocalDate.of(2024, 3, 20).minusDays(i)));
+        }
+        doReturn(rows).when(expenseRepository).findBy(ArgumentMatchers.<Specification<Expense>>any(), any());
+
+        ExpensePageResponse page = expenseService.getExpenses(userId, propertyId, new ExpenseFilter(), null, 2);
+
+        assertThat(page.getItems()).extracting(ExpenseResponse::getId)
+                .containsExactly(rows.get(0).getId(), rows.get(1).getId());
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(ExpenseCursor.decode(page.getNextCursor()))
+                .isEqualTo(new ExpenseCursor(LocalDate.of(2024, 3, 19), rows.get(1).getId()));
+    }
+
+    @Test
+    @DisplayName("Should not return a cursor on the last page")
+    void shouldEndPaging() {
+        doReturn(List.of(expense(LocalDate.of(2024, 3, 20))))
+                .when(expenseRepository).findBy(ArgumentMatchers.<Specification<Expense>>any(), any());
+
+        ExpensePageResponse page = expenseService.getExpenses(userId, propertyId, new ExpenseFilter(), null, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a range that ends before it starts")
+    void shouldRejectInvertedRange() {
+        ExpenseFilter filter = ExpenseFilter.builder()
+                .from(LocalDate.of(2024, 6, 1))
+                .to(LocalDate.of(2024, 1, 1))
+                .build();
+
+        assertThatThrownBy(() -> expenseService.getExpenses(userId, propertyId, filter, null, null))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor it did not issue")
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> expenseService.getExpenses(userId, propertyId, new ExpenseFilter(), "not-a-cursor",
+                null))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Should create the new month's partition before looking up the expense it moves there")
+    void shouldEnsurePartitionOnUpdate() {
+        Expense existing = expense(LocalDate.of(2023, 11, 2));
+        when(expenseRepository.findByIdAndPropertyIdAndUserId(existing.getId(), propertyId, userId))
+                .thenReturn(Optional.of(existing));
+        when(expenseRepository.save(existing)).thenReturn(existing);
+
+        ExpenseResponse response = expenseService.updateExpense(userId, propertyId, existing.getId(), request);
+
+        // The partition has to exist before the lookup takes a lock on the table
+        var inOrder = inOrder(expensePartitions, expenseRepository);
+        inOrder.verify(expensePartitions).ensureMonths(Set.of(YearMonth.of(2024, 3)));
+        inOrder.verify(expenseRepository).findByIdAndPropertyIdAndUserId(existing.getId(), propertyId, userId);
+        assertThat(response.getExpenseDate()).isEqualTo(LocalDate.of(2024, 3, 15));
+        assertThat(response.getDescription()).isEqualTo("Boiler service");
+    }
+
+    @Test
+    @DisplayName("Should throw when the expense does not belong to the property")
+    void shouldThrowWhenExpenseNotFound() {
+        UUID expenseId = UUID.randomUUID();
+        when(expenseRepository.findByIdAndPropertyIdAndUserId(expenseId, propertyId, userId))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> expenseService.deleteExpense(userId, propertyId, expenseId))
+                .isInstanceOf(ExpenseNotFoundException.class);
+        verify(expenseRepository, never()).delete(any(Expense.class));
+    }
+
+    private Expense expense(LocalDate expenseDate) {
+        return Expense.builder()
+                .id(UUID.randomUUID())
+                .propertyId(propertyId)
+                .userId(userId)
+                .expenseDate(expenseDate)
+                .category(ExpenseCategory.UTILITIES)
+                .amount(new BigDecimal("80.00"))
+                .build();
+    }
+}
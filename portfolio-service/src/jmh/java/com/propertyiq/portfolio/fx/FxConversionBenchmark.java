@@ -0,0 +1,103 @@
+package com.propertyiq.portfolio.fx;
+
+import com.propertyiq.portfolio.model.Currency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting 100k amounts in mixed currencies into one currency: working out each cross rate from
+ * the euro rates per amount, looking each rate up in the {@link FxRateTable}, converting through
+ * one {@link FxConversion}, and totalling through it. Needs no database:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='FxConversionBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FxConversionBenchmark {
+
+    private static final int AMOUNTS = 100_000;
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 14);
+
+    private FxRateTable table;
+    private Map<Currency, BigDecimal> unitsPerEuro;
+    private List<Money> amounts;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                FxRateTable.class.getResourceAsStream("/fx/reference-rates.csv"), StandardCharsets.UTF_8)) {
+            table = FxRateTable.parse(reader);
+        }
+        unitsPerEuro = new EnumMap<>(Currency.class);
+        for (Currency currency : Currency.values()) {
+            unitsPerEuro.put(currency, table.rate(Currency.EUR, currency, DATE));
+        }
+
+        Random random = new Random(42);
+        Currency[] currencies = Currency.values();
+        amounts = new ArrayList<>(AMOUNTS);
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts.add(new Money(BigDecimal.valueOf(random.nextLong(5_000_000, 300_000_000), 2),
+                    currencies[random.nextInt(currencies.length)]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public void crossRatePerAmount(Blackhole blackhole) {
+        for (Money money : amounts) {
+            BigDecimal rate = unitsPerEuro.get(Currency.GBP)
+                    .divide(unitsPerEuro.get(money.currency()), MathContext.DECIMAL128);
+            blackhole.consume(money.amount().multiply(rate).setScale(2, RoundingMode.HALF_EVEN));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public void tableLookupPerAmount(Blackhole blackhole) {
+        for (Money money : amounts) {
+            BigDecimal rate = table.rate(money.currency(), Currency.GBP, DATE);
+            blackhole.consume(money.amount().multiply(rate).setScale(2, RoundingMode.HALF_EVEN));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public List<BigDecimal> convertEach() {
+        return table.conversionTo(Currency.GBP, DATE).convertEach(amounts);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public BigDecimal total() {
+        return table.conversionTo(Currency.GBP, DATE).total(amounts);
+    }
+}
@@ -0,0 +1,100 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.PortfolioServiceApplication;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Boots the service and seeds a benchmark user's properties for the database benchmarks.
+ *
+ * <p>Needs the PostgreSQL database from docker-compose in {@code DATABASE_URL},
+ * {@code DATABASE_USERNAME} and {@code DATABASE_PASSWORD}. Each benchmark owns a fixed user id, so
+ * their rows don't mix.
+ */
+final class BenchmarkDatabase {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT = "INSERT INTO portfolio_db.properties (id, user_id, address_line_1, city, "
+            + "postal_code, country, latitude, longitude, purchase_price, purchase_date, currency, current_value, "
+            + "status, property_type, bedrooms, description, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] DEFAULT_PROPERTIES = {"server.port=0", "spring.jpa.show-sql=false",
+            "logging.level.com.propertyiq.portfolio=INFO", "portfolio.outbox.relay-enabled=false"};
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * One seeded property. Nullable columns may be null; the currency is always GBP.
+     */
+    record PropertyRow(String addressLine1, String city, String postalCode, Country country,
+                       Double latitude, Double longitude, BigDecimal purchasePrice, LocalDate purchaseDate,
+                       BigDecimal currentValue, PropertyStatus status, String propertyType, Integer bedrooms,
+                       String description, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Starts the service on a random port with the outbox relay off, plus {@code properties}.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(PortfolioServiceApplication.class)
+                .properties(Stream.concat(Stream.of(DEFAULT_PROPERTIES), Stream.of(properties)).toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Seeds {@code rows} properties for the user unless exactly that many are already there, so the
+     * rows of an earlier run are reused.
+     */
+    static void seedOnce(JdbcTemplate jdbcTemplate, UUID userId, int rows, IntFunction<PropertyRow> row) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM portfolio_db.properties WHERE user_id = ?", Integer.class, userId);
+        if (existing != null && existing == rows) {
+            return;
+        }
+        seed(jdbcTemplate, userId, rows, row);
+    }
+
+    /**
+     * Replaces the user's properties with {@code rows} new ones, built by {@code row} from their
+     * index, and refreshes the planner statistics.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, UUID userId, int rows, IntFunction<PropertyRow> row) {
+        jdbcTemplate.update("DELETE FROM portfolio_db.properties WHERE user_id = ?", userId);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            PropertyRow property = row.apply(i);
+            Timestamp createdAt = Timestamp.valueOf(property.createdAt());
+            batch.add(new Object[]{
+                    UUID.randomUUID(), userId, property.addressLine1(), property.city(), property.postalCode(),
+                    property.country().name(), property.latitude(), property.longitude(), property.purchasePrice(),
+                    Date.valueOf(property.purchaseDate()), "GBP", property.currentValue(), property.status().name(),
+                    property.propertyType(), property.bedrooms(), property.description(), createdAt, createdAt});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        }
+        jdbcTemplate.execute("ANALYZE portfolio_db.properties");
+    }
+}
@@ -0,0 +1,113 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.dto.AddressRequest;
+import com.propertyiq.portfolio.dto.CreatePropertyRequest;
+import com.propertyiq.portfolio.dto.PropertyImportResponse;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserted rows per second for the previous one-property-per-request path
+ * ({@link PropertyService#createProperty}, one transaction and one INSERT per row) against the bulk
+ * JSON import. Both skip HTTP, which flatters the per-request path.
+ *
+ * <p>Needs the database described on {@link BenchmarkDatabase}; the benchmark user's rows are
+ * deleted after every iteration:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='PropertyImportBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PropertyImportBenchmark {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-00000000be02");
+    private static final int ROWS = 2000;
+
+    private ConfigurableApplicationContext context;
+    private PropertyService propertyService;
+    private PropertyImportService propertyImportService;
+    private JdbcTemplate jdbcTemplate;
+    private List<CreatePropertyRequest> requests;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkDatabase.start();
+        propertyService = context.getBean(PropertyService.class);
+        propertyImportService = context.getBean(PropertyImportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(CreatePropertyRequest.builder()
+                    .address(AddressRequest.builder()
+                            .line1(i + " Import Street")
+                            .city("City " + (i % 50))
+                            .postalCode("IM" + (i % 1000))
+                            .country(Country.UK)
+                            .build())
+                    .purchasePrice(BigDecimal.valueOf(100_000 + i * 37L))
+                    .purchaseDate(LocalDate.of(2000, 1, 1).plusDays(i % 9000))
+                    .currency(Currency.GBP)
+                    .propertyType("Flat")
+                    .bedrooms(1 + i % 5)
+                    .build());
+        }
+        json = context.getBean(ObjectMapper.class).writeValueAsBytes(requests);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteImportedRows() {
+        jdbcTemplate.update("DELETE FROM portfolio_db.properties WHERE user_id = ?", USER_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PropertyResponse rowPerRequest() {
+        PropertyResponse last = null;
+        for (CreatePropertyRequest request : requests) {
+            last = propertyService.createProperty(USER_ID, request);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PropertyImportResponse bulkImport() throws IOException {
+        return propertyImportService.importJson(USER_ID, new ByteArrayInputStream(json));
+    }
+}
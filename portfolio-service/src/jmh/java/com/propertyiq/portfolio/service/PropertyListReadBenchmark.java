@@ -0,0 +1,97 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PropertyFilter;
+import com.propertyiq.portfolio.dto.PropertyListItem;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Property;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.repository.PropertyRepository;
+import com.propertyiq.portfolio.repository.PropertySpecifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads all of a user's {@code rows} properties the way a listing page does, once as managed
+ * entities copied into {@link PropertyResponse}s and once as {@link PropertyListItem}s selected
+ * straight from the columns. Run with {@code -prof gc} for the allocation per read.
+ *
+ * <p>Needs the database described on {@link BenchmarkDatabase}. Each size has its own user, seeded
+ * on first run and reused afterwards:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='PropertyListReadBenchmark -prof gc'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PropertyListReadBenchmark {
+
+    private static final Country[] COUNTRIES = {Country.UK, Country.USA, Country.ITALY};
+    private static final Sort ORDER = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private PropertyRepository propertyRepository;
+    private Specification<Property> specification;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        propertyRepository = context.getBean(PropertyRepository.class);
+
+        UUID userId = new UUID(0, 0xbe020000L + rows);
+        specification = PropertySpecifications.ownedBy(userId).and(PropertySpecifications.matching(new PropertyFilter()));
+        LocalDateTime start = LocalDateTime.now().minusDays(rows);
+        BenchmarkDatabase.seedOnce(context.getBean(JdbcTemplate.class), userId, rows, i -> {
+            BigDecimal price = BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(100_000, 2_000_000));
+            return new BenchmarkDatabase.PropertyRow(i + " Benchmark Street", "City " + (i % 50), "BM" + (i % 1000),
+                    COUNTRIES[i % COUNTRIES.length], null, null, price, LocalDate.of(2000, 1, 1).plusDays(i % 9000),
+                    price, PropertyStatus.ACTIVE, "Terraced house", 1 + i % 5, "Seeded for the list read benchmark",
+                    start.plusMinutes(i * 7L));
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PropertyResponse> entities() {
+        return propertyRepository.findBy(specification, query -> query.sortBy(ORDER).limit(rows).all()).stream()
+                .map(PropertyResponse::fromEntity)
+                .toList();
+    }
+
+    @Benchmark
+    public List<PropertyListItem> projection() {
+        return propertyRepository.findListItems(specification, ORDER, rows);
+    }
+}
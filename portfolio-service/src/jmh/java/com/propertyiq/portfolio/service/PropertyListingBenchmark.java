@@ -0,0 +1,132 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PropertyFilter;
+import com.propertyiq.portfolio.dto.PropertyPageResponse;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import com.propertyiq.portfolio.dto.PropertySort;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.repository.PropertyRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous unbounded listing ({@code findByUserId} mapped to responses) with keyset
+ * pages of the new listing, for a user with {@code properties} rows.
+ *
+ * <p>Needs the database described on {@link BenchmarkDatabase}. The benchmark user's rows are
+ * seeded on first run and reused afterwards:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='PropertyListingBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PropertyListingBenchmark {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-00000000be01");
+    private static final Country[] COUNTRIES = {Country.UK, Country.USA, Country.ITALY};
+    private static final PropertyStatus[] STATUSES = {PropertyStatus.ACTIVE, PropertyStatus.ACTIVE, PropertyStatus.SOLD};
+
+    @Param({"50000"})
+    private int properties;
+
+    private ConfigurableApplicationContext context;
+    private PropertyRepository propertyRepository;
+    private PropertyService propertyService;
+    private TransactionTemplate readOnlyTransaction;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        propertyRepository = context.getBean(PropertyRepository.class);
+        propertyService = context.getBean(PropertyService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(properties);
+        BenchmarkDatabase.seedOnce(context.getBean(JdbcTemplate.class), USER_ID, properties, i -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            BigDecimal price = BigDecimal.valueOf(random.nextLong(100_000, 2_000_000));
+            return new BenchmarkDatabase.PropertyRow(i + " Benchmark Street", "City " + (i % 50), "BM" + (i % 1000),
+                    COUNTRIES[i % COUNTRIES.length], null, null, price, LocalDate.of(2000, 1, 1).plusDays(i % 9000),
+                    price.multiply(BigDecimal.valueOf(random.nextDouble(0.8, 1.6))).setScale(2, RoundingMode.HALF_UP),
+                    STATUSES[i % STATUSES.length], null, null, null, start.plusMinutes(i * 7L));
+        });
+        middleCursor = cursorAt(properties / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PropertyResponse> fullFetch() {
+        return readOnlyTransaction.execute(status -> propertyRepository.findByUserId(USER_ID).stream()
+                .map(PropertyResponse::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public PropertyPageResponse firstPage() {
+        return propertyService.getProperties(USER_ID, new PropertyFilter(), PropertySort.CREATED_AT,
+                Sort.Direction.DESC, null, PropertyService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PropertyPageResponse middlePage() {
+        return propertyService.getProperties(USER_ID, new PropertyFilter(), PropertySort.CREATED_AT,
+                Sort.Direction.DESC, middleCursor, PropertyService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PropertyPageResponse filteredPage() {
+        PropertyFilter filter = PropertyFilter.builder().status(PropertyStatus.ACTIVE).country(Country.UK).build();
+        return propertyService.getProperties(USER_ID, filter, PropertySort.CREATED_AT,
+                Sort.Direction.DESC, null, PropertyService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PropertyPageResponse firstPageByValue() {
+        return propertyService.getProperties(USER_ID, new PropertyFilter(), PropertySort.CURRENT_VALUE,
+                Sort.Direction.DESC, null, PropertyService.DEFAULT_PAGE_SIZE);
+    }
+
+    private String cursorAt(int offset) {
+        String cursor = null;
+        for (int seen = 0; seen < offset; seen += PropertyService.MAX_PAGE_SIZE) {
+            cursor = propertyService.getProperties(USER_ID, new PropertyFilter(), PropertySort.CREATED_AT,
+                    Sort.Direction.DESC, cursor, PropertyService.MAX_PAGE_SIZE).getNextCursor();
+        }
+        return cursor;
+    }
+}
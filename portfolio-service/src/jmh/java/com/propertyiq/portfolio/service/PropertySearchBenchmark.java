@@ -0,0 +1,110 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PropertySearchCriteria;
+import com.propertyiq.portfolio.dto.PropertySearchResponse;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches one user's million properties by postcode prefix, by words, by distance and by all
+ * three at once. The target is under 50ms per search at the 99th percentile.
+ *
+ * <p>Needs the database described on {@link BenchmarkDatabase}. The properties are seeded on
+ * first run and reused afterwards:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='PropertySearchBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PropertySearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final UUID USER_ID = new UUID(0, 0xbe022000L);
+
+    private static final String[] AREAS = {"SW1A", "SW10", "SE1", "E14", "N1", "NW3", "W2", "EC2A", "WC1E", "KT1"};
+    private static final String[] STREETS = {"High Street", "Station Road", "Church Lane", "Garden Row",
+            "Mill Road", "Park Avenue", "Victoria Street", "Queens Road"};
+    private static final String[] FEATURES = {"garden", "balcony", "garage", "conservatory", "cellar", "terrace",
+            "loft", "parking"};
+
+    private ConfigurableApplicationContext context;
+    private PropertySearchService searchService;
+
+    private final PropertySearchCriteria postcode = PropertySearchCriteria.builder().postcode("SW1A 2").build();
+    private final PropertySearchCriteria text = PropertySearchCriteria.builder().text("garden conservatory").build();
+    private final PropertySearchCriteria nearby = PropertySearchCriteria.builder()
+            .latitude(51.5072).longitude(-0.1276).radiusKm(1.0).build();
+    private final PropertySearchCriteria combined = PropertySearchCriteria.builder()
+            .postcode("SW1A").text("church garden").latitude(51.5014).longitude(-0.1419).radiusKm(2.0).build();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        searchService = context.getBean(PropertySearchService.class);
+        LocalDateTime start = LocalDateTime.now().minusDays(ROWS / 100);
+        BenchmarkDatabase.seedOnce(context.getBean(JdbcTemplate.class), USER_ID, ROWS, i -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            BigDecimal price = BigDecimal.valueOf(random.nextLong(100_000, 2_000_000));
+            // Greater London, roughly 50km across
+            double latitude = 51.28 + random.nextDouble() * 0.42;
+            double longitude = -0.51 + random.nextDouble() * 0.84;
+            String postcode = AREAS[i % AREAS.length] + " " + random.nextInt(1, 10)
+                    + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26));
+            String description = "Seeded with a " + FEATURES[random.nextInt(FEATURES.length)]
+                    + " and a " + FEATURES[random.nextInt(FEATURES.length)];
+            return new BenchmarkDatabase.PropertyRow((1 + i % 300) + " " + STREETS[random.nextInt(STREETS.length)],
+                    "London", postcode, Country.UK, latitude, longitude, price,
+                    LocalDate.of(2000, 1, 1).plusDays(i % 9000), price, PropertyStatus.ACTIVE, "Terraced house",
+                    1 + i % 5, description, start.plusSeconds(i * 86L));
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PropertySearchResponse postcode() {
+        return searchService.search(USER_ID, postcode, null);
+    }
+
+    @Benchmark
+    public PropertySearchResponse text() {
+        return searchService.search(USER_ID, text, null);
+    }
+
+    @Benchmark
+    public PropertySearchResponse nearby() {
+        return searchService.search(USER_ID, nearby, null);
+    }
+
+    @Benchmark
+    public PropertySearchResponse combined() {
+        return searchService.search(USER_ID, combined, null);
+    }
+}
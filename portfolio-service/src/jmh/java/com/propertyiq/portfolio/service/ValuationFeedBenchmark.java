@@ -0,0 +1,114 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.BulkValuationResponse;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import com.propertyiq.portfolio.dto.UpdateValuationRequest;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.model.ValuationSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valuations applied per second by the single-property path
+ * ({@link PropertyService#updateValuation}: find, state check and entity save per record) against
+ * the bulk feed's set-based UPDATEs. Both skip HTTP, which flatters the single-property path.
+ *
+ * <p>Needs the database described on {@link BenchmarkDatabase}. The benchmark user's properties
+ * are re-seeded on every run:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='ValuationFeedBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ValuationFeedBenchmark {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-00000000be03");
+    private static final int RECORDS = 5000;
+
+    private ConfigurableApplicationContext context;
+    private PropertyService propertyService;
+    private BulkValuationService bulkValuationService;
+    private JdbcTemplate jdbcTemplate;
+    private List<UUID> propertyIds;
+    private byte[] feed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        propertyService = context.getBean(PropertyService.class);
+        bulkValuationService = context.getBean(BulkValuationService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        BenchmarkDatabase.seed(jdbcTemplate, USER_ID, RECORDS, i -> {
+            BigDecimal price = BigDecimal.valueOf(200_000 + i * 11L);
+            return new BenchmarkDatabase.PropertyRow(i + " Valuation Road", "City " + (i % 50), "VR" + (i % 1000),
+                    Country.UK, null, null, price, LocalDate.of(2010, 1, 1).plusDays(i % 4000), price,
+                    PropertyStatus.ACTIVE, null, null, null, now);
+        });
+        propertyIds = jdbcTemplate.queryForList(
+                "SELECT id FROM portfolio_db.properties WHERE user_id = ?", UUID.class, USER_ID);
+        StringBuilder ndjson = new StringBuilder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (UUID propertyId : propertyIds) {
+            ndjson.append("{\"propertyId\":\"").append(propertyId)
+                    .append("\",\"newValue\":").append(random.nextLong(100_000, 2_000_000))
+                    .append(",\"source\":\"API\"}\n");
+        }
+        feed = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM portfolio_db.properties WHERE user_id = ?", USER_ID);
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public PropertyResponse perRecord() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PropertyResponse last = null;
+        for (UUID propertyId : propertyIds) {
+            last = propertyService.updateValuation(USER_ID, propertyId, UpdateValuationRequest.builder()
+                    .newValue(BigDecimal.valueOf(random.nextLong(100_000, 2_000_000)))
+                    .source(ValuationSource.API)
+                    .build(), null);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public BulkValuationResponse bulkFeed() throws IOException {
+        return bulkValuationService.applyValuations(USER_ID, new ByteArrayInputStream(feed));
+    }
+}
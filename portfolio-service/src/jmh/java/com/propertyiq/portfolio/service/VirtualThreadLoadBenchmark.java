@@ -0,0 +1,117 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the service over HTTP from {@value #CLIENTS} concurrent clients, more than Tomcat's 200
+ * platform threads, once on platform threads and once on virtual threads. Each request is a blocking
+ * {@code PropertyRepository} read (the property cache is off): one property, or the first listing
+ * page. Throughput mode gives the maximum requests per millisecond and sample mode the p99.
+ *
+ * <p>Needs the database described on {@link BenchmarkDatabase}. The properties are seeded on
+ * first run and reused afterwards:
+ * {@code ./gradlew :portfolio-service:jmh -PjmhArgs='VirtualThreadLoadBenchmark'}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(VirtualThreadLoadBenchmark.CLIENTS)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final int ROWS = 10_000;
+    private static final UUID USER_ID = new UUID(0, 0xbe024000L);
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<UUID> propertyIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("portfolio.cache.enabled=false", "spring.threads.virtual.enabled=" + virtualThreads);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/properties";
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime start = LocalDateTime.now().minusDays(ROWS);
+        BenchmarkDatabase.seedOnce(jdbcTemplate, USER_ID, ROWS, i -> {
+            BigDecimal price = BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(100_000, 2_000_000));
+            return new BenchmarkDatabase.PropertyRow(i + " Load Street", "London", "SW1A " + (i % 10) + "AA",
+                    Country.UK, null, null, price, LocalDate.of(2000, 1, 1).plusDays(i % 9000), price,
+                    PropertyStatus.ACTIVE, "Terraced house", 1 + i % 5, "Seeded for the virtual thread load test",
+                    start.plusMinutes(i * 7L));
+        });
+        propertyIds = jdbcTemplate.queryForList(
+                "SELECT id FROM portfolio_db.properties WHERE user_id = ?", UUID.class, USER_ID);
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getProperty() throws IOException, InterruptedException {
+        UUID propertyId = propertyIds.get(ThreadLocalRandom.current().nextInt(propertyIds.size()));
+        return get(baseUrl + "/" + propertyId);
+    }
+
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException {
+        return get(baseUrl + "?limit=50");
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("X-User-Id", USER_ID.toString())
+                .GET()
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -1,13 +1,25 @@
 package com.propertyiq.portfolio;
 
+import com.propertyiq.portfolio.config.FxRateProperties;
+import com.propertyiq.portfolio.config.OutboxProperties;
+import com.propertyiq.portfolio.config.PropertyCacheProperties;
+import com.propertyiq.portfolio.config.PropertyImportProperties;
+import com.propertyiq.portfolio.config.ReadReplicaProperties;
+import com.propertyiq.portfolio.config.ValuationFeedProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.propertyiq.portfolio", "com.propertyiq.common"})
 @EnableJpaRepositories("com.propertyiq.portfolio.repository")
 @EntityScan("com.propertyiq.portfolio.model")
+@EnableConfigurationProperties({PropertyImportProperties.class, ValuationFeedProperties.class,
+        PropertyCacheProperties.class, FxRateProperties.class, OutboxProperties.class,
+        ReadReplicaProperties.class})
+@EnableScheduling
 public class PortfolioServiceApplication {
 
     public static void main(String[] args) {
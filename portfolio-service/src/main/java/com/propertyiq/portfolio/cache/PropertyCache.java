@@ -0,0 +1,371 @@
+package com.propertyiq.portfolio.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.propertyiq.portfolio.config.PropertyCacheProperties;
+import com.propertyiq.portfolio.dto.PropertyPageResponse;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache for property reads: a bounded in-process tier in front of a Redis tier shared by
+ * every instance. Single properties are cached per user and property; listing pages per user and
+ * query, and since any page may hold any of the user's properties, a change to one of them drops
+ * all of that user's pages but only that property's own entry.
+ *
+ * <p>As in the gateway's response cache, every scope has a generation that invalidation bumps, so a
+ * read that loaded data before a write committed can't store it afterwards. Both tiers keep one:
+ * the in-process generation guards this instance, and the Redis one, which entries are tagged with
+ * when written, guards the shared tier against a load on another instance that raced the write.
+ * Invalidation runs once the writing transaction has committed: it bumps the Redis generations and
+ * announces the change on a pub/sub channel so the other instances drop their in-process copies.
+ *
+ * <p>Redis errors never fail a read; the shared tier is bypassed for a while and reads fall through
+ * to the database. Invalidations that could not reach Redis are queued and sent before the shared
+ * tier is used again, and retried in the background meanwhile.
+ */
+@Component
+public class PropertyCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyCache.class);
+    private static final String METRIC_NAME = "portfolio.property-cache";
+    private static final String PROPERTY_KEY_PREFIX = "portfolio:property:";
+    private static final String PAGES_KEY_PREFIX = "portfolio:property-pages:";
+    private static final String GENERATION_KEY = "portfolio:property-cache:generation";
+    private static final String SCOPE_GENERATION_KEY_PREFIX = "portfolio:property-cache:generation:";
+
+    private final PropertyCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Cache<String, Entry> entries;
+    private final Cache<String, Long> generations;
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final Map<UUID, Set<UUID>> pendingInvalidations = new ConcurrentHashMap<>();
+    private final RedisScript<Long> invalidateScript =
+            RedisScript.of(new ClassPathResource("scripts/invalidate-property-cache.lua"), Long.class);
+    private final Lookups propertyLookups;
+    private final Lookups pageLookups;
+    private volatile Instant redisRetryAt = Instant.MIN;
+
+    public PropertyCache(PropertyCacheProperties properties, StringRedisTemplate redisTemplate,
+                         ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .recordStats()
+                .build();
+        // Generations are drawn from one increasing sequence, so a scope whose generation was
+        // evicted comes back with a newer one rather than reviving stale entries
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, METRIC_NAME + ".local");
+        this.propertyLookups = new Lookups(meterRegistry, "property");
+        this.pageLookups = new Lookups(meterRegistry, "page");
+    }
+
+    public PropertyResponse getProperty(UUID userId, UUID propertyId, Supplier<PropertyResponse> loader) {
+        String scope = propertyScope(userId, propertyId);
+        return get(propertyLookups, scope, PROPERTY_KEY_PREFIX + scope, PropertyResponse.class, loader);
+    }
+
+    /**
+     * A listing page; {@code query} must identify everything the page depends on besides the user.
+     */
+    public PropertyPageResponse getPage(UUID userId, String query, Supplier<PropertyPageResponse> loader) {
+        String scope = userId.toString();
+        return get(pageLookups, scope, PAGES_KEY_PREFIX + scope + ":" + query, PropertyPageResponse.class, loader);
+    }
+
+    public void invalidate(UUID userId, UUID propertyId) {
+        invalidate(userId, List.of(propertyId));
+    }
+
+    /**
+     * Drops the user's listing pages and the given properties, on every instance, once the current
+     * transaction commits (straight away outside a transaction). Nothing is dropped on rollback.
+     */
+    public void invalidate(UUID userId, Collection<UUID> propertyIds) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(propertyIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId, ids);
+                }
+            });
+        } else {
+            evict(userId, ids);
+        }
+    }
+
+    /**
+     * Retries invalidations that could not reach Redis, so the other instances stop serving the
+     * stale entries without waiting for this instance's next read or write.
+     */
+    @Scheduled(fixedDelayString = "${portfolio.cache.redis.retry-interval:PT30S}")
+    public void retryPendingInvalidations() {
+        if (!pendingInvalidations.isEmpty()) {
+            sharedTierAvailable();
+        }
+    }
+
+    /**
+     * Receives invalidations announced by other instances.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(" ");
+        if (parts.length < 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+        try {
+            List<UUID> propertyIds = parts.length > 2
+                    ? Arrays.stream(parts[2].split(",")).map(UUID::fromString).toList()
+                    : List.of();
+            evictLocal(UUID.fromString(parts[1]), propertyIds);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed cache invalidation: {}", body);
+        }
+    }
+
+    private <T> T get(Lookups lookups, String scope, String key, Class<T> type, Supplier<T> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        long generation = currentGeneration(scope);
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null && cached.generation() == generation) {
+            lookups.localHits.increment();
+            return type.cast(cached.value());
+        }
+
+        Shared<T> shared = readShared(scope, key, type);
+        if (shared != null && shared.value() != null) {
+            lookups.sharedHits.increment();
+            if (generation == currentGeneration(scope)) {
+                entries.put(key, new Entry(shared.value(), generation));
+            }
+            return shared.value();
+        }
+
+        lookups.misses.increment();
+        T value = loader.get();
+        if (generation == currentGeneration(scope)) {
+            entries.put(key, new Entry(value, generation));
+            if (shared != null) {
+                // Tagged with the generation read before loading: if another instance invalidated
+                // the scope meanwhile, the entry is already stale and every read treats it as a miss
+                writeShared(key, shared.generation(), value);
+            }
+        }
+        return value;
+    }
+
+    private void evict(UUID userId, List<UUID> propertyIds) {
+        evictLocal(userId, propertyIds);
+        if (!properties.getRedis().isEnabled()) {
+            return;
+        }
+        // Queued first so a failure leaves it for the retry; a successful flush sends it straight away
+        queueInvalidation(userId, propertyIds);
+        sharedTierAvailable();
+    }
+
+    private void evictLocal(UUID userId, Collection<UUID> propertyIds) {
+        bumpGeneration(userId.toString());
+        propertyIds.forEach(propertyId -> bumpGeneration(propertyScope(userId, propertyId)));
+        logger.debug("Invalidated cached pages and {} properties for user {}", propertyIds.size(), userId);
+    }
+
+    private long currentGeneration(String scope) {
+        return generations.get(scope, s -> generationSequence.incrementAndGet());
+    }
+
+    private void bumpGeneration(String scope) {
+        generations.put(scope, generationSequence.incrementAndGet());
+    }
+
+    /**
+     * The scope's shared generation and the entry if it was written under that generation, or null
+     * while the shared tier is unavailable.
+     */
+    private <T> Shared<T> readShared(String scope, String key, Class<T> type) {
+        if (!sharedTierAvailable()) {
+            return null;
+        }
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(List.of(SCOPE_GENERATION_KEY_PREFIX + scope, key));
+        } catch (DataAccessException e) {
+            sharedTierFailed(e);
+            return null;
+        }
+        // A scope that was never invalidated, or not within the generation key's lifetime, is at 0
+        long generation = values.get(0) != null ? Long.parseLong(values.get(0)) : 0;
+        String entry = values.get(1);
+        int separator = entry != null ? entry.indexOf('\n') : -1;
+        if (separator < 0) {
+            return new Shared<>(generation, null);
+        }
+        try {
+            if (Long.parseLong(entry, 0, separator, 10) != generation) {
+                return new Shared<>(generation, null);
+            }
+            return new Shared<>(generation, objectMapper.readValue(entry.substring(separator + 1), type));
+        } catch (NumberFormatException | JsonProcessingException e) {
+            // Written by an incompatible version; treat as a miss and let the load overwrite it
+            logger.debug("Ignoring unreadable cache entry {}", key, e);
+            return new Shared<>(generation, null);
+        }
+    }
+
+    private void writeShared(String key, long generation, Object value) {
+        if (!sharedTierAvailable()) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            redisTemplate.opsForValue().set(key, generation + "\n" + json, properties.getRedis().getTtl());
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize cache entry {}", key, e);
+        } catch (DataAccessException e) {
+            sharedTierFailed(e);
+        }
+    }
+
+    private void queueInvalidation(UUID userId, Collection<UUID> propertyIds) {
+        pendingInvalidations.merge(userId, Set.copyOf(propertyIds), (queued, more) -> {
+            Set<UUID> merged = new HashSet<>(queued);
+            merged.addAll(more);
+            return merged;
+        });
+    }
+
+    private boolean sharedTierAvailable() {
+        if (!properties.getRedis().isEnabled() || Instant.now().isBefore(redisRetryAt)) {
+            return false;
+        }
+        // Until the queued invalidations are through, Redis may still hold entries they would drop
+        return pendingInvalidations.isEmpty() || sendPendingInvalidations();
+    }
+
+    private boolean sendPendingInvalidations() {
+        for (UUID userId : pendingInvalidations.keySet()) {
+            Set<UUID> propertyIds = pendingInvalidations.remove(userId);
+            if (propertyIds != null && !sendInvalidation(userId, propertyIds)) {
+                queueInvalidation(userId, propertyIds);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sendInvalidation(UUID userId, Collection<UUID> propertyIds) {
+        List<String> keys = new ArrayList<>(propertyIds.size() + 2);
+        keys.add(GENERATION_KEY);
+        keys.add(SCOPE_GENERATION_KEY_PREFIX + userId);
+        propertyIds.forEach(propertyId -> keys.add(SCOPE_GENERATION_KEY_PREFIX + propertyScope(userId, propertyId)));
+        // A generation key outlives every entry tagged with the generation it replaced
+        long generationTtl = properties.getRedis().getTtl().multipliedBy(2).toSeconds();
+        String message = instanceId + " " + userId + (propertyIds.isEmpty() ? "" : " "
+                + propertyIds.stream().map(UUID::toString).collect(Collectors.joining(",")));
+        try {
+            redisTemplate.execute(invalidateScript, keys, String.valueOf(generationTtl),
+                    properties.getRedis().getChannel(), message);
+            return true;
+        } catch (DataAccessException e) {
+            sharedTierFailed(e);
+            return false;
+        }
+    }
+
+    private void sharedTierFailed(DataAccessException e) {
+        Duration retryInterval = properties.getRedis().getRetryInterval();
+        redisRetryAt = Instant.now().plus(retryInterval);
+        logger.warn("Redis cache tier unavailable, bypassing it for {}: {}", retryInterval, e.getMessage());
+    }
+
+    private static String propertyScope(UUID userId, UUID propertyId) {
+        return userId + ":" + propertyId;
+    }
+
+    private record Entry(Object value, long generation) {}
+
+    private record Shared<T>(long generation, T value) {}
+
+    /**
+     * Lookup outcomes for one kind of entry, and the share served from either tier.
+     */
+    private static final class Lookups {
+
+        private final Counter localHits;
+        private final Counter sharedHits;
+        private final Counter misses;
+
+        private Lookups(MeterRegistry meterRegistry, String cache) {
+            this.localHits = counter(meterRegistry, cache, "local");
+            this.sharedHits = counter(meterRegistry, cache, "redis");
+            this.misses = counter(meterRegistry, cache, "miss");
+            Gauge.builder(METRIC_NAME + ".hit-ratio", this, Lookups::hitRatio)
+                    .description("Share of lookups served from either cache tier")
+                    .tag("cache", cache)
+                    .register(meterRegistry);
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String cache, String result) {
+            return Counter.builder(METRIC_NAME + ".lookups")
+                    .tag("cache", cache)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private double hitRatio() {
+            double hits = localHits.count() + sharedHits.count();
+            double total = hits + misses.count();
+            return total == 0 ? Double.NaN : hits / total;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.propertyiq.portfolio.cache;
+
+import com.propertyiq.portfolio.config.PropertyCacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class PropertyCacheConfig {
+
+    /**
+     * Subscribes the cache to invalidations from other instances. If Redis is down at startup the
+     * container keeps retrying in the background.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "portfolio.cache", name = {"enabled", "redis.enabled"},
+            havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer propertyCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                           PropertyCache propertyCache,
+                                                                           PropertyCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(propertyCache, new ChannelTopic(properties.getRedis().getChannel()));
+        return container;
+    }
+}
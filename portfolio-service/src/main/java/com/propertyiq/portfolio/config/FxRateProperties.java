@@ -0,0 +1,14 @@
+package com.propertyiq.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "portfolio.fx")
+public class FxRateProperties {
+
+    /**
+     * CSV of reference rates, as a resource location ({@code classpath:} or {@code file:}).
+     */
+    private String ratesLocation = "classpath:fx/reference-rates.csv";
+}
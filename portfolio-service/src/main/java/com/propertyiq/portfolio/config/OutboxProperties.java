@@ -0,0 +1,29 @@
+package com.propertyiq.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "portfolio.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether this instance relays outbox events to the broker. Events are written either way.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Events read, published and deleted per relay transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Redis stream the events are appended to.
+     */
+    private String stream = "portfolio:property-events";
+
+    /**
+     * Approximate number of events the stream keeps; older ones are trimmed.
+     */
+    private long streamMaxLength = 1_000_000;
+}
@@ -0,0 +1,45 @@
+package com.propertyiq.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "portfolio.cache")
+public class PropertyCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Entries held in each instance's in-process tier.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long an entry stays in the in-process tier. Invalidations from other instances normally
+     * arrive over pub/sub; this bounds staleness if one is missed while Redis is unreachable.
+     */
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+
+        private boolean enabled = true;
+
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Pub/sub channel on which instances announce invalidations to each other.
+         */
+        private String channel = "portfolio:property-cache:invalidations";
+
+        /**
+         * After a Redis error the shared tier is bypassed for this long instead of timing out on
+         * every read.
+         */
+        private Duration retryInterval = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,20 @@
+package com.propertyiq.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "portfolio.import")
+public class PropertyImportProperties {
+
+    /**
+     * Valid rows inserted per transaction. Keep equal to {@code hibernate.jdbc.batch_size} so each
+     * transaction is one JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Row errors listed in the import report; rows beyond this are still counted as failed.
+     */
+    private int maxReportedErrors = 1000;
+}
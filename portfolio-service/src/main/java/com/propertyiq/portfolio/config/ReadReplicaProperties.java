@@ -0,0 +1,55 @@
+package com.propertyiq.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "portfolio.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * JDBC URLs of the primary's streaming replicas. Read-only transactions are spread over them;
+     * with none, everything goes to the primary.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Replica credentials; the primary's are used when unset.
+     */
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 20;
+
+    /**
+     * How long a read waits for a replica connection before it goes to the primary instead.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * A replica further behind the primary than this gets no reads until it catches up.
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * After a user's own write, their reads go to the primary for this long. It must exceed
+     * {@code max-lag} plus {@code lag-check-interval}, the most a replica in use can be behind.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Pub/sub channel on which instances tell each other about users' writes.
+     */
+    private String channel = "portfolio:read-replicas:writes";
+
+    public boolean isEnabled() {
+        return urls.stream().anyMatch(url -> !url.isBlank());
+    }
+}
@@ -0,0 +1,19 @@
+package com.propertyiq.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "portfolio.valuation-feed")
+public class ValuationFeedProperties {
+
+    /**
+     * Valuations applied per UPDATE statement.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Skipped valuations listed in the report; any beyond this are still counted.
+     */
+    private int maxReportedSkips = 10000;
+}
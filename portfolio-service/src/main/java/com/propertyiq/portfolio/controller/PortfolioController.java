@@ -0,0 +1,37 @@
+package com.propertyiq.portfolio.controller;
+
+import com.propertyiq.common.dto.ApiResponse;
+import com.propertyiq.portfolio.dto.PortfolioSummaryResponse;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.service.PortfolioSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/portfolio")
+@RequiredArgsConstructor
+public class PortfolioController {
+
+    private final PortfolioSummaryService portfolioSummaryService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<PortfolioSummaryResponse>> getSummary(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(required = false) Currency reportingCurrency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ratesDate) {
+        PortfolioSummaryResponse response = reportingCurrency == null
+                ? portfolioSummaryService.getSummary(userId)
+                : portfolioSummaryService.getSummary(userId, reportingCurrency,
+                        ratesDate != null ? ratesDate : LocalDate.now());
+        return ResponseEntity.ok(ApiResponse.success("Portfolio summary retrieved successfully", response));
+    }
+}
@@ -2,15 +2,32 @@ package com.propertyiq.portfolio.controller;
 
 import com.propertyiq.common.dto.ApiResponse;
 import com.propertyiq.portfolio.dto.*;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
 import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.service.BulkValuationService;
+import com.propertyiq.portfolio.service.PropertyExportService;
+import com.propertyiq.portfolio.service.PropertyImportService;
+import com.propertyiq.portfolio.service.PropertySearchService;
 import com.propertyiq.portfolio.service.PropertyService;
+import com.propertyiq.portfolio.service.ValuationHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +36,11 @@ import java.util.UUID;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final PropertyExportService propertyExportService;
+    private final PropertyImportService propertyImportService;
+    private final PropertySearchService propertySearchService;
+    private final BulkValuationService bulkValuationService;
+    private final ValuationHistoryService valuationHistoryService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<PropertyResponse>> createProperty(
@@ -30,12 +52,85 @@ public class PropertyController {
                 .body(ApiResponse.success("Property created successfully", response));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<PropertyImportResponse>> importPropertiesJson(
+            @RequestHeader("X-User-Id") UUID userId,
+            InputStream body) throws IOException {
+        return importResponse(propertyImportService.importJson(userId, body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<PropertyImportResponse>> importPropertiesCsv(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream body = file.getInputStream()) {
+            return importResponse(propertyImportService.importCsv(userId, body));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<PropertyImportResponse>> importResponse(PropertyImportResponse report) {
+        String message = String.format("Imported %d of %d properties", report.getImportedRows(), report.getTotalRows());
+        return ResponseEntity.ok(ApiResponse.success(message, report));
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<PropertyResponse>>> getProperties(
+    public ResponseEntity<ApiResponse<PropertyPageResponse>> getProperties(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(required = false) PropertyStatus status,
+            @RequestParam(required = false) Country country,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate purchasedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate purchasedTo,
+            @RequestParam(defaultValue = "CREATED_AT") PropertySort sort,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        PropertyFilter filter = PropertyFilter.builder()
+                .status(status)
+                .country(country)
+                .city(city)
+                .currency(currency)
+                .purchasedFrom(purchasedFrom)
+                .purchasedTo(purchasedTo)
+                .build();
+        PropertyPageResponse page = propertyService.getProperties(userId, filter, sort, direction, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PropertySearchResponse>> searchProperties(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(required = false) String postcode,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) PropertyStatus status,
+            @RequestParam(required = false) Integer limit) {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .postcode(postcode)
+                .text(text)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(radiusKm)
+                .status(status)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(propertySearchService.search(userId, criteria, limit)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProperties(
             @RequestHeader("X-User-Id") UUID userId,
-            @RequestParam(required = false) PropertyStatus status) {
-        List<PropertyResponse> properties = propertyService.getProperties(userId, status);
-        return ResponseEntity.ok(ApiResponse.success(properties));
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        StreamingResponseBody body = outputStream -> propertyExportService.export(userId, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("properties." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @GetMapping("/{propertyId}")
@@ -43,25 +138,66 @@ public class PropertyController {
             @RequestHeader("X-User-Id") UUID userId,
             @PathVariable UUID propertyId) {
         PropertyResponse response = propertyService.getProperty(userId, propertyId);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return ResponseEntity.ok().eTag(eTag(response)).body(ApiResponse.success(response));
     }
 
     @PutMapping("/{propertyId}")
     public ResponseEntity<ApiResponse<PropertyResponse>> updateProperty(
             @RequestHeader("X-User-Id") UUID userId,
             @PathVariable UUID propertyId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdatePropertyRequest request) {
-        PropertyResponse response = propertyService.updateProperty(userId, propertyId, request);
-        return ResponseEntity.ok(ApiResponse.success("Property updated successfully", response));
+        PropertyResponse response = propertyService.updateProperty(userId, propertyId, request,
+                expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(response))
+                .body(ApiResponse.success("Property updated successfully", response));
     }
 
     @PatchMapping("/{propertyId}/valuation")
     public ResponseEntity<ApiResponse<PropertyResponse>> updateValuation(
             @RequestHeader("X-User-Id") UUID userId,
             @PathVariable UUID propertyId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateValuationRequest request) {
-        PropertyResponse response = propertyService.updateValuation(userId, propertyId, request);
-        return ResponseEntity.ok(ApiResponse.success("Valuation updated successfully", response));
+        PropertyResponse response = propertyService.updateValuation(userId, propertyId, request,
+                expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(response))
+                .body(ApiResponse.success("Valuation updated successfully", response));
+    }
+
+    @PostMapping(value = "/valuations", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<BulkValuationResponse>> applyValuations(
+            @RequestHeader("X-User-Id") UUID userId,
+            InputStream body) throws IOException {
+        BulkValuationResponse report = bulkValuationService.applyValuations(userId, body);
+        String message = String.format("Updated %d of %d valuations", report.getUpdated(), report.getTotalRecords());
+        return ResponseEntity.ok(ApiResponse.success(message, report));
+    }
+
+    @GetMapping("/valuations")
+    public ResponseEntity<ApiResponse<ValuationSeriesResponse>> getPortfolioValuations(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(defaultValue = "MONTHLY") ValuationGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        ValuationSeriesResponse series = valuationHistoryService.getPortfolioSeries(userId, granularity, start, end);
+        return ResponseEntity.ok(ApiResponse.success(series));
+    }
+
+    @GetMapping("/{propertyId}/valuations")
+    public ResponseEntity<ApiResponse<ValuationSeriesResponse>> getPropertyValuations(
+            @RequestHeader("X-User-Id") UUID userId,
+            @PathVariable UUID propertyId,
+            @RequestParam(defaultValue = "MONTHLY") ValuationGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        ValuationSeriesResponse series = valuationHistoryService.getPropertySeries(
+                userId, propertyId, granularity, start, end);
+        return ResponseEntity.ok(ApiResponse.success(series));
     }
 
     @PostMapping("/{propertyId}/sold")
@@ -70,7 +206,7 @@ public class PropertyController {
             @PathVariable UUID propertyId,
             @Valid @RequestBody MarkAsSoldRequest request) {
         PropertyResponse response = propertyService.markAsSold(userId, propertyId, request);
-        return ResponseEntity.ok(ApiResponse.success("Property marked as sold", response));
+        return ResponseEntity.ok().eTag(eTag(response)).body(ApiResponse.success("Property marked as sold", response));
     }
 
     @PostMapping("/{propertyId}/archive")
@@ -78,6 +214,32 @@ public class PropertyController {
             @RequestHeader("X-User-Id") UUID userId,
             @PathVariable UUID propertyId) {
         PropertyResponse response = propertyService.archiveProperty(userId, propertyId);
-        return ResponseEntity.ok(ApiResponse.success("Property archived successfully", response));
+        return ResponseEntity.ok().eTag(eTag(response))
+                .body(ApiResponse.success("Property archived successfully", response));
+    }
+
+    private static String eTag(PropertyResponse response) {
+        return "\"" + response.getVersion() + "\"";
+    }
+
+    /**
+     * The version in an {@code If-Match} header, or {@code null} for none or {@code *}.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the error below
+            }
+        }
+        throw new ValidationException("If-Match must be a single ETag returned by this API");
     }
 }
@@ -0,0 +1,109 @@
+package com.propertyiq.portfolio.datasource;
+
+import com.propertyiq.common.virtualthreads.BoundedDataSource;
+import com.propertyiq.portfolio.config.ReadReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The primary pool from {@code spring.datasource}, a pool per read replica from
+ * {@code portfolio.read-replicas}, and the {@link ReplicaRoutingDataSource} between them that
+ * everything else uses. Every pool reports the {@code hikaricp.*} metrics tagged with its name.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+            ReadReplicaProperties properties, ReadYourWrites readYourWrites, MeterRegistry meterRegistry,
+            Environment environment) {
+        if (properties.getReadYourWritesWindow().compareTo(
+                properties.getMaxLag().plus(properties.getLagCheckInterval())) <= 0) {
+            throw new IllegalStateException("portfolio.read-replicas.read-your-writes-window must exceed "
+                    + "max-lag plus lag-check-interval");
+        }
+        List<String> urls = properties.getUrls().stream().filter(url -> !url.isBlank()).toList();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setUsername(properties.getUsername() != null
+                    ? properties.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(properties.getPassword() != null
+                    ? properties.getPassword() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            // Connect on first use so a replica that is down doesn't stop the service starting
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // The primary pool bean is bounded like any other on virtual threads; these aren't beans
+            replicas.put(replica.getPoolName(),
+                    Threading.VIRTUAL.isActive(environment) ? BoundedDataSource.of(replica) : replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, properties.getMaxLag(),
+                meterRegistry);
+    }
+
+    /**
+     * The data source for JPA, transactions and {@code JdbcTemplate}. Connections are only taken
+     * from the routing data source when a statement runs, once the transaction's read-only flag is set.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(replicaRoutingDataSource);
+        // Known up front, so creating the proxy doesn't need a connection
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    /**
+     * Subscribes to the writes other instances announce. Without replicas there is nothing to
+     * subscribe to, and a container without listeners never connects.
+     */
+    @Bean
+    public RedisMessageListenerContainer readYourWritesListener(RedisConnectionFactory connectionFactory,
+                                                                ReadYourWrites readYourWrites,
+                                                                ReadReplicaProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (properties.isEnabled()) {
+            container.addMessageListener(readYourWrites, new ChannelTopic(properties.getChannel()));
+        }
+        return container;
+    }
+}
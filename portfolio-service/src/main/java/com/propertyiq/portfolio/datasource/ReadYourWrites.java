@@ -0,0 +1,120 @@
+package com.propertyiq.portfolio.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.propertyiq.portfolio.config.ReadReplicaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Remembers which users changed their data in the last {@code read-replicas.read-your-writes-window},
+ * so that their own reads go to the primary until every replica in use has caught up. The user is
+ * the one the current thread works for (see {@link ReadYourWritesFilter}).
+ *
+ * <p>A write is recorded once its transaction commits, before the response goes out, and is
+ * announced on a pub/sub channel so the other instances pin the user too. Writes made without a
+ * user, such as scheduled jobs, aren't tracked.
+ */
+@Component
+public class ReadYourWrites implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadYourWrites.class);
+
+    private final ReadReplicaProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ThreadLocal<UUID> currentUser = new ThreadLocal<>();
+    private final Cache<UUID, Boolean> recentWrites;
+
+    public ReadYourWrites(ReadReplicaProperties properties, StringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+    }
+
+    /**
+     * Makes {@code userId} the current thread's user until the returned binding is closed.
+     */
+    public Binding bind(UUID userId) {
+        UUID previous = currentUser.get();
+        currentUser.set(userId);
+        return () -> {
+            if (previous == null) {
+                currentUser.remove();
+            } else {
+                currentUser.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Whether the current user wrote recently enough that a replica might not have their change yet.
+     */
+    public boolean currentUserWroteRecently() {
+        UUID userId = currentUser.get();
+        return userId != null && recentWrites.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Records a write by the current user when the current transaction commits.
+     */
+    public void recordWriteOnCommit() {
+        UUID userId = currentUser.get();
+        if (userId == null || !properties.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(userId);
+            }
+        });
+    }
+
+    void recordWrite(UUID userId) {
+        recentWrites.put(userId, Boolean.TRUE);
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), instanceId + " " + userId);
+        } catch (DataAccessException e) {
+            logger.warn("Could not announce a write by user {} to other instances: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Receives writes announced by other instances.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(" ");
+        if (parts.length != 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+        try {
+            recentWrites.put(UUID.fromString(parts[1]), Boolean.TRUE);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed write announcement: {}", body);
+        }
+    }
+
+    /**
+     * Restores the thread's previous user.
+     */
+    public interface Binding extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.propertyiq.portfolio.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Binds the request's {@code X-User-Id} for {@link ReadYourWrites} while the request is handled.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String USER_HEADER = "X-User-Id";
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        UUID userId = userId(request.getHeader(USER_HEADER));
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (ReadYourWrites.Binding ignored = readYourWrites.bind(userId)) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static UUID userId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(header.trim());
+        } catch (IllegalArgumentException e) {
+            // The controller rejects the request; there is no user to route for
+            return null;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.propertyiq.portfolio.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, round robin, and everything else to the primary.
+ * A read still goes to the primary when its user wrote recently ({@link ReadYourWrites}), when no
+ * replica is within {@code max-lag} of the primary, or when the chosen replica can't hand out a
+ * connection in time.
+ *
+ * <p>The decision is made when the first statement runs, not when the transaction begins: it sits
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so by then
+ * the transaction's read-only flag is known. Statements outside a transaction go to the primary.
+ *
+ * <p>Each replica's replay lag is measured every {@code lag-check-interval}. A replica starts
+ * out unavailable and takes reads from its first check within {@code max-lag}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String METRIC_PREFIX = "portfolio.datasource.";
+
+    // Zero when the replica is streaming and has replayed everything it received, so an idle primary
+    // doesn't read as lag. A replica that lost its stream has nothing new to receive either, so it
+    // is measured by its last replayed transaction instead and drops out once that is max-lag old.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                            AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0
+                       ELSE extract(epoch FROM now() - pg_last_xact_replay_timestamp())
+                   END""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWrites readYourWrites;
+    private final double maxLagSeconds;
+    private final Counter primaryReads;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param replicas replica pools by name, in the order they are tried
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWrites readYourWrites, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.primaryReads = reads(meterRegistry, "primary");
+        replicas.forEach((name, pool) -> {
+            Replica replica = new Replica(name, pool, reads(meterRegistry, name));
+            Gauge.builder(METRIC_PREFIX + "replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replay lag behind the primary, NaN while the replica can't be reached")
+                    .baseUnit("seconds")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.recordWriteOnCommit();
+            return primary.getConnection();
+        }
+        if (!readYourWrites.currentUserWroteRecently()) {
+            Replica replica = nextAvailable();
+            if (replica != null) {
+                try {
+                    Connection connection = replica.pool.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.markUnavailable();
+                    logger.warn("Replica {} unavailable, reading from the primary until its next lag check: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Connections for other credentials always come from the primary; the replica pools only hold
+     * the configured ones.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.read-replicas.lag-check-interval:PT1S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                Double lag = rs.next() ? rs.getObject(1, Double.class) : null;
+                replica.lagSeconds = lag != null ? lag : Double.NaN;
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                logger.debug("Lag check on replica {} failed: {}", replica.name, e.getMessage());
+            }
+            boolean available = replica.lagSeconds <= maxLagSeconds;
+            if (available != replica.available) {
+                logger.info("Replica {} {} (lag {}s)", replica.name,
+                        available ? "now takes reads" : "taken out of reads", replica.lagSeconds);
+            }
+            replica.available = available;
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Replica nextAvailable() {
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder(METRIC_PREFIX + "reads")
+                .description("Read-only transactions by the pool that served them")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource pool;
+        private final Counter reads;
+        private volatile double lagSeconds = Double.NaN;
+        private volatile boolean available;
+
+        private Replica(String name, DataSource pool, Counter reads) {
+            this.name = name;
+            this.pool = pool;
+            this.reads = reads;
+        }
+
+        private void markUnavailable() {
+            available = false;
+            lagSeconds = Double.NaN;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.propertyiq.portfolio.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.propertyiq.portfolio.model.Country;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -35,4 +39,18 @@ public class AddressRequest {
 
     @NotNull(message = "Country is required")
     private Country country;
+
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @JsonIgnore
+    @AssertTrue(message = "Latitude and longitude must be given together")
+    public boolean isCoordinatesComplete() {
+        return (latitude == null) == (longitude == null);
+    }
 }
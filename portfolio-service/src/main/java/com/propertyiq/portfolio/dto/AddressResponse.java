@@ -19,6 +19,8 @@ public class AddressResponse {
     private String state;
     private String postalCode;
     private Country country;
+    private Double latitude;
+    private Double longitude;
     private String fullAddress;
     private String displayAddress;
 
@@ -33,6 +35,8 @@ public class AddressResponse {
                 .state(address.getState())
                 .postalCode(address.getPostalCode())
                 .country(address.getCountry())
+                .latitude(address.getLatitude())
+                .longitude(address.getLongitude())
                 .fullAddress(address.getFullAddress())
                 .displayAddress(address.getDisplayAddress())
                 .build();
@@ -0,0 +1,57 @@
+package com.propertyiq.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkValuationResponse {
+
+    private int totalRecords;
+
+    private int updated;
+
+    private int skipped;
+
+    /**
+     * Skipped records by row; capped, so it may list fewer than {@code skipped}.
+     */
+    private List<SkippedValuation> skippedValuations;
+
+    public enum SkipReason {
+        /** The record failed validation or could not be read. */
+        INVALID,
+        /** No property with this id belongs to the user. */
+        NOT_FOUND,
+        /** The property is sold or archived. */
+        NOT_ACTIVE,
+        /** The property already has a more recent valuation. */
+        STALE,
+        /** A later record in the same feed updates the same property. */
+        SUPERSEDED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SkippedValuation {
+
+        /**
+         * 1-based position of the record in the feed.
+         */
+        private int row;
+
+        private UUID propertyId;
+
+        private SkipReason reason;
+
+        private String message;
+    }
+}
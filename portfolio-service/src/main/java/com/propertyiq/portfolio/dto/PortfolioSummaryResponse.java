@@ -0,0 +1,69 @@
+package com.propertyiq.portfolio.dto;
+
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSummaryResponse {
+
+    private long totalProperties;
+    private Map<PropertyStatus, Long> byStatus;
+    private Map<Country, Long> byCountry;
+    private Map<Currency, Long> byCurrency;
+
+    /**
+     * Money totals, one entry per currency; amounts in different currencies are never added up.
+     */
+    private List<CurrencyTotals> totals;
+
+    /**
+     * All of {@code totals} converted into the requested reporting currency; absent unless one was
+     * requested.
+     */
+    private CurrencyTotals reportingTotals;
+
+    /**
+     * When the exchange rates behind {@code reportingTotals} took effect.
+     */
+    private LocalDate ratesEffectiveDate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CurrencyTotals {
+
+        private Currency currency;
+        private String currencySymbol;
+
+        /**
+         * What the active properties were bought for.
+         */
+        private BigDecimal purchaseCost;
+
+        /**
+         * What the active properties are worth now.
+         */
+        private BigDecimal currentValue;
+
+        private BigDecimal unrealisedGain;
+
+        /**
+         * Sold price less purchase price, over sold properties.
+         */
+        private BigDecimal realisedGain;
+    }
+}
@@ -0,0 +1,28 @@
+package com.propertyiq.portfolio.dto;
+
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional listing filters; {@code null} fields are not applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyFilter {
+
+    private PropertyStatus status;
+    private Country country;
+    private String city;
+    private Currency currency;
+    private LocalDate purchasedFrom;
+    private LocalDate purchasedTo;
+}
@@ -0,0 +1,39 @@
+package com.propertyiq.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyImportResponse {
+
+    private int totalRows;
+
+    private int importedRows;
+
+    private int failedRows;
+
+    /**
+     * Why each failed row was rejected, in file order; capped, so it may list fewer than {@code failedRows}.
+     */
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * 1-based position of the row in the file, not counting the CSV header.
+         */
+        private int row;
+
+        private List<String> messages;
+    }
+}
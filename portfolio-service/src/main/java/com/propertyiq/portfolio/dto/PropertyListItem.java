@@ -0,0 +1,45 @@
+package com.propertyiq.portfolio.dto;
+
+import com.propertyiq.portfolio.model.Address;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.model.ValuationSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A property in a listing page. Serialises to the same JSON as {@link PropertyResponse}, but is
+ * read straight from the selected columns (see
+ * {@link com.propertyiq.portfolio.repository.PropertyListingRepository}) rather than copied from a
+ * managed entity.
+ */
+public record PropertyListItem(UUID id, UUID userId, AddressResponse address, BigDecimal purchasePrice,
+                               LocalDate purchaseDate, Currency currency, String currencySymbol,
+                               BigDecimal currentValue, LocalDate lastValuationDate, ValuationSource valuationSource,
+                               PropertyStatus status, LocalDate soldDate, BigDecimal soldPrice, String propertyType,
+                               Integer bedrooms, Integer bathrooms, Integer squareFootage, Integer yearBuilt,
+                               String description, LocalDateTime createdAt, LocalDateTime updatedAt,
+                               Long version) {
+
+    /**
+     * One row of the listing query, in the order the columns are selected.
+     */
+    public PropertyListItem(UUID id, UUID userId, String line1, String line2, String city, String state,
+                            String postalCode, Country country, Double latitude, Double longitude,
+                            BigDecimal purchasePrice, LocalDate purchaseDate, Currency currency,
+                            BigDecimal currentValue, LocalDate lastValuationDate, ValuationSource valuationSource,
+                            PropertyStatus status, LocalDate soldDate, BigDecimal soldPrice, String propertyType,
+                            Integer bedrooms, Integer bathrooms, Integer squareFootage, Integer yearBuilt,
+                            String description, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, userId, new AddressResponse(line1, line2, city, state, postalCode, country, latitude, longitude,
+                        Address.fullAddress(line1, line2, city, state, postalCode, country),
+                        Address.displayAddress(line1, line2, city, state, postalCode, country)),
+                purchasePrice, purchaseDate, currency, currency != null ? currency.getSymbol() : "", currentValue,
+                lastValuationDate, valuationSource, status, soldDate, soldPrice, propertyType, bedrooms, bathrooms,
+                squareFootage, yearBuilt, description, createdAt, updatedAt, version);
+    }
+}
@@ -0,0 +1,24 @@
+package com.propertyiq.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyPageResponse {
+
+    private List<PropertyListItem> items;
+
+    /**
+     * Pass back as {@code cursor} to fetch the next page; {@code null} on the last page.
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -42,6 +42,11 @@ public class PropertyResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    /**
+     * Also sent as the {@code ETag}; pass it back in {@code If-Match} to make an update conditional.
+     */
+    private Long version;
+
     public static PropertyResponse fromEntity(Property property) {
         return PropertyResponse.builder()
                 .id(property.getId())
@@ -65,6 +70,7 @@ public class PropertyResponse {
                 .description(property.getDescription())
                 .createdAt(property.getCreatedAt())
                 .updatedAt(property.getUpdatedAt())
+                .version(property.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,38 @@
+package com.propertyiq.portfolio.dto;
+
+import com.propertyiq.portfolio.model.PropertyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Search criteria; {@code null} fields are not applied, and the ones given must all match.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertySearchCriteria {
+
+    /**
+     * Start of the postcode, ignoring case and spaces. For UK postcodes it matches whole parts:
+     * {@code SW1} finds {@code SW1A 2AA} and {@code SW1P 3BU} but not {@code SW10 9NH}.
+     */
+    private String postcode;
+
+    /**
+     * Words that must all appear in the first address line or the description, each matched as a prefix.
+     */
+    private String text;
+
+    private Double latitude;
+    private Double longitude;
+
+    /**
+     * Distance from {@code latitude}/{@code longitude}, in kilometres.
+     */
+    private Double radiusKm;
+
+    private PropertyStatus status;
+}
@@ -0,0 +1,25 @@
+package com.propertyiq.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertySearchResponse {
+
+    /**
+     * Nearest first for a distance search, otherwise newest first.
+     */
+    private List<PropertySearchResult> items;
+
+    /**
+     * Whether more properties matched than were returned; narrow the search to see them.
+     */
+    private boolean hasMore;
+}
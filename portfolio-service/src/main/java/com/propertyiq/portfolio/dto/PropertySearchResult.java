@@ -0,0 +1,6 @@
+package com.propertyiq.portfolio.dto;
+
+/**
+ * A property found by a search, with its distance from the search point when there is one.
+ */
+public record PropertySearchResult(PropertyListItem property, Double distanceKm) {}
@@ -0,0 +1,20 @@
+package com.propertyiq.portfolio.dto;
+
+/**
+ * Sort keys for the property listing. Each is paired with the property id as a tie-breaker, so
+ * the keyset {@code (key, id)} is unique.
+ */
+public enum PropertySort {
+    CREATED_AT("createdAt"),
+    CURRENT_VALUE("currentValue");
+
+    private final String attribute;
+
+    PropertySort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
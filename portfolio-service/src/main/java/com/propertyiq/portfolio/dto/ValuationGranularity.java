@@ -0,0 +1,7 @@
+package com.propertyiq.portfolio.dto;
+
+public enum ValuationGranularity {
+    DAILY,
+    MONTHLY,
+    YEARLY
+}
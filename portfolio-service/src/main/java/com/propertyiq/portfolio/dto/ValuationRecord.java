@@ -0,0 +1,38 @@
+package com.propertyiq.portfolio.dto;
+
+import com.propertyiq.portfolio.model.ValuationSource;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One entry of a bulk valuation feed. {@code source} defaults to {@link ValuationSource#API} and
+ * {@code date} to today. A {@code date} before the property's purchase date is reported as invalid
+ * when the record is applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ValuationRecord {
+
+    @NotNull(message = "Property id is required")
+    private UUID propertyId;
+
+    @NotNull(message = "New value is required")
+    @Positive(message = "New value must be positive")
+    private BigDecimal newValue;
+
+    private ValuationSource source;
+
+    @PastOrPresent(message = "Valuation date must not be in the future")
+    private LocalDate date;
+}
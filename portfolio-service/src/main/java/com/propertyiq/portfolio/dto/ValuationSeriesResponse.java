@@ -0,0 +1,47 @@
+package com.propertyiq.portfolio.dto;
+
+import com.propertyiq.portfolio.model.Currency;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ValuationSeriesResponse {
+
+    private ValuationGranularity granularity;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    /**
+     * One point per bucket and currency, in date order. Buckets with nothing held have no points.
+     */
+    private List<ValuationPoint> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ValuationPoint {
+
+        /**
+         * First day of the bucket.
+         */
+        private LocalDate date;
+
+        private Currency currency;
+
+        /**
+         * Last known value at the end of the bucket, summed over the properties held then.
+         */
+        private BigDecimal value;
+    }
+}
@@ -0,0 +1,37 @@
+package com.propertyiq.portfolio.event;
+
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.Property;
+import com.propertyiq.portfolio.model.ValuationSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A change to a property, as published to other services. {@code data} is the property as it is
+ * after the change ({@link PropertyResponse}), except for {@link PropertyEventType#VALUATION_UPDATED}
+ * where it is a {@link ValuationChange}.
+ *
+ * <p>Delivery is at least once, so consumers should ignore an {@code eventId} they have already
+ * handled. {@code propertyVersion} increases with every change to the property.
+ */
+public record PropertyEvent(UUID eventId, PropertyEventType type, UUID propertyId, UUID userId,
+                            Long propertyVersion, LocalDateTime occurredAt, Object data) {
+
+    public static PropertyEvent of(PropertyEventType type, Property property) {
+        return new PropertyEvent(UUID.randomUUID(), type, property.getId(), property.getUserId(),
+                property.getVersion(), LocalDateTime.now(), PropertyResponse.fromEntity(property));
+    }
+
+    public static PropertyEvent revaluation(UUID userId, UUID propertyId, Long propertyVersion,
+                                            ValuationChange change) {
+        return new PropertyEvent(UUID.randomUUID(), PropertyEventType.VALUATION_UPDATED, propertyId, userId,
+                propertyVersion, LocalDateTime.now(), change);
+    }
+
+    public record ValuationChange(BigDecimal previousValue, BigDecimal newValue, Currency currency,
+                                  ValuationSource source, LocalDate valuationDate) {}
+}
@@ -0,0 +1,14 @@
+package com.propertyiq.portfolio.event;
+
+import com.propertyiq.portfolio.repository.PropertyEventOutbox.OutboxEntry;
+
+import java.util.List;
+
+/**
+ * Hands outbox entries to the broker. Must deliver them in the order given and throw if any of
+ * them may not have been delivered, so the relay keeps them for the next attempt.
+ */
+public interface PropertyEventPublisher {
+
+    void publish(List<OutboxEntry> entries);
+}
@@ -0,0 +1,86 @@
+package com.propertyiq.portfolio.event;
+
+import com.propertyiq.portfolio.config.OutboxProperties;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox.OutboxEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves events from the outbox to the broker. Each batch is read, published and deleted in one
+ * transaction: if publishing fails the batch stays in the outbox and is sent again on the next run,
+ * so delivery is at least once. The relay lock means only one instance relays at a time.
+ */
+@Component
+@ConditionalOnProperty(prefix = "portfolio.outbox", name = "relay-enabled", havingValue = "true",
+        matchIfMissing = true)
+public class PropertyEventRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyEventRelay.class);
+
+    private final PropertyEventOutbox outbox;
+    private final PropertyEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private boolean failing;
+
+    public PropertyEventRelay(PropertyEventOutbox outbox, PropertyEventPublisher publisher,
+                              PlatformTransactionManager transactionManager, OutboxProperties properties) {
+        this.outbox = outbox;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * Publishes batches until the outbox is drained, another instance holds the relay lock, or a
+     * batch fails.
+     */
+    @Scheduled(fixedDelayString = "${portfolio.outbox.poll-interval:PT1S}")
+    public void relay() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int published = 0;
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch(batchSize));
+                published += sent;
+            } while (sent == batchSize);
+        } catch (DataAccessException e) {
+            // Redis and JDBC failures both surface as DataAccessException
+            if (!failing) {
+                logger.warn("Could not relay property events; they stay in the outbox and are retried", e);
+            }
+            failing = true;
+            return;
+        }
+        if (failing) {
+            logger.info("Relaying property events again");
+            failing = false;
+        }
+        if (published > 0) {
+            logger.debug("Relayed {} property events", published);
+        }
+    }
+
+    private int relayBatch(int batchSize) {
+        if (!outbox.tryLockRelay()) {
+            return 0;
+        }
+        List<OutboxEntry> entries = outbox.nextBatch(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        publisher.publish(entries);
+        outbox.delete(entries);
+        return entries.size();
+    }
+}
@@ -0,0 +1,9 @@
+package com.propertyiq.portfolio.event;
+
+public enum PropertyEventType {
+    PROPERTY_CREATED,
+    PROPERTY_UPDATED,
+    VALUATION_UPDATED,
+    PROPERTY_SOLD,
+    PROPERTY_ARCHIVED
+}
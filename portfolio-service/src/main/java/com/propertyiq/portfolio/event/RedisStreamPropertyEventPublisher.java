@@ -0,0 +1,53 @@
+package com.propertyiq.portfolio.event;
+
+import com.propertyiq.portfolio.config.OutboxProperties;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox.OutboxEntry;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends events to a Redis stream, one entry per event, in a single pipelined round trip per
+ * batch. Consumers read the stream with their own consumer group; entries carry the event type
+ * and ids as fields so they can filter without parsing the payload.
+ */
+@Component
+public class RedisStreamPropertyEventPublisher implements PropertyEventPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final OutboxProperties properties;
+
+    public RedisStreamPropertyEventPublisher(StringRedisTemplate redisTemplate, OutboxProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void publish(List<OutboxEntry> entries) {
+        byte[] stream = bytes(properties.getStream());
+        XAddOptions options = XAddOptions.maxlen(properties.getStreamMaxLength()).approximateTrimming(true);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (OutboxEntry entry : entries) {
+                Map<byte[], byte[]> fields = new LinkedHashMap<>();
+                fields.put(bytes("eventId"), bytes(entry.eventId().toString()));
+                fields.put(bytes("type"), bytes(entry.eventType()));
+                fields.put(bytes("propertyId"), bytes(entry.propertyId().toString()));
+                fields.put(bytes("userId"), bytes(entry.userId().toString()));
+                fields.put(bytes("payload"), bytes(entry.payload()));
+                connection.streamCommands().xAdd(StreamRecords.rawBytes(fields).withStreamKey(stream), options);
+            }
+            return null;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
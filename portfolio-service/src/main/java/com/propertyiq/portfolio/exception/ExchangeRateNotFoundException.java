@@ -0,0 +1,9 @@
+package com.propertyiq.portfolio.exception;
+
+import java.time.LocalDate;
+
+public class ExchangeRateNotFoundException extends RuntimeException {
+    public ExchangeRateNotFoundException(LocalDate date) {
+        super("No exchange rates are effective on " + date);
+    }
+}
@@ -41,6 +41,33 @@ public class PortfolioExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(StalePropertyVersionException.class)
+    public ResponseEntity<Map<String, Object>> handleStalePropertyVersion(StalePropertyVersionException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", ex.getMessage());
+        error.put("status", HttpStatus.PRECONDITION_FAILED.value());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    @ExceptionHandler(PropertyUpdateConflictException.class)
+    public ResponseEntity<Map<String, Object>> handlePropertyUpdateConflict(PropertyUpdateConflictException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", ex.getMessage());
+        error.put("status", HttpStatus.CONFLICT.value());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(ExchangeRateNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleExchangeRateNotFound(ExchangeRateNotFoundException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", ex.getMessage());
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(PropertyNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handlePropertyNotFound(PropertyNotFoundException ex) {
         Map<String, Object> error = new HashMap<>();
@@ -0,0 +1,7 @@
+package com.propertyiq.portfolio.exception;
+
+public class PropertyUpdateConflictException extends RuntimeException {
+    public PropertyUpdateConflictException(String propertyId) {
+        super("Property " + propertyId + " is being updated concurrently, please retry");
+    }
+}
@@ -0,0 +1,7 @@
+package com.propertyiq.portfolio.exception;
+
+public class StalePropertyVersionException extends RuntimeException {
+    public StalePropertyVersionException(String propertyId, long expectedVersion) {
+        super("Property " + propertyId + " has changed since version " + expectedVersion);
+    }
+}
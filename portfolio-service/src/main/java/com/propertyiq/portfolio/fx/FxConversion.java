@@ -0,0 +1,89 @@
+package com.propertyiq.portfolio.fx;
+
+import com.propertyiq.portfolio.model.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rates from every currency into one target currency, as of one effective date. Looked up once per
+ * batch, so converting a whole portfolio reads the rate table once.
+ *
+ * <p>Amounts are multiplied by the rate exactly and rounded once, to the target currency's minor
+ * units with {@link RoundingMode#HALF_EVEN}. Amounts already in the target currency come back as
+ * they are.
+ */
+public final class FxConversion {
+
+    private final Currency target;
+    private final LocalDate effectiveDate;
+    private final BigDecimal[] ratesByFrom;
+    private final int scale;
+
+    FxConversion(Currency target, LocalDate effectiveDate, BigDecimal[] ratesByFrom) {
+        this.target = target;
+        this.effectiveDate = effectiveDate;
+        this.ratesByFrom = ratesByFrom;
+        this.scale = java.util.Currency.getInstance(target.name()).getDefaultFractionDigits();
+    }
+
+    public Currency target() {
+        return target;
+    }
+
+    /**
+     * The date the rates in use took effect, on or before the date asked for.
+     */
+    public LocalDate effectiveDate() {
+        return effectiveDate;
+    }
+
+    public BigDecimal rate(Currency from) {
+        return ratesByFrom[from.ordinal()];
+    }
+
+    public BigDecimal convert(BigDecimal amount, Currency from) {
+        if (from == target) {
+            return amount;
+        }
+        return amount.multiply(ratesByFrom[from.ordinal()]).setScale(scale, RoundingMode.HALF_EVEN);
+    }
+
+    public BigDecimal convert(Money money) {
+        return convert(money.amount(), money.currency());
+    }
+
+    /**
+     * Each amount converted and rounded on its own, in the same order.
+     */
+    public List<BigDecimal> convertEach(List<Money> amounts) {
+        BigDecimal[] converted = new BigDecimal[amounts.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = convert(amounts.get(i));
+        }
+        return List.of(converted);
+    }
+
+    /**
+     * The sum of the amounts in the target currency. Amounts are added exactly per source currency
+     * first, so there is one multiplication per currency and a single rounding, and the result
+     * doesn't depend on the order of the amounts.
+     */
+    public BigDecimal total(Collection<Money> amounts) {
+        BigDecimal[] sums = new BigDecimal[ratesByFrom.length];
+        for (Money money : amounts) {
+            int from = money.currency().ordinal();
+            sums[from] = sums[from] == null ? money.amount() : sums[from].add(money.amount());
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (int from = 0; from < sums.length; from++) {
+            if (sums[from] != null) {
+                total = total.add(sums[from].multiply(ratesByFrom[from]));
+            }
+        }
+        return total.setScale(scale, RoundingMode.HALF_EVEN);
+    }
+}
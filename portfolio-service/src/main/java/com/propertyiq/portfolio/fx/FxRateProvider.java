@@ -0,0 +1,76 @@
+package com.propertyiq.portfolio.fx;
+
+import com.propertyiq.portfolio.config.FxRateProperties;
+import com.propertyiq.portfolio.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Holds the current {@link FxRateTable}. Readers take whatever table is current with a single
+ * volatile read and never block; a reload builds a whole new table and swaps it in.
+ *
+ * <p>The service doesn't start with an unreadable rates file. A later reload that fails keeps the
+ * table already loaded.
+ */
+@Component
+public class FxRateProvider implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxRateProvider.class);
+
+    private final FxRateProperties properties;
+    private final ResourceLoader resourceLoader;
+
+    private volatile FxRateTable current;
+
+    public FxRateProvider(FxRateProperties properties, ResourceLoader resourceLoader) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        current = load();
+        logger.info("Loaded exchange rates effective {} to {} from {}", current.earliestEffectiveDate(),
+                current.latestEffectiveDate(), properties.getRatesLocation());
+    }
+
+    public FxRateTable current() {
+        return current;
+    }
+
+    /**
+     * Converts into {@code target} at the rates effective on the given date.
+     */
+    public FxConversion conversionTo(Currency target, LocalDate date) {
+        return current.conversionTo(target, date);
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.fx.reload-interval:PT1H}",
+            initialDelayString = "${portfolio.fx.reload-interval:PT1H}")
+    public void reload() {
+        try {
+            current = load();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not reload exchange rates from {}; keeping rates effective to {}",
+                    properties.getRatesLocation(), current.latestEffectiveDate(), e);
+        }
+    }
+
+    private FxRateTable load() throws IOException {
+        Resource resource = resourceLoader.getResource(properties.getRatesLocation());
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return FxRateTable.parse(reader);
+        }
+    }
+}
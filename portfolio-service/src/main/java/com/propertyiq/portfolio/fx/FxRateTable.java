@@ -0,0 +1,182 @@
+package com.propertyiq.portfolio.fx;
+
+import com.propertyiq.portfolio.exception.ExchangeRateNotFoundException;
+import com.propertyiq.portfolio.model.Currency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable, date-effective exchange rates between every pair of currencies. Rates are given as
+ * units of each currency per euro (the ECB convention) and the full cross table is worked out once
+ * per effective date when the table is built, so a lookup is a binary search and an array read.
+ *
+ * <p>Rates from the euro are the published figures. The others are quotients of two published
+ * rates, rounded to {@link MathContext#DECIMAL128} (34 significant digits).
+ */
+public final class FxRateTable {
+
+    private static final String HEADER = "effective_date,currency,units_per_eur";
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final MathContext DERIVED_RATE_PRECISION = MathContext.DECIMAL128;
+
+    private final long[] effectiveDays;
+
+    // rates[i][to][from]: one unit of `from` in `to`, from effectiveDays[i] until the next date
+    private final BigDecimal[][][] rates;
+
+    private FxRateTable(long[] effectiveDays, BigDecimal[][][] rates) {
+        this.effectiveDays = effectiveDays;
+        this.rates = rates;
+    }
+
+    /**
+     * Builds the table from per-date euro rates. A date may list only the currencies whose rate
+     * changed; the others carry over from the previous date. The earliest date must list them all.
+     */
+    public static FxRateTable of(NavigableMap<LocalDate, Map<Currency, BigDecimal>> unitsPerEuro) {
+        long[] effectiveDays = new long[unitsPerEuro.size()];
+        BigDecimal[][][] rates = new BigDecimal[unitsPerEuro.size()][][];
+        Map<Currency, BigDecimal> current = new EnumMap<>(Currency.class);
+        current.put(Currency.EUR, BigDecimal.ONE);
+
+        int i = 0;
+        for (Map.Entry<LocalDate, Map<Currency, BigDecimal>> fixing : unitsPerEuro.entrySet()) {
+            fixing.getValue().forEach((currency, rate) -> {
+                if (rate.signum() <= 0) {
+                    throw new IllegalArgumentException("Rate for " + currency + " on " + fixing.getKey()
+                            + " must be positive");
+                }
+                if (currency == Currency.EUR && rate.compareTo(BigDecimal.ONE) != 0) {
+                    throw new IllegalArgumentException("EUR is the base currency; its rate is always 1");
+                }
+                current.put(currency, rate);
+            });
+            for (Currency currency : CURRENCIES) {
+                if (!current.containsKey(currency)) {
+                    throw new IllegalArgumentException("No rate for " + currency + " on or before " + fixing.getKey());
+                }
+            }
+            effectiveDays[i] = fixing.getKey().toEpochDay();
+            rates[i] = crossRates(current);
+            i++;
+        }
+        return new FxRateTable(effectiveDays, rates);
+    }
+
+    /**
+     * Reads {@code effective_date,currency,units_per_eur} CSV. Blank lines and lines starting with
+     * {@code #} are skipped.
+     */
+    public static FxRateTable parse(Reader reader) throws IOException {
+        NavigableMap<LocalDate, Map<Currency, BigDecimal>> unitsPerEuro = new TreeMap<>();
+        BufferedReader lines = new BufferedReader(reader);
+        boolean header = true;
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (header) {
+                if (!line.equals(HEADER)) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected header '" + HEADER + "'");
+                }
+                header = false;
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 3 fields");
+            }
+            try {
+                LocalDate date = LocalDate.parse(fields[0].strip());
+                Currency currency = currency(fields[1].strip());
+                BigDecimal rate = new BigDecimal(fields[2].strip());
+                if (unitsPerEuro.computeIfAbsent(date, d -> new EnumMap<>(Currency.class)).put(currency, rate) != null) {
+                    throw new IllegalArgumentException("duplicate rate for " + currency + " on " + date);
+                }
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (unitsPerEuro.isEmpty()) {
+            throw new IllegalArgumentException("No exchange rates found");
+        }
+        return of(unitsPerEuro);
+    }
+
+    /**
+     * What one unit of {@code from} is worth in {@code to} on the given date.
+     */
+    public BigDecimal rate(Currency from, Currency to, LocalDate date) {
+        return rates[indexOf(date)][to.ordinal()][from.ordinal()];
+    }
+
+    /**
+     * Converts into {@code target} at the rates effective on the given date.
+     */
+    public FxConversion conversionTo(Currency target, LocalDate date) {
+        int index = indexOf(date);
+        return new FxConversion(target, LocalDate.ofEpochDay(effectiveDays[index]), rates[index][target.ordinal()]);
+    }
+
+    public LocalDate earliestEffectiveDate() {
+        return LocalDate.ofEpochDay(effectiveDays[0]);
+    }
+
+    public LocalDate latestEffectiveDate() {
+        return LocalDate.ofEpochDay(effectiveDays[effectiveDays.length - 1]);
+    }
+
+    private int indexOf(LocalDate date) {
+        int index = Arrays.binarySearch(effectiveDays, date.toEpochDay());
+        if (index < 0) {
+            // Not an effective date itself: use the latest one before it
+            index = -index - 2;
+            if (index < 0) {
+                throw new ExchangeRateNotFoundException(date);
+            }
+        }
+        return index;
+    }
+
+    private static Currency currency(String code) {
+        try {
+            return Currency.valueOf(code);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown currency '" + code + "'");
+        }
+    }
+
+    private static BigDecimal[][] crossRates(Map<Currency, BigDecimal> unitsPerEuro) {
+        BigDecimal[][] cross = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+        for (Currency to : CURRENCIES) {
+            for (Currency from : CURRENCIES) {
+                BigDecimal rate;
+                if (from == to) {
+                    rate = BigDecimal.ONE;
+                } else if (from == Currency.EUR) {
+                    rate = unitsPerEuro.get(to);
+                } else {
+                    rate = unitsPerEuro.get(to).divide(unitsPerEuro.get(from), DERIVED_RATE_PRECISION);
+                }
+                cross[to.ordinal()][from.ordinal()] = rate;
+            }
+        }
+        return cross;
+    }
+}
@@ -0,0 +1,8 @@
+package com.propertyiq.portfolio.fx;
+
+import com.propertyiq.portfolio.model.Currency;
+
+import java.math.BigDecimal;
+
+public record Money(BigDecimal amount, Currency currency) {
+}
@@ -35,7 +35,28 @@ public class Address {
     @Enumerated(EnumType.STRING)
     private Country country;
 
+    /**
+     * WGS84 coordinates, when known. Only properties with both are found by a distance search.
+     */
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     public String getFullAddress() {
+        return fullAddress(line1, line2, city, state, postalCode, country);
+    }
+
+    public String getDisplayAddress() {
+        return displayAddress(line1, line2, city, state, postalCode, country);
+    }
+
+    /**
+     * The address on one line, with every part present.
+     */
+    public static String fullAddress(String line1, String line2, String city, String state, String postalCode,
+                                     Country country) {
         return String.format("%s%s, %s%s, %s, %s",
                 line1,
                 line2 != null ? ", " + line2 : "",
@@ -45,7 +66,11 @@ public class Address {
                 country);
     }
 
-    public String getDisplayAddress() {
+    /**
+     * The short form of the address, laid out the way the country writes addresses.
+     */
+    public static String displayAddress(String line1, String line2, String city, String state, String postalCode,
+                                        Country country) {
         switch (country) {
             case UK:
                 return String.format("%s, %s %s, %s", line1, city, postalCode, country);
@@ -54,7 +79,7 @@ public class Address {
             case ITALY:
                 return String.format("%s, %s %s, %s", line1, postalCode, city, country);
             default:
-                return getFullAddress();
+                return fullAddress(line1, line2, city, state, postalCode, country);
         }
     }
 }
@@ -12,7 +12,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "properties", schema="portfolio_db")
+@Table(name = "properties", schema="portfolio_db", indexes = {
+        // Keyset pagination: (user_id, sort key, id) lets each page seek straight to the cursor
+        @Index(name = "idx_properties_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_properties_user_status_created", columnList = "user_id, status, created_at, id"),
+        @Index(name = "idx_properties_user_value", columnList = "user_id, current_value, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -78,6 +83,25 @@ public class Property {
     @Column(name = "description", length = 1000)
     private String description;
 
+    /**
+     * Bumped on every write; a write made from a stale read fails instead of overwriting.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    /**
+     * The {@link #version} at which the address or descriptive fields last changed.
+     */
+    @Column(name = "details_version", nullable = false, columnDefinition = "bigint default 0")
+    private Long detailsVersion;
+
+    /**
+     * The {@link #version} at which the valuation fields last changed.
+     */
+    @Column(name = "valuation_version", nullable = false, columnDefinition = "bigint default 0")
+    private Long valuationVersion;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -94,6 +118,8 @@ public class Property {
         if (status == null) {
             status = PropertyStatus.ACTIVE;
         }
+        detailsVersion = 0L;
+        valuationVersion = 0L;
     }
 
     @PreUpdate
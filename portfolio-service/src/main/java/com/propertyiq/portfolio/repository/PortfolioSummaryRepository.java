@@ -0,0 +1,249 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.Property;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Per-user portfolio totals, one row per (status, country, currency) the user has properties in.
+ * Writers add the change they made as a delta in their own transaction, so a summary never needs
+ * more than a handful of rows to read, whatever the size of the portfolio.
+ *
+ * <p>Deltas take a shared advisory lock on the user and {@link #rebuild} an exclusive one, so a
+ * rebuild never interleaves with a write it can't see yet.
+ */
+@Repository
+public class PortfolioSummaryRepository implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSummaryRepository.class);
+
+    private static final String[] SCHEMA = {
+            "CREATE SCHEMA IF NOT EXISTS portfolio_db",
+            """
+            CREATE TABLE IF NOT EXISTS portfolio_db.portfolio_summaries (
+                user_id UUID NOT NULL,
+                status VARCHAR(20) NOT NULL,
+                country VARCHAR(10) NOT NULL,
+                currency VARCHAR(3) NOT NULL,
+                property_count BIGINT NOT NULL,
+                purchase_price NUMERIC(19, 2) NOT NULL,
+                current_value NUMERIC(19, 2) NOT NULL,
+                sold_price NUMERIC(19, 2) NOT NULL,
+                PRIMARY KEY (user_id, status, country, currency)
+            )
+            """
+    };
+
+    // Rows arrive sorted by key, so concurrent writers lock a user's rows in the same order
+    private static final String APPLY = """
+            INSERT INTO portfolio_db.portfolio_summaries AS s
+                (user_id, status, country, currency, property_count, purchase_price, current_value, sold_price)
+            SELECT ?, d.status, d.country, d.currency, d.property_count, d.purchase_price, d.current_value,
+                   d.sold_price
+            FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::bigint[],
+                        ?::numeric[], ?::numeric[], ?::numeric[])
+                WITH ORDINALITY AS d(status, country, currency, property_count, purchase_price, current_value,
+                                     sold_price, position)
+            ORDER BY d.position
+            ON CONFLICT (user_id, status, country, currency) DO UPDATE
+                SET property_count = s.property_count + EXCLUDED.property_count,
+                    purchase_price = s.purchase_price + EXCLUDED.purchase_price,
+                    current_value = s.current_value + EXCLUDED.current_value,
+                    sold_price = s.sold_price + EXCLUDED.sold_price
+            """;
+
+    private static final String FIND_BY_USER = """
+            SELECT status, country, currency, property_count, purchase_price, current_value, sold_price
+            FROM portfolio_db.portfolio_summaries
+            WHERE user_id = ? AND property_count <> 0
+            """;
+
+    private static final String RECOMPUTE = """
+            INSERT INTO portfolio_db.portfolio_summaries
+                (user_id, status, country, currency, property_count, purchase_price, current_value, sold_price)
+            SELECT user_id, status, country, currency, count(*), sum(purchase_price), sum(current_value),
+                   coalesce(sum(sold_price), 0)
+            FROM portfolio_db.properties
+            """;
+
+    private static final String GROUP_BY_BUCKET = " GROUP BY user_id, status, country, currency";
+
+    private static final String FIND_USER_IDS = """
+            SELECT user_id FROM portfolio_db.properties
+            UNION
+            SELECT user_id FROM portfolio_db.portfolio_summaries
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PortfolioSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        boolean created = !tableExists("portfolio_db.portfolio_summaries");
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+        if (created && tableExists("portfolio_db.properties")) {
+            // First start with summaries: fill them in for existing portfolios. Another instance may
+            // be doing the same; whichever inserts a row first wins.
+            int rows = jdbcTemplate.update(RECOMPUTE + GROUP_BY_BUCKET + " ON CONFLICT DO NOTHING");
+            logger.info("Backfilled {} portfolio summary rows", rows);
+        }
+    }
+
+    /**
+     * Adds the deltas to the user's summary in the caller's transaction. Deltas for the same bucket
+     * are combined first and those that cancel out are dropped.
+     */
+    public void apply(UUID userId, Collection<Bucket> deltas) {
+        Map<String, Bucket> combined = new TreeMap<>();
+        for (Bucket delta : deltas) {
+            combined.merge(delta.key(), delta, Bucket::plus);
+        }
+        List<Bucket> rows = combined.values().stream().filter(bucket -> !bucket.isZero()).toList();
+        if (rows.isEmpty()) {
+            return;
+        }
+        lockUser(userId, true);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY);
+            statement.setObject(1, userId);
+            statement.setArray(2, array(connection, "varchar", rows, bucket -> bucket.status().name()));
+            statement.setArray(3, array(connection, "varchar", rows, bucket -> bucket.country().name()));
+            statement.setArray(4, array(connection, "varchar", rows, bucket -> bucket.currency().name()));
+            statement.setArray(5, array(connection, "bigint", rows, Bucket::properties));
+            statement.setArray(6, array(connection, "numeric", rows, Bucket::purchasePrice));
+            statement.setArray(7, array(connection, "numeric", rows, Bucket::currentValue));
+            statement.setArray(8, array(connection, "numeric", rows, Bucket::soldPrice));
+            return statement;
+        });
+    }
+
+    public List<Bucket> findByUserId(UUID userId) {
+        return jdbcTemplate.query(FIND_BY_USER, (rs, rowNum) -> new Bucket(
+                PropertyStatus.valueOf(rs.getString("status")),
+                Country.valueOf(rs.getString("country")),
+                Currency.valueOf(rs.getString("currency")),
+                rs.getLong("property_count"),
+                rs.getBigDecimal("purchase_price"),
+                rs.getBigDecimal("current_value"),
+                rs.getBigDecimal("sold_price")), userId);
+    }
+
+    /**
+     * Replaces the user's summary with one recomputed from their properties. Must run in a
+     * transaction; concurrent writers for the user wait until it commits.
+     *
+     * @return whether the stored summary differed from the recomputed one
+     */
+    public boolean rebuild(UUID userId) {
+        lockUser(userId, false);
+        Comparator<Bucket> byKey = Comparator.comparing(Bucket::key);
+        List<Bucket> before = findByUserId(userId).stream().sorted(byKey).toList();
+        jdbcTemplate.update("DELETE FROM portfolio_db.portfolio_summaries WHERE user_id = ?", userId);
+        jdbcTemplate.update(RECOMPUTE + " WHERE user_id = ?" + GROUP_BY_BUCKET, userId);
+        List<Bucket> after = findByUserId(userId).stream().sorted(byKey).toList();
+        return !Bucket.sameTotals(before, after);
+    }
+
+    public List<UUID> findUserIds() {
+        return jdbcTemplate.queryForList(FIND_USER_IDS, UUID.class);
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private static Array array(Connection connection, String type, List<Bucket> rows,
+                               Function<Bucket, Object> column) throws SQLException {
+        return connection.createArrayOf(type, rows.stream().map(column).toArray());
+    }
+
+    private void lockUser(UUID userId, boolean shared) {
+        long key = userId.getMostSignificantBits() ^ userId.getLeastSignificantBits();
+        jdbcTemplate.query(shared ? "SELECT pg_advisory_xact_lock_shared(?)" : "SELECT pg_advisory_xact_lock(?)",
+                rs -> null, key);
+    }
+
+    /**
+     * Totals of the properties in one (status, country, currency) bucket, or a change to them.
+     */
+    public record Bucket(PropertyStatus status, Country country, Currency currency, long properties,
+                         BigDecimal purchasePrice, BigDecimal currentValue, BigDecimal soldPrice) {
+
+        /**
+         * What a property contributes to its bucket.
+         */
+        public static Bucket of(Property property) {
+            return new Bucket(property.getStatus(), property.getAddress().getCountry(), property.getCurrency(), 1,
+                    property.getPurchasePrice(), property.getCurrentValue(),
+                    property.getSoldPrice() != null ? property.getSoldPrice() : BigDecimal.ZERO);
+        }
+
+        /**
+         * A change of an active property's current value.
+         */
+        public static Bucket revaluation(Country country, Currency currency, BigDecimal previousValue,
+                                         BigDecimal newValue) {
+            return new Bucket(PropertyStatus.ACTIVE, country, currency, 0, BigDecimal.ZERO,
+                    newValue.subtract(previousValue), BigDecimal.ZERO);
+        }
+
+        public Bucket negate() {
+            return new Bucket(status, country, currency, -properties, purchasePrice.negate(), currentValue.negate(),
+                    soldPrice.negate());
+        }
+
+        Bucket plus(Bucket other) {
+            return new Bucket(status, country, currency, properties + other.properties,
+                    purchasePrice.add(other.purchasePrice), currentValue.add(other.currentValue),
+                    soldPrice.add(other.soldPrice));
+        }
+
+        boolean isZero() {
+            return properties == 0 && purchasePrice.signum() == 0 && currentValue.signum() == 0
+                    && soldPrice.signum() == 0;
+        }
+
+        String key() {
+            return status + "/" + country + "/" + currency;
+        }
+
+        static boolean sameTotals(List<Bucket> first, List<Bucket> second) {
+            if (first.size() != second.size()) {
+                return false;
+            }
+            for (int i = 0; i < first.size(); i++) {
+                Bucket a = first.get(i);
+                Bucket b = second.get(i);
+                if (!a.key().equals(b.key()) || !a.plus(b.negate()).isZero()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
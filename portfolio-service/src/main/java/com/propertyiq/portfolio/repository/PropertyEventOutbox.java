@@ -0,0 +1,133 @@
+package com.propertyiq.portfolio.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox for {@link PropertyEvent}s. Writers append events in the transaction that
+ * makes the change, so an event exists if and only if the change committed; the relay reads them
+ * in id order, publishes them and deletes them.
+ *
+ * <p>Two events for the same property are written while holding that property's row lock, so their
+ * ids are in commit order. Only one relay runs at a time (an advisory lock), which keeps the
+ * per-property order on the way out.
+ */
+@Repository
+public class PropertyEventOutbox implements InitializingBean {
+
+    private static final long RELAY_LOCK_KEY = 0x70726f7065727479L;
+
+    private static final String[] SCHEMA = {
+            "CREATE SCHEMA IF NOT EXISTS portfolio_db",
+            """
+            CREATE TABLE IF NOT EXISTS portfolio_db.property_events (
+                id BIGSERIAL PRIMARY KEY,
+                event_id UUID NOT NULL,
+                event_type VARCHAR(40) NOT NULL,
+                property_id UUID NOT NULL,
+                user_id UUID NOT NULL,
+                payload TEXT NOT NULL,
+                created_at TIMESTAMP NOT NULL
+            )
+            """
+    };
+
+    private static final String INSERT = """
+            INSERT INTO portfolio_db.property_events
+                (event_id, event_type, property_id, user_id, payload, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String NEXT_BATCH = """
+            SELECT id, event_id, event_type, property_id, user_id, payload
+            FROM portfolio_db.property_events
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public PropertyEventOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    /**
+     * Adds the events in the caller's transaction, in the order given.
+     */
+    public void append(Collection<PropertyEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = events.stream()
+                .map(event -> new Object[]{event.eventId(), event.type().name(), event.propertyId(), event.userId(),
+                        toJson(event), Timestamp.valueOf(event.occurredAt())})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Takes the relay lock for the rest of the caller's transaction.
+     *
+     * @return false if another relay holds it
+     */
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY));
+    }
+
+    /**
+     * The oldest events still to be published, oldest first.
+     */
+    public List<OutboxEntry> nextBatch(int limit) {
+        return jdbcTemplate.query(NEXT_BATCH, (rs, rowNum) -> new OutboxEntry(
+                rs.getLong("id"),
+                rs.getObject("event_id", UUID.class),
+                rs.getString("event_type"),
+                rs.getObject("property_id", UUID.class),
+                rs.getObject("user_id", UUID.class),
+                rs.getString("payload")), limit);
+    }
+
+    public void delete(List<OutboxEntry> entries) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM portfolio_db.property_events WHERE id = ANY(?::bigint[])");
+            statement.setArray(1, connection.createArrayOf("bigint",
+                    entries.stream().map(OutboxEntry::id).toArray()));
+            return statement;
+        });
+    }
+
+    private String toJson(PropertyEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise event " + event.eventId(), e);
+        }
+    }
+
+    /**
+     * A stored event; {@code payload} is the whole {@link PropertyEvent} as JSON.
+     */
+    public record OutboxEntry(long id, UUID eventId, String eventType, UUID propertyId, UUID userId,
+                              String payload) {}
+}
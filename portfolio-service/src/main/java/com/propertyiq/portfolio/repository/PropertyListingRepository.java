@@ -0,0 +1,21 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.dto.PropertyListItem;
+import com.propertyiq.portfolio.model.Property;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read-only listing queries that select columns straight into {@link PropertyListItem}s. No
+ * entities are loaded, so nothing enters the persistence context and there are no dirty-checking
+ * snapshots to take.
+ */
+public interface PropertyListingRepository {
+
+    /**
+     * Up to {@code limit} properties matching the specification, in the given order.
+     */
+    List<PropertyListItem> findListItems(Specification<Property> specification, Sort sort, int limit);
+}
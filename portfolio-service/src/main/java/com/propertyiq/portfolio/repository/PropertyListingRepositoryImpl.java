@@ -0,0 +1,70 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.dto.PropertyListItem;
+import com.propertyiq.portfolio.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link PropertyListingRepository}, so listings share the
+ * {@link PropertySpecifications} used elsewhere. The select is a constructor expression, which
+ * Hibernate returns as plain objects rather than managed entities.
+ */
+public class PropertyListingRepositoryImpl implements PropertyListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PropertyListItem> findListItems(Specification<Property> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyListItem> query = cb.createQuery(PropertyListItem.class);
+        Root<Property> root = query.from(Property.class);
+        Path<Object> address = root.get("address");
+        query.select(cb.construct(PropertyListItem.class,
+                root.get("id"),
+                root.get("userId"),
+                address.get("line1"),
+                address.get("line2"),
+                address.get("city"),
+                address.get("state"),
+                address.get("postalCode"),
+                address.get("country"),
+                address.get("latitude"),
+                address.get("longitude"),
+                root.get("purchasePrice"),
+                root.get("purchaseDate"),
+                root.get("currency"),
+                root.get("currentValue"),
+                root.get("lastValuationDate"),
+                root.get("valuationSource"),
+                root.get("status"),
+                root.get("soldDate"),
+                root.get("soldPrice"),
+                root.get("propertyType"),
+                root.get("bedrooms"),
+                root.get("bathrooms"),
+                root.get("squareFootage"),
+                root.get("yearBuilt"),
+                root.get("description"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -3,6 +3,7 @@ package com.propertyiq.portfolio.repository;
 import com.propertyiq.portfolio.model.Property;
 import com.propertyiq.portfolio.model.PropertyStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +11,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, UUID> {
+public interface PropertyRepository extends JpaRepository<Property, UUID>, JpaSpecificationExecutor<Property>,
+        PropertyListingRepository {
 
     List<Property> findByUserId(UUID userId);
 
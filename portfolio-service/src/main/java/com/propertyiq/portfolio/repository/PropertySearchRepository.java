@@ -0,0 +1,229 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.dto.PropertyListItem;
+import com.propertyiq.portfolio.dto.PropertySearchResult;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.model.ValuationSource;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Search over the user's properties by postcode prefix, address and description words, and
+ * distance. Each criterion has its own index on {@code properties}, created here because they are
+ * expression indexes the entity mapping can't declare:
+ * <ul>
+ *     <li>the normalised postcode (upper case, no spaces) after {@code user_id}, for prefix range scans</li>
+ *     <li>a GIN full-text index over the first address line and the description, with the
+ *     {@code simple} configuration so street names and Italian text aren't stemmed as English</li>
+ *     <li>a GiST index on {@code point(longitude, latitude)} for the rows that have coordinates</li>
+ * </ul>
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class PropertySearchRepository implements InitializingBean {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private static final String POSTCODE = "replace(upper(p.postal_code), ' ', '')";
+    private static final String DOCUMENT =
+            "to_tsvector('simple', coalesce(p.address_line_1, '') || ' ' || coalesce(p.description, ''))";
+
+    private static final String[] INDEXES = {
+            """
+            CREATE INDEX IF NOT EXISTS idx_properties_user_postcode
+                ON portfolio_db.properties (user_id, (replace(upper(postal_code), ' ', '')) text_pattern_ops)
+            """,
+            """
+            CREATE INDEX IF NOT EXISTS idx_properties_search_text
+                ON portfolio_db.properties
+                USING gin (to_tsvector('simple', coalesce(address_line_1, '') || ' ' || coalesce(description, '')))
+            """,
+            """
+            CREATE INDEX IF NOT EXISTS idx_properties_location
+                ON portfolio_db.properties USING gist (point(longitude, latitude))
+                WHERE latitude IS NOT NULL AND longitude IS NOT NULL
+            """
+    };
+
+    private static final String COLUMNS = """
+            p.id, p.user_id, p.address_line_1, p.address_line_2, p.city, p.state, p.postal_code, p.country,
+            p.latitude, p.longitude, p.purchase_price, p.purchase_date, p.currency, p.current_value,
+            p.last_valuation_date, p.valuation_source, p.status, p.sold_date, p.sold_price, p.property_type,
+            p.bedrooms, p.bathrooms, p.square_footage, p.year_built, p.description, p.created_at, p.updated_at,
+            p.version""";
+
+    // Haversine; least() keeps rounding from pushing asin's argument past 1
+    private static final String DISTANCE = """
+            %s * 2 * asin(least(1.0, sqrt(
+                power(sin(radians(p.latitude - ?) / 2), 2)
+                + cos(radians(?)) * cos(radians(p.latitude)) * power(sin(radians(p.longitude - ?) / 2), 2))))"""
+            .formatted(EARTH_RADIUS_KM);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PropertySearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String statement : INDEXES) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    /**
+     * Up to {@code limit} of the user's properties matching every criterion in the query, nearest
+     * first when it has a circle and newest first otherwise.
+     */
+    public List<PropertySearchResult> search(SearchQuery query, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(", ");
+        List<Object> args = new ArrayList<>();
+        Circle circle = query.circle();
+        if (circle != null) {
+            sql.append(DISTANCE);
+            args.add(circle.latitude());
+            args.add(circle.latitude());
+            args.add(circle.longitude());
+        } else {
+            sql.append("NULL::float8");
+        }
+        sql.append(" AS distance_km\nFROM portfolio_db.properties p\nWHERE p.user_id = ?");
+        args.add(query.userId());
+
+        if (query.status() != null) {
+            sql.append("\n  AND p.status = ?");
+            args.add(query.status().name());
+        }
+        if (query.postcodePrefix() != null) {
+            appendPostcode(sql, args, query.postcodePrefix());
+        }
+        if (query.textQuery() != null) {
+            sql.append("\n  AND ").append(DOCUMENT).append(" @@ to_tsquery('simple', ?)");
+            args.add(query.textQuery());
+        }
+        if (circle != null) {
+            sql.append("\n  AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+                    .append("\n  AND point(p.longitude, p.latitude) <@ box(point(?, ?), point(?, ?))");
+            args.add(circle.minLongitude());
+            args.add(circle.minLatitude());
+            args.add(circle.maxLongitude());
+            args.add(circle.maxLatitude());
+            // The box only narrows the candidates; the exact distance decides
+            sql.insert(0, "SELECT * FROM (").append("\n) found\nWHERE distance_km <= ?\nORDER BY distance_km, id\nLIMIT ?");
+            args.add(circle.radiusKm());
+        } else {
+            sql.append("\nORDER BY p.created_at DESC, p.id DESC\nLIMIT ?");
+        }
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new PropertySearchResult(listItem(rs),
+                rs.getObject("distance_km", Double.class)), args.toArray());
+    }
+
+    /**
+     * A range scan on the normalised postcode index, plus the UK rule that a prefix stops at the
+     * boundary between letters and digits: {@code SW1} matches {@code SW1A} but not {@code SW10}.
+     * Once the prefix covers the outward code (all but the last three characters) any continuation matches.
+     */
+    private static void appendPostcode(StringBuilder sql, List<Object> args, String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        sql.append("\n  AND ").append(POSTCODE).append(" ~>=~ ? AND ").append(POSTCODE).append(" ~<~ ?");
+        args.add(prefix);
+        args.add(prefix.substring(0, prefix.length() - 1) + (char) (last + 1));
+        sql.append("\n  AND (p.country <> 'UK' OR length(").append(POSTCODE).append(") - 3 <= ?")
+                .append("\n       OR (substr(").append(POSTCODE).append(", ?, 1) ~ '[0-9]')")
+                .append(" <> (substr(").append(POSTCODE).append(", ?, 1) ~ '[0-9]'))");
+        args.add(prefix.length());
+        args.add(prefix.length());
+        args.add(prefix.length() + 1);
+    }
+
+    private static PropertyListItem listItem(ResultSet rs) throws SQLException {
+        String valuationSource = rs.getString("valuation_source");
+        return new PropertyListItem(
+                rs.getObject("id", UUID.class),
+                rs.getObject("user_id", UUID.class),
+                rs.getString("address_line_1"),
+                rs.getString("address_line_2"),
+                rs.getString("city"),
+                rs.getString("state"),
+                rs.getString("postal_code"),
+                Country.valueOf(rs.getString("country")),
+                rs.getObject("latitude", Double.class),
+                rs.getObject("longitude", Double.class),
+                rs.getBigDecimal("purchase_price"),
+                rs.getObject("purchase_date", LocalDate.class),
+                Currency.valueOf(rs.getString("currency")),
+                rs.getBigDecimal("current_value"),
+                rs.getObject("last_valuation_date", LocalDate.class),
+                valuationSource != null ? ValuationSource.valueOf(valuationSource) : null,
+                PropertyStatus.valueOf(rs.getString("status")),
+                rs.getObject("sold_date", LocalDate.class),
+                rs.getObject("sold_price", BigDecimal.class),
+                rs.getString("property_type"),
+                rs.getObject("bedrooms", Integer.class),
+                rs.getObject("bathrooms", Integer.class),
+                rs.getObject("square_footage", Integer.class),
+                rs.getObject("year_built", Integer.class),
+                rs.getString("description"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("version", Long.class));
+    }
+
+    /**
+     * A validated search: the postcode is normalised and the text is already a {@code tsquery}.
+     */
+    public record SearchQuery(UUID userId, PropertyStatus status, String postcodePrefix, String textQuery,
+                              Circle circle) {}
+
+    /**
+     * Everything within {@code radiusKm} of a point. The bounding box is what the spatial index
+     * selects before the exact distance is checked; near the poles or the 180th meridian it widens to
+     * every longitude rather than wrap.
+     */
+    public record Circle(double latitude, double longitude, double radiusKm) {
+
+        public double minLatitude() {
+            return Math.max(-90, latitude - radiusKm / KM_PER_DEGREE_LATITUDE);
+        }
+
+        public double maxLatitude() {
+            return Math.min(90, latitude + radiusKm / KM_PER_DEGREE_LATITUDE);
+        }
+
+        public double minLongitude() {
+            double delta = longitudeDelta();
+            return longitude - delta < -180 ? -180 : longitude - delta;
+        }
+
+        public double maxLongitude() {
+            double delta = longitudeDelta();
+            return longitude + delta > 180 ? 180 : longitude + delta;
+        }
+
+        private double longitudeDelta() {
+            double edgeLatitude = Math.max(Math.abs(minLatitude()), Math.abs(maxLatitude()));
+            if (edgeLatitude >= 90) {
+                return 360;
+            }
+            double delta = radiusKm / (KM_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(edgeLatitude)));
+            return longitude - delta < -180 || longitude + delta > 180 ? 360 : delta;
+        }
+    }
+}
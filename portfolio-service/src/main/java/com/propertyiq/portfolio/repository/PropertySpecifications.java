@@ -0,0 +1,69 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.dto.PropertyFilter;
+import com.propertyiq.portfolio.model.Property;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> ownedBy(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Property> matching(PropertyFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getCountry() != null) {
+                predicates.add(cb.equal(root.get("address").get("country"), filter.getCountry()));
+            }
+            if (filter.getCity() != null && !filter.getCity().isBlank()) {
+                predicates.add(cb.equal(cb.lower(root.get("address").get("city")),
+                        filter.getCity().trim().toLowerCase(Locale.ROOT)));
+            }
+            if (filter.getCurrency() != null) {
+                predicates.add(cb.equal(root.get("currency"), filter.getCurrency()));
+            }
+            if (filter.getPurchasedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("purchaseDate"), filter.getPurchasedFrom()));
+            }
+            if (filter.getPurchasedTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("purchaseDate"), filter.getPurchasedTo()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Rows strictly after {@code (key, id)} in the given order, written as
+     * {@code key > :key OR (key = :key AND id > :id)} so the composite index can seek to the position.
+     */
+    public static <K extends Comparable<? super K>> Specification<Property> after(
+            String keyAttribute, K key, UUID id, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<K> keyPath = root.get(keyAttribute);
+            Path<UUID> idPath = root.get("id");
+            return cb.or(
+                    beyond(cb, keyPath, key, ascending),
+                    cb.and(cb.equal(keyPath, key), beyond(cb, idPath, id, ascending)));
+        };
+    }
+
+    private static <K extends Comparable<? super K>> Predicate beyond(CriteriaBuilder cb, Path<K> path, K value,
+                                                                      boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+}
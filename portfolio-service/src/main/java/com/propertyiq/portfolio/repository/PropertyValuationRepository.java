@@ -0,0 +1,129 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.model.ValuationSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based valuation writes. A whole batch is applied by one UPDATE joined against the batch's
+ * values passed as arrays, without loading or dirty-checking entities.
+ */
+@Repository
+public class PropertyValuationRepository {
+
+    // The CTE locks the rows before they are updated, so previous_value is the value being replaced.
+    // It locks them in id order, so concurrent feeds touching the same properties can't deadlock.
+    private static final String APPLY_VALUATIONS = """
+            WITH v AS (
+                SELECT * FROM unnest(?::uuid[], ?::numeric[], ?::varchar[], ?::date[])
+                    AS v(id, new_value, source, valuation_date)
+            ), previous AS (
+                SELECT p.id, p.current_value
+                FROM portfolio_db.properties p
+                JOIN v ON v.id = p.id
+                WHERE p.user_id = ?
+                  AND p.status = 'ACTIVE'
+                  AND p.purchase_date <= v.valuation_date
+                  AND (p.last_valuation_date IS NULL OR p.last_valuation_date <= v.valuation_date)
+                ORDER BY p.id
+                FOR UPDATE OF p
+            )
+            UPDATE portfolio_db.properties p
+            SET current_value = v.new_value,
+                valuation_source = v.source,
+                last_valuation_date = v.valuation_date,
+                version = p.version + 1,
+                valuation_version = p.version + 1,
+                updated_at = ?
+            FROM v
+            JOIN previous ON previous.id = v.id
+            WHERE p.id = v.id
+            RETURNING p.id, p.country, p.currency, previous.current_value AS previous_value, p.current_value,
+                p.version
+            """;
+
+    private static final String FIND_CURRENT_VALUATIONS = """
+            SELECT id, status, purchase_date, last_valuation_date
+            FROM portfolio_db.properties
+            WHERE user_id = ? AND id = ANY(?::uuid[])
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PropertyValuationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Applies the valuations to the user's active properties, unless a valuation is dated before the
+     * property's purchase or the property already has a later valuation. Property ids must be unique
+     * within the batch.
+     *
+     * @return the valuations that were applied, with the values they replaced
+     */
+    public List<AppliedValuation> applyValuations(UUID userId, List<ValuationUpdate> updates) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_VALUATIONS);
+            statement.setArray(1, connection.createArrayOf("uuid",
+                    updates.stream().map(ValuationUpdate::propertyId).toArray()));
+            statement.setArray(2, connection.createArrayOf("numeric",
+                    updates.stream().map(ValuationUpdate::newValue).toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar",
+                    updates.stream().map(update -> update.source().name()).toArray()));
+            statement.setArray(4, connection.createArrayOf("date",
+                    updates.stream().map(update -> Date.valueOf(update.valuationDate())).toArray()));
+            statement.setObject(5, userId);
+            statement.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, (rs, rowNum) -> new AppliedValuation(
+                rs.getObject("id", UUID.class),
+                Country.valueOf(rs.getString("country")),
+                Currency.valueOf(rs.getString("currency")),
+                rs.getBigDecimal("previous_value"),
+                rs.getBigDecimal("current_value"),
+                rs.getLong("version")));
+    }
+
+    /**
+     * Status, purchase date and last valuation date of those of {@code propertyIds} that belong to
+     * the user.
+     */
+    public Map<UUID, CurrentValuation> findCurrentValuations(UUID userId, Collection<UUID> propertyIds) {
+        List<CurrentValuation> rows = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_CURRENT_VALUATIONS);
+            statement.setObject(1, userId);
+            statement.setArray(2, connection.createArrayOf("uuid", propertyIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> new CurrentValuation(
+                rs.getObject("id", UUID.class),
+                PropertyStatus.valueOf(rs.getString("status")),
+                rs.getObject("purchase_date", LocalDate.class),
+                rs.getObject("last_valuation_date", LocalDate.class)));
+        return rows.stream().collect(Collectors.toMap(CurrentValuation::propertyId, Function.identity()));
+    }
+
+    public record ValuationUpdate(UUID propertyId, BigDecimal newValue, ValuationSource source,
+                                  LocalDate valuationDate) {}
+
+    public record AppliedValuation(UUID propertyId, Country country, Currency currency, BigDecimal previousValue,
+                                   BigDecimal newValue, long version) {}
+
+    public record CurrentValuation(UUID propertyId, PropertyStatus status, LocalDate purchaseDate,
+                                   LocalDate lastValuationDate) {}
+}
@@ -0,0 +1,80 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.common.partitioning.MonthlyPartitions;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Owns the valuation history tables. Hibernate can't create partitioned tables, so the schema is
+ * created here on startup, and a month's partition is created the first time a valuation dated in
+ * that month is written.
+ */
+@Component
+public class ValuationHistoryPartitions implements InitializingBean {
+
+    private static final String[] SCHEMA = {
+            "CREATE SCHEMA IF NOT EXISTS portfolio_db",
+            // Append-only: one row per valuation ever recorded
+            """
+            CREATE TABLE IF NOT EXISTS portfolio_db.property_valuations (
+                id UUID NOT NULL,
+                property_id UUID NOT NULL,
+                user_id UUID NOT NULL,
+                value NUMERIC(15, 2) NOT NULL,
+                source VARCHAR(20),
+                valuation_date DATE NOT NULL,
+                recorded_at TIMESTAMP NOT NULL,
+                PRIMARY KEY (id, valuation_date)
+            ) PARTITION BY RANGE (valuation_date)
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_property_valuations_property_date "
+                    + "ON portfolio_db.property_valuations (property_id, valuation_date)",
+            "CREATE INDEX IF NOT EXISTS idx_property_valuations_user_date "
+                    + "ON portfolio_db.property_valuations (user_id, valuation_date)",
+            // Last valuation per property and month, kept in step with every write; long-range series read this
+            """
+            CREATE TABLE IF NOT EXISTS portfolio_db.property_valuation_months (
+                property_id UUID NOT NULL,
+                month DATE NOT NULL,
+                user_id UUID NOT NULL,
+                value NUMERIC(15, 2) NOT NULL,
+                valuation_date DATE NOT NULL,
+                PRIMARY KEY (property_id, month)
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_property_valuation_months_user_month "
+                    + "ON portfolio_db.property_valuation_months (user_id, month)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MonthlyPartitions partitions;
+
+    public ValuationHistoryPartitions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = new MonthlyPartitions(jdbcTemplate, "portfolio_db", "property_valuations",
+                () -> transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+        YearMonth current = YearMonth.now();
+        ensureMonths(Set.of(current, current.plusMonths(1)));
+    }
+
+    /**
+     * See {@link MonthlyPartitions#ensureMonths}; {@link ValuationHistoryRepository#append} calls
+     * it before its insert.
+     */
+    public void ensureMonths(Collection<YearMonth> months) {
+        partitions.ensureMonths(months);
+    }
+}
@@ -0,0 +1,158 @@
+package com.propertyiq.portfolio.repository;
+
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.ValuationUpdate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Valuation history: the raw, month-partitioned {@code property_valuations} log and the
+ * {@code property_valuation_months} rollup holding each property's last valuation per month.
+ * Both are written by the same statement, so they never disagree.
+ */
+@Repository
+public class ValuationHistoryRepository {
+
+    private static final String APPEND = """
+            WITH entries AS (
+                SELECT * FROM unnest(?::uuid[], ?::numeric[], ?::varchar[], ?::date[])
+                    AS e(property_id, value, source, valuation_date)
+            ), raw AS (
+                INSERT INTO portfolio_db.property_valuations
+                    (id, property_id, user_id, value, source, valuation_date, recorded_at)
+                SELECT gen_random_uuid(), property_id, ?, value, source, valuation_date, ? FROM entries
+            )
+            INSERT INTO portfolio_db.property_valuation_months (property_id, month, user_id, value, valuation_date)
+            SELECT DISTINCT ON (property_id, date_trunc('month', valuation_date))
+                   property_id, date_trunc('month', valuation_date)::date, ?, value, valuation_date
+            FROM entries
+            ORDER BY property_id, date_trunc('month', valuation_date), valuation_date DESC
+            ON CONFLICT (property_id, month) DO UPDATE
+                SET value = EXCLUDED.value, valuation_date = EXCLUDED.valuation_date
+                WHERE EXCLUDED.valuation_date >= property_valuation_months.valuation_date
+            """;
+
+    // The opening value is the last monthly rollup before the range, one index seek per property
+    private static final String FIND_HELD_PROPERTIES = """
+            SELECT p.id, p.currency, p.purchase_price, p.purchase_date, p.sold_date, opening.value AS opening_value
+            FROM portfolio_db.properties p
+            LEFT JOIN LATERAL (
+                SELECT m.value FROM portfolio_db.property_valuation_months m
+                WHERE m.property_id = p.id AND m.month < ?
+                ORDER BY m.month DESC
+                LIMIT 1
+            ) opening ON true
+            WHERE p.user_id = ?
+            """;
+
+    private static final String RAW_CHANGES = """
+            SELECT property_id, valuation_date, value FROM portfolio_db.property_valuations
+            WHERE user_id = ? AND valuation_date >= ? AND valuation_date <= ?
+            """;
+
+    private static final String MONTHLY_CHANGES = """
+            SELECT property_id, valuation_date, value FROM portfolio_db.property_valuation_months
+            WHERE user_id = ? AND month >= ? AND month <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValuationHistoryPartitions partitions;
+
+    public ValuationHistoryRepository(JdbcTemplate jdbcTemplate, ValuationHistoryPartitions partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Records the valuations in the caller's transaction.
+     */
+    public void append(UUID userId, List<ValuationUpdate> valuations) {
+        if (valuations.isEmpty()) {
+            return;
+        }
+        Set<YearMonth> months = valuations.stream()
+                .map(valuation -> YearMonth.from(valuation.valuationDate()))
+                .collect(Collectors.toSet());
+        partitions.ensureMonths(months);
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPEND);
+            statement.setArray(1, connection.createArrayOf("uuid",
+                    valuations.stream().map(ValuationUpdate::propertyId).toArray()));
+            statement.setArray(2, connection.createArrayOf("numeric",
+                    valuations.stream().map(ValuationUpdate::newValue).toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar",
+                    valuations.stream().map(v -> v.source() != null ? v.source().name() : null).toArray()));
+            statement.setArray(4, connection.createArrayOf("date",
+                    valuations.stream().map(v -> Date.valueOf(v.valuationDate())).toArray()));
+            statement.setObject(5, userId);
+            statement.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setObject(7, userId);
+            return statement;
+        });
+    }
+
+    /**
+     * The user's properties (or just {@code propertyId}) with their value as of the end of the month
+     * before {@code openingMonth}; {@code openingValue} is {@code null} if nothing was recorded by then.
+     * Archived properties are left out of the whole portfolio but returned when asked for by id.
+     */
+    public List<HeldProperty> findHeldProperties(UUID userId, UUID propertyId, LocalDate openingMonth) {
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(openingMonth), userId));
+        String sql = FIND_HELD_PROPERTIES;
+        if (propertyId != null) {
+            sql += " AND p.id = ?";
+            args.add(propertyId);
+        } else {
+            sql += " AND p.status <> 'ARCHIVED'";
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new HeldProperty(
+                rs.getObject("id", UUID.class),
+                Currency.valueOf(rs.getString("currency")),
+                rs.getBigDecimal("purchase_price"),
+                rs.getObject("purchase_date", LocalDate.class),
+                rs.getObject("sold_date", LocalDate.class),
+                rs.getBigDecimal("opening_value")), args.toArray());
+    }
+
+    /**
+     * Streams valuations dated {@code from} to {@code to} in date order. With {@code monthly} only
+     * each property's last valuation per month is read, from the rollup, and {@code from}/{@code to}
+     * must be first days of months.
+     */
+    public void forEachChange(UUID userId, UUID propertyId, boolean monthly, LocalDate from, LocalDate to,
+                              Consumer<ValuationChange> consumer) {
+        List<Object> args = new ArrayList<>(List.of(userId, Date.valueOf(from), Date.valueOf(to)));
+        String sql = monthly ? MONTHLY_CHANGES : RAW_CHANGES;
+        if (propertyId != null) {
+            sql += " AND property_id = ?";
+            args.add(propertyId);
+        }
+        sql += monthly ? " ORDER BY valuation_date" : " ORDER BY valuation_date, recorded_at";
+        jdbcTemplate.query(sql, rs -> {
+            consumer.accept(new ValuationChange(
+                    rs.getObject("property_id", UUID.class),
+                    rs.getObject("valuation_date", LocalDate.class),
+                    rs.getBigDecimal("value")));
+        }, args.toArray());
+    }
+
+    public record HeldProperty(UUID propertyId, Currency currency, BigDecimal purchasePrice, LocalDate purchaseDate,
+                               LocalDate soldDate, BigDecimal openingValue) {}
+
+    public record ValuationChange(UUID propertyId, LocalDate valuationDate, BigDecimal value) {}
+}
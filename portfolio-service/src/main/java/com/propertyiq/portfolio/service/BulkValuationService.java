@@ -0,0 +1,220 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.cache.PropertyCache;
+import com.propertyiq.portfolio.config.ValuationFeedProperties;
+import com.propertyiq.portfolio.dto.BulkValuationResponse;
+import com.propertyiq.portfolio.dto.BulkValuationResponse.SkipReason;
+import com.propertyiq.portfolio.dto.ValuationRecord;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import com.propertyiq.portfolio.event.PropertyEvent.ValuationChange;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.model.ValuationSource;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.AppliedValuation;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.CurrentValuation;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.ValuationUpdate;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a feed of valuations (NDJSON or a JSON array) to the user's properties. Records are read
+ * one at a time and applied {@link ValuationFeedProperties#getBatchSize() batch-size} at a time with
+ * a single UPDATE per batch, restricted to active properties, and recorded in the valuation history
+ * and the portfolio summary in the same transaction; every record that was not applied is reported
+ * with the reason.
+ */
+@Service
+public class BulkValuationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkValuationService.class);
+
+    private final PropertyValuationRepository valuationRepository;
+    private final ValuationHistoryRepository valuationHistoryRepository;
+    private final PortfolioSummaryRepository portfolioSummaryRepository;
+    private final PropertyEventOutbox propertyEventOutbox;
+    private final PropertyCache propertyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ValuationFeedProperties properties;
+
+    public BulkValuationService(PropertyValuationRepository valuationRepository,
+                                ValuationHistoryRepository valuationHistoryRepository,
+                                PortfolioSummaryRepository portfolioSummaryRepository,
+                                PropertyEventOutbox propertyEventOutbox, PropertyCache propertyCache,
+                                PlatformTransactionManager transactionManager, Validator validator,
+                                ObjectMapper objectMapper, ValuationFeedProperties properties) {
+        this.valuationRepository = valuationRepository;
+        this.valuationHistoryRepository = valuationHistoryRepository;
+        this.portfolioSummaryRepository = portfolioSummaryRepository;
+        this.propertyEventOutbox = propertyEventOutbox;
+        this.propertyCache = propertyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public BulkValuationResponse applyValuations(UUID userId, InputStream inputStream) throws IOException {
+        FeedRun run = new FeedRun(userId);
+        int row = 0;
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(inputStream)) {
+            while (records.hasNextValue()) {
+                JsonNode node = records.nextValue();
+                row++;
+                try {
+                    run.accept(row, objectMapper.treeToValue(node, ValuationRecord.class));
+                } catch (JsonProcessingException e) {
+                    run.skip(row, null, SkipReason.INVALID, "Invalid value: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The rest of the feed can't be located reliably; keep what was applied so far
+            run.skip(row + 1, null, SkipReason.INVALID, "Malformed JSON, feed stopped here: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    /**
+     * State of one feed: the report so far and the batch waiting to be applied, keyed by property id
+     * so a later record for the same property replaces the earlier one.
+     */
+    private final class FeedRun {
+
+        private final UUID userId;
+        private final int batchSize = Math.max(1, properties.getBatchSize());
+        private final LocalDate today = LocalDate.now();
+        private final Map<UUID, Pending> batch = new LinkedHashMap<>();
+        private final List<BulkValuationResponse.SkippedValuation> skippedValuations = new ArrayList<>();
+        private int totalRecords;
+        private int updated;
+        private int skipped;
+
+        private FeedRun(UUID userId) {
+            this.userId = userId;
+        }
+
+        void accept(int row, ValuationRecord record) {
+            Set<ConstraintViolation<ValuationRecord>> violations = validator.validate(record);
+            if (!violations.isEmpty()) {
+                skip(row, record.getPropertyId(), SkipReason.INVALID, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            totalRecords++;
+            ValuationUpdate update = new ValuationUpdate(record.getPropertyId(), record.getNewValue(),
+                    record.getSource() != null ? record.getSource() : ValuationSource.API,
+                    record.getDate() != null ? record.getDate() : today);
+            Pending replaced = batch.put(update.propertyId(), new Pending(row, update));
+            if (replaced != null) {
+                report(replaced.row(), update.propertyId(), SkipReason.SUPERSEDED,
+                        "Replaced by row " + row);
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void skip(int row, UUID propertyId, SkipReason reason, String message) {
+            totalRecords++;
+            report(row, propertyId, reason, message);
+        }
+
+        BulkValuationResponse finish() {
+            flush();
+            skippedValuations.sort(Comparator.comparingInt(BulkValuationResponse.SkippedValuation::getRow));
+            logger.info("Applied {} of {} valuations for user {}", updated, totalRecords, userId);
+            return BulkValuationResponse.builder()
+                    .totalRecords(totalRecords)
+                    .updated(updated)
+                    .skipped(skipped)
+                    .skippedValuations(skippedValuations)
+                    .build();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ValuationUpdate> updates = batch.values().stream().map(Pending::update).toList();
+            Set<UUID> applied = transactionTemplate.execute(status -> {
+                List<AppliedValuation> valuations = valuationRepository.applyValuations(userId, updates);
+                Set<UUID> ids = valuations.stream().map(AppliedValuation::propertyId).collect(Collectors.toSet());
+                valuationHistoryRepository.append(userId, updates.stream()
+                        .filter(update -> ids.contains(update.propertyId()))
+                        .toList());
+                portfolioSummaryRepository.apply(userId, valuations.stream()
+                        .map(v -> Bucket.revaluation(v.country(), v.currency(), v.previousValue(), v.newValue()))
+                        .toList());
+                propertyEventOutbox.append(valuations.stream().map(this::event).toList());
+                propertyCache.invalidate(userId, ids);
+                return ids;
+            });
+            updated += applied.size();
+
+            if (applied.size() < batch.size()) {
+                List<UUID> notApplied = batch.keySet().stream().filter(id -> !applied.contains(id)).toList();
+                Map<UUID, CurrentValuation> current = valuationRepository.findCurrentValuations(userId, notApplied);
+                for (UUID propertyId : notApplied) {
+                    Pending pending = batch.get(propertyId);
+                    CurrentValuation valuation = current.get(propertyId);
+                    if (valuation == null) {
+                        report(pending.row(), propertyId, SkipReason.NOT_FOUND, "Property not found");
+                    } else if (valuation.status() != PropertyStatus.ACTIVE) {
+                        report(pending.row(), propertyId, SkipReason.NOT_ACTIVE, "Property is " + valuation.status());
+                    } else if (pending.update().valuationDate().isBefore(valuation.purchaseDate())) {
+                        report(pending.row(), propertyId, SkipReason.INVALID,
+                                "date: Valuation date must not be before the purchase date " + valuation.purchaseDate());
+                    } else {
+                        report(pending.row(), propertyId, SkipReason.STALE,
+                                "Property was already valued on " + valuation.lastValuationDate());
+                    }
+                }
+            }
+            batch.clear();
+        }
+
+        private PropertyEvent event(AppliedValuation valuation) {
+            ValuationUpdate update = batch.get(valuation.propertyId()).update();
+            return PropertyEvent.revaluation(userId, valuation.propertyId(), valuation.version(),
+                    new ValuationChange(valuation.previousValue(), valuation.newValue(), valuation.currency(),
+                            update.source(), update.valuationDate()));
+        }
+
+        private void report(int row, UUID propertyId, SkipReason reason, String message) {
+            skipped++;
+            if (skippedValuations.size() < properties.getMaxReportedSkips()) {
+                skippedValuations.add(new BulkValuationResponse.SkippedValuation(row, propertyId, reason, message));
+            }
+        }
+    }
+
+    private record Pending(int row, ValuationUpdate update) {}
+}
@@ -0,0 +1,145 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PortfolioSummaryResponse;
+import com.propertyiq.portfolio.dto.PortfolioSummaryResponse.CurrencyTotals;
+import com.propertyiq.portfolio.fx.FxConversion;
+import com.propertyiq.portfolio.fx.FxRateProvider;
+import com.propertyiq.portfolio.fx.Money;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Portfolio totals read from the incrementally maintained summary rows (see
+ * {@link PortfolioSummaryRepository}), so a read costs the same for ten properties or ten thousand.
+ * A scheduled job recomputes every summary from the properties table and repairs any drift.
+ *
+ * <p>On request the per-currency totals are also converted into one reporting currency, at the
+ * exchange rates effective on a given date.
+ */
+@Service
+public class PortfolioSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSummaryService.class);
+
+    private final PortfolioSummaryRepository portfolioSummaryRepository;
+    private final FxRateProvider fxRateProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PortfolioSummaryService(PortfolioSummaryRepository portfolioSummaryRepository,
+                                   FxRateProvider fxRateProvider,
+                                   PlatformTransactionManager transactionManager) {
+        this.portfolioSummaryRepository = portfolioSummaryRepository;
+        this.fxRateProvider = fxRateProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public PortfolioSummaryResponse getSummary(UUID userId) {
+        long totalProperties = 0;
+        Map<PropertyStatus, Long> byStatus = new EnumMap<>(PropertyStatus.class);
+        Map<Country, Long> byCountry = new EnumMap<>(Country.class);
+        Map<Currency, Long> byCurrency = new EnumMap<>(Currency.class);
+        Map<Currency, CurrencyTotals> totals = new EnumMap<>(Currency.class);
+
+        List<Bucket> buckets = readOnlyTransaction.execute(status -> portfolioSummaryRepository.findByUserId(userId));
+        for (Bucket bucket : buckets) {
+            totalProperties += bucket.properties();
+            byStatus.merge(bucket.status(), bucket.properties(), Long::sum);
+            byCountry.merge(bucket.country(), bucket.properties(), Long::sum);
+            byCurrency.merge(bucket.currency(), bucket.properties(), Long::sum);
+
+            CurrencyTotals currencyTotals = totals.computeIfAbsent(bucket.currency(),
+                    PortfolioSummaryService::emptyTotals);
+            if (bucket.status() == PropertyStatus.ACTIVE) {
+                currencyTotals.setPurchaseCost(currencyTotals.getPurchaseCost().add(bucket.purchasePrice()));
+                currencyTotals.setCurrentValue(currencyTotals.getCurrentValue().add(bucket.currentValue()));
+            } else if (bucket.status() == PropertyStatus.SOLD) {
+                currencyTotals.setRealisedGain(currencyTotals.getRealisedGain()
+                        .add(bucket.soldPrice().subtract(bucket.purchasePrice())));
+            }
+        }
+        totals.values().forEach(t -> t.setUnrealisedGain(t.getCurrentValue().subtract(t.getPurchaseCost())));
+
+        return PortfolioSummaryResponse.builder()
+                .totalProperties(totalProperties)
+                .byStatus(byStatus)
+                .byCountry(byCountry)
+                .byCurrency(byCurrency)
+                .totals(List.copyOf(totals.values()))
+                .build();
+    }
+
+    /**
+     * The summary with its totals also converted into {@code reportingCurrency} at the rates
+     * effective on {@code ratesDate}. Each total is converted and rounded once, from its exact
+     * per-currency sums.
+     */
+    public PortfolioSummaryResponse getSummary(UUID userId, Currency reportingCurrency, LocalDate ratesDate) {
+        PortfolioSummaryResponse summary = getSummary(userId);
+        FxConversion conversion = fxRateProvider.conversionTo(reportingCurrency, ratesDate);
+        List<CurrencyTotals> totals = summary.getTotals();
+
+        CurrencyTotals reporting = emptyTotals(reportingCurrency);
+        reporting.setPurchaseCost(conversion.total(amounts(totals, CurrencyTotals::getPurchaseCost)));
+        reporting.setCurrentValue(conversion.total(amounts(totals, CurrencyTotals::getCurrentValue)));
+        reporting.setUnrealisedGain(reporting.getCurrentValue().subtract(reporting.getPurchaseCost()));
+        reporting.setRealisedGain(conversion.total(amounts(totals, CurrencyTotals::getRealisedGain)));
+
+        summary.setReportingTotals(reporting);
+        summary.setRatesEffectiveDate(conversion.effectiveDate());
+        return summary;
+    }
+
+    /**
+     * Recomputes every user's summary, one user per transaction. Running it on several instances at
+     * once is safe, only wasteful.
+     */
+    @Scheduled(cron = "${portfolio.summary.repair-cron:0 30 3 * * *}")
+    public void repairAll() {
+        List<UUID> userIds = portfolioSummaryRepository.findUserIds();
+        int repaired = 0;
+        int failed = 0;
+        for (UUID userId : userIds) {
+            try {
+                Boolean drifted = transactionTemplate.execute(status -> portfolioSummaryRepository.rebuild(userId));
+                if (Boolean.TRUE.equals(drifted)) {
+                    logger.warn("Portfolio summary for user {} had drifted and was rebuilt", userId);
+                    repaired++;
+                }
+            } catch (DataAccessException e) {
+                logger.error("Could not rebuild the portfolio summary for user {}", userId, e);
+                failed++;
+            }
+        }
+        logger.info("Checked {} portfolio summaries: {} repaired, {} failed", userIds.size(), repaired, failed);
+    }
+
+    private static List<Money> amounts(List<CurrencyTotals> totals, Function<CurrencyTotals, BigDecimal> amount) {
+        return totals.stream().map(t -> new Money(amount.apply(t), t.getCurrency())).toList();
+    }
+
+    private static CurrencyTotals emptyTotals(Currency currency) {
+        return new CurrencyTotals(currency, currency.getSymbol(), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO);
+    }
+}
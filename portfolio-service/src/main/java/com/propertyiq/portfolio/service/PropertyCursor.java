@@ -0,0 +1,56 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PropertyListItem;
+import com.propertyiq.portfolio.dto.PropertySort;
+import com.propertyiq.portfolio.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last property of a page: the sort key and id of that property, plus the
+ * sort it was produced for. Encoded as an opaque URL-safe string for clients.
+ */
+record PropertyCursor(PropertySort sort, Sort.Direction direction, Comparable<?> key, UUID id) {
+
+    static PropertyCursor after(PropertyListItem item, PropertySort sort, Sort.Direction direction) {
+        Comparable<?> key = switch (sort) {
+            case CREATED_AT -> item.createdAt();
+            case CURRENT_VALUE -> item.currentValue();
+        };
+        return new PropertyCursor(sort, direction, key, item.id());
+    }
+
+    String encode() {
+        String raw = sort + "|" + direction + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PropertyCursor decode(String cursor, PropertySort sort, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+        if (parts.length != 4) {
+            throw new ValidationException("Invalid cursor");
+        }
+        if (!sort.name().equals(parts[0]) || !direction.name().equals(parts[1])) {
+            throw new ValidationException("Cursor was issued for a different sort order");
+        }
+        try {
+            Comparable<?> key = switch (sort) {
+                case CREATED_AT -> LocalDateTime.parse(parts[2]);
+                case CURRENT_VALUE -> new BigDecimal(parts[2]);
+            };
+            return new PropertyCursor(sort, direction, key, UUID.fromString(parts[3]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.propertyiq.portfolio.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported property, read straight from the export query's current row.
+ */
+record PropertyExportRow(
+        UUID id,
+        String status,
+        String addressLine1,
+        String addressLine2,
+        String city,
+        String state,
+        String postalCode,
+        String country,
+        Double latitude,
+        Double longitude,
+        String propertyType,
+        Integer bedrooms,
+        Integer bathrooms,
+        Integer squareFootage,
+        Integer yearBuilt,
+        String description,
+        String currency,
+        BigDecimal purchasePrice,
+        LocalDate purchaseDate,
+        BigDecimal currentValue,
+        LocalDate lastValuationDate,
+        String valuationSource,
+        LocalDate soldDate,
+        BigDecimal soldPrice,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    static final String COLUMNS = "id, status, address_line_1, address_line_2, city, state, postal_code, country, "
+            + "latitude, longitude, property_type, bedrooms, bathrooms, square_footage, year_built, description, currency, "
+            + "purchase_price, purchase_date, current_value, last_valuation_date, valuation_source, sold_date, sold_price, "
+            + "created_at, updated_at";
+
+    static PropertyExportRow from(ResultSet rs) throws SQLException {
+        return new PropertyExportRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("status"),
+                rs.getString("address_line_1"),
+                rs.getString("address_line_2"),
+                rs.getString("city"),
+                rs.getString("state"),
+                rs.getString("postal_code"),
+                rs.getString("country"),
+                rs.getObject("latitude", Double.class),
+                rs.getObject("longitude", Double.class),
+                rs.getString("property_type"),
+                rs.getObject("bedrooms", Integer.class),
+                rs.getObject("bathrooms", Integer.class),
+                rs.getObject("square_footage", Integer.class),
+                rs.getObject("year_built", Integer.class),
+                rs.getString("description"),
+                rs.getString("currency"),
+                rs.getBigDecimal("purchase_price"),
+                rs.getObject("purchase_date", LocalDate.class),
+                rs.getBigDecimal("current_value"),
+                rs.getObject("last_valuation_date", LocalDate.class),
+                rs.getString("valuation_source"),
+                rs.getObject("sold_date", LocalDate.class),
+                rs.getBigDecimal("sold_price"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+    }
+}
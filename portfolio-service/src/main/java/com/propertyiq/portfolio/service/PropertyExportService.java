@@ -0,0 +1,75 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.datasource.ReadYourWrites;
+import com.propertyiq.portfolio.dto.ExportFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Streams a user's whole portfolio from a JDBC cursor to the response. Rows are fetched
+ * {@value #FETCH_SIZE} at a time (PostgreSQL only uses a server-side cursor for a fetch size inside
+ * a transaction) and flushed to the client after every fetch, so memory stays flat and the first
+ * bytes go out as soon as the first batch is read.
+ */
+@Service
+public class PropertyExportService {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyExportService.class);
+    private static final String EXPORT_QUERY = "SELECT " + PropertyExportRow.COLUMNS
+            + " FROM portfolio_db.properties WHERE user_id = ? ORDER BY created_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWrites readYourWrites;
+
+    public PropertyExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper, ReadYourWrites readYourWrites) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.readYourWrites = readYourWrites;
+    }
+
+    public void export(UUID userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        PropertyExportWriter writer = PropertyExportWriter.create(format, outputStream, objectMapper);
+        writer.writeHeader();
+        writer.flush();
+
+        long[] rows = {0};
+        // Runs on an async thread, outside the request's user binding
+        try (ReadYourWrites.Binding ignored = readYourWrites.bind(userId)) {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_QUERY, rs -> {
+                try {
+                    writer.write(PropertyExportRow.from(rs));
+                    if (++rows[0] % FETCH_SIZE == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, userId));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the transaction has been rolled back and the cursor closed
+            logger.debug("Export for user {} aborted after {} rows: {}", userId, rows[0], e.getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.debug("Exported {} properties for user {} as {}", rows[0], userId, format);
+    }
+}
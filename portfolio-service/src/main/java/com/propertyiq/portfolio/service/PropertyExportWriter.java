@@ -0,0 +1,191 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.dto.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows one at a time to the response. Nothing is held beyond the output buffer, so
+ * memory use does not depend on how many rows are exported.
+ */
+abstract class PropertyExportWriter {
+
+    protected final Writer writer;
+
+    private PropertyExportWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    static PropertyExportWriter create(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(outputStream, objectMapper);
+            case CSV -> new CsvWriter(outputStream);
+        };
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void write(PropertyExportRow row) throws IOException;
+
+    /**
+     * Pushes buffered rows to the client. Does not close the response stream, which belongs to the container.
+     */
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static final class NdjsonWriter extends PropertyExportWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            super(outputStream);
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void writeHeader() {
+        }
+
+        @Override
+        void write(PropertyExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", text(row.id()));
+            generator.writeStringField("status", row.status());
+            generator.writeObjectFieldStart("address");
+            generator.writeStringField("line1", row.addressLine1());
+            generator.writeStringField("line2", row.addressLine2());
+            generator.writeStringField("city", row.city());
+            generator.writeStringField("state", row.state());
+            generator.writeStringField("postalCode", row.postalCode());
+            generator.writeStringField("country", row.country());
+            writeNumber("latitude", row.latitude());
+            writeNumber("longitude", row.longitude());
+            generator.writeEndObject();
+            generator.writeStringField("propertyType", row.propertyType());
+            writeNumber("bedrooms", row.bedrooms());
+            writeNumber("bathrooms", row.bathrooms());
+            writeNumber("squareFootage", row.squareFootage());
+            writeNumber("yearBuilt", row.yearBuilt());
+            generator.writeStringField("description", row.description());
+            generator.writeStringField("currency", row.currency());
+            generator.writeNumberField("purchasePrice", row.purchasePrice());
+            generator.writeStringField("purchaseDate", text(row.purchaseDate()));
+            generator.writeNumberField("currentValue", row.currentValue());
+            generator.writeStringField("lastValuationDate", text(row.lastValuationDate()));
+            generator.writeStringField("valuationSource", row.valuationSource());
+            generator.writeStringField("soldDate", text(row.soldDate()));
+            generator.writeNumberField("soldPrice", row.soldPrice());
+            generator.writeStringField("createdAt", text(row.createdAt()));
+            generator.writeStringField("updatedAt", text(row.updatedAt()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNumber(String field, Integer value) throws IOException {
+            if (value != null) {
+                generator.writeNumberField(field, value);
+            } else {
+                generator.writeNullField(field);
+            }
+        }
+
+        private void writeNumber(String field, Double value) throws IOException {
+            if (value != null) {
+                generator.writeNumberField(field, value);
+            } else {
+                generator.writeNullField(field);
+            }
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+            super.flush();
+        }
+    }
+
+    private static final class CsvWriter extends PropertyExportWriter {
+
+        private static final String HEADER = "id,status,address_line_1,address_line_2,city,state,postal_code,country,"
+                + "latitude,longitude,property_type,bedrooms,bathrooms,square_footage,year_built,description,currency,"
+                + "purchase_price,purchase_date,current_value,last_valuation_date,valuation_source,sold_date,sold_price,created_at,updated_at";
+
+        private CsvWriter(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            writer.write(HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(PropertyExportRow row) throws IOException {
+            value(row.id());
+            value(row.status());
+            userText(row.addressLine1());
+            userText(row.addressLine2());
+            userText(row.city());
+            userText(row.state());
+            userText(row.postalCode());
+            value(row.country());
+            value(row.latitude());
+            value(row.longitude());
+            userText(row.propertyType());
+            value(row.bedrooms());
+            value(row.bathrooms());
+            value(row.squareFootage());
+            value(row.yearBuilt());
+            userText(row.description());
+            value(row.currency());
+            value(row.purchasePrice());
+            value(row.purchaseDate());
+            value(row.currentValue());
+            value(row.lastValuationDate());
+            value(row.valuationSource());
+            value(row.soldDate());
+            value(row.soldPrice());
+            value(row.createdAt());
+            writer.write(csv(text(row.updatedAt())));
+            writer.write("\r\n");
+        }
+
+        private void value(Object value) throws IOException {
+            writer.write(csv(text(value)));
+            writer.write(',');
+        }
+
+        // Free text entered by users; a leading =, +, - or @ would be run as a formula by spreadsheets
+        private void userText(String value) throws IOException {
+            if (value != null && !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            value(value);
+        }
+
+        static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.cache.PropertyCache;
+import com.propertyiq.portfolio.config.PropertyImportProperties;
+import com.propertyiq.portfolio.dto.AddressRequest;
+import com.propertyiq.portfolio.dto.CreatePropertyRequest;
+import com.propertyiq.portfolio.dto.PropertyImportResponse;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import com.propertyiq.portfolio.event.PropertyEventType;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.Property;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
+import com.propertyiq.portfolio.repository.PropertyRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bulk-creates properties from a JSON array or a CSV file. The input is read one row at a time;
+ * each row is validated like a single create and valid rows are inserted
+ * {@link PropertyImportProperties#getBatchSize() batch-size} at a time, one transaction and one JDBC
+ * batch per group. Invalid rows are reported and skipped without failing the rest of the file.
+ */
+@Service
+public class PropertyImportService {
+
+    static final Set<String> REQUIRED_CSV_COLUMNS = Set.of(
+            "address_line_1", "city", "postal_code", "country", "purchase_price", "purchase_date", "currency");
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyImportService.class);
+
+    private final PropertyRepository propertyRepository;
+    private final PortfolioSummaryRepository portfolioSummaryRepository;
+    private final PropertyEventOutbox propertyEventOutbox;
+    private final PropertyCache propertyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PropertyImportProperties properties;
+
+    public PropertyImportService(PropertyRepository propertyRepository,
+                                 PortfolioSummaryRepository portfolioSummaryRepository,
+                                 PropertyEventOutbox propertyEventOutbox, PropertyCache propertyCache,
+                                 PlatformTransactionManager transactionManager, Validator validator,
+                                 ObjectMapper objectMapper, PropertyImportProperties properties) {
+        this.propertyRepository = propertyRepository;
+        this.portfolioSummaryRepository = portfolioSummaryRepository;
+        this.propertyEventOutbox = propertyEventOutbox;
+        this.propertyCache = propertyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public PropertyImportResponse importJson(UUID userId, InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Expected a JSON array of properties");
+            }
+            int row = 0;
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    row++;
+                    JsonNode node = parser.readValueAsTree();
+                    if (!node.isObject()) {
+                        run.reject(row, List.of("Expected a JSON object"));
+                        continue;
+                    }
+                    try {
+                        run.accept(row, objectMapper.treeToValue(node, CreatePropertyRequest.class));
+                    } catch (JsonProcessingException e) {
+                        run.reject(row, List.of("Invalid value: " + e.getOriginalMessage()));
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // The rest of the document can't be located reliably; keep what was read so far
+                run.reject(row, List.of("Malformed JSON, import stopped here: " + e.getOriginalMessage()));
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Imports a CSV file with a header row. Column names match the export, so an exported file can be
+     * imported again; unknown columns are ignored.
+     */
+    public PropertyImportResponse importCsv(UUID userId, InputStream inputStream) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new ValidationException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream().filter(c -> !columns.containsKey(c)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new ValidationException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+
+        ImportRun run = new ImportRun(userId);
+        int row = 0;
+        try {
+            for (List<String> fields = reader.next(); fields != null; fields = reader.next()) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                row++;
+                CsvRow csvRow = new CsvRow(columns, fields);
+                CreatePropertyRequest request = csvRow.toRequest();
+                if (csvRow.errors.isEmpty()) {
+                    run.accept(row, request);
+                } else {
+                    run.reject(row, csvRow.errors);
+                }
+            }
+        } catch (IOException e) {
+            run.reject(row + 1, List.of("Malformed CSV, import stopped here: " + e.getMessage()));
+        }
+        return run.finish();
+    }
+
+    /**
+     * State of one import: the report so far and the batch waiting to be inserted.
+     */
+    private final class ImportRun {
+
+        private final UUID userId;
+        private final int batchSize = Math.max(1, properties.getBatchSize());
+        private final List<Property> batch = new ArrayList<>(batchSize);
+        private final List<Integer> batchRows = new ArrayList<>(batchSize);
+        private final List<PropertyImportResponse.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int importedRows;
+        private int failedRows;
+
+        private ImportRun(UUID userId) {
+            this.userId = userId;
+        }
+
+        void accept(int row, CreatePropertyRequest request) {
+            totalRows++;
+            Set<ConstraintViolation<CreatePropertyRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .toList());
+                return;
+            }
+            batch.add(PropertyService.newProperty(userId, request));
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, List<String> messages) {
+            totalRows++;
+            fail(row, messages);
+        }
+
+        PropertyImportResponse finish() {
+            flush();
+            logger.info("Imported {} of {} properties for user {}", importedRows, totalRows, userId);
+            return PropertyImportResponse.builder()
+                    .totalRows(totalRows)
+                    .importedRows(importedRows)
+                    .failedRows(failedRows)
+                    .errors(errors)
+                    .build();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            int importedBefore = importedRows;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    propertyRepository.saveAll(batch);
+                    recordCreated(batch);
+                });
+                importedRows += batch.size();
+            } catch (DataAccessException | TransactionException e) {
+                // The whole batch was rolled back; insert its rows one by one to find the ones at fault
+                logger.debug("Import batch failed for user {}, retrying row by row", userId, e);
+                for (int i = 0; i < batch.size(); i++) {
+                    Property property = batch.get(i);
+                    // The rolled-back persist left an id and version behind; without both reset, save()
+                    // would merge the row into a copy instead of persisting this entity
+                    property.setId(null);
+                    property.setVersion(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                recordCreated(List.of(propertyRepository.save(property))));
+                        importedRows++;
+                    } catch (DataAccessException | TransactionException rowFailure) {
+                        fail(batchRows.get(i), List.of("Could not be saved: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                    }
+                }
+            }
+            if (importedRows > importedBefore) {
+                // New properties can't be cached yet, only the listing pages they now belong on
+                propertyCache.invalidate(userId, List.of());
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        private void recordCreated(List<Property> properties) {
+            portfolioSummaryRepository.apply(userId, properties.stream().map(Bucket::of).toList());
+            propertyEventOutbox.append(properties.stream()
+                    .map(property -> PropertyEvent.of(PropertyEventType.PROPERTY_CREATED, property))
+                    .toList());
+        }
+
+        private void fail(int row, List<String> messages) {
+            failedRows++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new PropertyImportResponse.RowError(row, messages));
+            }
+        }
+    }
+
+    /**
+     * One CSV record mapped onto a create request by column name. Values that can't be converted are
+     * collected in {@link #errors} instead of thrown.
+     */
+    private static final class CsvRow {
+
+        private final Map<String, Integer> columns;
+        private final List<String> fields;
+        private final List<String> errors = new ArrayList<>();
+
+        private CsvRow(Map<String, Integer> columns, List<String> fields) {
+            this.columns = columns;
+            this.fields = fields;
+        }
+
+        CreatePropertyRequest toRequest() {
+            AddressRequest address = AddressRequest.builder()
+                    .line1(text("address_line_1"))
+                    .line2(text("address_line_2"))
+                    .city(text("city"))
+                    .state(text("state"))
+                    .postalCode(text("postal_code"))
+                    .country(value("country", v -> Country.valueOf(v.toUpperCase(Locale.ROOT))))
+                    .latitude(value("latitude", Double::valueOf))
+                    .longitude(value("longitude", Double::valueOf))
+                    .build();
+            return CreatePropertyRequest.builder()
+                    .address(address)
+                    .purchasePrice(value("purchase_price", BigDecimal::new))
+                    .purchaseDate(value("purchase_date", LocalDate::parse))
+                    .currency(value("currency", v -> Currency.valueOf(v.toUpperCase(Locale.ROOT))))
+                    .propertyType(text("property_type"))
+                    .bedrooms(value("bedrooms", Integer::valueOf))
+                    .bathrooms(value("bathrooms", Integer::valueOf))
+                    .squareFootage(value("square_footage", Integer::valueOf))
+                    .yearBuilt(value("year_built", Integer::valueOf))
+                    .description(text("description"))
+                    .build();
+        }
+
+        private String text(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).strip();
+            return value.isEmpty() ? null : value;
+        }
+
+        private <T> T value(String column, Function<String, T> parser) {
+            String text = text(column);
+            if (text == null) {
+                return null;
+            }
+            try {
+                return parser.apply(text);
+            } catch (RuntimeException e) {
+                errors.add(column + ": invalid value '" + text + "'");
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PropertySearchCriteria;
+import com.propertyiq.portfolio.dto.PropertySearchResponse;
+import com.propertyiq.portfolio.dto.PropertySearchResult;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.repository.PropertySearchRepository;
+import com.propertyiq.portfolio.repository.PropertySearchRepository.Circle;
+import com.propertyiq.portfolio.repository.PropertySearchRepository.SearchQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Validates search criteria and turns them into a {@link SearchQuery}. Searches are not cached:
+ * each criterion is answered from its own index.
+ */
+@Service
+public class PropertySearchService {
+
+    public static final double DEFAULT_RADIUS_KM = 5;
+    public static final double MAX_RADIUS_KM = 100;
+
+    /**
+     * Search words beyond this are ignored; every word is another index lookup.
+     */
+    static final int MAX_TEXT_TERMS = 8;
+
+    private static final Pattern POSTCODE = Pattern.compile("[A-Z0-9-]+");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private final PropertySearchRepository searchRepository;
+
+    public PropertySearchService(PropertySearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PropertySearchResponse search(UUID userId, PropertySearchCriteria criteria, Integer limit) {
+        SearchQuery query = new SearchQuery(userId, criteria.getStatus(), postcodePrefix(criteria.getPostcode()),
+                textQuery(criteria.getText()), circle(criteria));
+        if (query.postcodePrefix() == null && query.textQuery() == null && query.circle() == null) {
+            throw new ValidationException("Give at least one of postcode, text or latitude and longitude");
+        }
+        int pageSize = limit == null
+                ? PropertyService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(limit, PropertyService.MAX_PAGE_SIZE));
+
+        // One extra row tells us whether there were more matches
+        List<PropertySearchResult> results = searchRepository.search(query, pageSize + 1);
+        boolean hasMore = results.size() > pageSize;
+        return PropertySearchResponse.builder()
+                .items(hasMore ? List.copyOf(results.subList(0, pageSize)) : results)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Upper case without spaces, the form the postcode index is built on.
+     */
+    static String postcodePrefix(String postcode) {
+        if (postcode == null || postcode.isBlank()) {
+            return null;
+        }
+        String normalised = postcode.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+        if (!POSTCODE.matcher(normalised).matches()) {
+            throw new ValidationException("Postcode may only contain letters, digits and '-'");
+        }
+        return normalised;
+    }
+
+    /**
+     * The words of the text as a {@code tsquery} that requires all of them, each as a prefix. Only
+     * letters and digits are kept, so user input can't change the query's structure.
+     */
+    static String textQuery(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        Matcher words = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        String query = words.results()
+                .map(word -> word.group() + ":*")
+                .distinct()
+                .limit(MAX_TEXT_TERMS)
+                .collect(Collectors.joining(" & "));
+        if (query.isEmpty()) {
+            throw new ValidationException("Text must contain at least one letter or digit");
+        }
+        return query;
+    }
+
+    private static Circle circle(PropertySearchCriteria criteria) {
+        Double latitude = criteria.getLatitude();
+        Double longitude = criteria.getLongitude();
+        if (latitude == null && longitude == null) {
+            if (criteria.getRadiusKm() != null) {
+                throw new ValidationException("radiusKm needs latitude and longitude");
+            }
+            return null;
+        }
+        if (latitude == null || longitude == null) {
+            throw new ValidationException("Latitude and longitude must be given together");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ValidationException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        double radiusKm = criteria.getRadiusKm() != null ? criteria.getRadiusKm() : DEFAULT_RADIUS_KM;
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new ValidationException(String.format("radiusKm must be greater than 0 and at most %.0f",
+                    MAX_RADIUS_KM));
+        }
+        return new Circle(latitude, longitude, radiusKm);
+    }
+}
@@ -1,39 +1,93 @@
 package com.propertyiq.portfolio.service;
 
+import com.propertyiq.portfolio.cache.PropertyCache;
 import com.propertyiq.portfolio.dto.*;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import com.propertyiq.portfolio.event.PropertyEvent.ValuationChange;
+import com.propertyiq.portfolio.event.PropertyEventType;
 import com.propertyiq.portfolio.exception.InvalidPropertyStateException;
 import com.propertyiq.portfolio.exception.PropertyNotFoundException;
+import com.propertyiq.portfolio.exception.PropertyUpdateConflictException;
+import com.propertyiq.portfolio.exception.StalePropertyVersionException;
 import com.propertyiq.portfolio.model.*;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
 import com.propertyiq.portfolio.repository.PropertyRepository;
-import lombok.RequiredArgsConstructor;
+import com.propertyiq.portfolio.repository.PropertySpecifications;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.ValuationUpdate;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 public class PropertyService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PropertyService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Attempts at a single-property update before giving up on a property under heavy concurrent writes.
+     */
+    static final int MAX_UPDATE_ATTEMPTS = 5;
+
     private final PropertyRepository propertyRepository;
+    private final ValuationHistoryRepository valuationHistoryRepository;
+    private final PortfolioSummaryRepository portfolioSummaryRepository;
+    private final PropertyEventOutbox propertyEventOutbox;
+    private final PropertyCache propertyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PropertyService(PropertyRepository propertyRepository,
+                           ValuationHistoryRepository valuationHistoryRepository,
+                           PortfolioSummaryRepository portfolioSummaryRepository,
+                           PropertyEventOutbox propertyEventOutbox,
+                           PropertyCache propertyCache,
+                           PlatformTransactionManager transactionManager) {
+        this.propertyRepository = propertyRepository;
+        this.valuationHistoryRepository = valuationHistoryRepository;
+        this.portfolioSummaryRepository = portfolioSummaryRepository;
+        this.propertyEventOutbox = propertyEventOutbox;
+        this.propertyCache = propertyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     @Transactional
     public PropertyResponse createProperty(UUID userId, CreatePropertyRequest request) {
-        Address address = Address.builder()
-                .line1(request.getAddress().getLine1())
-                .line2(request.getAddress().getLine2())
-                .city(request.getAddress().getCity())
-                .state(request.getAddress().getState())
-                .postalCode(request.getAddress().getPostalCode())
-                .country(request.getAddress().getCountry())
-                .build();
+        Property property = newProperty(userId, request);
+        Property savedProperty = propertyRepository.save(property);
+        portfolioSummaryRepository.apply(userId, List.of(Bucket.of(savedProperty)));
+        recordEvent(PropertyEventType.PROPERTY_CREATED, savedProperty);
+        propertyCache.invalidate(userId, savedProperty.getId());
+        return PropertyResponse.fromEntity(savedProperty);
+    }
 
-        Property property = Property.builder()
+    /**
+     * A new, unsaved active property built from a create request. Shared with the bulk import.
+     */
+    static Property newProperty(UUID userId, CreatePropertyRequest request) {
+        return Property.builder()
                 .userId(userId)
-                .address(address)
+                .address(toAddress(request.getAddress()))
                 .purchasePrice(request.getPurchasePrice())
                 .purchaseDate(request.getPurchaseDate())
                 .currency(request.getCurrency())
@@ -46,117 +100,264 @@ public class PropertyService {
                 .description(request.getDescription())
                 .status(PropertyStatus.ACTIVE)
                 .build();
+    }
 
-        Property savedProperty = propertyRepository.save(property);
-        return PropertyResponse.fromEntity(savedProperty);
+    private static Address toAddress(AddressRequest request) {
+        return Address.builder()
+                .line1(request.getLine1())
+                .line2(request.getLine2())
+                .city(request.getCity())
+                .state(request.getState())
+                .postalCode(request.getPostalCode())
+                .country(request.getCountry())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .build();
     }
 
-    @Transactional(readOnly = true)
-    public List<PropertyResponse> getProperties(UUID userId, PropertyStatus status) {
-        List<Property> properties;
-        if (status != null) {
-            properties = propertyRepository.findByUserIdAndStatus(userId, status);
-        } else {
-            properties = propertyRepository.findByUserId(userId);
+    /**
+     * One page of the user's properties in {@code (sort key, id)} order. The next page starts
+     * strictly after the cursor, so pages stay stable while properties are added.
+     *
+     * <p>Reads go through the {@link PropertyCache}, so a cache hit never takes a database
+     * connection. A miss selects the page's columns straight into {@link PropertyListItem}s without
+     * loading entities, in a read-only transaction that a replica can serve.
+     */
+    public PropertyPageResponse getProperties(UUID userId, PropertyFilter filter, PropertySort sort,
+                                              Sort.Direction direction, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String query = String.join("|", String.valueOf(filter), sort.name(), direction.name(),
+                String.valueOf(pageSize), cursor == null ? "" : cursor);
+        return propertyCache.getPage(userId, query,
+                () -> readOnlyTransaction.execute(status -> loadPage(userId, filter, sort, direction, cursor,
+                        pageSize)));
+    }
+
+    private PropertyPageResponse loadPage(UUID userId, PropertyFilter filter, PropertySort sort,
+                                          Sort.Direction direction, String cursor, int pageSize) {
+        Specification<Property> specification = PropertySpecifications.ownedBy(userId)
+                .and(PropertySpecifications.matching(filter));
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(after(PropertyCursor.decode(cursor, sort, direction)));
         }
-        return properties.stream()
-                .map(PropertyResponse::fromEntity)
-                .collect(Collectors.toList());
+        Sort order = Sort.by(direction, sort.getAttribute()).and(Sort.by(direction, "id"));
+
+        // One extra row tells us whether there is a next page without a count query
+        List<PropertyListItem> items = propertyRepository.findListItems(specification, order, pageSize + 1);
+
+        boolean hasMore = items.size() > pageSize;
+        List<PropertyListItem> page = hasMore ? items.subList(0, pageSize) : items;
+        String nextCursor = hasMore
+                ? PropertyCursor.after(page.get(page.size() - 1), sort, direction).encode()
+                : null;
+
+        return PropertyPageResponse.builder()
+                .items(List.copyOf(page))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
-    @Transactional(readOnly = true)
     public PropertyResponse getProperty(UUID userId, UUID propertyId) {
-        Property property = findPropertyByIdAndUserId(propertyId, userId);
-        return PropertyResponse.fromEntity(property);
+        return propertyCache.getProperty(userId, propertyId,
+                () -> readOnlyTransaction.execute(status ->
+                        PropertyResponse.fromEntity(findPropertyByIdAndUserId(propertyId, userId))));
     }
 
-    @Transactional
-    public PropertyResponse updateProperty(UUID userId, UUID propertyId, UpdatePropertyRequest request) {
-        Property property = findPropertyByIdAndUserId(propertyId, userId);
+    /**
+     * Applies the fields present in the request. With {@code expectedVersion} (from {@code If-Match})
+     * the update fails if the address or descriptive fields have changed since that version;
+     * revaluations and status changes in between don't count as conflicts.
+     */
+    public PropertyResponse updateProperty(UUID userId, UUID propertyId, UpdatePropertyRequest request,
+                                           Long expectedVersion) {
+        return updateWithRetry(propertyId, () -> {
+            Property property = findPropertyByIdAndUserId(propertyId, userId);
+            checkUnchangedSince(property, expectedVersion, property.getDetailsVersion());
 
-        if (PropertyStatus.ARCHIVED.equals(property.getStatus())) {
-            throw new InvalidPropertyStateException("Cannot update an archived property");
-        }
+            if (PropertyStatus.ARCHIVED.equals(property.getStatus())) {
+                throw new InvalidPropertyStateException("Cannot update an archived property");
+            }
+            Bucket before = Bucket.of(property);
+            boolean changed = false;
 
-        if (request.getAddress() != null) {
-            Address address = Address.builder()
-                    .line1(request.getAddress().getLine1())
-                    .line2(request.getAddress().getLine2())
-                    .city(request.getAddress().getCity())
-                    .state(request.getAddress().getState())
-                    .postalCode(request.getAddress().getPostalCode())
-                    .country(request.getAddress().getCountry())
-                    .build();
-            property.setAddress(address);
-        }
+            if (request.getAddress() != null) {
+                property.setAddress(toAddress(request.getAddress()));
+                changed = true;
+            }
 
-        if (request.getPropertyType() != null) {
-            property.setPropertyType(request.getPropertyType());
-        }
-        if (request.getBedrooms() != null) {
-            property.setBedrooms(request.getBedrooms());
-        }
-        if (request.getBathrooms() != null) {
-            property.setBathrooms(request.getBathrooms());
-        }
-        if (request.getSquareFootage() != null) {
-            property.setSquareFootage(request.getSquareFootage());
-        }
-        if (request.getYearBuilt() != null) {
-            property.setYearBuilt(request.getYearBuilt());
-        }
-        if (request.getDescription() != null) {
-            property.setDescription(request.getDescription());
-        }
+            if (request.getPropertyType() != null) {
+                property.setPropertyType(request.getPropertyType());
+                changed = true;
+            }
+            if (request.getBedrooms() != null) {
+                property.setBedrooms(request.getBedrooms());
+                changed = true;
+            }
+            if (request.getBathrooms() != null) {
+                property.setBathrooms(request.getBathrooms());
+                changed = true;
+            }
+            if (request.getSquareFootage() != null) {
+                property.setSquareFootage(request.getSquareFootage());
+                changed = true;
+            }
+            if (request.getYearBuilt() != null) {
+                property.setYearBuilt(request.getYearBuilt());
+                changed = true;
+            }
+            if (request.getDescription() != null) {
+                property.setDescription(request.getDescription());
+                changed = true;
+            }
+            if (changed) {
+                property.setDetailsVersion(nextVersion(property));
+            }
 
-        Property savedProperty = propertyRepository.save(property);
-        return PropertyResponse.fromEntity(savedProperty);
+            Property savedProperty = propertyRepository.saveAndFlush(property);
+            recordInSummary(userId, before, savedProperty);
+            if (changed) {
+                recordEvent(PropertyEventType.PROPERTY_UPDATED, savedProperty);
+            }
+            propertyCache.invalidate(userId, propertyId);
+            return PropertyResponse.fromEntity(savedProperty);
+        });
     }
 
-    @Transactional
-    public PropertyResponse updateValuation(UUID userId, UUID propertyId, UpdateValuationRequest request) {
-        Property property = findPropertyByIdAndUserId(propertyId, userId);
+    /**
+     * Sets the current value. With {@code expectedVersion} (from {@code If-Match}) the update fails
+     * if the valuation has changed since that version; edits to other fields don't count as conflicts.
+     */
+    public PropertyResponse updateValuation(UUID userId, UUID propertyId, UpdateValuationRequest request,
+                                            Long expectedVersion) {
+        return updateWithRetry(propertyId, () -> {
+            Property property = findPropertyByIdAndUserId(propertyId, userId);
+            checkUnchangedSince(property, expectedVersion, property.getValuationVersion());
 
-        if (!PropertyStatus.ACTIVE.equals(property.getStatus())) {
-            throw new InvalidPropertyStateException("Cannot update valuation for a non-active property");
-        }
+            if (!PropertyStatus.ACTIVE.equals(property.getStatus())) {
+                throw new InvalidPropertyStateException("Cannot update valuation for a non-active property");
+            }
+            Bucket before = Bucket.of(property);
+            BigDecimal previousValue = property.getCurrentValue();
 
-        property.setCurrentValue(request.getNewValue());
-        property.setLastValuationDate(LocalDate.now());
-        property.setValuationSource(request.getSource());
+            property.setCurrentValue(request.getNewValue());
+            property.setLastValuationDate(LocalDate.now());
+            property.setValuationSource(request.getSource());
+            property.setValuationVersion(nextVersion(property));
 
-        Property savedProperty = propertyRepository.save(property);
-        return PropertyResponse.fromEntity(savedProperty);
+            Property savedProperty = propertyRepository.saveAndFlush(property);
+            recordInSummary(userId, before, savedProperty);
+            propertyEventOutbox.append(List.of(PropertyEvent.revaluation(userId, propertyId,
+                    savedProperty.getVersion(), new ValuationChange(previousValue, savedProperty.getCurrentValue(),
+                            savedProperty.getCurrency(), savedProperty.getValuationSource(),
+                            savedProperty.getLastValuationDate()))));
+            propertyCache.invalidate(userId, propertyId);
+            valuationHistoryRepository.append(userId, List.of(new ValuationUpdate(savedProperty.getId(),
+                    savedProperty.getCurrentValue(), savedProperty.getValuationSource(),
+                    savedProperty.getLastValuationDate())));
+            return PropertyResponse.fromEntity(savedProperty);
+        });
     }
 
-    @Transactional
     public PropertyResponse markAsSold(UUID userId, UUID propertyId, MarkAsSoldRequest request) {
-        Property property = findPropertyByIdAndUserId(propertyId, userId);
+        return updateWithRetry(propertyId, () -> {
+            Property property = findPropertyByIdAndUserId(propertyId, userId);
 
-        if (!PropertyStatus.ACTIVE.equals(property.getStatus())) {
-            throw new InvalidPropertyStateException("Only active properties can be marked as sold");
-        }
+            if (!PropertyStatus.ACTIVE.equals(property.getStatus())) {
+                throw new InvalidPropertyStateException("Only active properties can be marked as sold");
+            }
+            Bucket before = Bucket.of(property);
 
-        property.setStatus(PropertyStatus.SOLD);
-        property.setSoldDate(request.getSoldDate());
-        property.setSoldPrice(request.getSoldPrice());
+            property.setStatus(PropertyStatus.SOLD);
+            property.setSoldDate(request.getSoldDate());
+            property.setSoldPrice(request.getSoldPrice());
 
-        Property savedProperty = propertyRepository.save(property);
-        return PropertyResponse.fromEntity(savedProperty);
+            Property savedProperty = propertyRepository.saveAndFlush(property);
+            recordInSummary(userId, before, savedProperty);
+            recordEvent(PropertyEventType.PROPERTY_SOLD, savedProperty);
+            propertyCache.invalidate(userId, propertyId);
+            return PropertyResponse.fromEntity(savedProperty);
+        });
     }
 
-    @Transactional
     public PropertyResponse archiveProperty(UUID userId, UUID propertyId) {
-        Property property = findPropertyByIdAndUserId(propertyId, userId);
+        return updateWithRetry(propertyId, () -> {
+            Property property = findPropertyByIdAndUserId(propertyId, userId);
+
+            if (PropertyStatus.ARCHIVED.equals(property.getStatus())) {
+                throw new InvalidPropertyStateException("Property is already archived");
+            }
+            Bucket before = Bucket.of(property);
+
+            property.setStatus(PropertyStatus.ARCHIVED);
 
-        if (PropertyStatus.ARCHIVED.equals(property.getStatus())) {
-            throw new InvalidPropertyStateException("Property is already archived");
+            Property savedProperty = propertyRepository.saveAndFlush(property);
+            recordInSummary(userId, before, savedProperty);
+            recordEvent(PropertyEventType.PROPERTY_ARCHIVED, savedProperty);
+            propertyCache.invalidate(userId, propertyId);
+            return PropertyResponse.fromEntity(savedProperty);
+        });
+    }
+
+    /**
+     * Runs a read-modify-write of one property in its own transaction. If another write to the
+     * property commits between the read and the flush, the attempt is rolled back and run again
+     * against the fresh row, so changes to other fields are kept rather than overwritten.
+     */
+    private PropertyResponse updateWithRetry(UUID propertyId, Supplier<PropertyResponse> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> update.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw new PropertyUpdateConflictException(propertyId.toString());
+                }
+                logger.debug("Property {} changed during update, attempt {} of {}", propertyId, attempt,
+                        MAX_UPDATE_ATTEMPTS);
+            }
         }
+    }
 
-        property.setStatus(PropertyStatus.ARCHIVED);
+    /**
+     * Fails if the fields last changed at {@code fieldsVersion} have changed since the version the
+     * caller read, or if the caller's version is one the property has never had.
+     */
+    private static void checkUnchangedSince(Property property, Long expectedVersion, Long fieldsVersion) {
+        if (expectedVersion != null && (fieldsVersion > expectedVersion || expectedVersion > property.getVersion())) {
+            throw new StalePropertyVersionException(property.getId().toString(), expectedVersion);
+        }
+    }
 
-        Property savedProperty = propertyRepository.save(property);
-        return PropertyResponse.fromEntity(savedProperty);
+    /**
+     * The version the property will have once the current change is flushed.
+     */
+    private static long nextVersion(Property property) {
+        return property.getVersion() + 1;
+    }
+
+    /**
+     * Moves the property's contribution to the user's summary from what it was to what it is now.
+     */
+    private void recordInSummary(UUID userId, Bucket before, Property after) {
+        portfolioSummaryRepository.apply(userId, List.of(before.negate(), Bucket.of(after)));
+    }
+
+    /**
+     * Writes the change to the outbox in the current transaction, after the row has been flushed
+     * (and locked) so events for one property are written in the order the changes commit.
+     */
+    private void recordEvent(PropertyEventType type, Property property) {
+        propertyEventOutbox.append(List.of(PropertyEvent.of(type, property)));
+    }
+
+    private static Specification<Property> after(PropertyCursor cursor) {
+        boolean ascending = cursor.direction().isAscending();
+        return switch (cursor.sort()) {
+            case CREATED_AT -> PropertySpecifications.after(
+                    PropertySort.CREATED_AT.getAttribute(), (LocalDateTime) cursor.key(), cursor.id(), ascending);
+            case CURRENT_VALUE -> PropertySpecifications.after(
+                    PropertySort.CURRENT_VALUE.getAttribute(), (BigDecimal) cursor.key(), cursor.id(), ascending);
+        };
     }
 
     private Property findPropertyByIdAndUserId(UUID propertyId, UUID userId) {
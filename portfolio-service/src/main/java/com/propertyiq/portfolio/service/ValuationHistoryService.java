@@ -0,0 +1,165 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.ValuationGranularity;
+import com.propertyiq.portfolio.dto.ValuationSeriesResponse;
+import com.propertyiq.portfolio.dto.ValuationSeriesResponse.ValuationPoint;
+import com.propertyiq.portfolio.exception.PropertyNotFoundException;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository.HeldProperty;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository.ValuationChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Downsampled valuation series for one property or a whole portfolio. Each point is the last
+ * known value at the end of a day, month or year. Monthly and yearly series are read from the
+ * monthly rollup, so a ten-year chart touches at most one row per property and month; daily series
+ * read the raw history, but only the partitions inside the range.
+ */
+@Service
+@RequiredArgsConstructor
+public class ValuationHistoryService {
+
+    public static final int MAX_POINTS = 1000;
+
+    private final ValuationHistoryRepository valuationHistoryRepository;
+
+    @Transactional(readOnly = true)
+    public ValuationSeriesResponse getPropertySeries(UUID userId, UUID propertyId, ValuationGranularity granularity,
+                                                     LocalDate from, LocalDate to) {
+        return series(userId, propertyId, granularity, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public ValuationSeriesResponse getPortfolioSeries(UUID userId, ValuationGranularity granularity,
+                                                      LocalDate from, LocalDate to) {
+        return series(userId, null, granularity, from, to);
+    }
+
+    private ValuationSeriesResponse series(UUID userId, UUID propertyId, ValuationGranularity granularity,
+                                           LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("from must not be after to");
+        }
+        LocalDate firstBucket = bucketStart(granularity, from);
+        LocalDate lastBucket = bucketStart(granularity, to);
+        long buckets = switch (granularity) {
+            case DAILY -> ChronoUnit.DAYS.between(firstBucket, lastBucket);
+            case MONTHLY -> ChronoUnit.MONTHS.between(firstBucket, lastBucket);
+            case YEARLY -> ChronoUnit.YEARS.between(firstBucket, lastBucket);
+        } + 1;
+        if (buckets > MAX_POINTS) {
+            throw new ValidationException("Range has " + buckets + " " + granularity.name().toLowerCase()
+                    + " points; at most " + MAX_POINTS + " are returned, use a coarser granularity");
+        }
+
+        LocalDate openingMonth = firstBucket.withDayOfMonth(1);
+        List<HeldProperty> properties = valuationHistoryRepository.findHeldProperties(userId, propertyId, openingMonth);
+        if (propertyId != null && properties.isEmpty()) {
+            throw new PropertyNotFoundException(propertyId.toString());
+        }
+
+        SeriesBuilder builder = new SeriesBuilder(granularity, properties, firstBucket, lastBucket);
+        if (granularity == ValuationGranularity.DAILY) {
+            valuationHistoryRepository.forEachChange(userId, propertyId, false, openingMonth, to, builder::apply);
+        } else {
+            LocalDate lastMonth = bucketEnd(granularity, lastBucket).withDayOfMonth(1);
+            valuationHistoryRepository.forEachChange(userId, propertyId, true, openingMonth, lastMonth, builder::apply);
+        }
+
+        return ValuationSeriesResponse.builder()
+                .granularity(granularity)
+                .from(firstBucket)
+                .to(bucketEnd(granularity, lastBucket))
+                .points(builder.finish())
+                .build();
+    }
+
+    static LocalDate bucketStart(ValuationGranularity granularity, LocalDate date) {
+        return switch (granularity) {
+            case DAILY -> date;
+            case MONTHLY -> date.withDayOfMonth(1);
+            case YEARLY -> date.withDayOfYear(1);
+        };
+    }
+
+    static LocalDate bucketEnd(ValuationGranularity granularity, LocalDate bucketStart) {
+        return switch (granularity) {
+            case DAILY -> bucketStart;
+            case MONTHLY -> bucketStart.plusMonths(1).minusDays(1);
+            case YEARLY -> bucketStart.plusYears(1).minusDays(1);
+        };
+    }
+
+    /**
+     * Walks the buckets in step with the date-ordered valuations, carrying each property's last
+     * value forward and closing a bucket once a valuation dated after it arrives.
+     */
+    private static final class SeriesBuilder {
+
+        private final ValuationGranularity granularity;
+        private final List<HeldProperty> properties;
+        private final LocalDate lastBucket;
+        private final Map<UUID, BigDecimal> values = new HashMap<>();
+        private final List<ValuationPoint> points = new ArrayList<>();
+        private LocalDate bucket;
+
+        private SeriesBuilder(ValuationGranularity granularity, List<HeldProperty> properties,
+                              LocalDate firstBucket, LocalDate lastBucket) {
+            this.granularity = granularity;
+            this.properties = properties;
+            this.lastBucket = lastBucket;
+            this.bucket = firstBucket;
+            for (HeldProperty property : properties) {
+                if (property.openingValue() != null) {
+                    values.put(property.propertyId(), property.openingValue());
+                }
+            }
+        }
+
+        void apply(ValuationChange change) {
+            while (bucket != null && change.valuationDate().isAfter(bucketEnd(granularity, bucket))) {
+                closeBucket();
+            }
+            values.put(change.propertyId(), change.value());
+        }
+
+        List<ValuationPoint> finish() {
+            while (bucket != null) {
+                closeBucket();
+            }
+            return points;
+        }
+
+        private void closeBucket() {
+            LocalDate end = bucketEnd(granularity, bucket);
+            Map<Currency, BigDecimal> totals = new EnumMap<>(Currency.class);
+            for (HeldProperty property : properties) {
+                boolean held = !property.purchaseDate().isAfter(end)
+                        && (property.soldDate() == null || property.soldDate().isAfter(end));
+                if (held) {
+                    totals.merge(property.currency(),
+                            values.getOrDefault(property.propertyId(), property.purchasePrice()), BigDecimal::add);
+                }
+            }
+            LocalDate start = bucket;
+            totals.forEach((currency, value) -> points.add(new ValuationPoint(start, currency, value)));
+
+            LocalDate next = bucketStart(granularity, end.plusDays(1));
+            bucket = next.isAfter(lastBucket) ? null : next;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Invalidates property cache scopes on every instance.
+-- KEYS[1]: generation counter shared by all scopes
+-- KEYS[2..n]: generation keys of the invalidated scopes
+-- ARGV[1]: generation key lifetime in seconds
+-- ARGV[2]: pub/sub channel
+-- ARGV[3]: invalidation message
+-- Each scope gets a new generation, so every entry tagged with an older one reads as a miss.
+-- Returns the new generation.
+local generation = redis.call('INCR', KEYS[1])
+for i = 2, #KEYS do
+    redis.call('SET', KEYS[i], generation, 'EX', ARGV[1])
+end
+redis.call('PUBLISH', ARGV[2], ARGV[3])
+return generation
@@ -0,0 +1,269 @@
+package com.propertyiq.portfolio.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.config.PropertyCacheProperties;
+import com.propertyiq.portfolio.dto.PropertyPageResponse;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID propertyId = UUID.randomUUID();
+    private final UUID otherPropertyId = UUID.randomUUID();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final PropertyCacheProperties properties = new PropertyCacheProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    void setUp() {
+        properties.getRedis().setEnabled(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the in-process tier and report the hit ratio")
+    void shouldServeRepeatedReadsLocally() {
+        PropertyCache cache = newCache();
+        CountingLoader loader = new CountingLoader();
+
+        cache.getProperty(userId, propertyId, loader);
+        PropertyResponse second = cache.getProperty(userId, propertyId, loader);
+
+        assertThat(second.getCurrentValue()).isEqualByComparingTo("1");
+        assertThat(loader.calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("portfolio.property-cache.hit-ratio").tag("cache", "property").gauge().value())
+                .isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should drop the changed property and the user's pages but keep other properties")
+    void shouldInvalidatePreciselyByUserAndProperty() {
+        PropertyCache cache = newCache();
+        CountingLoader changed = new CountingLoader();
+        CountingLoader other = new CountingLoader();
+        AtomicInteger pageLoads = new AtomicInteger();
+        Supplier<PropertyPageResponse> pageLoader = () -> {
+            pageLoads.incrementAndGet();
+            return new PropertyPageResponse(List.of(), null, false);
+        };
+        cache.getProperty(userId, propertyId, changed);
+        cache.getProperty(userId, otherPropertyId, other);
+        cache.getPage(userId, "page-1", pageLoader);
+
+        cache.invalidate(userId, propertyId);
+        cache.getProperty(userId, propertyId, changed);
+        cache.getProperty(userId, otherPropertyId, other);
+        cache.getPage(userId, "page-1", pageLoader);
+
+        assertThat(changed.calls.get()).isEqualTo(2);
+        assertThat(other.calls.get()).isEqualTo(1);
+        assertThat(pageLoads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not store a value loaded before an invalidation")
+    void shouldNotStoreValueLoadedAcrossInvalidation() {
+        PropertyCache cache = newCache();
+        CountingLoader loader = new CountingLoader();
+
+        cache.getProperty(userId, propertyId, () -> {
+            cache.invalidate(userId, propertyId);
+            return loader.get();
+        });
+        cache.getProperty(userId, propertyId, loader);
+
+        assertThat(loader.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should invalidate only once the surrounding transaction commits")
+    void shouldInvalidateAfterCommit() {
+        PropertyCache cache = newCache();
+        CountingLoader loader = new CountingLoader();
+        cache.getProperty(userId, propertyId, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(userId, propertyId);
+        cache.getProperty(userId, propertyId, loader);
+        assertThat(loader.calls.get()).isEqualTo(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.getProperty(userId, propertyId, loader);
+        assertThat(loader.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should read through to Redis and populate it on a miss")
+    void shouldReadThroughRedis() throws Exception {
+        properties.getRedis().setEnabled(true);
+        PropertyCache cache = newCache();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        String key = "portfolio:property:" + userId + ":" + propertyId;
+        List<String> keys = List.of("portfolio:property-cache:generation:" + userId + ":" + propertyId, key);
+        PropertyResponse shared = PropertyResponse.builder().id(propertyId).currentValue(new BigDecimal("7")).build();
+        when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList(null, null))
+                .thenReturn(List.of("5", "5\n" + objectMapper.writeValueAsString(shared)));
+        CountingLoader loader = new CountingLoader();
+
+        cache.getProperty(userId, propertyId, loader);
+        verify(valueOperations).set(eq(key), startsWith("0\n"), eq(properties.getRedis().getTtl()));
+        cache.invalidate(userId, propertyId);
+        PropertyResponse fromRedis = cache.getProperty(userId, propertyId, loader);
+
+        assertThat(loader.calls.get()).isEqualTo(1);
+        assertThat(fromRedis.getCurrentValue()).isEqualByComparingTo("7");
+        assertThat(meterRegistry.get("portfolio.property-cache.lookups")
+                .tag("cache", "property").tag("result", "redis").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should treat a Redis entry written under an older generation as a miss")
+    void shouldIgnoreRedisEntryFromOlderGeneration() throws Exception {
+        properties.getRedis().setEnabled(true);
+        PropertyCache cache = newCache();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        String key = "portfolio:property:" + userId + ":" + propertyId;
+        // Loaded on another instance before an invalidation there, and written after it
+        String stale = "5\n" + objectMapper.writeValueAsString(
+                PropertyResponse.builder().id(propertyId).currentValue(new BigDecimal("7")).build());
+        when(valueOperations.multiGet(anyList())).thenReturn(List.of("6", stale));
+        CountingLoader loader = new CountingLoader();
+
+        PropertyResponse response = cache.getProperty(userId, propertyId, loader);
+
+        assertThat(response.getCurrentValue()).isEqualByComparingTo("1");
+        verify(valueOperations).set(eq(key), startsWith("6\n"), eq(properties.getRedis().getTtl()));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database and stop calling Redis after an error")
+    void shouldBypassRedisAfterFailure() {
+        properties.getRedis().setEnabled(true);
+        properties.getRedis().setRetryInterval(Duration.ofMinutes(1));
+        PropertyCache cache = newCache();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        CountingLoader loader = new CountingLoader();
+
+        PropertyResponse response = cache.getProperty(userId, propertyId, loader);
+        cache.getProperty(userId, otherPropertyId, loader);
+
+        assertThat(response.getCurrentValue()).isEqualByComparingTo("1");
+        assertThat(loader.calls.get()).isEqualTo(2);
+        verify(valueOperations, times(1)).multiGet(anyList());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Should bump the Redis generations and announce invalidations to other instances")
+    @SuppressWarnings("unchecked")
+    void shouldPublishInvalidations() {
+        properties.getRedis().setEnabled(true);
+        PropertyCache writer = newCache();
+        PropertyCache reader = newCache();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+        CountingLoader loader = new CountingLoader();
+        reader.getProperty(userId, propertyId, loader);
+
+        writer.invalidate(userId, propertyId);
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), eq("1200"),
+                eq(properties.getRedis().getChannel()), message.capture());
+        assertThat(keys.getValue()).containsExactly("portfolio:property-cache:generation",
+                "portfolio:property-cache:generation:" + userId,
+                "portfolio:property-cache:generation:" + userId + ":" + propertyId);
+
+        byte[] body = message.getValue().getBytes(StandardCharsets.UTF_8);
+        reader.onMessage(new DefaultMessage(properties.getRedis().getChannel().getBytes(StandardCharsets.UTF_8), body),
+                null);
+        reader.getProperty(userId, propertyId, loader);
+        assertThat(loader.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should retry an invalidation that failed to reach Redis")
+    @SuppressWarnings("unchecked")
+    void shouldRetryFailedInvalidations() {
+        properties.getRedis().setEnabled(true);
+        properties.getRedis().setRetryInterval(Duration.ZERO);
+        PropertyCache cache = newCache();
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(1L);
+
+        cache.invalidate(userId, List.of(propertyId, otherPropertyId));
+        cache.retryPendingInvalidations();
+        cache.retryPendingInvalidations();
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), keys.capture(), any(), any(), any());
+        assertThat(keys.getAllValues().get(1)).containsExactlyInAnyOrder("portfolio:property-cache:generation",
+                "portfolio:property-cache:generation:" + userId,
+                "portfolio:property-cache:generation:" + userId + ":" + propertyId,
+                "portfolio:property-cache:generation:" + userId + ":" + otherPropertyId);
+    }
+
+    private PropertyCache newCache() {
+        return new PropertyCache(properties, redisTemplate, objectMapper, meterRegistry);
+    }
+
+    private static final class CountingLoader implements Supplier<PropertyResponse> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public PropertyResponse get() {
+            return PropertyResponse.builder().currentValue(BigDecimal.valueOf(calls.incrementAndGet())).build();
+        }
+    }
+}
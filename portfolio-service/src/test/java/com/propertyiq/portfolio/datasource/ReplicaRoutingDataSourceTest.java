@@ -0,0 +1,184 @@
+package com.propertyiq.portfolio.datasource;
+
+import com.propertyiq.portfolio.config.ReadReplicaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ReplicaRoutingDataSource routing;
+    private ReadYourWrites readYourWrites;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setUrls(List.of("jdbc:postgresql://replica/portfolio_db"));
+        readYourWrites = new ReadYourWrites(properties, redisTemplate);
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), readYourWrites,
+                properties.getMaxLag(), meterRegistry);
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource = proxy;
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        lenient().when(primary.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to an up-to-date replica and the rest to the primary")
+    void shouldRouteByTransactionReadOnlyFlag() throws SQLException {
+        replicaLag(0.2);
+        routing.checkLag();
+
+        runStatement(readOnlyTransaction);
+        runStatement(writeTransaction);
+
+        verify(replica, times(2)).getConnection();
+        verify(primary, times(1)).getConnection();
+        assertThat(reads("replica-1")).isEqualTo(1);
+        assertThat(meterRegistry.get("portfolio.datasource.replica.lag").tag("pool", "replica-1").gauge().value())
+                .isEqualTo(0.2);
+    }
+
+    @Test
+    @DisplayName("Should read from the primary while the only replica lags or can't be reached")
+    void shouldAvoidLaggingOrFailingReplica() throws SQLException {
+        replicaLag(30);
+        routing.checkLag();
+        runStatement(readOnlyTransaction);
+
+        replicaLag(0);
+        routing.checkLag();
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("timed out"));
+        runStatement(readOnlyTransaction);
+        runStatement(readOnlyTransaction);
+
+        assertThat(reads("primary")).isEqualTo(3);
+        assertThat(reads("replica-1")).isZero();
+        // Lag checks, then the one failed read that took the replica out until the next check
+        verify(replica, times(3)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should send a user's reads to the primary after their own write and tell other instances")
+    void shouldReadYourOwnWrites() throws SQLException {
+        replicaLag(0);
+        routing.checkLag();
+
+        try (ReadYourWrites.Binding ignored = readYourWrites.bind(userId)) {
+            runStatement(writeTransaction);
+            runStatement(readOnlyTransaction);
+        }
+        try (ReadYourWrites.Binding ignored = readYourWrites.bind(UUID.randomUUID())) {
+            runStatement(readOnlyTransaction);
+        }
+
+        assertThat(reads("primary")).isEqualTo(1);
+        assertThat(reads("replica-1")).isEqualTo(1);
+        verify(redisTemplate).convertAndSend(eq("portfolio:read-replicas:writes"), anyString());
+    }
+
+    @Test
+    @DisplayName("Should not record a write that rolled back")
+    void shouldIgnoreRolledBackWrites() throws SQLException {
+        replicaLag(0);
+        routing.checkLag();
+
+        try (ReadYourWrites.Binding ignored = readYourWrites.bind(userId)) {
+            writeTransaction.executeWithoutResult(status -> {
+                statement();
+                status.setRollbackOnly();
+            });
+            runStatement(readOnlyTransaction);
+        }
+
+        assertThat(reads("replica-1")).isEqualTo(1);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should hand out connections for other credentials from the primary")
+    void shouldUsePrimaryForExplicitCredentials() throws SQLException {
+        replicaLag(0);
+        routing.checkLag();
+        Connection connection = mock(Connection.class);
+        when(primary.getConnection("report", "secret")).thenReturn(connection);
+
+        assertThat(routing.getConnection("report", "secret")).isSameAs(connection);
+        verify(replica, times(1)).getConnection();
+    }
+
+    private void runStatement(TransactionTemplate transaction) {
+        transaction.executeWithoutResult(status -> statement());
+    }
+
+    private void statement() {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void replicaLag(double seconds) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        lenient().when(resultSet.next()).thenReturn(true);
+        lenient().when(resultSet.getObject(1, Double.class)).thenReturn(seconds);
+        when(replica.getConnection()).thenReturn(connection);
+    }
+
+    private double reads(String pool) {
+        return meterRegistry.get("portfolio.datasource.reads").tag("pool", pool).counter().count();
+    }
+}
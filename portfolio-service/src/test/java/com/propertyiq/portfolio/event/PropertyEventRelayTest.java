@@ -0,0 +1,96 @@
+package com.propertyiq.portfolio.event;
+
+import com.propertyiq.portfolio.config.OutboxProperties;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox.OutboxEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyEventRelayTest {
+
+    @Mock
+    private PropertyEventOutbox outbox;
+
+    @Mock
+    private PropertyEventPublisher publisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final OutboxProperties properties = new OutboxProperties();
+    private PropertyEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        relay = new PropertyEventRelay(outbox, publisher, transactionManager, properties);
+    }
+
+    @Test
+    @DisplayName("Should publish and delete full batches until the outbox is drained")
+    void shouldDrainOutboxInBatches() {
+        List<OutboxEntry> first = entries(1, 2);
+        List<OutboxEntry> second = entries(3);
+        when(outbox.tryLockRelay()).thenReturn(true);
+        when(outbox.nextBatch(2)).thenReturn(first).thenReturn(second);
+
+        relay.relay();
+
+        InOrder inOrder = inOrder(publisher, outbox);
+        inOrder.verify(publisher).publish(first);
+        inOrder.verify(outbox).delete(first);
+        inOrder.verify(publisher).publish(second);
+        inOrder.verify(outbox).delete(second);
+        verify(outbox, times(2)).nextBatch(2);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should keep a batch in the outbox when publishing fails")
+    void shouldKeepBatchWhenPublishFails() {
+        List<OutboxEntry> batch = entries(1, 2);
+        when(outbox.tryLockRelay()).thenReturn(true);
+        when(outbox.nextBatch(2)).thenReturn(batch);
+        doThrow(new RedisConnectionFailureException("down")).when(publisher).publish(batch);
+
+        relay.relay();
+        relay.relay();
+
+        verify(publisher, times(2)).publish(batch);
+        verify(outbox, never()).delete(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should leave the outbox alone while another instance holds the relay lock")
+    void shouldSkipWhenRelayLockIsHeld() {
+        when(outbox.tryLockRelay()).thenReturn(false);
+
+        relay.relay();
+
+        verify(outbox, never()).nextBatch(anyInt());
+        verifyNoInteractions(publisher);
+    }
+
+    private static List<OutboxEntry> entries(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> new OutboxEntry(id, UUID.randomUUID(), PropertyEventType.PROPERTY_UPDATED.name(),
+                        UUID.randomUUID(), UUID.randomUUID(), "{}"))
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.propertyiq.portfolio.fx;
+
+import com.propertyiq.portfolio.exception.ExchangeRateNotFoundException;
+import com.propertyiq.portfolio.model.Currency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRateTableTest {
+
+    private static final String RATES = """
+            # units of currency per euro
+            effective_date,currency,units_per_eur
+            2024-01-02,GBP,0.8
+            2024-01-02,USD,1.1
+            2024-07-01,USD,1.25
+            """;
+
+    @Test
+    @DisplayName("Should use the latest rates effective on or before the date and carry unchanged rates over")
+    void shouldLookUpEffectiveRates() throws IOException {
+        FxRateTable table = FxRateTable.parse(new StringReader(RATES));
+
+        assertThat(table.rate(Currency.EUR, Currency.USD, LocalDate.of(2024, 1, 2))).isEqualByComparingTo("1.1");
+        assertThat(table.rate(Currency.EUR, Currency.USD, LocalDate.of(2024, 6, 30))).isEqualByComparingTo("1.1");
+        assertThat(table.rate(Currency.EUR, Currency.USD, LocalDate.of(2024, 7, 1))).isEqualByComparingTo("1.25");
+        assertThat(table.rate(Currency.EUR, Currency.GBP, LocalDate.of(2025, 1, 1))).isEqualByComparingTo("0.8");
+        assertThat(table.rate(Currency.GBP, Currency.USD, LocalDate.of(2024, 8, 1))).isEqualByComparingTo("1.5625");
+        assertThat(table.rate(Currency.USD, Currency.USD, LocalDate.of(2024, 8, 1))).isEqualByComparingTo("1");
+        assertThat(table.conversionTo(Currency.USD, LocalDate.of(2024, 8, 1)).effectiveDate())
+                .isEqualTo(LocalDate.of(2024, 7, 1));
+        assertThatThrownBy(() -> table.rate(Currency.GBP, Currency.USD, LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(ExchangeRateNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should derive cross rates from the euro rates to 34 significant digits")
+    void shouldDeriveCrossRates() throws IOException {
+        FxRateTable table = FxRateTable.parse(new StringReader(RATES));
+
+        BigDecimal usdToGbp = table.rate(Currency.USD, Currency.GBP, LocalDate.of(2024, 1, 2));
+
+        assertThat(usdToGbp.precision()).isEqualTo(34);
+        assertThat(usdToGbp).isEqualByComparingTo("0.7272727272727272727272727272727273");
+    }
+
+    @Test
+    @DisplayName("Should round each conversion once to minor units, half to even")
+    void shouldConvertAndRoundHalfEven() throws IOException {
+        FxConversion toUsd = FxRateTable.parse(new StringReader(RATES)).conversionTo(Currency.USD,
+                LocalDate.of(2024, 3, 1));
+
+        assertThat(toUsd.convert(new BigDecimal("0.05"), Currency.EUR)).isEqualByComparingTo("0.06");
+        assertThat(toUsd.convert(new BigDecimal("0.15"), Currency.EUR)).isEqualByComparingTo("0.16");
+        assertThat(toUsd.convert(new BigDecimal("0.25"), Currency.EUR)).isEqualByComparingTo("0.28");
+        assertThat(toUsd.convert(new BigDecimal("12.345"), Currency.USD)).isEqualByComparingTo("12.345");
+        assertThat(toUsd.convertEach(List.of(new Money(new BigDecimal("100.00"), Currency.GBP),
+                new Money(new BigDecimal("100.00"), Currency.EUR))))
+                .extracting(BigDecimal::toPlainString)
+                .containsExactly("137.50", "110.00");
+    }
+
+    @Test
+    @DisplayName("Should total amounts exactly per currency before converting, rounding once")
+    void shouldTotalBeforeRounding() throws IOException {
+        FxConversion toUsd = FxRateTable.parse(new StringReader(RATES)).conversionTo(Currency.USD,
+                LocalDate.of(2024, 3, 1));
+        List<Money> amounts = List.of(
+                new Money(new BigDecimal("0.01"), Currency.GBP),
+                new Money(new BigDecimal("0.01"), Currency.GBP),
+                new Money(new BigDecimal("0.01"), Currency.GBP),
+                new Money(new BigDecimal("10.00"), Currency.USD));
+
+        // Rounding each 0.01375 first would give 10.03
+        assertThat(toUsd.total(amounts).toPlainString()).isEqualTo("10.04");
+        assertThat(toUsd.total(List.of()).toPlainString()).isEqualTo("0.00");
+    }
+
+    @Test
+    @DisplayName("Should reject a rates file with unknown currencies or a missing starting rate")
+    void shouldRejectInvalidRates() {
+        assertThatThrownBy(() -> FxRateTable.parse(new StringReader(RATES + "2024-08-01,JPY,160\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 6: unknown currency 'JPY'");
+        assertThatThrownBy(() -> FxRateTable.parse(new StringReader("""
+                effective_date,currency,units_per_eur
+                2024-01-02,USD,1.1
+                """)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No rate for GBP on or before 2024-01-02");
+    }
+}
@@ -0,0 +1,273 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.cache.PropertyCache;
+import com.propertyiq.portfolio.config.ValuationFeedProperties;
+import com.propertyiq.portfolio.dto.BulkValuationResponse;
+import com.propertyiq.portfolio.dto.BulkValuationResponse.SkipReason;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import com.propertyiq.portfolio.event.PropertyEvent.ValuationChange;
+import com.propertyiq.portfolio.event.PropertyEventType;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.model.ValuationSource;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.AppliedValuation;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.CurrentValuation;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.ValuationUpdate;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkValuationServiceTest {
+
+    @Mock
+    private PropertyValuationRepository valuationRepository;
+
+    @Mock
+    private ValuationHistoryRepository valuationHistoryRepository;
+
+    @Mock
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+
+    @Mock
+    private PropertyEventOutbox propertyEventOutbox;
+
+    @Mock
+    private PropertyCache propertyCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ValuationFeedProperties properties = new ValuationFeedProperties();
+    private final UUID userId = UUID.randomUUID();
+    private final List<List<ValuationUpdate>> batches = new ArrayList<>();
+    private BulkValuationService valuationService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        valuationService = new BulkValuationService(valuationRepository, valuationHistoryRepository,
+                portfolioSummaryRepository, propertyEventOutbox, propertyCache, transactionManager, Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, properties);
+    }
+
+    @Test
+    @DisplayName("Should apply NDJSON records in batches with defaults for source and date")
+    void shouldApplyNdjsonInBatches() throws Exception {
+        applyAllExcept(Set.of());
+        UUID first = UUID.randomUUID();
+        String feed = record(first, "510000", "\"source\": \"APPRAISAL\", \"date\": \"2024-05-01\"") + "\n"
+                + record(UUID.randomUUID(), "320000", null) + "\n"
+                + record(UUID.randomUUID(), "275000", null) + "\n";
+
+        BulkValuationResponse report = valuationService.applyValuations(userId, stream(feed));
+
+        assertThat(report.getTotalRecords()).isEqualTo(3);
+        assertThat(report.getUpdated()).isEqualTo(3);
+        assertThat(report.getSkipped()).isZero();
+        assertThat(batches).extracting(List::size).containsExactly(2, 1);
+        ValuationUpdate explicit = batches.get(0).get(0);
+        assertThat(explicit.propertyId()).isEqualTo(first);
+        assertThat(explicit.source()).isEqualTo(ValuationSource.APPRAISAL);
+        assertThat(explicit.valuationDate()).isEqualTo(LocalDate.of(2024, 5, 1));
+        ValuationUpdate defaulted = batches.get(0).get(1);
+        assertThat(defaulted.source()).isEqualTo(ValuationSource.API);
+        assertThat(defaulted.valuationDate()).isEqualTo(LocalDate.now());
+        verify(valuationRepository, never()).findCurrentValuations(any(), any());
+        verify(propertyCache, times(2)).invalidate(eq(userId), anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should add the change in value of each applied record to the portfolio summary")
+    void shouldRecordRevaluationsInSummary() throws Exception {
+        properties.setBatchSize(10);
+        UUID missing = UUID.randomUUID();
+        applyAllExcept(Set.of(missing));
+        when(valuationRepository.findCurrentValuations(eq(userId), any())).thenReturn(Map.of());
+        String feed = record(UUID.randomUUID(), "120000", null) + "\n"
+                + record(UUID.randomUUID(), "90000", null) + "\n"
+                + record(missing, "500000", null);
+
+        valuationService.applyValuations(userId, stream(feed));
+
+        ArgumentCaptor<List<Bucket>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(portfolioSummaryRepository).apply(eq(userId), deltas.capture());
+        assertThat(deltas.getValue())
+                .extracting(Bucket::properties, bucket -> bucket.currentValue().intValue())
+                .containsExactly(tuple(0L, 20000), tuple(0L, -10000));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should write a valuation event for each applied record in the same transaction")
+    void shouldWriteValuationEvents() throws Exception {
+        UUID applied = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        applyAllExcept(Set.of(missing));
+        when(valuationRepository.findCurrentValuations(eq(userId), any())).thenReturn(Map.of());
+        String feed = record(applied, "120000", "\"source\": \"APPRAISAL\", \"date\": \"2024-05-01\"") + "\n"
+                + record(missing, "500000", null);
+
+        valuationService.applyValuations(userId, stream(feed));
+
+        ArgumentCaptor<List<PropertyEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(propertyEventOutbox).append(events.capture());
+        assertThat(events.getValue()).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo(PropertyEventType.VALUATION_UPDATED);
+            assertThat(event.propertyId()).isEqualTo(applied);
+            assertThat(event.propertyVersion()).isEqualTo(7L);
+            assertThat(event.data()).isEqualTo(new ValuationChange(new BigDecimal("100000"),
+                    new BigDecimal("120000"), Currency.GBP, ValuationSource.APPRAISAL, LocalDate.of(2024, 5, 1)));
+        });
+    }
+
+    @Test
+    @DisplayName("Should accept a JSON array as well as NDJSON")
+    void shouldAcceptJsonArray() throws Exception {
+        applyAllExcept(Set.of());
+        String feed = "[" + record(UUID.randomUUID(), "100000", null) + ", "
+                + record(UUID.randomUUID(), "200000", null) + "]";
+
+        BulkValuationResponse report = valuationService.applyValuations(userId, stream(feed));
+
+        assertThat(report.getUpdated()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should report why each record that was not applied was skipped")
+    void shouldReportSkippedRecords() throws Exception {
+        UUID missing = UUID.randomUUID();
+        UUID sold = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        UUID beforePurchase = UUID.randomUUID();
+        LocalDate purchaseDate = LocalDate.of(2015, 3, 1);
+        applyAllExcept(Set.of(missing, sold, stale, beforePurchase));
+        when(valuationRepository.findCurrentValuations(eq(userId), any())).thenReturn(Map.of(
+                sold, new CurrentValuation(sold, PropertyStatus.SOLD, purchaseDate, null),
+                stale, new CurrentValuation(stale, PropertyStatus.ACTIVE, purchaseDate, LocalDate.of(2024, 6, 1)),
+                beforePurchase, new CurrentValuation(beforePurchase, PropertyStatus.ACTIVE, purchaseDate, null)));
+        String feed = String.join("\n",
+                record(missing, "100000", null),
+                record(sold, "100000", null),
+                record(UUID.randomUUID(), "-5", null),
+                record(stale, "100000", "\"date\": \"2024-01-01\""),
+                record(beforePurchase, "100000", "\"date\": \"0001-01-01\""),
+                record(UUID.randomUUID(), "100000", null));
+
+        BulkValuationResponse report = valuationService.applyValuations(userId, stream(feed));
+
+        assertThat(report.getTotalRecords()).isEqualTo(6);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getSkipped()).isEqualTo(5);
+        assertThat(report.getSkippedValuations())
+                .extracting(BulkValuationResponse.SkippedValuation::getRow, BulkValuationResponse.SkippedValuation::getReason)
+                .containsExactly(
+                        tuple(1, SkipReason.NOT_FOUND),
+                        tuple(2, SkipReason.NOT_ACTIVE),
+                        tuple(3, SkipReason.INVALID),
+                        tuple(4, SkipReason.STALE),
+                        tuple(5, SkipReason.INVALID));
+        assertThat(report.getSkippedValuations().get(2).getMessage()).isEqualTo("newValue: New value must be positive");
+        assertThat(report.getSkippedValuations().get(4).getMessage())
+                .isEqualTo("date: Valuation date must not be before the purchase date 2015-03-01");
+        ArgumentCaptor<List<ValuationUpdate>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(valuationHistoryRepository, times(3)).append(eq(userId), recorded.capture());
+        assertThat(recorded.getAllValues()).flatExtracting(updates -> updates)
+                .extracting(ValuationUpdate::propertyId)
+                .hasSize(1)
+                .doesNotContain(missing, sold, stale, beforePurchase);
+    }
+
+    @Test
+    @DisplayName("Should keep only the last record for a property within a batch")
+    void shouldSupersedeEarlierRecordForSameProperty() throws Exception {
+        properties.setBatchSize(10);
+        applyAllExcept(Set.of());
+        UUID propertyId = UUID.randomUUID();
+        String feed = record(propertyId, "100000", null) + "\n" + record(propertyId, "120000", null);
+
+        BulkValuationResponse report = valuationService.applyValuations(userId, stream(feed));
+
+        assertThat(report.getTotalRecords()).isEqualTo(2);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getSkippedValuations()).singleElement()
+                .satisfies(skipped -> {
+                    assertThat(skipped.getRow()).isEqualTo(1);
+                    assertThat(skipped.getReason()).isEqualTo(SkipReason.SUPERSEDED);
+                });
+        assertThat(batches.get(0)).singleElement()
+                .satisfies(update -> assertThat(update.newValue()).isEqualByComparingTo("120000"));
+    }
+
+    @Test
+    @DisplayName("Should apply records read before malformed JSON and report where the feed stopped")
+    void shouldStopAtMalformedJson() throws Exception {
+        applyAllExcept(Set.of());
+        String feed = record(UUID.randomUUID(), "100000", null) + "\n{\"propertyId\": ";
+
+        BulkValuationResponse report = valuationService.applyValuations(userId, stream(feed));
+
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getSkippedValuations()).singleElement()
+                .satisfies(skipped -> {
+                    assertThat(skipped.getRow()).isEqualTo(2);
+                    assertThat(skipped.getReason()).isEqualTo(SkipReason.INVALID);
+                });
+    }
+
+    private void applyAllExcept(Set<UUID> notApplied) {
+        when(valuationRepository.applyValuations(eq(userId), anyList())).thenAnswer(invocation -> {
+            List<ValuationUpdate> updates = invocation.getArgument(1);
+            batches.add(List.copyOf(updates));
+            return updates.stream()
+                    .filter(update -> !notApplied.contains(update.propertyId()))
+                    .map(update -> new AppliedValuation(update.propertyId(), Country.UK, Currency.GBP,
+                            new BigDecimal("100000"), update.newValue(), 7L))
+                    .toList();
+        });
+    }
+
+    private static String record(UUID propertyId, String newValue, String extra) {
+        return "{\"propertyId\": \"" + propertyId + "\", \"newValue\": " + newValue
+                + (extra != null ? ", " + extra : "") + "}";
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
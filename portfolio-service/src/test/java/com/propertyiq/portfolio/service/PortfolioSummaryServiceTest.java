@@ -0,0 +1,142 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PortfolioSummaryResponse;
+import com.propertyiq.portfolio.dto.PortfolioSummaryResponse.CurrencyTotals;
+import com.propertyiq.portfolio.fx.FxRateProvider;
+import com.propertyiq.portfolio.fx.FxRateTable;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioSummaryServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Mock
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+
+    @Mock
+    private FxRateProvider fxRateProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PortfolioSummaryService portfolioSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioSummaryService = new PortfolioSummaryService(portfolioSummaryRepository, fxRateProvider,
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should total the summary buckets per currency and count by status, country and currency")
+    void shouldAssembleSummaryFromBuckets() {
+        when(portfolioSummaryRepository.findByUserId(userId)).thenReturn(List.of(
+                bucket(PropertyStatus.ACTIVE, Country.UK, Currency.GBP, 2, "400000", "520000", "0"),
+                bucket(PropertyStatus.SOLD, Country.UK, Currency.GBP, 1, "150000", "150000", "190000"),
+                bucket(PropertyStatus.ACTIVE, Country.ITALY, Currency.EUR, 1, "300000", "270000", "0"),
+                bucket(PropertyStatus.ARCHIVED, Country.USA, Currency.USD, 1, "800000", "900000", "0")));
+
+        PortfolioSummaryResponse summary = portfolioSummaryService.getSummary(userId);
+
+        assertThat(summary.getTotalProperties()).isEqualTo(5);
+        assertThat(summary.getByStatus()).isEqualTo(Map.of(
+                PropertyStatus.ACTIVE, 3L, PropertyStatus.SOLD, 1L, PropertyStatus.ARCHIVED, 1L));
+        assertThat(summary.getByCountry()).containsEntry(Country.UK, 3L).containsEntry(Country.ITALY, 1L);
+        assertThat(summary.getByCurrency()).containsEntry(Currency.GBP, 3L).containsEntry(Currency.USD, 1L);
+        assertThat(summary.getTotals())
+                .extracting(CurrencyTotals::getCurrency, t -> t.getPurchaseCost().intValue(),
+                        t -> t.getCurrentValue().intValue(), t -> t.getUnrealisedGain().intValue(),
+                        t -> t.getRealisedGain().intValue())
+                .containsExactly(
+                        tuple(Currency.GBP, 400000, 520000, 120000, 40000),
+                        tuple(Currency.USD, 0, 0, 0, 0),
+                        tuple(Currency.EUR, 300000, 270000, -30000, 0));
+    }
+
+    @Test
+    @DisplayName("Should convert the per-currency totals into the reporting currency")
+    void shouldConvertTotalsIntoReportingCurrency() throws Exception {
+        FxRateTable rates = FxRateTable.parse(new StringReader("""
+                effective_date,currency,units_per_eur
+                2024-01-02,GBP,0.8
+                2024-01-02,USD,1.1
+                """));
+        LocalDate ratesDate = LocalDate.of(2024, 5, 1);
+        when(fxRateProvider.conversionTo(Currency.GBP, ratesDate))
+                .thenReturn(rates.conversionTo(Currency.GBP, ratesDate));
+        when(portfolioSummaryRepository.findByUserId(userId)).thenReturn(List.of(
+                bucket(PropertyStatus.ACTIVE, Country.UK, Currency.GBP, 1, "400000", "520000", "0"),
+                bucket(PropertyStatus.ACTIVE, Country.ITALY, Currency.EUR, 1, "300000", "270000", "0"),
+                bucket(PropertyStatus.SOLD, Country.USA, Currency.USD, 1, "110000", "110000", "220000")));
+
+        PortfolioSummaryResponse summary = portfolioSummaryService.getSummary(userId, Currency.GBP, ratesDate);
+
+        CurrencyTotals reporting = summary.getReportingTotals();
+        assertThat(reporting.getCurrency()).isEqualTo(Currency.GBP);
+        assertThat(reporting.getPurchaseCost()).isEqualByComparingTo("640000");
+        assertThat(reporting.getCurrentValue()).isEqualByComparingTo("736000");
+        assertThat(reporting.getUnrealisedGain()).isEqualByComparingTo("96000");
+        assertThat(reporting.getRealisedGain()).isEqualByComparingTo("80000");
+        assertThat(summary.getRatesEffectiveDate()).isEqualTo(LocalDate.of(2024, 1, 2));
+        assertThat(summary.getTotals()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should return an empty summary for a user without properties")
+    void shouldReturnEmptySummary() {
+        when(portfolioSummaryRepository.findByUserId(userId)).thenReturn(List.of());
+
+        PortfolioSummaryResponse summary = portfolioSummaryService.getSummary(userId);
+
+        assertThat(summary.getTotalProperties()).isZero();
+        assertThat(summary.getByStatus()).isEmpty();
+        assertThat(summary.getTotals()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild every user's summary and carry on past failures")
+    void shouldRepairAllSummaries() {
+        UUID drifted = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+        when(portfolioSummaryRepository.findUserIds()).thenReturn(List.of(userId, drifted, failing));
+        when(portfolioSummaryRepository.rebuild(userId)).thenReturn(false);
+        when(portfolioSummaryRepository.rebuild(drifted)).thenReturn(true);
+        when(portfolioSummaryRepository.rebuild(failing)).thenThrow(new QueryTimeoutException("timeout"));
+
+        portfolioSummaryService.repairAll();
+
+        verify(portfolioSummaryRepository).rebuild(userId);
+        verify(portfolioSummaryRepository).rebuild(drifted);
+        verify(portfolioSummaryRepository).rebuild(failing);
+    }
+
+    private static Bucket bucket(PropertyStatus status, Country country, Currency currency, long properties,
+                                 String purchasePrice, String currentValue, String soldPrice) {
+        return new Bucket(status, country, currency, properties, new BigDecimal(purchasePrice),
+                new BigDecimal(currentValue), new BigDecimal(soldPrice));
+    }
+}
@@ -0,0 +1,180 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.AddressRequest;
+import com.propertyiq.portfolio.dto.CreatePropertyRequest;
+import com.propertyiq.portfolio.dto.PropertyResponse;
+import com.propertyiq.portfolio.dto.UpdatePropertyRequest;
+import com.propertyiq.portfolio.dto.UpdateValuationRequest;
+import com.propertyiq.portfolio.exception.PropertyUpdateConflictException;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.ValuationSource;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a few properties with concurrent revaluations (single and through the bulk feed) and
+ * detail edits, then checks that every committed write survived. Needs the PostgreSQL database
+ * from docker-compose in {@code DATABASE_URL}, {@code DATABASE_USERNAME} and
+ * {@code DATABASE_PASSWORD}; skipped without it.
+ */
+@SpringBootTest(properties = {"portfolio.cache.redis.enabled=false", "portfolio.outbox.relay-enabled=false",
+        "spring.jpa.show-sql=false"})
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class PropertyConcurrencyTest {
+
+    private static final int PROPERTIES = 4;
+    private static final int WRITES_PER_THREAD = 100;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private BulkValuationService bulkValuationService;
+
+    @Autowired
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM portfolio_db.properties WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM portfolio_db.portfolio_summaries WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM portfolio_db.property_events WHERE user_id = ?", userId);
+    }
+
+    @Test
+    @DisplayName("Should keep every committed revaluation and edit under concurrent writes to the same rows")
+    void shouldNotLoseConcurrentUpdates() throws Exception {
+        List<UUID> propertyIds = new ArrayList<>();
+        for (int i = 0; i < PROPERTIES; i++) {
+            propertyIds.add(propertyService.createProperty(userId, newProperty(i)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(PROPERTIES * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<BigDecimal>> lastValues = new ArrayList<>();
+        List<Future<Integer>> lastEdits = new ArrayList<>();
+        for (UUID propertyId : propertyIds) {
+            lastValues.add(executor.submit(revalue(propertyId, start, conflicts)));
+            lastEdits.add(executor.submit(edit(propertyId, start, conflicts)));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+
+        for (int i = 0; i < PROPERTIES; i++) {
+            PropertyResponse property = propertyService.getProperty(userId, propertyIds.get(i));
+            assertThat(property.getCurrentValue()).isEqualByComparingTo(lastValues.get(i).get());
+            assertThat(property.getBedrooms()).isEqualTo(lastEdits.get(i).get());
+            assertThat(property.getDescription()).isEqualTo("Edit " + lastEdits.get(i).get());
+        }
+        Boolean drifted = new TransactionTemplate(transactionManager)
+                .execute(status -> portfolioSummaryRepository.rebuild(userId));
+        assertThat(drifted).isFalse();
+        assertThat(conflicts.get()).isLessThan(PROPERTIES * WRITES_PER_THREAD / 10);
+    }
+
+    /**
+     * Increasing values, alternating between the single-property path and the bulk feed.
+     *
+     * @return the last value that was committed
+     */
+    private Callable<BigDecimal> revalue(UUID propertyId, CountDownLatch start, AtomicInteger conflicts) {
+        return () -> {
+            start.await();
+            BigDecimal committed = null;
+            for (int i = 1; i <= WRITES_PER_THREAD; i++) {
+                BigDecimal value = BigDecimal.valueOf(300_000L + i);
+                if (i % 2 == 0) {
+                    String feed = "{\"propertyId\":\"" + propertyId + "\",\"newValue\":" + value + "}\n";
+                    bulkValuationService.applyValuations(userId,
+                            new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+                    committed = value;
+                } else {
+                    try {
+                        propertyService.updateValuation(userId, propertyId, UpdateValuationRequest.builder()
+                                .newValue(value)
+                                .source(ValuationSource.API)
+                                .build(), null);
+                        committed = value;
+                    } catch (PropertyUpdateConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }
+            return committed;
+        };
+    }
+
+    /**
+     * Sequential edits to fields the revaluations don't touch.
+     *
+     * @return the number of the last edit that was committed
+     */
+    private Callable<Integer> edit(UUID propertyId, CountDownLatch start, AtomicInteger conflicts) {
+        return () -> {
+            start.await();
+            Integer committed = null;
+            for (int i = 1; i <= WRITES_PER_THREAD; i++) {
+                try {
+                    propertyService.updateProperty(userId, propertyId, UpdatePropertyRequest.builder()
+                            .bedrooms(i)
+                            .description("Edit " + i)
+                            .build(), null);
+                    committed = i;
+                } catch (PropertyUpdateConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+            return committed;
+        };
+    }
+
+    private static CreatePropertyRequest newProperty(int i) {
+        return CreatePropertyRequest.builder()
+                .address(AddressRequest.builder()
+                        .line1(i + " Contention Lane")
+                        .city("London")
+                        .postalCode("E1 6AN")
+                        .country(Country.UK)
+                        .build())
+                .purchasePrice(new BigDecimal("250000"))
+                .purchaseDate(LocalDate.of(2020, 1, 1))
+                .currency(Currency.GBP)
+                .build();
+    }
+}
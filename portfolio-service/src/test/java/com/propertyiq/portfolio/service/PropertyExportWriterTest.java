@@ -0,0 +1,82 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.dto.ExportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    @DisplayName("Should write one JSON object per line with a nested address")
+    void shouldWriteNdjson() throws IOException {
+        PropertyExportWriter writer = PropertyExportWriter.create(ExportFormat.NDJSON, output, objectMapper);
+        writer.writeHeader();
+        writer.write(row("123 Main St", null));
+        writer.write(row("9 High St", "Flat 2"));
+        writer.flush();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("address").get("line1").asText()).isEqualTo("123 Main St");
+        assertThat(first.get("address").get("line2").isNull()).isTrue();
+        assertThat(first.get("purchasePrice").decimalValue()).isEqualByComparingTo("500000.00");
+        assertThat(first.get("purchaseDate").asText()).isEqualTo("2020-01-15");
+        assertThat(first.get("bedrooms").asInt()).isEqualTo(3);
+        assertThat(first.get("description").asText()).isEqualTo("Corner plot, south-facing garden");
+        assertThat(first.get("soldDate").isNull()).isTrue();
+        assertThat(objectMapper.readTree(lines[1]).get("address").get("line2").asText()).isEqualTo("Flat 2");
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header followed by one line per property")
+    void shouldWriteCsv() throws IOException {
+        PropertyExportWriter writer = PropertyExportWriter.create(ExportFormat.CSV, output, objectMapper);
+        writer.writeHeader();
+        writer.write(row("123 Main St", null));
+        writer.flush();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,status,address_line_1,address_line_2,city");
+        assertThat(lines[0].split(",")).hasSize(26);
+        assertThat(lines[0]).contains(",year_built,description,currency,");
+        assertThat(lines[1]).contains(",ACTIVE,123 Main St,,New York,NY,10001,USA,");
+        assertThat(lines[1]).contains(",1995,\"Corner plot, south-facing garden\",USD,");
+        assertThat(lines[1].replace("\"Corner plot, south-facing garden\"", "").split(",", -1)).hasSize(26);
+    }
+
+    @Test
+    @DisplayName("Should quote CSV values containing separators and neutralise formulas")
+    void shouldEscapeCsvValues() throws IOException {
+        PropertyExportWriter writer = PropertyExportWriter.create(ExportFormat.CSV, output, objectMapper);
+        writer.write(row("Unit 4, \"The Mill\"", "=HYPERLINK(\"x\")"));
+        writer.flush();
+
+        String line = output.toString(StandardCharsets.UTF_8);
+        assertThat(line).contains(",\"Unit 4, \"\"The Mill\"\"\",\"'=HYPERLINK(\"\"x\"\")\",");
+    }
+
+    private static PropertyExportRow row(String line1, String line2) {
+        return new PropertyExportRow(UUID.randomUUID(), "ACTIVE", line1, line2, "New York", "NY", "10001", "USA",
+                null, null, "House", 3, 2, 1800, 1995,
+                "Corner plot, south-facing garden", "USD", new BigDecimal("500000.00"), LocalDate.of(2020, 1, 15),
+                new BigDecimal("550000.00"), LocalDate.of(2024, 6, 1), "MANUAL", null, null,
+                LocalDateTime.of(2020, 1, 20, 10, 0), LocalDateTime.of(2024, 6, 1, 9, 30));
+    }
+}
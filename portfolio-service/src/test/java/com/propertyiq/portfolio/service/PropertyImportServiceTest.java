@@ -0,0 +1,263 @@
+package com.propertyiq.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.cache.PropertyCache;
+import com.propertyiq.portfolio.config.PropertyImportProperties;
+import com.propertyiq.portfolio.dto.PropertyImportResponse;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import com.propertyiq.portfolio.event.PropertyEventType;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.model.Country;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.model.Property;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
+import com.propertyiq.portfolio.repository.PropertyRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyImportServiceTest {
+
+    private static final String VALID_JSON_ROW = """
+            {"address": {"line1": "%s", "city": "London", "postalCode": "SW1A 1AA", "country": "UK"},
+             "purchasePrice": 450000, "purchaseDate": "2021-03-01", "currency": "GBP"}""";
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+
+    @Mock
+    private PropertyEventOutbox propertyEventOutbox;
+
+    @Mock
+    private PropertyCache propertyCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final PropertyImportProperties properties = new PropertyImportProperties();
+    private final UUID userId = UUID.randomUUID();
+    private PropertyImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        importService = new PropertyImportService(propertyRepository, portfolioSummaryRepository, propertyEventOutbox,
+                propertyCache, transactionManager, Validation.buildDefaultValidatorFactory().getValidator(), objectMapper,
+                properties);
+    }
+
+    @Test
+    @DisplayName("Should insert valid JSON rows in batches and report invalid ones")
+    void shouldImportJsonInBatches() throws Exception {
+        List<List<Property>> batches = captureBatches();
+        String json = "[" + String.join(",",
+                VALID_JSON_ROW.formatted("1 High St"),
+                "{\"address\": {\"line1\": \"2 High St\", \"city\": \"London\", \"postalCode\": \"E1\", \"country\": \"UK\"},"
+                        + " \"purchaseDate\": \"2021-03-01\", \"currency\": \"GBP\"}",
+                VALID_JSON_ROW.formatted("3 High St"),
+                VALID_JSON_ROW.formatted("4 High St"),
+                VALID_JSON_ROW.formatted("5 High St")) + "]";
+
+        PropertyImportResponse report = importService.importJson(userId, stream(json));
+
+        assertThat(report.getTotalRows()).isEqualTo(5);
+        assertThat(report.getImportedRows()).isEqualTo(4);
+        assertThat(report.getFailedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessages()).containsExactly("purchasePrice: Purchase price is required");
+        });
+        assertThat(batches).extracting(List::size).containsExactly(2, 2);
+        assertThat(batches.get(0).get(0).getUserId()).isEqualTo(userId);
+        assertThat(batches.get(0).get(0).getCurrentValue()).isEqualByComparingTo("450000");
+        verify(portfolioSummaryRepository, times(2)).apply(eq(userId), argThat(deltas -> deltas.size() == 2));
+        verify(propertyEventOutbox, times(2)).append(argThat(events -> events.size() == 2
+                && events.stream().allMatch(event -> event.type() == PropertyEventType.PROPERTY_CREATED)));
+        verify(propertyCache, times(2)).invalidate(userId, List.of());
+    }
+
+    @Test
+    @DisplayName("Should report rows with unconvertible JSON values and keep going")
+    void shouldReportUnconvertibleJsonValues() throws Exception {
+        captureBatches();
+        String json = "[" + VALID_JSON_ROW.formatted("1 High St").replace("\"GBP\"", "\"XYZ\"") + ", 42, "
+                + VALID_JSON_ROW.formatted("3 High St") + "]";
+
+        PropertyImportResponse report = importService.importJson(userId, stream(json));
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(PropertyImportResponse.RowError::getRow).containsExactly(1, 2);
+        assertThat(report.getErrors().get(1).getMessages()).containsExactly("Expected a JSON object");
+    }
+
+    @Test
+    @DisplayName("Should reject JSON that is not an array")
+    void shouldRejectJsonThatIsNotAnArray() {
+        assertThatThrownBy(() -> importService.importJson(userId, stream(VALID_JSON_ROW.formatted("1 High St"))))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(propertyRepository);
+    }
+
+    @Test
+    @DisplayName("Should map CSV columns by header name, including quoted fields")
+    void shouldImportCsv() throws Exception {
+        List<List<Property>> batches = captureBatches();
+        String csv = "id,address_line_1,city,postal_code,country,purchase_price,purchase_date,currency,bedrooms\r\n"
+                + "x,\"Flat 2, \"\"The Mill\"\"\",Leeds,LS1 4DY,UK,210000.50,2019-07-01,GBP,2\r\n"
+                + "\r\n"
+                + "x,\"9 Canal St\nRear\",Leeds,LS1 4DY,uk,180000,2020-01-01,XYZ,two\r\n";
+
+        PropertyImportResponse report = importService.importCsv(userId, stream(csv));
+
+        assertThat(report.getTotalRows()).isEqualTo(2);
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessages()).containsExactly(
+                    "currency: invalid value 'XYZ'", "bedrooms: invalid value 'two'");
+        });
+        Property imported = batches.get(0).get(0);
+        assertThat(imported.getAddress().getLine1()).isEqualTo("Flat 2, \"The Mill\"");
+        assertThat(imported.getAddress().getCountry()).isEqualTo(Country.UK);
+        assertThat(imported.getCurrency()).isEqualTo(Currency.GBP);
+        assertThat(imported.getPurchasePrice()).isEqualByComparingTo(new BigDecimal("210000.50"));
+        assertThat(imported.getBedrooms()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV header without the required columns")
+    void shouldRejectCsvWithoutRequiredColumns() {
+        assertThatThrownBy(() -> importService.importCsv(userId, stream("address_line_1,city\r\n1 High St,Leeds\r\n")))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("country")
+                .hasMessageContaining("purchase_price");
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch row by row and report only the failing rows")
+    void shouldRetryFailedBatchRowByRow() throws Exception {
+        when(propertyRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("batch failed"));
+        when(propertyRepository.save(any(Property.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(propertyRepository.save(argThat(p -> p != null && "2 High St".equals(p.getAddress().getLine1()))))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        String json = "[" + VALID_JSON_ROW.formatted("1 High St") + "," + VALID_JSON_ROW.formatted("2 High St") + "]";
+
+        PropertyImportResponse report = importService.importJson(userId, stream(json));
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getFailedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessages()).containsExactly("Could not be saved: value too long");
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should persist retried rows afresh although the failed batch left them versioned")
+    void shouldPersistRetriedRowsThatTheFailedBatchVersioned() throws Exception {
+        // Like a flush failure: persist has already assigned each row an id and version 0
+        when(propertyRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            for (Property property : (List<Property>) invocation.getArgument(0)) {
+                property.setId(UUID.randomUUID());
+                property.setVersion(0L);
+            }
+            throw new DataIntegrityViolationException("batch failed");
+        });
+        List<Property> saved = new ArrayList<>();
+        when(propertyRepository.save(any(Property.class))).thenAnswer(invocation -> {
+            Property property = invocation.getArgument(0);
+            if ("2 High St".equals(property.getAddress().getLine1())) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            Property result = jpaSave(property);
+            saved.add(result);
+            return result;
+        });
+        String json = "[" + VALID_JSON_ROW.formatted("1 High St") + "," + VALID_JSON_ROW.formatted("2 High St") + "]";
+
+        PropertyImportResponse report = importService.importJson(userId, stream(json));
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getFailedRows()).isEqualTo(1);
+        ArgumentCaptor<List<PropertyEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(propertyEventOutbox).append(events.capture());
+        assertThat(events.getValue()).singleElement()
+                .satisfies(event -> assertThat(event.propertyId()).isNotNull().isEqualTo(saved.get(0).getId()));
+    }
+
+    @Test
+    @DisplayName("Should count every failed row but list at most the configured number of errors")
+    void shouldCapReportedErrors() throws Exception {
+        properties.setMaxReportedErrors(1);
+
+        PropertyImportResponse report = importService.importJson(userId, stream("[1, 2, 3]"));
+
+        assertThat(report.getFailedRows()).isEqualTo(3);
+        assertThat(report.getErrors()).hasSize(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Property>> captureBatches() {
+        List<List<Property>> batches = new ArrayList<>();
+        ArgumentCaptor<List<Property>> captor = ArgumentCaptor.forClass(List.class);
+        when(propertyRepository.saveAll(captor.capture())).thenAnswer(invocation -> {
+            List<Property> batch = invocation.getArgument(0);
+            batches.add(List.copyOf(batch));
+            return batch;
+        });
+        return batches;
+    }
+
+    /**
+     * What {@code SimpleJpaRepository.save} does with a versioned entity: persist it when its version is
+     * {@code null}, otherwise merge it into a managed copy and return that copy.
+     */
+    private static Property jpaSave(Property property) {
+        if (property.getVersion() == null) {
+            property.setId(UUID.randomUUID());
+            property.setVersion(0L);
+            return property;
+        }
+        Property copy = new Property();
+        copy.setId(property.getId() != null ? property.getId() : UUID.randomUUID());
+        copy.setUserId(property.getUserId());
+        copy.setAddress(property.getAddress());
+        copy.setVersion(property.getVersion());
+        return copy;
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.PropertySearchCriteria;
+import com.propertyiq.portfolio.dto.PropertySearchResponse;
+import com.propertyiq.portfolio.dto.PropertySearchResult;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.model.PropertyStatus;
+import com.propertyiq.portfolio.repository.PropertySearchRepository;
+import com.propertyiq.portfolio.repository.PropertySearchRepository.Circle;
+import com.propertyiq.portfolio.repository.PropertySearchRepository.SearchQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertySearchServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Mock
+    private PropertySearchRepository searchRepository;
+
+    @InjectMocks
+    private PropertySearchService searchService;
+
+    @Test
+    @DisplayName("Should normalise the postcode, turn the text into a prefix query and default the radius")
+    void shouldBuildQueryFromCriteria() {
+        when(searchRepository.search(any(), anyInt())).thenReturn(List.of());
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .postcode(" sw1a 2 ")
+                .text("Garden  flat, garden!")
+                .latitude(51.5)
+                .longitude(-0.12)
+                .status(PropertyStatus.ACTIVE)
+                .build();
+
+        searchService.search(userId, criteria, 20);
+
+        verify(searchRepository).search(new SearchQuery(userId, PropertyStatus.ACTIVE, "SW1A2",
+                "garden:* & flat:*", new Circle(51.5, -0.12, PropertySearchService.DEFAULT_RADIUS_KM)), 21);
+    }
+
+    @Test
+    @DisplayName("Should return at most the limit and say whether more matched")
+    void shouldCapResultsAtLimit() {
+        PropertySearchResult result = new PropertySearchResult(null, null);
+        when(searchRepository.search(any(), eq(PropertyService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Collections.nCopies(PropertyService.MAX_PAGE_SIZE + 1, result));
+
+        PropertySearchResponse response = searchService.search(userId,
+                PropertySearchCriteria.builder().postcode("SW1").build(), 10_000);
+
+        assertThat(response.getItems()).hasSize(PropertyService.MAX_PAGE_SIZE);
+        assertThat(response.isHasMore()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject searches without a criterion or with incomplete or out of range coordinates")
+    void shouldRejectInvalidCriteria() {
+        assertThatThrownBy(() -> searchService.search(userId,
+                PropertySearchCriteria.builder().status(PropertyStatus.ACTIVE).build(), null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.search(userId,
+                PropertySearchCriteria.builder().latitude(51.5).build(), null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.search(userId,
+                PropertySearchCriteria.builder().latitude(51.5).longitude(-0.12).radiusKm(500.0).build(), null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.search(userId,
+                PropertySearchCriteria.builder().postcode("SW1%").build(), null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> searchService.search(userId,
+                PropertySearchCriteria.builder().text("&|!").build(), null))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    @DisplayName("Should bound a search circle by a box that contains it")
+    void shouldBoundCircleByBox() {
+        Circle london = new Circle(51.5, -0.12, 5);
+
+        assertThat(london.minLatitude()).isCloseTo(51.455, within(0.001));
+        assertThat(london.maxLatitude()).isCloseTo(51.545, within(0.001));
+        // A degree of longitude is shorter than a degree of latitude away from the equator
+        assertThat(london.maxLongitude() - london.longitude())
+                .isGreaterThan(london.maxLatitude() - london.latitude());
+        assertThat(london.minLongitude()).isCloseTo(-0.12 - (london.maxLongitude() + 0.12), within(1e-9));
+
+        Circle dateline = new Circle(-17.8, 179.99, 10);
+        assertThat(dateline.minLongitude()).isEqualTo(-180);
+        assertThat(dateline.maxLongitude()).isEqualTo(180);
+    }
+}
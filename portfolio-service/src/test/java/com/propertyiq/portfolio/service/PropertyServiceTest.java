@@ -1,10 +1,23 @@
 package com.propertyiq.portfolio.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertyiq.portfolio.cache.PropertyCache;
 import com.propertyiq.portfolio.dto.*;
+import com.propertyiq.portfolio.event.PropertyEvent;
+import com.propertyiq.portfolio.event.PropertyEvent.ValuationChange;
+import com.propertyiq.portfolio.event.PropertyEventType;
 import com.propertyiq.portfolio.exception.InvalidPropertyStateException;
 import com.propertyiq.portfolio.exception.PropertyNotFoundException;
+import com.propertyiq.portfolio.exception.PropertyUpdateConflictException;
+import com.propertyiq.portfolio.exception.StalePropertyVersionException;
+import com.propertyiq.portfolio.exception.ValidationException;
 import com.propertyiq.portfolio.model.*;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository;
+import com.propertyiq.portfolio.repository.PortfolioSummaryRepository.Bucket;
+import com.propertyiq.portfolio.repository.PropertyEventOutbox;
 import com.propertyiq.portfolio.repository.PropertyRepository;
+import com.propertyiq.portfolio.repository.PropertyValuationRepository.ValuationUpdate;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +26,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,10 +37,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +53,21 @@ class PropertyServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private ValuationHistoryRepository valuationHistoryRepository;
+
+    @Mock
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+
+    @Mock
+    private PropertyEventOutbox propertyEventOutbox;
+
+    @Mock
+    private PropertyCache propertyCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private PropertyService propertyService;
 
@@ -42,6 +78,10 @@ class PropertyServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(propertyCache.getProperty(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        lenient().when(propertyCache.getPage(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         userId = UUID.randomUUID();
         propertyId = UUID.randomUUID();
 
@@ -89,6 +129,9 @@ class PropertyServiceTest {
                 .yearBuilt(2010)
                 .description("Beautiful home")
                 .status(PropertyStatus.ACTIVE)
+                .version(3L)
+                .detailsVersion(1L)
+                .valuationVersion(2L)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -111,6 +154,14 @@ class PropertyServiceTest {
         assertThat(response.getAddress().getCity()).isEqualTo("New York");
 
         verify(propertyRepository).save(any(Property.class));
+        verify(portfolioSummaryRepository).apply(userId, List.of(Bucket.of(savedProperty)));
+        verify(propertyCache).invalidate(userId, propertyId);
+        assertThat(appendedEvent()).satisfies(event -> {
+            assertThat(event.type()).isEqualTo(PropertyEventType.PROPERTY_CREATED);
+            assertThat(event.propertyId()).isEqualTo(propertyId);
+            assertThat(event.userId()).isEqualTo(userId);
+            assertThat(event.data()).isInstanceOf(PropertyResponse.class);
+        });
     }
 
     @Test
@@ -142,30 +193,88 @@ class PropertyServiceTest {
     }
 
     @Test
-    @DisplayName("Should return all properties for user when status is null")
-    void getProperties_WithNullStatus_ShouldReturnAllProperties() {
-        List<Property> properties = List.of(savedProperty);
-        when(propertyRepository.findByUserId(userId)).thenReturn(properties);
+    @DisplayName("Should return a single page without cursor when all properties fit")
+    void getProperties_WhenResultsFitInPage_ShouldReturnLastPage() {
+        when(propertyRepository.findListItems(any(), any(), anyInt())).thenReturn(List.of(listItem(savedProperty)));
 
-        List<PropertyResponse> responses = propertyService.getProperties(userId, null);
+        PropertyPageResponse page = propertyService.getProperties(userId, new PropertyFilter(),
+                PropertySort.CREATED_AT, Sort.Direction.DESC, null, 10);
 
-        assertThat(responses).hasSize(1);
-        assertThat(responses.get(0).getId()).isEqualTo(propertyId);
-        verify(propertyRepository).findByUserId(userId);
-        verify(propertyRepository, never()).findByUserIdAndStatus(any(), any());
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getItems().get(0).id()).isEqualTo(propertyId);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
     }
 
     @Test
-    @DisplayName("Should return filtered properties when status is provided")
-    void getProperties_WithStatus_ShouldReturnFilteredProperties() {
-        List<Property> properties = List.of(savedProperty);
-        when(propertyRepository.findByUserIdAndStatus(userId, PropertyStatus.ACTIVE)).thenReturn(properties);
+    @DisplayName("Should fetch one extra row and return a cursor pointing after the last item")
+    void getProperties_WhenMoreResultsExist_ShouldReturnNextCursor() {
+        Property second = Property.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .address(savedProperty.getAddress())
+                .currentValue(new BigDecimal("250000.00"))
+                .createdAt(LocalDateTime.of(2024, 2, 1, 9, 30))
+                .build();
+        Property third = Property.builder().id(UUID.randomUUID()).userId(userId).address(savedProperty.getAddress())
+                .build();
+        when(propertyRepository.findListItems(any(), any(), anyInt()))
+                .thenReturn(List.of(listItem(savedProperty), listItem(second), listItem(third)));
+
+        PropertyPageResponse page = propertyService.getProperties(userId, new PropertyFilter(),
+                PropertySort.CURRENT_VALUE, Sort.Direction.ASC, null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasMore()).isTrue();
+        PropertyCursor cursor = PropertyCursor.decode(page.getNextCursor(), PropertySort.CURRENT_VALUE, Sort.Direction.ASC);
+        assertThat(cursor.id()).isEqualTo(second.getId());
+        assertThat(cursor.key()).isEqualTo(new BigDecimal("250000.00"));
+    }
+
+    @Test
+    @DisplayName("Should cap the page size and order by sort key then id")
+    void getProperties_WithOversizedLimit_ShouldCapPageSize() {
+        when(propertyRepository.findListItems(any(), any(), anyInt())).thenReturn(List.of());
 
-        List<PropertyResponse> responses = propertyService.getProperties(userId, PropertyStatus.ACTIVE);
+        propertyService.getProperties(userId, new PropertyFilter(), PropertySort.CREATED_AT, Sort.Direction.DESC,
+                null, 10_000);
 
-        assertThat(responses).hasSize(1);
-        verify(propertyRepository).findByUserIdAndStatus(userId, PropertyStatus.ACTIVE);
-        verify(propertyRepository, never()).findByUserId(any());
+        verify(propertyRepository).findListItems(any(),
+                eq(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))),
+                eq(PropertyService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Should serialise a listing item exactly like the single-property response")
+    void listItem_ShouldMatchPropertyResponseJson() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PropertyListItem item = listItem(savedProperty);
+
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsString(item)))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsString(
+                        PropertyResponse.fromEntity(savedProperty))));
+        PropertyPageResponse page = new PropertyPageResponse(List.of(item), null, false);
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsString(page), PropertyPageResponse.class))
+                .isEqualTo(page);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort")
+    void getProperties_WithCursorForDifferentSort_ShouldThrowException() {
+        String cursor = PropertyCursor.after(listItem(savedProperty), PropertySort.CREATED_AT, Sort.Direction.DESC).encode();
+
+        assertThatThrownBy(() -> propertyService.getProperties(userId, new PropertyFilter(),
+                PropertySort.CURRENT_VALUE, Sort.Direction.DESC, cursor, 10))
+                .isInstanceOf(ValidationException.class);
+        verify(propertyRepository, never()).findListItems(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void getProperties_WithMalformedCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> propertyService.getProperties(userId, new PropertyFilter(),
+                PropertySort.CREATED_AT, Sort.Direction.DESC, "not-a-cursor!", 10))
+                .isInstanceOf(ValidationException.class);
     }
 
     @Test
@@ -180,6 +289,33 @@ class PropertyServiceTest {
         verify(propertyRepository).findByIdAndUserId(propertyId, userId);
     }
 
+    @Test
+    @DisplayName("Should serve a cached property without querying the repository")
+    void getProperty_WhenCached_ShouldNotQueryRepository() {
+        PropertyResponse cached = PropertyResponse.fromEntity(savedProperty);
+        doReturn(cached).when(propertyCache).getProperty(eq(userId), eq(propertyId), any());
+
+        assertThat(propertyService.getProperty(userId, propertyId)).isSameAs(cached);
+
+        verifyNoInteractions(propertyRepository);
+    }
+
+    @Test
+    @DisplayName("Should key cached pages by every listing parameter")
+    void getProperties_ShouldKeyCachedPagesByQuery() {
+        when(propertyRepository.findListItems(any(), any(), anyInt())).thenReturn(List.of());
+        PropertyFilter filter = PropertyFilter.builder().status(PropertyStatus.ACTIVE).city("Leeds").build();
+
+        propertyService.getProperties(userId, filter, PropertySort.CREATED_AT, Sort.Direction.DESC, null, 10);
+        propertyService.getProperties(userId, filter, PropertySort.CREATED_AT, Sort.Direction.DESC, null, 20);
+        propertyService.getProperties(userId, new PropertyFilter(), PropertySort.CREATED_AT, Sort.Direction.DESC,
+                null, 10);
+
+        ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+        verify(propertyCache, times(3)).getPage(eq(userId), queries.capture(), any());
+        assertThat(queries.getAllValues()).doesNotHaveDuplicates();
+    }
+
     @Test
     @DisplayName("Should throw PropertyNotFoundException when property not found")
     void getProperty_WithInvalidId_ShouldThrowException() {
@@ -209,12 +345,25 @@ class PropertyServiceTest {
                 .build();
 
         when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
-        when(propertyRepository.save(any(Property.class))).thenReturn(savedProperty);
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(savedProperty);
 
-        PropertyResponse response = propertyService.updateProperty(userId, propertyId, updateRequest);
+        PropertyResponse response = propertyService.updateProperty(userId, propertyId, updateRequest, null);
 
         assertThat(response).isNotNull();
-        verify(propertyRepository).save(any(Property.class));
+        verify(propertyRepository).saveAndFlush(any(Property.class));
+        verify(propertyCache).invalidate(userId, propertyId);
+        assertThat(appendedEvent().type()).isEqualTo(PropertyEventType.PROPERTY_UPDATED);
+    }
+
+    @Test
+    @DisplayName("Should not write an event for an update that changes nothing")
+    void updateProperty_WithEmptyRequest_ShouldNotWriteEvent() {
+        when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(savedProperty);
+
+        propertyService.updateProperty(userId, propertyId, UpdatePropertyRequest.builder().build(), null);
+
+        verifyNoInteractions(propertyEventOutbox);
     }
 
     @Test
@@ -227,11 +376,12 @@ class PropertyServiceTest {
                 .propertyType("Condo")
                 .build();
 
-        assertThatThrownBy(() -> propertyService.updateProperty(userId, propertyId, updateRequest))
+        assertThatThrownBy(() -> propertyService.updateProperty(userId, propertyId, updateRequest, null))
                 .isInstanceOf(InvalidPropertyStateException.class)
                 .hasMessageContaining("archived");
 
-        verify(propertyRepository, never()).save(any(Property.class));
+        verify(propertyRepository, never()).saveAndFlush(any(Property.class));
+        verify(propertyCache, never()).invalidate(any(), any(UUID.class));
     }
 
     @Test
@@ -243,19 +393,26 @@ class PropertyServiceTest {
                 .build();
 
         when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
-        when(propertyRepository.save(any(Property.class))).thenReturn(savedProperty);
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(savedProperty);
 
-        PropertyResponse response = propertyService.updateValuation(userId, propertyId, valuationRequest);
+        PropertyResponse response = propertyService.updateValuation(userId, propertyId, valuationRequest, null);
 
         assertThat(response).isNotNull();
 
         ArgumentCaptor<Property> propertyCaptor = ArgumentCaptor.forClass(Property.class);
-        verify(propertyRepository).save(propertyCaptor.capture());
+        verify(propertyRepository).saveAndFlush(propertyCaptor.capture());
+        verify(propertyCache).invalidate(userId, propertyId);
 
         Property capturedProperty = propertyCaptor.getValue();
         assertThat(capturedProperty.getCurrentValue()).isEqualByComparingTo(new BigDecimal("550000"));
         assertThat(capturedProperty.getValuationSource()).isEqualTo(ValuationSource.USER_INPUT);
         assertThat(capturedProperty.getLastValuationDate()).isEqualTo(LocalDate.now());
+        verify(valuationHistoryRepository).append(userId, List.of(new ValuationUpdate(
+                propertyId, new BigDecimal("550000"), ValuationSource.USER_INPUT, LocalDate.now())));
+        PropertyEvent event = appendedEvent();
+        assertThat(event.type()).isEqualTo(PropertyEventType.VALUATION_UPDATED);
+        assertThat(event.data()).isEqualTo(new ValuationChange(new BigDecimal("500000"), new BigDecimal("550000"),
+                Currency.USD, ValuationSource.USER_INPUT, LocalDate.now()));
     }
 
     @Test
@@ -269,11 +426,12 @@ class PropertyServiceTest {
                 .source(ValuationSource.USER_INPUT)
                 .build();
 
-        assertThatThrownBy(() -> propertyService.updateValuation(userId, propertyId, valuationRequest))
+        assertThatThrownBy(() -> propertyService.updateValuation(userId, propertyId, valuationRequest, null))
                 .isInstanceOf(InvalidPropertyStateException.class)
                 .hasMessageContaining("non-active");
 
-        verify(propertyRepository, never()).save(any(Property.class));
+        verify(propertyRepository, never()).saveAndFlush(any(Property.class));
+        verifyNoInteractions(valuationHistoryRepository, propertyEventOutbox);
     }
 
     @Test
@@ -285,19 +443,43 @@ class PropertyServiceTest {
                 .build();
 
         when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
-        when(propertyRepository.save(any(Property.class))).thenReturn(savedProperty);
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(savedProperty);
 
         PropertyResponse response = propertyService.markAsSold(userId, propertyId, soldRequest);
 
         assertThat(response).isNotNull();
 
         ArgumentCaptor<Property> propertyCaptor = ArgumentCaptor.forClass(Property.class);
-        verify(propertyRepository).save(propertyCaptor.capture());
+        verify(propertyRepository).saveAndFlush(propertyCaptor.capture());
+        verify(propertyCache).invalidate(userId, propertyId);
 
         Property capturedProperty = propertyCaptor.getValue();
         assertThat(capturedProperty.getStatus()).isEqualTo(PropertyStatus.SOLD);
         assertThat(capturedProperty.getSoldDate()).isEqualTo(LocalDate.of(2024, 6, 15));
         assertThat(capturedProperty.getSoldPrice()).isEqualByComparingTo(new BigDecimal("600000"));
+        assertThat(appendedEvent().type()).isEqualTo(PropertyEventType.PROPERTY_SOLD);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should move a sold property from the active to the sold summary bucket")
+    void markAsSold_ShouldUpdatePortfolioSummary() {
+        MarkAsSoldRequest soldRequest = MarkAsSoldRequest.builder()
+                .soldDate(LocalDate.of(2024, 6, 15))
+                .soldPrice(new BigDecimal("600000"))
+                .build();
+        when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        propertyService.markAsSold(userId, propertyId, soldRequest);
+
+        ArgumentCaptor<List<Bucket>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(portfolioSummaryRepository).apply(eq(userId), deltas.capture());
+        assertThat(deltas.getValue())
+                .extracting(Bucket::status, Bucket::properties, bucket -> bucket.soldPrice().intValue())
+                .containsExactly(
+                        tuple(PropertyStatus.ACTIVE, -1L, 0),
+                        tuple(PropertyStatus.SOLD, 1L, 600000));
     }
 
     @Test
@@ -315,21 +497,22 @@ class PropertyServiceTest {
                 .isInstanceOf(InvalidPropertyStateException.class)
                 .hasMessageContaining("active");
 
-        verify(propertyRepository, never()).save(any(Property.class));
+        verify(propertyRepository, never()).saveAndFlush(any(Property.class));
     }
 
     @Test
     @DisplayName("Should successfully archive active property")
     void archiveProperty_WithActiveProperty_ShouldReturnArchivedProperty() {
         when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
-        when(propertyRepository.save(any(Property.class))).thenReturn(savedProperty);
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(savedProperty);
 
         PropertyResponse response = propertyService.archiveProperty(userId, propertyId);
 
         assertThat(response).isNotNull();
 
         ArgumentCaptor<Property> propertyCaptor = ArgumentCaptor.forClass(Property.class);
-        verify(propertyRepository).save(propertyCaptor.capture());
+        verify(propertyRepository).saveAndFlush(propertyCaptor.capture());
+        verify(propertyCache).invalidate(userId, propertyId);
 
         Property capturedProperty = propertyCaptor.getValue();
         assertThat(capturedProperty.getStatus()).isEqualTo(PropertyStatus.ARCHIVED);
@@ -345,7 +528,7 @@ class PropertyServiceTest {
                 .isInstanceOf(InvalidPropertyStateException.class)
                 .hasMessageContaining("already archived");
 
-        verify(propertyRepository, never()).save(any(Property.class));
+        verify(propertyRepository, never()).saveAndFlush(any(Property.class));
     }
 
     @Test
@@ -353,19 +536,99 @@ class PropertyServiceTest {
     void archiveProperty_WithSoldProperty_ShouldReturnArchivedProperty() {
         savedProperty.setStatus(PropertyStatus.SOLD);
         when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
-        when(propertyRepository.save(any(Property.class))).thenReturn(savedProperty);
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenReturn(savedProperty);
 
         PropertyResponse response = propertyService.archiveProperty(userId, propertyId);
 
         assertThat(response).isNotNull();
 
         ArgumentCaptor<Property> propertyCaptor = ArgumentCaptor.forClass(Property.class);
-        verify(propertyRepository).save(propertyCaptor.capture());
+        verify(propertyRepository).saveAndFlush(propertyCaptor.capture());
 
         Property capturedProperty = propertyCaptor.getValue();
         assertThat(capturedProperty.getStatus()).isEqualTo(PropertyStatus.ARCHIVED);
     }
 
+    @Test
+    @DisplayName("Should re-read and re-apply an update that lost a race with another write")
+    void updateProperty_WithConcurrentWrite_ShouldRetryOnFreshRow() {
+        Property concurrentlyRevalued = Property.builder()
+                .id(propertyId)
+                .userId(userId)
+                .address(savedProperty.getAddress())
+                .purchasePrice(new BigDecimal("500000"))
+                .purchaseDate(LocalDate.of(2024, 1, 15))
+                .currency(Currency.USD)
+                .currentValue(new BigDecimal("640000"))
+                .status(PropertyStatus.ACTIVE)
+                .version(4L)
+                .detailsVersion(1L)
+                .valuationVersion(4L)
+                .build();
+        when(propertyRepository.findByIdAndUserId(propertyId, userId))
+                .thenReturn(Optional.of(savedProperty))
+                .thenReturn(Optional.of(concurrentlyRevalued));
+        when(propertyRepository.saveAndFlush(any(Property.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Property.class, propertyId))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        PropertyResponse response = propertyService.updateProperty(userId, propertyId,
+                UpdatePropertyRequest.builder().description("Renovated").build(), 3L);
+
+        assertThat(response.getDescription()).isEqualTo("Renovated");
+        assertThat(response.getCurrentValue()).isEqualByComparingTo("640000");
+        assertThat(concurrentlyRevalued.getDetailsVersion()).isEqualTo(5L);
+        verify(propertyRepository, times(2)).findByIdAndUserId(propertyId, userId);
+        verify(transactionManager).rollback(any());
+        verify(propertyCache, times(1)).invalidate(userId, propertyId);
+    }
+
+    @Test
+    @DisplayName("Should reject an If-Match version older than the last change to the fields being updated")
+    void updateValuation_WithStaleIfMatch_ShouldFailPrecondition() {
+        when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
+        UpdateValuationRequest valuationRequest = UpdateValuationRequest.builder()
+                .newValue(new BigDecimal("550000"))
+                .source(ValuationSource.API)
+                .build();
+
+        assertThatThrownBy(() -> propertyService.updateValuation(userId, propertyId, valuationRequest, 1L))
+                .isInstanceOf(StalePropertyVersionException.class);
+        assertThatThrownBy(() -> propertyService.updateValuation(userId, propertyId, valuationRequest, 7L))
+                .isInstanceOf(StalePropertyVersionException.class);
+        verify(propertyRepository, never()).saveAndFlush(any(Property.class));
+    }
+
+    @Test
+    @DisplayName("Should accept an If-Match version when only other fields have changed since")
+    void updateProperty_WithIfMatchBeforeRevaluation_ShouldSucceed() {
+        when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
+        when(propertyRepository.saveAndFlush(any(Property.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PropertyResponse response = propertyService.updateProperty(userId, propertyId,
+                UpdatePropertyRequest.builder().bedrooms(4).build(), 1L);
+
+        assertThat(response.getBedrooms()).isEqualTo(4);
+        assertThat(savedProperty.getDetailsVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should give up with a conflict after repeated concurrent writes")
+    void updateValuation_WithPersistentConflict_ShouldThrowConflict() {
+        when(propertyRepository.findByIdAndUserId(propertyId, userId)).thenReturn(Optional.of(savedProperty));
+        when(propertyRepository.saveAndFlush(any(Property.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Property.class, propertyId));
+        UpdateValuationRequest valuationRequest = UpdateValuationRequest.builder()
+                .newValue(new BigDecimal("550000"))
+                .source(ValuationSource.API)
+                .build();
+
+        assertThatThrownBy(() -> propertyService.updateValuation(userId, propertyId, valuationRequest, null))
+                .isInstanceOf(PropertyUpdateConflictException.class);
+        verify(propertyRepository, times(PropertyService.MAX_UPDATE_ATTEMPTS)).saveAndFlush(any(Property.class));
+        verify(propertyCache, never()).invalidate(any(), any(UUID.class));
+    }
+
     @Test
     @DisplayName("Should set currency from request on property creation")
     void createProperty_ShouldSetCurrencyFromRequest() {
@@ -467,4 +730,22 @@ class PropertyServiceTest {
         assertThat(response.getCurrency()).isEqualTo(Currency.EUR);
         assertThat(response.getCurrencySymbol()).isEqualTo("€");
     }
+
+    @SuppressWarnings("unchecked")
+    private PropertyEvent appendedEvent() {
+        ArgumentCaptor<List<PropertyEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(propertyEventOutbox).append(events.capture());
+        return events.getValue().get(0);
+    }
+
+    private static PropertyListItem listItem(Property property) {
+        Address address = property.getAddress();
+        return new PropertyListItem(property.getId(), property.getUserId(), address.getLine1(), address.getLine2(),
+                address.getCity(), address.getState(), address.getPostalCode(), address.getCountry(),
+                address.getLatitude(), address.getLongitude(), property.getPurchasePrice(), property.getPurchaseDate(), property.getCurrency(),
+                property.getCurrentValue(), property.getLastValuationDate(), property.getValuationSource(),
+                property.getStatus(), property.getSoldDate(), property.getSoldPrice(), property.getPropertyType(),
+                property.getBedrooms(), property.getBathrooms(), property.getSquareFootage(), property.getYearBuilt(),
+                property.getDescription(), property.getCreatedAt(), property.getUpdatedAt(), property.getVersion());
+    }
 }
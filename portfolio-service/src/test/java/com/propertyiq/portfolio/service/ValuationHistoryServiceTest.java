@@ -0,0 +1,164 @@
+package com.propertyiq.portfolio.service;
+
+import com.propertyiq.portfolio.dto.ValuationGranularity;
+import com.propertyiq.portfolio.dto.ValuationSeriesResponse;
+import com.propertyiq.portfolio.dto.ValuationSeriesResponse.ValuationPoint;
+import com.propertyiq.portfolio.exception.PropertyNotFoundException;
+import com.propertyiq.portfolio.exception.ValidationException;
+import com.propertyiq.portfolio.model.Currency;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository.HeldProperty;
+import com.propertyiq.portfolio.repository.ValuationHistoryRepository.ValuationChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ValuationHistoryServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID flat = UUID.randomUUID();
+    private final UUID house = UUID.randomUUID();
+    private final UUID condo = UUID.randomUUID();
+
+    @Mock
+    private ValuationHistoryRepository valuationHistoryRepository;
+
+    @InjectMocks
+    private ValuationHistoryService valuationHistoryService;
+
+    @Test
+    @DisplayName("Should carry the last value forward and sum held properties per currency")
+    void shouldBuildMonthlyPortfolioSeries() {
+        LocalDate january = LocalDate.of(2024, 1, 1);
+        when(valuationHistoryRepository.findHeldProperties(userId, null, january)).thenReturn(List.of(
+                held(flat, Currency.GBP, "100000", LocalDate.of(2020, 1, 10), null, null),
+                held(house, Currency.GBP, "200000", LocalDate.of(2024, 2, 15), null, null),
+                held(condo, Currency.USD, "300000", LocalDate.of(2019, 5, 1), null, "310000")));
+        changes(true, january, LocalDate.of(2024, 4, 1),
+                change(flat, LocalDate.of(2024, 1, 20), "110000"),
+                change(condo, LocalDate.of(2024, 2, 10), "320000"),
+                change(flat, LocalDate.of(2024, 3, 5), "120000"));
+
+        ValuationSeriesResponse series = valuationHistoryService.getPortfolioSeries(userId, ValuationGranularity.MONTHLY,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 4, 10));
+
+        assertThat(series.getFrom()).isEqualTo(january);
+        assertThat(series.getTo()).isEqualTo(LocalDate.of(2024, 4, 30));
+        assertThat(series.getPoints())
+                .extracting(ValuationPoint::getDate, ValuationPoint::getCurrency, p -> p.getValue().intValue())
+                .containsExactly(
+                        tuple(january, Currency.GBP, 110000),
+                        tuple(january, Currency.USD, 310000),
+                        tuple(LocalDate.of(2024, 2, 1), Currency.GBP, 310000),
+                        tuple(LocalDate.of(2024, 2, 1), Currency.USD, 320000),
+                        tuple(LocalDate.of(2024, 3, 1), Currency.GBP, 320000),
+                        tuple(LocalDate.of(2024, 3, 1), Currency.USD, 320000),
+                        tuple(LocalDate.of(2024, 4, 1), Currency.GBP, 320000),
+                        tuple(LocalDate.of(2024, 4, 1), Currency.USD, 320000));
+    }
+
+    @Test
+    @DisplayName("Should read whole years from the monthly rollup and drop sold properties")
+    void shouldBuildYearlySeriesFromRollup() {
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        when(valuationHistoryRepository.findHeldProperties(userId, null, start)).thenReturn(List.of(
+                held(flat, Currency.GBP, "100000", LocalDate.of(2014, 3, 1), LocalDate.of(2017, 8, 1), "105000")));
+        changes(true, start, LocalDate.of(2024, 12, 1),
+                change(flat, LocalDate.of(2016, 11, 30), "130000"));
+
+        ValuationSeriesResponse series = valuationHistoryService.getPortfolioSeries(userId, ValuationGranularity.YEARLY,
+                LocalDate.of(2015, 6, 1), LocalDate.of(2024, 6, 30));
+
+        assertThat(series.getPoints())
+                .extracting(ValuationPoint::getDate, p -> p.getValue().intValue())
+                .containsExactly(
+                        tuple(LocalDate.of(2015, 1, 1), 105000),
+                        tuple(LocalDate.of(2016, 1, 1), 130000));
+    }
+
+    @Test
+    @DisplayName("Should read raw history from the start of the month for daily series")
+    void shouldBuildDailyPropertySeriesFromRawHistory() {
+        LocalDate march = LocalDate.of(2024, 3, 1);
+        when(valuationHistoryRepository.findHeldProperties(userId, flat, march)).thenReturn(List.of(
+                held(flat, Currency.EUR, "100000", LocalDate.of(2020, 1, 10), null, "101000")));
+        changes(false, march, LocalDate.of(2024, 3, 12),
+                change(flat, LocalDate.of(2024, 3, 5), "102000"),
+                change(flat, LocalDate.of(2024, 3, 11), "103000"));
+
+        ValuationSeriesResponse series = valuationHistoryService.getPropertySeries(userId, flat,
+                ValuationGranularity.DAILY, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 12));
+
+        assertThat(series.getPoints())
+                .extracting(ValuationPoint::getDate, p -> p.getValue().intValue())
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 3, 10), 102000),
+                        tuple(LocalDate.of(2024, 3, 11), 103000),
+                        tuple(LocalDate.of(2024, 3, 12), 103000));
+    }
+
+    @Test
+    @DisplayName("Should throw when the property does not belong to the user")
+    void shouldThrowForUnknownProperty() {
+        when(valuationHistoryRepository.findHeldProperties(eq(userId), eq(flat), any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> valuationHistoryService.getPropertySeries(userId, flat, ValuationGranularity.MONTHLY,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 1)))
+                .isInstanceOf(PropertyNotFoundException.class);
+        verify(valuationHistoryRepository, never()).forEachChange(any(), any(), anyBoolean(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject ranges with too many points or reversed bounds")
+    void shouldRejectInvalidRanges() {
+        assertThatThrownBy(() -> valuationHistoryService.getPortfolioSeries(userId, ValuationGranularity.DAILY,
+                LocalDate.of(2014, 1, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("coarser granularity");
+        assertThatThrownBy(() -> valuationHistoryService.getPortfolioSeries(userId, ValuationGranularity.MONTHLY,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(valuationHistoryRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void changes(boolean monthly, LocalDate from, LocalDate to, ValuationChange... changes) {
+        doAnswer(invocation -> {
+            Consumer<ValuationChange> consumer = invocation.getArgument(5);
+            for (ValuationChange change : changes) {
+                consumer.accept(change);
+            }
+            return null;
+        }).when(valuationHistoryRepository).forEachChange(eq(userId), monthly ? isNull() : any(), eq(monthly),
+                eq(from), eq(to), any(Consumer.class));
+    }
+
+    private static HeldProperty held(UUID id, Currency currency, String purchasePrice, LocalDate purchaseDate,
+                                     LocalDate soldDate, String openingValue) {
+        return new HeldProperty(id, currency, new BigDecimal(purchasePrice), purchaseDate, soldDate,
+                openingValue != null ? new BigDecimal(openingValue) : null);
+    }
+
+    private static ValuationChange change(UUID id, LocalDate date, String value) {
+        return new ValuationChange(id, date, new BigDecimal(value));
+    }
+}